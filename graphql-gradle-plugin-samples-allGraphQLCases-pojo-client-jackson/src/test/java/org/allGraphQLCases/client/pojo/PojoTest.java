@@ -1,6 +1,7 @@
 package org.allGraphQLCases.client.pojo;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.lang.reflect.Field;
 
@@ -24,4 +25,13 @@ class PojoTest {
 		assertNotNull(jsonProp, "The JsonProperty must have been defined");
 	}
 
+	@Test
+	void testPrecompiledClasses() {
+		// The generated code is compiled by the generatePojo task (see the precompileGeneratedCode parameter in the
+		// build.gradle file), not by the compileJava task
+		String location = AllFieldCases.class.getProtectionDomain().getCodeSource().getLocation().getPath();
+		assertTrue(location.endsWith("/graphql-generator/classes/generatePojo/"),
+				"The POJOs should be loaded from the precompiled classes, but are loaded from " + location);
+	}
+
 }
@@ -0,0 +1,139 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.graphql_java_generator.gradleplugin.GenerationManifest.SchemaEntry;
+
+import graphql.language.Document;
+
+/**
+ * <P>
+ * Measures the cost of the fingerprint of the schema files (see
+ * {@link GenerationManifest#fingerprintSchemas(File, String, String, GenerationManifest, ForkJoinPool)}), that the
+ * code generation tasks compute before each generation, in addition to the parsing of the plugin logic:
+ * </P>
+ * <UL>
+ * <LI><I>singleParse</I>: the whole schema is parsed at once by graphql-java. It is the lower bound of the parsing of
+ * the plugin logic, that can't be parallelized nor reuse the fingerprint's parsing</LI>
+ * <LI><I>coldFingerprint</I>: there is no previous manifest, so that each schema file is parsed, in a pool of
+ * <I>parallelism</I> threads. This is an extra cost of each cold generation.</LI>
+ * <LI><I>warmFingerprint</I>: the schema files are unchanged since the previous manifest: they are only hashed</LI>
+ * </UL>
+ * <P>
+ * The synthetic schema (see {@link SyntheticSchemaGenerator}) is split into <I>nbFiles</I> schema files.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g" })
+public class FingerprintBenchmark {
+
+	/** The number of object types in the generated schema */
+	@Param({ "1000", "10000" })
+	int nbTypes;
+
+	/** The number of schema files the schema is split into */
+	@Param({ "1", "16" })
+	int nbFiles;
+
+	/** The number of threads of the fingerprint */
+	@Param({ "1", "4" })
+	int parallelism;
+
+	File schemaFolder;
+	byte[] schema;
+	ForkJoinPool pool;
+	GenerationManifest previous;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		schemaFolder = Files.createTempDirectory("graphql-fingerprint-benchmark").toFile();
+		String content = new SyntheticSchemaGenerator(nbTypes).generate();
+		schema = content.getBytes(StandardCharsets.UTF_8);
+
+		// The definitions are separated by empty lines: they are spread over the files
+		List<StringBuilder> files = new ArrayList<>();
+		for (int i = 0; i < nbFiles; i += 1) {
+			files.add(new StringBuilder());
+		}
+		String[] definitions = content.split("\n\n");
+		for (int i = 0; i < definitions.length; i += 1) {
+			files.get(i % nbFiles).append(definitions[i]).append("\n\n");
+		}
+		for (int i = 0; i < nbFiles; i += 1) {
+			Files.write(new File(schemaFolder, "schema" + i + ".graphqls").toPath(),
+					files.get(i).toString().getBytes(StandardCharsets.UTF_8));
+		}
+
+		pool = GenerationMetrics.createPool(parallelism);
+		previous = new GenerationManifest(coldFingerprint(), null, new HashMap<>());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+		GeneratedFilesSynchronizer.deleteFolder(schemaFolder);
+	}
+
+	/**
+	 * Parses the whole schema at once
+	 *
+	 * @return The document, so that JMH consumes it
+	 */
+	@Benchmark
+	public Document singleParse() {
+		return SchemaFilesParser.parseFile("schema.graphqls", schemaFolder.toPath(), schema);
+	}
+
+	/**
+	 * Fingerprints the schema files, without previous manifest
+	 *
+	 * @return The fingerprint, so that JMH consumes it
+	 */
+	@Benchmark
+	public List<SchemaEntry> coldFingerprint() {
+		return GenerationManifest.fingerprintSchemas(schemaFolder, "*.graphqls", null, null, pool);
+	}
+
+	/**
+	 * Fingerprints the schema files, that are unchanged since the previous manifest
+	 *
+	 * @return The fingerprint, so that JMH consumes it
+	 */
+	@Benchmark
+	public List<SchemaEntry> warmFingerprint() {
+		return GenerationManifest.fingerprintSchemas(schemaFolder, "*.graphqls", null, previous, pool);
+	}
+}
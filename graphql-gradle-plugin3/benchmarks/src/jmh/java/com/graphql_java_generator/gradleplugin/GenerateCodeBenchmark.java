@@ -0,0 +1,156 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.graphql_java_generator.gradleplugin.SyntheticProject.TaskKind;
+
+/**
+ * <P>
+ * Benchmark of the code generation, as executed by the Gradle worker of the {@link GenerateCodeCommonTask} tasks
+ * (see {@link GenerateCodeWorkAction}): creation of the Spring context, parsing of the schema (including the schema
+ * personalization, in server mode), then generation of the code. It is executed in client and server mode, against
+ * synthetic schemas of increasing size (see {@link SyntheticSchemaGenerator}).
+ * </P>
+ * <P>
+ * Each benchmark reports its number of operations per second. The gc profiler, configured in the build script, adds
+ * the allocation rate. The <I>peakHeapMb</I> secondary result is the peak heap usage during each iteration.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g" })
+public class GenerateCodeBenchmark {
+
+	/** The generation mode, that is: the kind of task whose generation is executed */
+	@Param({ "client", "server" })
+	String mode;
+
+	/** The number of object types in the generated schema */
+	@Param({ "10", "100", "1000" })
+	int nbTypes;
+
+	SyntheticProject project;
+
+	/** Reads the peak heap usage, as an additional result of the benchmarks */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class HeapCounters {
+
+		/** The peak heap usage during the current iteration, in MB */
+		public long peakHeapMb;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			peakHeapMb = 0;
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				if (pool.getType() == MemoryType.HEAP) {
+					pool.resetPeakUsage();
+				}
+			}
+		}
+
+		void record() {
+			long peak = 0;
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				if (pool.getType() == MemoryType.HEAP) {
+					peak += pool.getPeakUsage().getUsed();
+				}
+			}
+			peakHeapMb = Math.max(peakHeapMb, peak / (1024 * 1024));
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		switch (mode) {
+		case "client":
+			project = new SyntheticProject(TaskKind.generateClientCode, new SyntheticSchemaGenerator(nbTypes), null);
+			break;
+		case "server":
+			project = new SyntheticProject(TaskKind.generateServerCode, new SyntheticSchemaGenerator(nbTypes),
+					personalization(nbTypes));
+			break;
+		default:
+			throw new RuntimeException("[Internal error] Unknown mode: " + mode);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		project.close();
+	}
+
+	/**
+	 * Creates the Spring context, then parses the schema
+	 *
+	 * @return The value returned by the parser, so that JMH consumes it
+	 */
+	@Benchmark
+	public int parse(HeapCounters heap) throws IOException {
+		try {
+			return project.parse();
+		} finally {
+			heap.record();
+		}
+	}
+
+	/**
+	 * Creates the Spring context, parses the schema, then generates the code
+	 *
+	 * @return The value returned by the generator, so that JMH consumes it
+	 */
+	@Benchmark
+	public int parseAndGenerate(HeapCounters heap) throws IOException {
+		try {
+			return project.generate();
+		} finally {
+			heap.record();
+		}
+	}
+
+	/**
+	 * Returns a schema personalization that adds a field and an annotation to one type out of ten
+	 *
+	 * @param nbTypes
+	 * @return
+	 */
+	static String personalization(int nbTypes) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\n  \"entityPersonalizations\": [");
+		for (int i = 0; i < nbTypes; i += 10) {
+			sb.append((i == 0) ? "\n" : ",\n");
+			sb.append("    {\n      \"name\": \"Type").append(i).append("\",\n");
+			sb.append("      \"addAnnotation\": \"@java.lang.Deprecated\",\n");
+			sb.append("      \"newFields\": [ { \"name\": \"version\", \"type\": \"Int\" } ]\n    }");
+		}
+		sb.append("\n  ]\n}\n");
+		return sb.toString();
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.graphql_java_generator.gradleplugin.GenerateCodeBenchmark.HeapCounters;
+
+import graphql.GraphQL;
+import graphql.introspection.IntrospectionQuery;
+import graphql.introspection.IntrospectionResultToSchema;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+
+/**
+ * <P>
+ * Compares the loading of a large introspection result (the <I>jsonGraphqlSchemaFilename</I> plugin parameter), from
+ * the json file to the GraphQL document:
+ * </P>
+ * <UL>
+ * <LI><I>treeLoader</I>: the whole json tree is loaded in memory, then converted by graphql-java's
+ * {@link IntrospectionResultToSchema}</LI>
+ * <LI><I>streamingReader</I>: the json file is converted type by type into a schema file by the
+ * {@link IntrospectionSchemaReader}, then this schema file is parsed, as the plugin logic does</LI>
+ * </UL>
+ * <P>
+ * The introspection result is generated from a synthetic schema (see {@link SyntheticSchemaGenerator}), whose size
+ * is adjusted so that the json file is about <I>dumpSizeMb</I> MB large. The <I>peakHeapMb</I> secondary result is
+ * the peak heap usage during each iteration.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g" })
+public class IntrospectionReaderBenchmark {
+
+	/** The approximate size of the json file, in MB */
+	@Param({ "50" })
+	int dumpSizeMb;
+
+	File folder;
+	File jsonFile;
+	File schemaFile;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		folder = Files.createTempDirectory("graphql-introspection-benchmark").toFile();
+		jsonFile = new File(folder, "introspection.json");
+		schemaFile = new File(folder, IntrospectionSchemaReader.SCHEMA_FILE_NAME);
+
+		// The size of the json file is proportional to the number of types: it is measured on a small schema
+		int nbTypesForSample = 1000;
+		writeIntrospectionResult(nbTypesForSample);
+		long bytesPerType = jsonFile.length() / nbTypesForSample;
+		writeIntrospectionResult((int) (dumpSizeMb * 1024L * 1024L / bytesPerType));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		GeneratedFilesSynchronizer.deleteFolder(folder);
+	}
+
+	/**
+	 * Loads the whole json tree, then converts it into a GraphQL document
+	 *
+	 * @return The document, so that JMH consumes it
+	 */
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public Document treeLoader(HeapCounters heap) throws IOException {
+		try {
+			Map<String, Object> introspectionResult = new ObjectMapper().readValue(jsonFile, Map.class);
+			return new IntrospectionResultToSchema().createSchemaDefinition(introspectionResult);
+		} finally {
+			heap.record();
+		}
+	}
+
+	/**
+	 * Converts the json file into a schema file, type by type, then parses this schema file
+	 *
+	 * @return The document, so that JMH consumes it
+	 */
+	@Benchmark
+	public Document streamingReader(HeapCounters heap) throws IOException {
+		try {
+			IntrospectionSchemaReader.convert(jsonFile, schemaFile);
+			return SchemaFilesParser.parseFile(IntrospectionSchemaReader.SCHEMA_FILE_NAME, schemaFile.toPath(),
+					Files.readAllBytes(schemaFile.toPath()));
+		} finally {
+			heap.record();
+		}
+	}
+
+	private void writeIntrospectionResult(int nbTypes) throws IOException {
+		SyntheticSchemaGenerator generator = new SyntheticSchemaGenerator(nbTypes).setRelayConnections(true);
+		GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(generator.generate()),
+				RuntimeWiring.MOCKED_WIRING);
+		Map<String, Object> introspectionResult = GraphQL.newGraphQL(schema).build()
+				.execute(IntrospectionQuery.INTROSPECTION_QUERY).getData();
+		new ObjectMapper().writeValue(jsonFile, introspectionResult);
+	}
+}
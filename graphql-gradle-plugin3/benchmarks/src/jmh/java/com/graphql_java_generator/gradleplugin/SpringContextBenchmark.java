@@ -0,0 +1,105 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.graphql_java_generator.gradleplugin.SyntheticProject.TaskKind;
+
+/**
+ * <P>
+ * Compares the creation of the Spring context of a generation:
+ * </P>
+ * <UL>
+ * <LI><I>componentScan</I>: the plugin's Spring configuration class is registered, so that its <I>@ComponentScan</I>
+ * scans the plugin logic's packages at each creation, as the plugin did before the
+ * {@link GenerationContextFactory}</LI>
+ * <LI><I>cachedComponents</I>: the {@link GenerationContextFactory} registers directly the components found by the
+ * first scan, as the Gradle workers do</LI>
+ * </UL>
+ * <P>
+ * The context is created against the real Spring configuration classes of the plugin, and is closed before being
+ * returned: only its creation and its refresh are measured, not the parsing of the schema.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SpringContextBenchmark {
+
+	/** The task, whose Spring configuration class is used */
+	@Param({ "generateClientCode", "generateServerCode", "generateGraphQLSchema" })
+	TaskKind taskKind;
+
+	SyntheticProject project;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		project = new SyntheticProject(taskKind, new SyntheticSchemaGenerator(10), null);
+		// The first creation fills the cache of the scanned components
+		GenerationContextFactory.createContext(project.getSpringConfigurationClass(), project.getConfiguration())
+				.close();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		project.close();
+	}
+
+	/**
+	 * Creates the Spring context, with a classpath scan
+	 *
+	 * @return The number of beans of the context, so that JMH consumes it
+	 */
+	@Benchmark
+	public int componentScan() {
+		try (AnnotationConfigApplicationContext ctx = createScannedContext()) {
+			return ctx.getBeanDefinitionCount();
+		}
+	}
+
+	/**
+	 * Creates the Spring context, from the cached components
+	 *
+	 * @return The number of beans of the context, so that JMH consumes it
+	 */
+	@Benchmark
+	public int cachedComponents() {
+		try (AnnotationConfigApplicationContext ctx = GenerationContextFactory
+				.createContext(project.getSpringConfigurationClass(), project.getConfiguration())) {
+			return ctx.getBeanDefinitionCount();
+		}
+	}
+
+	/** Creates the Spring context by processing the <I>@ComponentScan</I> annotation of the configuration class */
+	private AnnotationConfigApplicationContext createScannedContext() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.getBeanFactory().registerSingleton(GenerationContextFactory.PLUGIN_CONFIGURATION_BEAN_NAME,
+				project.getConfiguration());
+		ctx.register(project.getSpringConfigurationClass());
+		ctx.refresh();
+		return ctx;
+	}
+}
@@ -0,0 +1,178 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.graphql_java_generator.plugin.conf.CommonConfiguration;
+import com.graphql_java_generator.plugin.generate_code.GenerateCodeDocumentParser;
+import com.graphql_java_generator.plugin.generate_code.GenerateCodeGenerator;
+import com.graphql_java_generator.plugin.generate_schema.GenerateGraphQLSchema;
+import com.graphql_java_generator.plugin.generate_schema.GenerateGraphQLSchemaDocumentParser;
+
+/**
+ * <P>
+ * A Gradle project, in a temporary folder, that contains a schema generated by a {@link SyntheticSchemaGenerator}, and
+ * a task of this plugin configured to process it. The generation is executed as the Gradle worker executes it (see
+ * {@link GenerateCodeWorkAction} and {@link GenerateGraphQLSchemaWorkAction}), but in the current thread: this allows
+ * to measure it, without the Gradle build.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class SyntheticProject implements AutoCloseable {
+
+	/** The tasks of this plugin that generate code or a schema */
+	public enum TaskKind {
+		generateClientCode, generateServerCode, generatePojo, graphqlGenerateCode, generateGraphQLSchema
+	}
+
+	final static String SCHEMA_FOLDER = "src/main/resources";
+	final static String PERSONALIZATION_FILE = "src/main/graphql/personalization.json";
+
+	private final TaskKind taskKind;
+	private final File projectDir;
+	private final Class<?> springConfigurationClass;
+	private final CommonConfiguration configuration;
+
+	/**
+	 * Creates the project, and configures the task
+	 *
+	 * @param taskKind
+	 *            The task whose generation is executed
+	 * @param schemaGenerator
+	 *            The generator of the schema
+	 * @param personalization
+	 *            The content of the schema personalization file, or null if there is none. It is used only by the
+	 *            code generation tasks.
+	 * @throws IOException
+	 */
+	public SyntheticProject(TaskKind taskKind, SyntheticSchemaGenerator schemaGenerator, String personalization)
+			throws IOException {
+		this.taskKind = taskKind;
+		projectDir = Files.createTempDirectory("graphql-synthetic-project").toFile();
+		schemaGenerator.write(new File(projectDir, SCHEMA_FOLDER + "/synthetic.graphqls"));
+
+		Project project = ProjectBuilder.builder().withName("synthetic").withProjectDir(projectDir).build();
+		CommonTask task;
+		switch (taskKind) {
+		case generateClientCode:
+			task = project.getTasks().register(taskKind.name(), GenerateClientCodeTask.class).get();
+			springConfigurationClass = GenerateClientCodeSpringConfiguration.class;
+			break;
+		case generateServerCode:
+			task = project.getTasks().register(taskKind.name(), GenerateServerCodeTask.class).get();
+			springConfigurationClass = GenerateServerCodeSpringConfiguration.class;
+			break;
+		case generatePojo:
+			task = project.getTasks().register(taskKind.name(), GeneratePojoTask.class).get();
+			springConfigurationClass = GeneratePojoSpringConfiguration.class;
+			break;
+		case graphqlGenerateCode:
+			task = project.getTasks().register(taskKind.name(), GraphQLGenerateCodeTask.class).get();
+			springConfigurationClass = GraphQLGenerateCodeSpringConfiguration.class;
+			break;
+		case generateGraphQLSchema:
+			GenerateGraphQLSchemaTask schemaTask = project.getTasks()
+					.register(taskKind.name(), GenerateGraphQLSchemaTask.class).get();
+			schemaTask.setTargetFolder("build/generated/graphql");
+			task = schemaTask;
+			springConfigurationClass = GenerateGraphQLSchemaSpringConfiguration.class;
+			break;
+		default:
+			throw new RuntimeException("[Internal error] Unknown task: " + taskKind);
+		}
+
+		task.setSchemaFileFolder(SCHEMA_FOLDER);
+		task.setAddRelayConnections(schemaGenerator.isRelayConnections());
+		if (task instanceof GenerateCodeCommonTask) {
+			GenerateCodeCommonTask codeTask = (GenerateCodeCommonTask) task;
+			codeTask.setPackageName("org.graphql_java_generator.synthetic");
+			codeTask.setTargetSourceFolder("build/generated/sources/graphqlGradlePlugin");
+			codeTask.setTargetResourceFolder("build/generated/resources/graphqlGradlePlugin");
+			if (schemaGenerator.getNbCustomScalars() > 0) {
+				codeTask.setCustomScalars(schemaGenerator.getCustomScalars());
+			}
+			if (personalization != null) {
+				File personalizationFile = new File(projectDir, PERSONALIZATION_FILE);
+				personalizationFile.getParentFile().mkdirs();
+				Files.write(personalizationFile.toPath(), personalization.getBytes(StandardCharsets.UTF_8));
+				codeTask.setSchemaPersonalizationFile(PERSONALIZATION_FILE);
+			}
+		}
+
+		configuration = ConfigurationSnapshot.of(task).toConfiguration();
+	}
+
+	/**
+	 * Creates the Spring context, then parses the schema
+	 *
+	 * @return The value returned by the parser
+	 * @throws IOException
+	 */
+	public int parse() throws IOException {
+		try (AnnotationConfigApplicationContext ctx = createContext()) {
+			return parse(ctx);
+		}
+	}
+
+	/**
+	 * Executes the whole generation: creates the Spring context, parses the schema, then generates the code or the
+	 * schema
+	 *
+	 * @return The value returned by the code generator, or the value returned by the parser for the
+	 *         {@link TaskKind#generateGraphQLSchema} task
+	 * @throws IOException
+	 */
+	public int generate() throws IOException {
+		try (AnnotationConfigApplicationContext ctx = createContext()) {
+			int nbParsed = parse(ctx);
+			if (taskKind == TaskKind.generateGraphQLSchema) {
+				ctx.getBean(GenerateGraphQLSchema.class).generateGraphQLSchema();
+				return nbParsed;
+			} else {
+				return ctx.getBean(GenerateCodeGenerator.class).generateCode();
+			}
+		}
+	}
+
+	/** Deletes the project's folder */
+	@Override
+	public void close() {
+		GeneratedFilesSynchronizer.deleteFolder(projectDir);
+	}
+
+	public File getProjectDir() {
+		return projectDir;
+	}
+
+	/** The Spring configuration class of the task, whose component scan finds the plugin logic's components */
+	public Class<?> getSpringConfigurationClass() {
+		return springConfigurationClass;
+	}
+
+	/** The configuration of the task, as read by the plugin logic */
+	public CommonConfiguration getConfiguration() {
+		return configuration;
+	}
+
+	private AnnotationConfigApplicationContext createContext() {
+		return GenerationContextFactory.createContext(springConfigurationClass, configuration);
+	}
+
+	private int parse(AnnotationConfigApplicationContext ctx) throws IOException {
+		if (taskKind == TaskKind.generateGraphQLSchema) {
+			return ctx.getBean(GenerateGraphQLSchemaDocumentParser.class).parseGraphQLSchemas();
+		} else {
+			return ctx.getBean(GenerateCodeDocumentParser.class).parseGraphQLSchemas();
+		}
+	}
+}
@@ -0,0 +1,284 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.graphql_java_generator.plugin.conf.CustomScalarDefinition;
+
+/**
+ * <P>
+ * Generates a GraphQL schema of any size, to test and measure the generation against schemas that are much bigger
+ * than the samples' ones. The generated schema depends only on the generator's parameters: two generators with the
+ * same parameters generate the same schema.
+ * </P>
+ * <P>
+ * The schema contains:
+ * </P>
+ * <UL>
+ * <LI>The given number of object types. Each of them implements an interface of a hierarchy whose depth is
+ * <I>interfaceDepth</I>, and references other types.</LI>
+ * <LI>Unions, that each contain <I>unionFanOut</I> types</LI>
+ * <LI>Custom scalars and directives, that are used by the types' fields</LI>
+ * <LI>If <I>relayConnections</I> is true, a <I>@RelayConnection</I> directive on one list field of each type. The
+ * tasks must then be executed with the <I>addRelayConnections</I> parameter set to true.</LI>
+ * <LI>One input type and one query for one type out of ten, and the mutations for these input types</LI>
+ * </UL>
+ *
+ * @author etienne-sf
+ */
+public class SyntheticSchemaGenerator {
+
+	/** The number of object types in the schema */
+	private final int nbTypes;
+
+	/** The depth of the interface hierarchies. There is one hierarchy for 50 types. */
+	private int interfaceDepth = 3;
+
+	/** The number of types in each union */
+	private int unionFanOut = 5;
+
+	/** The number of custom scalars */
+	private int nbCustomScalars = 3;
+
+	/** The number of directives */
+	private int nbDirectives = 3;
+
+	/** True if the schema uses the <I>@RelayConnection</I> directive */
+	private boolean relayConnections = false;
+
+	/** The seed of the random choices: the references between types, the use of the scalars and directives */
+	private long seed = 0;
+
+	public SyntheticSchemaGenerator(int nbTypes) {
+		if (nbTypes < 1) {
+			throw new IllegalArgumentException("The number of types must be at least 1, but is " + nbTypes);
+		}
+		this.nbTypes = nbTypes;
+	}
+
+	/**
+	 * Returns the GraphQL schema
+	 *
+	 * @return The content of the schema file
+	 */
+	public String generate() {
+		Random random = new Random(seed);
+		StringBuilder sb = new StringBuilder();
+		int nbHierarchies = getNbInterfaceHierarchies();
+
+		sb.append("# Synthetic schema: ").append(nbTypes).append(" types, interfaceDepth=").append(interfaceDepth)
+				.append(", unionFanOut=").append(unionFanOut).append(", nbCustomScalars=").append(nbCustomScalars)
+				.append(", nbDirectives=").append(nbDirectives).append(", relayConnections=").append(relayConnections)
+				.append(", seed=").append(seed).append("\n\n");
+
+		// Scalars and directives
+		for (int s = 0; s < nbCustomScalars; s += 1) {
+			sb.append("scalar Scalar").append(s).append("\n");
+		}
+		for (int d = 0; d < nbDirectives; d += 1) {
+			sb.append("directive @directive").append(d).append("(value: String) on OBJECT | FIELD_DEFINITION\n");
+		}
+		if (relayConnections) {
+			sb.append("directive @RelayConnection on FIELD_DEFINITION\n");
+		}
+		sb.append("\nenum Status {\n  ACTIVE\n  INACTIVE\n  DELETED\n}\n\n");
+
+		// Interfaces: each level of a hierarchy implements all the levels above it
+		for (int h = 0; h < nbHierarchies; h += 1) {
+			for (int level = 0; level < interfaceDepth; level += 1) {
+				sb.append("interface ").append(interfaceName(h, level));
+				appendImplements(sb, h, level - 1);
+				sb.append(" {\n");
+				appendInterfaceFields(sb, h, level);
+				sb.append("}\n\n");
+			}
+		}
+
+		// Object types
+		for (int i = 0; i < nbTypes; i += 1) {
+			int hierarchy = i % nbHierarchies;
+			int level = (interfaceDepth == 0) ? -1 : random.nextInt(interfaceDepth);
+			sb.append("type ").append(typeName(i));
+			appendImplements(sb, hierarchy, level);
+			appendDirective(sb, random);
+			sb.append(" {\n");
+			appendInterfaceFields(sb, hierarchy, level);
+			if (interfaceDepth == 0) {
+				sb.append("  id: ID!\n");
+			}
+			sb.append("  name: String").append("\n");
+			sb.append("  status: Status\n");
+			if (nbCustomScalars > 0) {
+				sb.append("  value: Scalar").append(random.nextInt(nbCustomScalars));
+				appendDirective(sb, random);
+				sb.append("\n");
+			}
+			sb.append("  next: ").append(typeName(random.nextInt(nbTypes))).append("\n");
+			sb.append("  children(first: Int, status: Status): [").append(typeName(random.nextInt(nbTypes)))
+					.append("]").append(relayConnections ? " @RelayConnection" : "").append("\n");
+			sb.append("}\n\n");
+		}
+
+		// Unions
+		for (int u = 0; u * unionFanOut < nbTypes && unionFanOut > 0; u += 1) {
+			sb.append("union Union").append(u).append(" =");
+			for (int i = u * unionFanOut; i < Math.min(nbTypes, (u + 1) * unionFanOut); i += 1) {
+				sb.append((i == u * unionFanOut) ? " " : " | ").append(typeName(i));
+			}
+			sb.append("\n");
+		}
+
+		// Input types, queries and mutations, for one type out of ten
+		for (int i = 0; i < nbTypes; i += 10) {
+			sb.append("\ninput ").append(typeName(i)).append("Input {\n  name: String\n  status: Status\n");
+			if (nbCustomScalars > 0) {
+				sb.append("  value: Scalar").append(i % nbCustomScalars).append("\n");
+			}
+			sb.append("}\n");
+		}
+		sb.append("\ntype Query {\n");
+		for (int i = 0; i < nbTypes; i += 10) {
+			sb.append("  type").append(i).append("(id: ID!): ").append(typeName(i)).append("\n");
+		}
+		for (int u = 0; u * unionFanOut < nbTypes && unionFanOut > 0; u += 10) {
+			sb.append("  union").append(u).append(": [Union").append(u).append("]\n");
+		}
+		sb.append("}\n\ntype Mutation {\n");
+		for (int i = 0; i < nbTypes; i += 10) {
+			sb.append("  createType").append(i).append("(input: ").append(typeName(i)).append("Input!): ")
+					.append(typeName(i)).append("\n");
+		}
+		sb.append("}\n");
+
+		return sb.toString();
+	}
+
+	/**
+	 * Writes the GraphQL schema in the given file
+	 *
+	 * @param schemaFile
+	 * @throws IOException
+	 */
+	public void write(File schemaFile) throws IOException {
+		schemaFile.getParentFile().mkdirs();
+		Files.write(schemaFile.toPath(), generate().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Returns the definition of the custom scalars of this schema, to configure the code generation tasks
+	 *
+	 * @return
+	 */
+	public CustomScalarDefinition[] getCustomScalars() {
+		List<CustomScalarDefinition> ret = new ArrayList<>();
+		for (int s = 0; s < nbCustomScalars; s += 1) {
+			CustomScalarDefinition scalar = new CustomScalarDefinition();
+			scalar.setGraphQLTypeName("Scalar" + s);
+			scalar.setJavaType("java.lang.String");
+			scalar.setGraphQLScalarTypeStaticField("graphql.Scalars.GraphQLString");
+			ret.add(scalar);
+		}
+		return ret.toArray(new CustomScalarDefinition[0]);
+	}
+
+	/** Returns the number of interface hierarchies: one for 50 types */
+	int getNbInterfaceHierarchies() {
+		return Math.max(1, nbTypes / 50);
+	}
+
+	private void appendImplements(StringBuilder sb, int hierarchy, int level) {
+		for (int l = level; l >= 0; l -= 1) {
+			sb.append((l == level) ? " implements " : " & ").append(interfaceName(hierarchy, l));
+		}
+	}
+
+	private void appendInterfaceFields(StringBuilder sb, int hierarchy, int level) {
+		if (level >= 0) {
+			sb.append("  id: ID!\n");
+		}
+		for (int l = 0; l <= level; l += 1) {
+			sb.append("  field").append(hierarchy).append("_").append(l).append(": String\n");
+		}
+	}
+
+	private void appendDirective(StringBuilder sb, Random random) {
+		// One element out of three has a directive
+		if (nbDirectives > 0 && random.nextInt(3) == 0) {
+			sb.append(" @directive").append(random.nextInt(nbDirectives)).append("(value: \"v\")");
+		}
+	}
+
+	private static String interfaceName(int hierarchy, int level) {
+		return "Entity" + hierarchy + "_" + level;
+	}
+
+	private static String typeName(int i) {
+		return "Type" + i;
+	}
+
+	public int getNbTypes() {
+		return nbTypes;
+	}
+
+	public int getInterfaceDepth() {
+		return interfaceDepth;
+	}
+
+	public SyntheticSchemaGenerator setInterfaceDepth(int interfaceDepth) {
+		this.interfaceDepth = interfaceDepth;
+		return this;
+	}
+
+	public int getUnionFanOut() {
+		return unionFanOut;
+	}
+
+	public SyntheticSchemaGenerator setUnionFanOut(int unionFanOut) {
+		this.unionFanOut = unionFanOut;
+		return this;
+	}
+
+	public int getNbCustomScalars() {
+		return nbCustomScalars;
+	}
+
+	public SyntheticSchemaGenerator setNbCustomScalars(int nbCustomScalars) {
+		this.nbCustomScalars = nbCustomScalars;
+		return this;
+	}
+
+	public int getNbDirectives() {
+		return nbDirectives;
+	}
+
+	public SyntheticSchemaGenerator setNbDirectives(int nbDirectives) {
+		this.nbDirectives = nbDirectives;
+		return this;
+	}
+
+	public boolean isRelayConnections() {
+		return relayConnections;
+	}
+
+	public SyntheticSchemaGenerator setRelayConnections(boolean relayConnections) {
+		this.relayConnections = relayConnections;
+		return this;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public SyntheticSchemaGenerator setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+}
@@ -0,0 +1,114 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.graphql_java_generator.gradleplugin.SyntheticProject.TaskKind;
+
+/**
+ * Executes each generation task against synthetic schemas of increasing size, and checks that the time and the memory
+ * stay within the budgets of the <I>scaling-budgets.properties</I> file. These tests are long: they are executed only
+ * by the <I>scalingTest</I> task.
+ *
+ * @author etienne-sf
+ */
+@Tag("scaling")
+public class GenerationScalingTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(GenerationScalingTest.class);
+
+	static Properties budgets = new Properties();
+
+	@BeforeAll
+	static void loadBudgets() throws IOException {
+		try (InputStream is = GenerationScalingTest.class.getResourceAsStream("/scaling-budgets.properties")) {
+			budgets.load(is);
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(TaskKind.class)
+	void test_scaling(TaskKind taskKind) throws IOException {
+		double previousMsPerType = -1;
+		int previousNbTypes = -1;
+
+		for (String size : System.getProperty("scaling.sizes", "1000,10000,50000").split(",")) {
+			// Preparation
+			int nbTypes = Integer.parseInt(size.trim());
+			SyntheticSchemaGenerator generator = new SyntheticSchemaGenerator(nbTypes).setRelayConnections(true);
+
+			try (SyntheticProject project = new SyntheticProject(taskKind, generator, null)) {
+				System.gc();
+				resetPeakHeapUsage();
+				long start = System.nanoTime();
+
+				// Go, go, go
+				project.generate();
+
+				// Verification
+				long durationMs = (System.nanoTime() - start) / 1000000;
+				long peakHeapMb = getPeakHeapUsageMb();
+				long maxMs = getBudget(taskKind, "baseMs") + getBudget(taskKind, "msPerType") * nbTypes;
+				long maxHeapMb = getBudget(taskKind, "baseHeapMb")
+						+ getBudget(taskKind, "heapKbPerType") * nbTypes / 1024;
+				double msPerType = (double) durationMs / nbTypes;
+				logger.info("{} with {} types: {} ms (budget: {} ms), peak heap {} MB (budget: {} MB)", taskKind,
+						nbTypes, durationMs, maxMs, peakHeapMb, maxHeapMb);
+
+				assertTrue(durationMs <= maxMs, taskKind + " with " + nbTypes + " types lasted " + durationMs
+						+ " ms, but its budget is " + maxMs + " ms");
+				assertTrue(peakHeapMb <= maxHeapMb, taskKind + " with " + nbTypes + " types used " + peakHeapMb
+						+ " MB of heap, but its budget is " + maxHeapMb + " MB");
+				if (previousMsPerType > 0) {
+					double maxGrowthFactor = Double.parseDouble(getBudgetValue(taskKind, "maxGrowthFactor"));
+					assertTrue(msPerType <= previousMsPerType * maxGrowthFactor,
+							taskKind + ": the time per type grew from " + previousMsPerType + " ms (" + previousNbTypes
+									+ " types) to " + msPerType + " ms (" + nbTypes
+									+ " types). The generation is not linear any more");
+				}
+				previousMsPerType = msPerType;
+				previousNbTypes = nbTypes;
+			}
+		}
+	}
+
+	private long getBudget(TaskKind taskKind, String key) {
+		return Long.parseLong(getBudgetValue(taskKind, key));
+	}
+
+	private String getBudgetValue(TaskKind taskKind, String key) {
+		String value = budgets.getProperty(taskKind.name() + "." + key);
+		return (value != null) ? value.trim() : budgets.getProperty("default." + key).trim();
+	}
+
+	private void resetPeakHeapUsage() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	private long getPeakHeapUsageMb() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak / (1024 * 1024);
+	}
+}
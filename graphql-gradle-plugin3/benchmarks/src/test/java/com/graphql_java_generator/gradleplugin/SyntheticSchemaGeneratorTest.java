@@ -0,0 +1,76 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.schema.GraphQLInterfaceType;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLUnionType;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+
+public class SyntheticSchemaGeneratorTest {
+
+	@Test
+	void test_generate_deterministic() {
+		// Go, go, go
+		String schema1 = new SyntheticSchemaGenerator(200).generate();
+		String schema2 = new SyntheticSchemaGenerator(200).generate();
+		String otherSeed = new SyntheticSchemaGenerator(200).setSeed(1).generate();
+
+		// Verification
+		assertEquals(schema1, schema2);
+		assertNotEquals(schema1, otherSeed);
+	}
+
+	@Test
+	void test_generate_validSchema() {
+		// Preparation
+		SyntheticSchemaGenerator generator = new SyntheticSchemaGenerator(120).setInterfaceDepth(4).setUnionFanOut(7)
+				.setNbCustomScalars(2).setNbDirectives(4).setRelayConnections(true);
+
+		// Go, go, go
+		GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(
+				new SchemaParser().parse(generator.generate()), RuntimeWiring.MOCKED_WIRING);
+
+		// Verification
+		assertEquals(120, schema.getAllTypesAsList().stream()
+				.filter(t -> t instanceof GraphQLObjectType && t.getName().matches("Type\\d+")).count());
+		// 2 hierarchies (one for 50 types) of 4 levels
+		assertEquals(8, schema.getAllTypesAsList().stream().filter(t -> t instanceof GraphQLInterfaceType).count());
+		GraphQLInterfaceType deepest = (GraphQLInterfaceType) schema.getType("Entity1_3");
+		assertEquals(3, deepest.getInterfaces().size());
+		// 120 types, 7 per union: 18 unions, the last one contains only one type
+		assertEquals(18, schema.getAllTypesAsList().stream().filter(t -> t instanceof GraphQLUnionType).count());
+		assertEquals(7, ((GraphQLUnionType) schema.getType("Union0")).getTypes().size());
+		assertEquals(1, ((GraphQLUnionType) schema.getType("Union17")).getTypes().size());
+		assertTrue(schema.getType("Scalar1") != null);
+		assertEquals(4 + 1, schema.getDirectives().stream().filter(
+				d -> d.getName().startsWith("directive") || d.getName().equals("RelayConnection")).count());
+		assertEquals(2, generator.getCustomScalars().length);
+		assertEquals(12, schema.getQueryType().getFieldDefinitions().stream()
+				.filter(f -> f.getName().startsWith("type")).count());
+	}
+
+	@Test
+	void test_generate_noInterfaceNoUnion() {
+		// Preparation
+		SyntheticSchemaGenerator generator = new SyntheticSchemaGenerator(3).setInterfaceDepth(0).setUnionFanOut(0)
+				.setNbCustomScalars(0).setNbDirectives(0);
+
+		// Go, go, go
+		GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(
+				new SchemaParser().parse(generator.generate()), RuntimeWiring.MOCKED_WIRING);
+
+		// Verification
+		assertEquals(0, schema.getAllTypesAsList().stream().filter(t -> t instanceof GraphQLInterfaceType).count());
+		assertEquals(0, schema.getAllTypesAsList().stream().filter(t -> t instanceof GraphQLUnionType).count());
+		assertThrows(IllegalArgumentException.class, () -> new SyntheticSchemaGenerator(0));
+	}
+}
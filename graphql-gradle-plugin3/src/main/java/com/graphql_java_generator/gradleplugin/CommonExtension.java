@@ -40,6 +40,7 @@ public class CommonExtension implements CommonConfiguration {
 	private String interfaceSuffix = CommonConfiguration.DEFAULT_SUFFIX;
 	private String jsonGraphqlSchemaFilename = CommonConfiguration.DEFAULT_JSON_GRAPHQL_SCHEMA_FILE;
 	private Integer maxTokens = Integer.parseInt(CommonConfiguration.DEFAULT_MAX_TOKENS);
+	private String maxGenerationHeap = null;
 	private boolean addRelayConnections = CommonConfiguration.DEFAULT_ADD_RELAY_CONNECTIONS.equals("true");
 	private String schemaFileFolder = GraphQLConfiguration.DEFAULT_SCHEMA_FILE_FOLDER;
 	private String schemaFilePattern = GraphQLConfiguration.DEFAULT_SCHEMA_FILE_PATTERN;
@@ -128,6 +129,16 @@ public class CommonExtension implements CommonConfiguration {
 		this.maxTokens = maxTokens;
 	}
 
+	public String getMaxGenerationHeap() {
+		return maxGenerationHeap;
+	}
+
+	public void setMaxGenerationHeap(String maxGenerationHeap) {
+		this.maxGenerationHeap = maxGenerationHeap;
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+
 	@Override
 	public File getProjectBuildDir() {
 		return projectLayout.getBuildDirectory().getAsFile().get();
@@ -302,6 +313,7 @@ public class CommonExtension implements CommonConfiguration {
 		return skipGenerationIfSchemaHasNotChanged;
 	}
 
+	@Deprecated
 	public final void setSkipGenerationIfSchemaHasNotChanged(boolean skipGenerationIfSchemaHasNotChanged) {
 		this.skipGenerationIfSchemaHasNotChanged = skipGenerationIfSchemaHasNotChanged;
 	}
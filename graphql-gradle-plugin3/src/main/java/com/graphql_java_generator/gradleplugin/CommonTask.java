@@ -4,16 +4,34 @@
 package com.graphql_java_generator.gradleplugin;
 
 import java.io.File;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
+import org.gradle.api.Action;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.Transformer;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileCollection;
 import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.InputFiles;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,7 +61,22 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 
 	ProjectLayout projectLayout;
 
-	private boolean initialized = false;
+	/** The Gradle service that executes the generation */
+	private final WorkerExecutor workerExecutor;
+
+	/**
+	 * This is the extension, that contains default value for the task attributes. It is stored in a property, so that
+	 * the conventions of the task's properties follow the extension given to {@link #setExtension(CommonExtension)}.
+	 * It is transient, as the configuration cache stores the values of these properties, not the extension itself.
+	 */
+	private final transient Property<CommonExtension> extension = getProject().getObjects()
+			.property(CommonExtension.class);
+
+	private final Property<Boolean> initialized = conventionProperty(Boolean.class, CommonExtension::isInitialized);
+
+	/** The build service that lists the generation reports of the current build */
+	private final Property<GenerationReportService> generationReports = getProject().getObjects()
+			.property(GenerationReportService.class);
 
 	/**
 	 * <I>(Useless, since 1.18.7)</I>Defines the options that maximum number of tokens that the GraphQL schema parser
@@ -52,7 +85,23 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	 * 
 	 * @return
 	 */
-	private Integer maxTokens = null;
+	private final Property<Integer> maxTokens = conventionProperty(Integer.class, CommonExtension::getMaxTokens);
+
+	/**
+	 * <P>
+	 * The maximum heap size of the generation, in the format of the <I>-Xmx</I> JVM option, for instance <I>512m</I>
+	 * or <I>2g</I>. By default, the generation is executed in the Gradle daemon, and shares its heap (as defined by
+	 * the <I>org.gradle.jvmargs</I> property) with the rest of the build.
+	 * </P>
+	 * <P>
+	 * If set, the generation is executed in its own worker process, whose maximum heap size is this value. The heap is
+	 * checked after each phase of the generation: if the live heap exceeds 90% of this budget, the build fails at once,
+	 * with a report of the memory allocated by each phase. This allows to generate the code of huge schemas without
+	 * increasing the heap of the Gradle daemon, and to know the memory the generation actually needs.
+	 * </P>
+	 */
+	private final Property<String> maxGenerationHeap = conventionProperty(String.class,
+			CommonExtension::getMaxGenerationHeap);
 
 	/**
 	 * <P>
@@ -113,43 +162,46 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	 * <I>&#064;@RelayConnexion</I> directive.</LI>
 	 * </UL>
 	 */
-	private Boolean addRelayConnections;
+	private final Property<Boolean> addRelayConnections = conventionProperty(Boolean.class,
+			CommonExtension::isAddRelayConnections);
 
 	/**
 	 * An optional prefix to add to the classnames of the generated java classes for GraphQL enums. The prefix is added
 	 * at the beginning of the java classname, and must be compatible with java naming rules (no space, dot, comma,
 	 * etc.)
 	 */
-	private String enumPrefix;
+	private final Property<String> enumPrefix = conventionProperty(String.class, CommonExtension::getEnumPrefix);
 	/**
 	 * An optional suffix to add to the classnames of the generated java classes for GraphQL enums. The suffix is added
 	 * at the end of the java classname, and must be compatible with java naming rules (no space, dot, comma, etc.)
 	 */
-	private String enumSuffix;
+	private final Property<String> enumSuffix = conventionProperty(String.class, CommonExtension::getEnumSuffix);
 	/**
 	 * An optional prefix to add to the classnames of the generated java classes for GraphQL input objects. The prefix
 	 * is added at the beginning of the java classname, and must be compatible with java naming rules (no space, dot,
 	 * comma, etc.)
 	 */
-	private String inputPrefix;
+	private final Property<String> inputPrefix = conventionProperty(String.class, CommonExtension::getInputPrefix);
 	/**
 	 * An optional suffix to add to the classnames of the generated java classes for GraphQL input objects. The suffix
 	 * is added at the end of the java classname, and must be compatible with java naming rules (no space, dot, comma,
 	 * etc.)
 	 */
-	private String inputSuffix;
+	private final Property<String> inputSuffix = conventionProperty(String.class, CommonExtension::getInputSuffix);
 	/**
 	 * An optional prefix to add to the classnames of the generated java classes for GraphQL interfaces. The prefix is
 	 * added at the beginning of the java classname, and must be compatible with java naming rules (no space, dot,
 	 * comma, etc.)
 	 */
-	private String interfacePrefix;
+	private final Property<String> interfacePrefix = conventionProperty(String.class,
+			CommonExtension::getInterfacePrefix);
 	/**
 	 * An optional suffix to add to the classnames of the generated java classes for GraphQL interfaces. The suffix is
 	 * added at the end of the java classname, and must be compatible with java naming rules (no space, dot, comma,
 	 * etc.)
 	 */
-	private String interfaceSuffix;
+	private final Property<String> interfaceSuffix = conventionProperty(String.class,
+			CommonExtension::getInterfaceSuffix);
 	/**
 	 * <p>
 	 * If defined, the plugin loads the GraphQL schema from this json file. This allows to generate the code from the
@@ -167,7 +219,8 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	 * 
 	 * @return
 	 */
-	private String jsonGraphqlSchemaFilename;
+	private final Property<String> jsonGraphqlSchemaFilename = conventionProperty(String.class,
+			CommonExtension::getJsonGraphqlSchemaFilename);
 
 	/**
 	 * <p>
@@ -181,24 +234,28 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	 * <i>/src/main/resources/graphql</i>
 	 * </p>
 	 */
-	private String schemaFileFolder;
+	private final DirectoryProperty schemaFileFolder = conventionDirectory(CommonExtension::getSchemaFileFolder);
 
 	/**
 	 * The pattern to find the graphql schema file(s). The default value is "/*.graphqls" meaning that the maven plugin
 	 * will search all graphqls files in the "/src/main/resources" folder (please check also the <I>schemaFileFolder</I>
 	 * plugin parameter).
 	 */
-	private String schemaFilePattern;
+	private final Property<String> schemaFilePattern = conventionProperty(String.class,
+			CommonExtension::getSchemaFilePattern);
 
 	/**
 	 * <P>
-	 * This parameter is now <B><I>deprecated</I></B>: it's value used in the plugin is always true, that is: if the
-	 * generated sources or resources are older than the GraphQL schema file(s), then there is no source or resource
-	 * generation. In clear, the source and resource generation is executed only if the provided input (GraphQL
-	 * schema...) has been updated since the last plugin execution.
+	 * This parameter is now <B><I>deprecated</I></B>, and its value is ignored. It compared the dates of the schema
+	 * files with the ones of the generated files. It is replaced by the manifest that the plugin writes in the build
+	 * folder: the generation is skipped when the hashes of the schema files, of the resolved configuration,
+	 * of the custom templates and of the plugin version are the same as for the last generation, and the generated
+	 * files have not been changed (see {@link GenerationManifest}).
 	 * </P>
 	 */
-	public Boolean skipGenerationIfSchemaHasNotChanged;
+	@SuppressWarnings("deprecation")
+	private final Property<Boolean> skipGenerationIfSchemaHasNotChanged = conventionProperty(Boolean.class,
+			CommonExtension::isSkipGenerationIfSchemaHasNotChanged);
 
 	/**
 	 * <p>
@@ -221,7 +278,8 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	 * the graphql package exposed by graphql-java
 	 * </p>
 	 */
-	String targetSchemaSubFolder;
+	private final Property<String> targetSchemaSubFolder = conventionProperty(String.class,
+			CommonExtension::getTargetSchemaSubFolder);
 
 	/**
 	 * <P>
@@ -245,61 +303,203 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	 * in the future.
 	 * </P>
 	 */
-	private Map<String, String> templates;
+	private final MapProperty<String, String> templates = getProject().getObjects()
+			.mapProperty(String.class, String.class).convention(extensionValue(CommonExtension::getTemplates));
+
+	/**
+	 * The custom templates that are files of the project, that is: the values of the {@link #templates} map, once
+	 * resolved against the project directory, that are existing files. The templates read from the classpath are not
+	 * listed here.
+	 */
+	private final ConfigurableFileCollection templateFiles = getProject().getObjects().fileCollection()
+			.from(getTemplateFiles(getProject().getLayout().getProjectDirectory(), templates));
 
 	/**
 	 * An optional prefix to add to the classnames of the generated java classes for GraphQL types. The prefix is added
 	 * at the beginning of the java classname, and must be compatible with java naming rules (no space, dot, comma,
 	 * etc.)
 	 */
-	private String typePrefix;
+	private final Property<String> typePrefix = conventionProperty(String.class, CommonExtension::getTypePrefix);
 	/**
 	 * An optional suffix to add to the classnames of the generated java classes for GraphQL types. The suffix is added
 	 * at the end of the java classname, and must be compatible with java naming rules (no space, dot, comma, etc.)
 	 */
-	private String typeSuffix;
+	private final Property<String> typeSuffix = conventionProperty(String.class, CommonExtension::getTypeSuffix);
 	/**
 	 * An optional prefix to add to the classnames of the generated java classes for GraphQL unions. The prefix is added
 	 * at the beginning of the java classname, and must be compatible with java naming rules (no space, dot, comma,
 	 * etc.)
 	 */
-	private String unionPrefix;
+	private final Property<String> unionPrefix = conventionProperty(String.class, CommonExtension::getUnionPrefix);
 	/**
 	 * An optional suffix to add to the classnames of the generated java classes for GraphQL unions. The suffix is added
 	 * at the end of the java classname, and must be compatible with java naming rules (no space, dot, comma, etc.)
 	 */
-	private String unionSuffix;
-
-	/** This is the extension, that contains default value for the task attributes */
-	protected CommonExtension extension = null;
+	private final Property<String> unionSuffix = conventionProperty(String.class, CommonExtension::getUnionSuffix);
 
 	@Inject
-	public CommonTask(CommonExtension extension, ProjectLayout projectLayout) {
+	public CommonTask(CommonExtension extension, ProjectLayout projectLayout, WorkerExecutor workerExecutor) {
 		logger.debug("Creation of the {} task", this.getName());
 
 		// The extension must be set, as it contains the default values.
 		if (extension == null)
 			throw new RuntimeException("[Internal error] The task " + getName() + " was created without an extension");
-		this.extension = extension;
+		this.extension.set(extension);
 		this.projectLayout = projectLayout;
+		this.workerExecutor = workerExecutor;
+	}
+
+	/**
+	 * The Gradle service that executes the generation. It is injected by Gradle, in the task's constructor.
+	 * 
+	 * @return
+	 */
+	protected WorkerExecutor getWorkerExecutor() {
+		return workerExecutor;
+	}
+
+	/**
+	 * Submits the generation to a Gradle worker, in an isolated classloader. The task's configuration is sent to the
+	 * worker as a {@link ConfigurationSnapshot}: this allows several generation tasks to run at the same time, in the
+	 * same project or in different projects. As the isolated classloaders are cached by the Gradle daemon, the
+	 * workers are reused from one build to the next. When the <I>maxGenerationHeap</I> plugin parameter is set, the
+	 * worker is a separate process, whose maximum heap size is this parameter.
+	 * 
+	 * @param workActionClass
+	 *            The action that executes the generation
+	 * @param springConfigurationClass
+	 *            The Spring configuration class, that the worker uses to build its Spring context
+	 */
+	protected void submitGeneration(Class<? extends WorkAction<GenerationWorkParameters>> workActionClass,
+			Class<?> springConfigurationClass) {
+		submitGeneration(workActionClass, springConfigurationClass, parameters -> {
+		});
+	}
+
+	/**
+	 * Same as {@link #submitGeneration(Class, Class)}, with additional parameters for the worker
+	 * 
+	 * @param workActionClass
+	 *            The action that executes the generation
+	 * @param springConfigurationClass
+	 *            The Spring configuration class, that the worker uses to build its Spring context
+	 * @param additionalParameters
+	 *            Sets the task specific parameters
+	 */
+	protected void submitGeneration(Class<? extends WorkAction<GenerationWorkParameters>> workActionClass,
+			Class<?> springConfigurationClass, Action<? super GenerationWorkParameters> additionalParameters) {
+		ConfigurationSnapshot configuration = ConfigurationSnapshot.of(this);
+		File metricsReportFile = getMetricsReportFile();
+		if (generationReports.isPresent()) {
+			generationReports.get().addReport(getPath(), metricsReportFile);
+		}
+		String maxGenerationHeap = getMaxGenerationHeap();
+		WorkQueue workQueue;
+		if (maxGenerationHeap == null) {
+			workQueue = getWorkerExecutor().classLoaderIsolation();
+		} else {
+			// The generation has its own heap, so that its memory doesn't depend on the daemon's one
+			workQueue = getWorkerExecutor().processIsolation(
+					spec -> spec.forkOptions(options -> options.setMaxHeapSize(maxGenerationHeap)));
+		}
+		workQueue.submit(workActionClass, parameters -> {
+			parameters.getSpringConfigurationClassName().set(springConfigurationClass.getName());
+			parameters.getMaxGenerationHeap().set(maxGenerationHeap);
+			parameters.getConfiguration().set(configuration);
+			parameters.getMetricsReportFile().set(metricsReportFile);
+			parameters.getTemporaryFolder().set(getTemporaryDir());
+			additionalParameters.execute(parameters);
+			if (!parameters.getMetrics().isPresent()) {
+				parameters.getMetrics().set(new GenerationMetrics(getPath()));
+			}
+		});
+	}
+
+	/**
+	 * The build service that lists the generation reports of the current build, so that they can be published as
+	 * build scan custom values. It is set by the {@link GraphQLPlugin}.
+	 * 
+	 * @return
+	 */
+	@Internal
+	public Property<GenerationReportService> getGenerationReports() {
+		return generationReports;
+	}
+
+	/**
+	 * The JSON report that contains the {@link GenerationMetrics} of the last execution of this task. It is not an
+	 * output of the task: it describes an execution, and must not be restored from the build cache.
+	 * 
+	 * @return The <I>build/reports/graphql-generator/&lt;task name&gt;.json</I> file
+	 */
+	@Internal
+	public File getMetricsReportFile() {
+		return new File(new File(getProjectBuildDir(), GenerationMetrics.REPORT_FOLDER), getName() + ".json");
 	}
 
 	protected <T> T getValue(T taskValue, T extensionValue) {
 		return (taskValue == null) ? extensionValue : taskValue;
 	}
 
-	protected File getFileValue(String taskValue, File extensionValue) {
-		return (taskValue == null) ? extensionValue : new File(getProjectDir(), taskValue);
+	/**
+	 * Returns a provider for a value of the extension. This provider is lazy: the value is read from the extension when
+	 * the provider is queried, so the build script may set the extension's values after the task has been created.
+	 * 
+	 * @param extensionValue
+	 *            The extension's getter for this value
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T, E extends CommonExtension> Provider<T> extensionValue(Transformer<T, E> extensionValue) {
+		return extension.map(e -> extensionValue.transform((E) e));
+	}
+
+	/**
+	 * Creates the property that stores a task parameter. Its convention, that is its value when it has not been set in
+	 * the task, is the value of the extension.
+	 * 
+	 * @param type
+	 *            The type of the parameter
+	 * @param extensionValue
+	 *            The extension's getter for this parameter
+	 * @return
+	 */
+	protected <T, E extends CommonExtension> Property<T> conventionProperty(Class<T> type,
+			Transformer<T, E> extensionValue) {
+		return getProject().getObjects().property(type).convention(extensionValue(extensionValue));
+	}
+
+	/** Same as {@link #conventionProperty(Class, Transformer)}, for a folder parameter */
+	protected <E extends CommonExtension> DirectoryProperty conventionDirectory(Transformer<File, E> extensionValue) {
+		return getProject().getObjects().directoryProperty()
+				.convention(getProject().getLayout().dir(extensionValue(extensionValue)));
+	}
+
+	/** Same as {@link #conventionProperty(Class, Transformer)}, for a file parameter */
+	protected <E extends CommonExtension> RegularFileProperty conventionFile(Transformer<File, E> extensionValue) {
+		return getProject().getObjects().fileProperty()
+				.convention(getProject().getLayout().file(extensionValue(extensionValue)));
+	}
+
+	/**
+	 * Returns the file for the given path, relative to the project dir
+	 * 
+	 * @param path
+	 *            A path, relative to the project dir. It may be null.
+	 * @return The file, or null if path is null
+	 */
+	protected File getProjectFile(String path) {
+		return (path == null) ? null : new File(getProjectDir(), path);
 	}
 
 	@Input
 	@Override
 	final public boolean isAddRelayConnections() {
-		return getValue(addRelayConnections, getExtension().isAddRelayConnections());
+		return addRelayConnections.get();
 	}
 
 	final public void setAddRelayConnections(Boolean addRelayConnections) {
-		this.addRelayConnections = addRelayConnections;
+		this.addRelayConnections.set(addRelayConnections);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -318,11 +518,11 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Override
 	@Input
 	public String getEnumPrefix() {
-		return getValue(enumPrefix, getExtension().getEnumPrefix());
+		return enumPrefix.getOrNull();
 	}
 
 	public void setEnumPrefix(String enumPrefix) {
-		this.enumPrefix = enumPrefix;
+		this.enumPrefix.set(enumPrefix);
 	}
 
 	/**
@@ -332,11 +532,11 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Override
 	@Input
 	public String getEnumSuffix() {
-		return getValue(enumSuffix, getExtension().getEnumSuffix());
+		return enumSuffix.getOrNull();
 	}
 
 	public void setEnumSuffix(String enumSuffix) {
-		this.enumSuffix = enumSuffix;
+		this.enumSuffix.set(enumSuffix);
 	}
 
 	/**
@@ -347,11 +547,11 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Override
 	@Input
 	public String getInputPrefix() {
-		return getValue(inputPrefix, getExtension().getInputPrefix());
+		return inputPrefix.getOrNull();
 	}
 
 	public void setInputPrefix(String inputPrefix) {
-		this.inputPrefix = inputPrefix;
+		this.inputPrefix.set(inputPrefix);
 	}
 
 	/**
@@ -362,11 +562,11 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Override
 	@Input
 	public String getInputSuffix() {
-		return getValue(inputSuffix, getExtension().getInputSuffix());
+		return inputSuffix.getOrNull();
 	}
 
 	public void setInputSuffix(String inputSuffix) {
-		this.inputSuffix = inputSuffix;
+		this.inputSuffix.set(inputSuffix);
 	}
 
 	/**
@@ -377,7 +577,7 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	 */
 	@Input
 	public boolean isInitialized() {
-		return initialized || getExtension().isInitialized();
+		return initialized.get();
 	}
 
 	/**
@@ -388,11 +588,11 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Override
 	@Input
 	public String getInterfacePrefix() {
-		return getValue(interfacePrefix, getExtension().getInterfacePrefix());
+		return interfacePrefix.getOrNull();
 	}
 
 	public void setInterfacePrefix(String interfacePrefix) {
-		this.interfacePrefix = interfacePrefix;
+		this.interfacePrefix.set(interfacePrefix);
 	}
 
 	/**
@@ -403,11 +603,11 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Override
 	@Input
 	public String getInterfaceSuffix() {
-		return getValue(interfaceSuffix, getExtension().getInterfaceSuffix());
+		return interfaceSuffix.getOrNull();
 	}
 
 	public void setInterfaceSuffix(String interfaceSuffix) {
-		this.interfaceSuffix = interfaceSuffix;
+		this.interfaceSuffix.set(interfaceSuffix);
 	}
 
 	/**
@@ -430,21 +630,33 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Override
 	@Input
 	public String getJsonGraphqlSchemaFilename() {
-		return getValue(jsonGraphqlSchemaFilename, getExtension().getJsonGraphqlSchemaFilename());
+		return jsonGraphqlSchemaFilename.getOrNull();
 	}
 
 	public void setJsonGraphqlSchemaFilename(String jsonGraphqlSchemaFilename) {
-		this.jsonGraphqlSchemaFilename = jsonGraphqlSchemaFilename;
+		this.jsonGraphqlSchemaFilename.set(jsonGraphqlSchemaFilename);
 	}
 
 	@Input
 	@Override
 	public Integer getMaxTokens() {
-		return getValue(maxTokens, getExtension().getMaxTokens());
+		return maxTokens.getOrNull();
 	}
 
 	public void setParserOptions(Integer maxTokens) {
-		this.maxTokens = maxTokens;
+		this.maxTokens.set(maxTokens);
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+
+	/** The heap budget has no impact on the generated code: it is not an input of the task. */
+	@Internal
+	public String getMaxGenerationHeap() {
+		return maxGenerationHeap.getOrNull();
+	}
+
+	public void setMaxGenerationHeap(String maxGenerationHeap) {
+		this.maxGenerationHeap.set(maxGenerationHeap);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -458,7 +670,7 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Internal
 	@Override
 	final public File getProjectDir() {
-		return getExtension().getProjectDir();
+		return projectLayout.getProjectDirectory().getAsFile();
 	}
 
 	@Internal
@@ -475,11 +687,11 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Override
 	@Input
 	public String getTargetSchemaSubFolder() {
-		return getValue(targetSchemaSubFolder, getExtension().getTargetSchemaSubFolder());
+		return targetSchemaSubFolder.getOrNull();
 	}
 
 	public void setTargetSchemaSubFolder(String targetSchemaSubFolder) {
-		this.targetSchemaSubFolder = targetSchemaSubFolder;
+		this.targetSchemaSubFolder.set(targetSchemaSubFolder);
 	}
 
 	/**
@@ -506,11 +718,11 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Override
 	@Input
 	public String getTypePrefix() {
-		return getValue(typePrefix, getExtension().getTypePrefix());
+		return typePrefix.getOrNull();
 	}
 
 	public void setTypePrefix(String typePrefix) {
-		this.typePrefix = typePrefix;
+		this.typePrefix.set(typePrefix);
 	}
 
 	/**
@@ -520,11 +732,11 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Override
 	@Input
 	public String getTypeSuffix() {
-		return getValue(typeSuffix, getExtension().getTypeSuffix());
+		return typeSuffix.getOrNull();
 	}
 
 	public void setTypeSuffix(String typeSuffix) {
-		this.typeSuffix = typeSuffix;
+		this.typeSuffix.set(typeSuffix);
 	}
 
 	/**
@@ -535,11 +747,11 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Override
 	@Input
 	public String getUnionPrefix() {
-		return getValue(unionPrefix, getExtension().getUnionPrefix());
+		return unionPrefix.getOrNull();
 	}
 
 	public void setUnionPrefix(String unionPrefix) {
-		this.unionPrefix = unionPrefix;
+		this.unionPrefix.set(unionPrefix);
 	}
 
 	/**
@@ -549,11 +761,11 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Override
 	@Input
 	public String getUnionSuffix() {
-		return getValue(unionSuffix, getExtension().getUnionSuffix());
+		return unionSuffix.getOrNull();
 	}
 
 	public void setUnionSuffix(String unionSuffix) {
-		this.unionSuffix = unionSuffix;
+		this.unionSuffix.set(unionSuffix);
 	}
 
 	@Internal
@@ -562,28 +774,46 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 		return true;
 	}
 
-	@Input
+	/**
+	 * This deprecated parameter is ignored: it is not an input of the task, so that changing it doesn't change the
+	 * up-to-date checks or the build cache key of the task.
+	 */
+	@Internal
 	@Override
 	@Deprecated
 	final public boolean isSkipGenerationIfSchemaHasNotChanged() {
-		return getValue(skipGenerationIfSchemaHasNotChanged, getExtension().isSkipGenerationIfSchemaHasNotChanged());
+		return skipGenerationIfSchemaHasNotChanged.get();
 	}
 
+	@Deprecated
 	final public void setSkipGenerationIfSchemaHasNotChanged(boolean skipGenerationIfSchemaHasNotChanged) {
-		this.skipGenerationIfSchemaHasNotChanged = skipGenerationIfSchemaHasNotChanged;
+		this.skipGenerationIfSchemaHasNotChanged.set(skipGenerationIfSchemaHasNotChanged);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
 
+	/**
+	 * The folder that contains the schema files, as a task input. It is not declared as an incremental input, as
+	 * Gradle would then delete the generated files before each non-incremental execution: the code generation tasks
+	 * find the changed schema files with their {@link GenerationManifest}.
+	 * 
+	 * @return
+	 */
 	@InputDirectory
 	@Optional
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public DirectoryProperty getSchemaDirectory() {
+		return schemaFileFolder;
+	}
+
+	@Internal
 	@Override
 	final public File getSchemaFileFolder() {
-		return getFileValue(schemaFileFolder, getExtension().getSchemaFileFolder());
+		return schemaFileFolder.getAsFile().getOrNull();
 	}
 
 	final public void setSchemaFileFolder(String schemaFileFolder) {
-		this.schemaFileFolder = schemaFileFolder;
+		this.schemaFileFolder.set(getProjectFile(schemaFileFolder));
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -591,11 +821,11 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Input
 	@Override
 	final public String getSchemaFilePattern() {
-		return getValue(schemaFilePattern, getExtension().getSchemaFilePattern());
+		return schemaFilePattern.getOrNull();
 	}
 
 	final public void setSchemaFilePattern(String schemaFilePattern) {
-		this.schemaFilePattern = schemaFilePattern;
+		this.schemaFilePattern.set(schemaFilePattern);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -603,15 +833,33 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	@Input
 	@Override
 	final public Map<String, String> getTemplates() {
-		return getValue(templates, getExtension().getTemplates());
+		return templates.getOrNull();
 	}
 
 	final public void setTemplates(Map<String, String> templates) {
-		this.templates = templates;
+		this.templates.set(templates);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
 
+	/**
+	 * The content of the custom templates is an input of the task, not only their path: editing a custom template
+	 * triggers a new generation.
+	 * 
+	 * @return
+	 */
+	@InputFiles
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public FileCollection getTemplateFiles() {
+		return templateFiles;
+	}
+
+	private static Provider<List<File>> getTemplateFiles(Directory projectDirectory,
+			Provider<Map<String, String>> templates) {
+		return templates.map(t -> t.values().stream().map(path -> projectDirectory.file(path).getAsFile())
+				.filter(File::isFile).collect(Collectors.toList()));
+	}
+
 	@Override
 	public void logConfiguration() {
 		logCommonConfiguration();
@@ -621,11 +869,11 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	protected CommonExtension getExtension() {
 		// As per this plugin configuration, the extension contains the default values for the plugin parameters. So, if
 		// none was provided, a default one must be created.
-		return extension;
+		return extension.get();
 	}
 
 	public void setExtension(CommonExtension extension) {
-		this.extension = extension;
+		this.extension.set(extension);
 	}
 
 	/**
@@ -636,7 +884,7 @@ public class CommonTask extends DefaultTask implements CommonConfiguration {
 	 *            The new value for initialized
 	 */
 	protected void setInitialized(boolean initialized) {
-		this.initialized = initialized;
+		this.initialized.set(initialized);
 	}
 
 }
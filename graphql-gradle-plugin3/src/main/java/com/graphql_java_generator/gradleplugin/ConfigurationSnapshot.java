@@ -0,0 +1,389 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.graphql_java_generator.plugin.conf.CommonConfiguration;
+import com.graphql_java_generator.plugin.conf.CustomScalarDefinition;
+
+/**
+ * <P>
+ * A serializable copy of the configuration of a task of this plugin. It is created in the task action, and sent to the
+ * Gradle worker that executes the generation (see {@link GenerationWorkParameters}). This avoids to give the task
+ * itself to the plugin logic, through a static field of the Spring configuration class, which prevented two
+ * generation tasks to run at the same time.
+ * </P>
+ * <P>
+ * The snapshot stores the value of each getter of the plugin logic's configuration interfaces (that is: the
+ * sub-interfaces of {@link CommonConfiguration}) that the task implements. Once in the worker,
+ * {@link #toConfiguration()} returns a dynamic proxy that implements these same interfaces, and returns the stored
+ * values.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class ConfigurationSnapshot implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger logger = LoggerFactory.getLogger(ConfigurationSnapshot.class);
+
+	/** The name of the configuration interfaces implemented by the task */
+	private final List<String> interfaceNames;
+
+	/** The value returned by each getter of the configuration interfaces. The key is the getter name. */
+	private final Map<String, Serializable> values;
+
+	private ConfigurationSnapshot(List<String> interfaceNames, Map<String, Serializable> values) {
+		this.interfaceNames = interfaceNames;
+		this.values = values;
+	}
+
+	/**
+	 * Reads all the configuration values of the given task (or extension)
+	 *
+	 * @param configuration
+	 *            The task, whose configuration must be sent to the worker
+	 * @return
+	 */
+	public static ConfigurationSnapshot of(CommonConfiguration configuration) {
+		Set<Class<?>> interfaces = new LinkedHashSet<>();
+		for (Class<?> clazz = configuration.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+			collectConfigurationInterfaces(clazz, interfaces);
+		}
+
+		List<String> interfaceNames = new ArrayList<>();
+		Map<String, Serializable> values = new HashMap<>();
+		for (Class<?> itf : interfaces) {
+			interfaceNames.add(itf.getName());
+			for (Method method : itf.getMethods()) {
+				if (isGetter(method) && !values.containsKey(method.getName())) {
+					values.put(method.getName(), readValue(configuration, method));
+				}
+			}
+		}
+		return new ConfigurationSnapshot(interfaceNames, values);
+	}
+
+	/**
+	 * Returns an implementation of all the configuration interfaces of the original task, that returns the values
+	 * stored in this snapshot. The interfaces are loaded from the classloader that loaded this class, that is: the
+	 * worker's classloader.
+	 *
+	 * @return
+	 */
+	public CommonConfiguration toConfiguration() {
+		ClassLoader classLoader = getClass().getClassLoader();
+		Class<?>[] interfaces = new Class<?>[interfaceNames.size()];
+		for (int i = 0; i < interfaces.length; i += 1) {
+			try {
+				interfaces[i] = Class.forName(interfaceNames.get(i), false, classLoader);
+			} catch (ClassNotFoundException e) {
+				throw new RuntimeException("[Internal error] Could not load the configuration interface "
+						+ interfaceNames.get(i) + ": " + e.getMessage(), e);
+			}
+		}
+		return (CommonConfiguration) Proxy.newProxyInstance(classLoader, interfaces, new SnapshotInvocationHandler());
+	}
+
+	/**
+	 * Returns a copy of this snapshot, where the given getter returns the given value. This allows the worker to change
+	 * a value of the configuration, for instance to generate the code in a staging folder.
+	 *
+	 * @param getterName
+	 *            The name of a getter of the configuration interfaces, for instance <I>getTargetSourceFolder</I>
+	 * @param value
+	 * @return
+	 */
+	public ConfigurationSnapshot withValue(String getterName, Serializable value) {
+		Map<String, Serializable> newValues = new HashMap<>(values);
+		newValues.put(getterName, value);
+		return new ConfigurationSnapshot(interfaceNames, newValues);
+	}
+
+	/**
+	 * Returns a copy of this snapshot, whose configuration implements only the given interface (and its
+	 * super-interfaces). This allows a task that implements several configuration interfaces, like the
+	 * {@link GenerateMultiTargetCodeTask}, to give each generation target the configuration of its goal.
+	 *
+	 * @param configurationInterfaceName
+	 *            The full name of a configuration interface, whose getters are all stored in this snapshot
+	 * @return
+	 */
+	public ConfigurationSnapshot forInterface(String configurationInterfaceName) {
+		List<String> newInterfaceNames = new ArrayList<>();
+		newInterfaceNames.add(configurationInterfaceName);
+		return new ConfigurationSnapshot(newInterfaceNames, values);
+	}
+
+	/**
+	 * Returns the stored value for the given getter.
+	 *
+	 * @param getterName
+	 *            The name of a getter of the configuration interfaces, for instance <I>getPackageName</I>
+	 * @return
+	 */
+	public Object getValue(String getterName) {
+		return restoreValue(values.get(getterName));
+	}
+
+	/**
+	 * Returns a description of the stored values, that doesn't depend on the order of the getters, or of the items of
+	 * the sets and maps. Two snapshots of the same configuration have the same description, even in two different
+	 * builds. It is used to check whether the configuration has changed since the last generation (see
+	 * {@link GenerationManifest#hashInputs(ConfigurationSnapshot, Map, String...)}).
+	 *
+	 * @return One line per getter, sorted by getter name
+	 */
+	public String getValuesDescription() {
+		return getValuesDescription(null);
+	}
+
+	/**
+	 * Same as {@link #getValuesDescription()}, where the files of the given folder are described by their path relative
+	 * to this folder. The description is then the same when the project is moved to another folder.
+	 *
+	 * @param baseDir
+	 *            The base folder, typically the project folder, or null to describe the files by their absolute path
+	 * @return One line per getter, sorted by getter name
+	 */
+	public String getValuesDescription(File baseDir) {
+		StringBuilder sb = new StringBuilder();
+		for (String getterName : new TreeSet<>(values.keySet())) {
+			sb.append(getterName).append("=").append(describe(values.get(getterName), baseDir)).append("\n");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Describes the given file, relative to the given base folder
+	 *
+	 * @param file
+	 * @param baseDir
+	 *            The base folder, or null
+	 * @return The path of the file relative to the base folder, prefixed by <I>${baseDir}</I>, or its absolute path if
+	 *         the file is not in this folder
+	 */
+	static String describe(File file, File baseDir) {
+		Path path = file.getAbsoluteFile().toPath().normalize();
+		if (baseDir != null) {
+			Path basePath = baseDir.getAbsoluteFile().toPath().normalize();
+			if (path.startsWith(basePath)) {
+				return "${baseDir}/" + basePath.relativize(path).toString().replace(File.separatorChar, '/');
+			}
+		}
+		return path.toString();
+	}
+
+	private static String describe(Object value, File baseDir) {
+		if (value instanceof FailedValue) {
+			return "<failed:" + ((FailedValue) value).cause.getClass().getName() + ">";
+		} else if (value instanceof CustomScalarValue) {
+			CustomScalarValue scalar = (CustomScalarValue) value;
+			return "{" + scalar.graphQLTypeName + "," + scalar.javaType + "," + scalar.graphQLScalarTypeClass + ","
+					+ scalar.graphQLScalarTypeStaticField + "," + scalar.graphQLScalarTypeGetter + "}";
+		} else if (value instanceof List) {
+			return ((List<?>) value).stream().map(v -> describe(v, baseDir))
+					.collect(Collectors.joining(",", "[", "]"));
+		} else if (value instanceof Set) {
+			return ((Set<?>) value).stream().map(v -> describe(v, baseDir)).sorted()
+					.collect(Collectors.joining(",", "[", "]"));
+		} else if (value instanceof Map) {
+			return ((Map<?, ?>) value).entrySet().stream()
+					.map(e -> describe(e.getKey(), baseDir) + ":" + describe(e.getValue(), baseDir)).sorted()
+					.collect(Collectors.joining(",", "{", "}"));
+		} else if (value instanceof File) {
+			return describe((File) value, baseDir);
+		} else if (value == null) {
+			return "null";
+		}
+		try {
+			if (value.getClass().getMethod("toString").getDeclaringClass().equals(Object.class)) {
+				// The default toString() contains the identity hash code, that changes for each build
+				return "<" + value.getClass().getName() + ">";
+			}
+		} catch (NoSuchMethodException e) {
+			throw new RuntimeException("[Internal error] " + e.getMessage(), e);
+		}
+		return value.toString();
+	}
+
+	private static void collectConfigurationInterfaces(Class<?> clazz, Set<Class<?>> interfaces) {
+		for (Class<?> itf : clazz.getInterfaces()) {
+			if (CommonConfiguration.class.isAssignableFrom(itf)) {
+				interfaces.add(itf);
+			}
+			collectConfigurationInterfaces(itf, interfaces);
+		}
+	}
+
+	private static boolean isGetter(Method method) {
+		return method.getParameterCount() == 0 && !method.getReturnType().equals(void.class)
+				&& !Modifier.isStatic(method.getModifiers())
+				&& (method.getName().startsWith("get") || method.getName().startsWith("is"));
+	}
+
+	private static Serializable readValue(CommonConfiguration configuration, Method method) {
+		try {
+			return toSerializable(method.invoke(configuration), method.getName());
+		} catch (InvocationTargetException e) {
+			// The getter may not be relevant for this task. The exception is thrown again, if the plugin logic calls it.
+			logger.debug("The {} getter threw a {}: it will be thrown again in the worker", method.getName(),
+					e.getCause().getClass().getName());
+			return new FailedValue(e.getCause());
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException("[Internal error] Could not read the " + method.getName()
+					+ " configuration value: " + e.getMessage(), e);
+		}
+	}
+
+	private static Serializable toSerializable(Object value, String getterName) {
+		if (value == null) {
+			return null;
+		} else if (value instanceof CustomScalarDefinition) {
+			return new CustomScalarValue((CustomScalarDefinition) value);
+		} else if (value instanceof List) {
+			ArrayList<Serializable> list = new ArrayList<>();
+			for (Object item : (Collection<?>) value) {
+				list.add(toSerializable(item, getterName));
+			}
+			return list;
+		} else if (value instanceof Set) {
+			LinkedHashSet<Serializable> set = new LinkedHashSet<>();
+			for (Object item : (Collection<?>) value) {
+				set.add(toSerializable(item, getterName));
+			}
+			return set;
+		} else if (value instanceof Map) {
+			LinkedHashMap<Serializable, Serializable> map = new LinkedHashMap<>();
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				map.put(toSerializable(entry.getKey(), getterName), toSerializable(entry.getValue(), getterName));
+			}
+			return map;
+		} else if (value instanceof Serializable) {
+			return (Serializable) value;
+		} else {
+			throw new RuntimeException("[Internal error] The value of the " + getterName
+					+ " configuration getter, of type " + value.getClass().getName() + ", is not serializable");
+		}
+	}
+
+	private static Object restoreValue(Object value) {
+		if (value instanceof CustomScalarValue) {
+			return ((CustomScalarValue) value).toCustomScalarDefinition();
+		} else if (value instanceof List) {
+			List<Object> list = new ArrayList<>();
+			for (Object item : (List<?>) value) {
+				list.add(restoreValue(item));
+			}
+			return list;
+		} else if (value instanceof Set) {
+			Set<Object> set = new LinkedHashSet<>();
+			for (Object item : (Set<?>) value) {
+				set.add(restoreValue(item));
+			}
+			return set;
+		} else if (value instanceof Map) {
+			Map<Object, Object> map = new LinkedHashMap<>();
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				map.put(restoreValue(entry.getKey()), restoreValue(entry.getValue()));
+			}
+			return map;
+		} else {
+			return value;
+		}
+	}
+
+	/** The invocation handler for the proxy returned by {@link ConfigurationSnapshot#toConfiguration()} */
+	private class SnapshotInvocationHandler implements InvocationHandler {
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass().equals(Object.class)) {
+				switch (method.getName()) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				default:
+					return "ConfigurationSnapshot" + interfaceNames;
+				}
+			} else if (method.getParameterCount() == 0 && values.containsKey(method.getName())) {
+				Object value = values.get(method.getName());
+				if (value instanceof FailedValue) {
+					throw ((FailedValue) value).cause;
+				}
+				return restoreValue(value);
+			} else if (method.isDefault()) {
+				return InvocationHandler.invokeDefault(proxy, method, args);
+			} else if (method.getName().equals("logConfiguration")) {
+				// Same behavior as CommonTask.logConfiguration()
+				((CommonConfiguration) proxy).logCommonConfiguration();
+				return null;
+			} else {
+				throw new UnsupportedOperationException("[Internal error] The " + method.getName()
+						+ " method is not available in the configuration sent to the Gradle worker");
+			}
+		}
+	}
+
+	/** Stores an exception thrown by a getter, while reading the task's configuration */
+	private static class FailedValue implements Serializable {
+		private static final long serialVersionUID = 1L;
+		final Throwable cause;
+
+		FailedValue(Throwable cause) {
+			this.cause = cause;
+		}
+	}
+
+	/** Serializable copy of a {@link CustomScalarDefinition} */
+	private static class CustomScalarValue implements Serializable {
+		private static final long serialVersionUID = 1L;
+		final String graphQLTypeName;
+		final String javaType;
+		final String graphQLScalarTypeClass;
+		final String graphQLScalarTypeStaticField;
+		final String graphQLScalarTypeGetter;
+
+		CustomScalarValue(CustomScalarDefinition def) {
+			graphQLTypeName = def.getGraphQLTypeName();
+			javaType = def.getJavaType();
+			graphQLScalarTypeClass = def.getGraphQLScalarTypeClass();
+			graphQLScalarTypeStaticField = def.getGraphQLScalarTypeStaticField();
+			graphQLScalarTypeGetter = def.getGraphQLScalarTypeGetter();
+		}
+
+		CustomScalarDefinition toCustomScalarDefinition() {
+			CustomScalarDefinition def = new CustomScalarDefinition();
+			def.setGraphQLTypeName(graphQLTypeName);
+			def.setJavaType(javaType);
+			def.setGraphQLScalarTypeClass(graphQLScalarTypeClass);
+			def.setGraphQLScalarTypeStaticField(graphQLScalarTypeStaticField);
+			def.setGraphQLScalarTypeGetter(graphQLScalarTypeGetter);
+			return def;
+		}
+	}
+}
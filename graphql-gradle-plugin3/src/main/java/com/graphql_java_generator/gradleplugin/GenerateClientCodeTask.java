@@ -1,23 +1,20 @@
 package com.graphql_java_generator.gradleplugin;
 
-import java.io.IOException;
-
 import javax.inject.Inject;
 
 import org.gradle.api.Project;
 import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
-import org.springframework.context.support.AbstractApplicationContext;
 
 import com.graphql_java_generator.plugin.conf.GenerateClientCodeConfiguration;
 import com.graphql_java_generator.plugin.conf.PluginMode;
-import com.graphql_java_generator.plugin.generate_code.GenerateCodeDocumentParser;
-import com.graphql_java_generator.plugin.generate_code.GenerateCodeGenerator;
 
 /**
  * <P>
@@ -42,6 +39,7 @@ import com.graphql_java_generator.plugin.generate_code.GenerateCodeGenerator;
  * script.
  * </P>
  */
+@CacheableTask
 public class GenerateClientCodeTask extends GenerateCodeCommonTask implements GenerateClientCodeConfiguration {
 
 	private static final Logger logger = LoggerFactory.getLogger(GenerateClientCodeTask.class);
@@ -63,60 +61,44 @@ public class GenerateClientCodeTask extends GenerateCodeCommonTask implements Ge
 	 * page</a>.
 	 * </P>
 	 */
-	private Boolean generateDeprecatedRequestResponse;
+	private final Property<Boolean> generateDeprecatedRequestResponse = conventionProperty(Boolean.class,
+			GenerateClientCodeExtension::isGenerateDeprecatedRequestResponse);
 
 	/**
 	 * @param projectLayout
 	 *            This Gradle service is automatically injected by gradle. It allows to retrieve the project directory,
 	 *            as accessing the Gradle {@link Project} is forbidden from a task.
+	 * @param workerExecutor
+	 *            This Gradle service is automatically injected by gradle. It executes the generation in a Gradle worker.
 	 */
 	@Inject
-	public GenerateClientCodeTask(ProjectLayout projectLayout) {
-		super(new GenerateClientCodeExtension(projectLayout), projectLayout);
+	public GenerateClientCodeTask(ProjectLayout projectLayout, WorkerExecutor workerExecutor) {
+		super(new GenerateClientCodeExtension(projectLayout), projectLayout, workerExecutor);
 	}
 
 	@TaskAction
-	public void execute() throws IOException {
+	public void execute() {
 
 		logger.info("Executing " + this.getClass().getName());
 
-		// We'll use Spring IoC
-		GenerateClientCodeSpringConfiguration.generateClientCodeConf = this;
-		AbstractApplicationContext ctx = new AnnotationConfigApplicationContext(
-				GenerateClientCodeSpringConfiguration.class);
-
-		// Let's log the current configuration (this will do something only when in debug mode)
-		GenerateClientCodeConfiguration pluginConfiguration = ctx.getBean(GenerateClientCodeConfiguration.class);
-		pluginConfiguration.logConfiguration();
-
-		// The commented code, below, is use to check the access to a velocity custom template that would be added to
-		// buildscript classpath. It works fine with Maven, but doesn't seem to be possible with Gradle. This code
-		// remains, in case a hint is found.
-		// String path = "classpath:templates/resttemplate/client_query_mutation_type.vm.java";
-		// Resource res = ctx.getResource(path);
-		// System.out.println(res.getFilename());
-		// res.getInputStream().close(); // Just to check that the resource exists
-		// System.out.println(res.getFilename() + " actually exists");
-
-		GenerateCodeDocumentParser documentParser = ctx.getBean(GenerateCodeDocumentParser.class);
-		documentParser.parseGraphQLSchemas();
-
-		GenerateCodeGenerator codeGenerator = ctx.getBean(GenerateCodeGenerator.class);
-		codeGenerator.generateCode();
-
-		ctx.close();
+		// The generation is executed by a Gradle worker
+		submitGeneration(getSpringConfigurationClass());
+	}
 
-		logger.debug("Finished generation of java classes from graphqls files (5)");
+	@Override
+	@Internal
+	protected Class<?> getSpringConfigurationClass() {
+		return GenerateClientCodeSpringConfiguration.class;
 	}
 
 	@Input
 	@Override
 	public boolean isGenerateDeprecatedRequestResponse() {
-		return getValue(generateDeprecatedRequestResponse, getExtension().isGenerateDeprecatedRequestResponse());
+		return generateDeprecatedRequestResponse.get();
 	}
 
 	public final void setGenerateDeprecatedRequestResponse(boolean generateDeprecatedRequestResponse) {
-		this.generateDeprecatedRequestResponse = generateDeprecatedRequestResponse;
+		this.generateDeprecatedRequestResponse.set(generateDeprecatedRequestResponse);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
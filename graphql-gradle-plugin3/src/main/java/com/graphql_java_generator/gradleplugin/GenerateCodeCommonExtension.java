@@ -33,6 +33,19 @@ import graphql.schema.GraphQLScalarType;
  * @author etienne-sf
  */
 public class GenerateCodeCommonExtension extends CommonExtension implements GenerateCodeCommonConfiguration {
+	/**
+	 * <P>
+	 * (since 4.0) Used only when <I>copyRuntimeSources</I> is false. If true, the plugin adds the precompiled runtime
+	 * jar to the <I>implementation</I> dependencies of the project: <I>graphql-java-client-runtime</I> or
+	 * <I>graphql-java-server-runtime</I>, depending on the mode, with the same version as the plugin logic. The
+	 * runtime dependency doesn't need to be added in the build script any more.
+	 * </P>
+	 * <P>
+	 * The default value is false.
+	 * </P>
+	 */
+	private boolean addRuntimeDependency = false;
+
 	/**
 	 * <P>
 	 * Flag to enable copy sources for graphql-java-runtime library to target source code directory. It allows to
@@ -94,6 +107,22 @@ public class GenerateCodeCommonExtension extends CommonExtension implements Gene
 	 */
 	private List<CustomScalarDefinition> customScalars = new ArrayList<>();
 
+	/**
+	 * <P>
+	 * The number of threads used by the plugin's own stages, around the generation: the fingerprint of the schema
+	 * files, and the hash, the normalization and the copy of the generated files into the target folders. The default
+	 * value is the number of available processors. Setting it to 1 disables the parallel execution.
+	 * </P>
+	 * <P>
+	 * It doesn't parallelize the generation itself: the plugin logic parses the schema and generates the code of a
+	 * task in one thread, whatever this value.
+	 * </P>
+	 * <P>
+	 * Whatever its value, the generated code and the order of the generated files are the same.
+	 * </P>
+	 */
+	private int generationParallelism = Runtime.getRuntime().availableProcessors();
+
 	/** The packageName in which the generated classes will be created */
 	private String packageName = GenerateCodeCommonConfiguration.DEFAULT_PACKAGE_NAME;
 
@@ -127,6 +156,19 @@ public class GenerateCodeCommonExtension extends CommonExtension implements Gene
 	 */
 	private String schemaPersonalizationFile = GraphQLConfiguration.DEFAULT_SCHEMA_PERSONALIZATION_FILE;
 
+	/**
+	 * <P>
+	 * (since 4.0) If true, the generated files don't depend on the machine that generated them: the absolute paths are
+	 * replaced by relative ones, the timestamps are removed, and the imports and annotations of the java files are
+	 * sorted. Two builds of the same inputs, in different folders or on different machines, then produce byte-identical
+	 * files, which allows the <I>compileJava</I> task to get hits in a shared build cache.
+	 * </P>
+	 * <P>
+	 * The default value is false.
+	 * </P>
+	 */
+	private boolean reproducibleOutput = false;
+
 	/**
 	 * <P>
 	 * Indicates whether the utility classes (that is: the classes that are not match an item in the GraphQL schema) are
@@ -151,6 +193,19 @@ public class GenerateCodeCommonExtension extends CommonExtension implements Gene
 	/** The encoding for the generated source files */
 	private String sourceEncoding = GenerateCodeCommonConfiguration.DEFAULT_SOURCE_ENCODING;
 
+	/**
+	 * <P>
+	 * (since 4.0) Used only when <I>copyRuntimeSources</I> is true. If true, the runtime sources are not copied in the
+	 * target source folder of each task. They are copied in a folder of the task, by comparing the hash of each file.
+	 * Then the <I>mergeGraphQLRuntimeSources</I> task merges the runtime sources of all the tasks of the project into
+	 * one source folder. So each runtime class is compiled once, whatever the number of generation tasks.
+	 * </P>
+	 * <P>
+	 * The default value is false.
+	 * </P>
+	 */
+	private boolean shareRuntimeSources = false;
+
 	/**
 	 * Retrieves the suffix that will be applied to the name of the Spring Beans that are generated for this schema.
 	 * It's mandatory if you' using a Spring app and have more than one GraphQL schemas. The default value is an empty
@@ -174,6 +229,16 @@ public class GenerateCodeCommonExtension extends CommonExtension implements Gene
 		super(projectLayout);
 	}
 
+	final public boolean isAddRuntimeDependency() {
+		return addRuntimeDependency;
+	}
+
+	final public void setAddRuntimeDependency(boolean addRuntimeDependency) {
+		this.addRuntimeDependency = addRuntimeDependency;
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+
 	@Override
 	final public boolean isCopyRuntimeSources() {
 		return copyRuntimeSources;
@@ -196,6 +261,16 @@ public class GenerateCodeCommonExtension extends CommonExtension implements Gene
 		setInitialized(true);
 	}
 
+	final public int getGenerationParallelism() {
+		return generationParallelism;
+	}
+
+	final public void setGenerationParallelism(int generationParallelism) {
+		this.generationParallelism = generationParallelism;
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+
 	@Override
 	public PluginMode getMode() {
 		return null;
@@ -223,6 +298,16 @@ public class GenerateCodeCommonExtension extends CommonExtension implements Gene
 		setInitialized(true);
 	}
 
+	final public boolean isReproducibleOutput() {
+		return reproducibleOutput;
+	}
+
+	final public void setReproducibleOutput(boolean reproducibleOutput) {
+		this.reproducibleOutput = reproducibleOutput;
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+
 	@Override
 	final public boolean isSeparateUtilityClasses() {
 		return separateUtilityClasses;
@@ -234,6 +319,16 @@ public class GenerateCodeCommonExtension extends CommonExtension implements Gene
 		setInitialized(true);
 	}
 
+	final public boolean isShareRuntimeSources() {
+		return shareRuntimeSources;
+	}
+
+	final public void setShareRuntimeSources(boolean shareRuntimeSources) {
+		this.shareRuntimeSources = shareRuntimeSources;
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+
 	@Override
 	final public String getSourceEncoding() {
 		return sourceEncoding;
@@ -4,18 +4,31 @@
 package com.graphql_java_generator.gradleplugin;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.inject.Inject;
 
+import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputFile;
 import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.workers.WorkerExecutor;
 
+import com.graphql_java_generator.gradleplugin.GenerationManifest.SchemaEntry;
 import com.graphql_java_generator.plugin.conf.CustomScalarDefinition;
 import com.graphql_java_generator.plugin.conf.GenerateCodeCommonConfiguration;
 import com.graphql_java_generator.plugin.conf.PluginMode;
@@ -44,6 +57,27 @@ import graphql.schema.GraphQLScalarType;
  */
 public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCommonConfiguration {
 
+	/**
+	 * The folder where the tasks write their runtime sources, when they are shared (see <I>shareRuntimeSources</I>),
+	 * relative to the build folder. Each task has its own sub-folder.
+	 */
+	final static String RUNTIME_SOURCES_FOLDER = "graphql-generator/runtime";
+
+	/**
+	 * The folder where the tasks store their {@link GenerationManifest}, relative to the build folder. Each task has
+	 * its own sub-folder.
+	 */
+	final static String MANIFEST_FOLDER = "graphql-generator/manifest";
+
+	/**
+	 * (since 4.0) Used only when <I>copyRuntimeSources</I> is false. If true, the plugin adds the precompiled runtime
+	 * jar to the <I>implementation</I> dependencies of the project: <I>graphql-java-client-runtime</I> or
+	 * <I>graphql-java-server-runtime</I>, depending on the mode, with the same version as the plugin logic. The
+	 * default value is false.
+	 */
+	private final Property<Boolean> addRuntimeDependency = conventionProperty(Boolean.class,
+			GenerateCodeCommonExtension::isAddRuntimeDependency);
+
 	/**
 	 * <P>
 	 * Flag to enable (or not) the copy of the sources from the graphql-java-runtime library to target source code
@@ -64,7 +98,8 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	 * <LI></LI>
 	 * </UL>
 	 */
-	private Boolean copyRuntimeSources;
+	private final Property<Boolean> copyRuntimeSources = conventionProperty(Boolean.class,
+			GenerateCodeCommonExtension::isCopyRuntimeSources);
 
 	/**
 	 * <P>
@@ -104,16 +139,46 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	 * client pom</A> is a good sample.
 	 * </P>
 	 */
-	private List<CustomScalarDefinition> customScalars;
+	private final ListProperty<CustomScalarDefinition> customScalars = getProject().getObjects()
+			.listProperty(CustomScalarDefinition.class)
+			.convention(extensionValue(GenerateCodeCommonExtension::getCustomScalars));
+
+	/**
+	 * <P>
+	 * The number of threads used by the plugin's own stages, around the generation: the fingerprint of the schema
+	 * files, and the hash, the normalization and the copy of the generated files into the target folders. The targets
+	 * of the <I>generateMultiTargetCode</I> task are also generated in parallel. The default value is the number of
+	 * available processors. Setting it to 1 disables the parallel execution.
+	 * </P>
+	 * <P>
+	 * It doesn't parallelize the generation itself: the plugin logic parses the schema and generates the code of a
+	 * task (or of a target) in one thread, whatever this value.
+	 * </P>
+	 * <P>
+	 * Whatever its value, the generated code and the order of the generated files are the same.
+	 * </P>
+	 */
+	private final Property<Integer> generationParallelism = conventionProperty(Integer.class,
+			GenerateCodeCommonExtension::getGenerationParallelism);
 
 	/** The packageName in which the generated classes will be created */
-	private String packageName;
+	private final Property<String> packageName = conventionProperty(String.class,
+			GenerateCodeCommonExtension::getPackageName);
 	/**
 	 * (since 2.0RC1) The {@link QueryMutationExecutionProtocol} to use for GraphQL queries and mutations (not
 	 * subscriptions). The allowed values are: http and webSocket.<br/>
 	 * The default value is http.
 	 */
-	QueryMutationExecutionProtocol queryMutationExecutionProtocol;
+	private final Property<QueryMutationExecutionProtocol> queryMutationExecutionProtocol = conventionProperty(
+			QueryMutationExecutionProtocol.class, GenerateCodeCommonExtension::getQueryMutationExecutionProtocol);
+
+	/**
+	 * (since 4.0) If true, the generated files don't depend on the machine that generated them: the absolute paths are
+	 * replaced by relative ones, the timestamps are removed, and the imports and annotations of the java files are
+	 * sorted (see {@link GeneratedFilesNormalizer}). The default value is false.
+	 */
+	private final Property<Boolean> reproducibleOutput = conventionProperty(Boolean.class,
+			GenerateCodeCommonExtension::isReproducibleOutput);
 
 	/**
 	 * <P>
@@ -135,7 +200,8 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	 * doc on the project's wiki</A> for more details.
 	 * </P>
 	 */
-	private String schemaPersonalizationFile;
+	private final RegularFileProperty schemaPersonalizationFile = conventionFile(
+			GenerateCodeCommonExtension::getSchemaPersonalizationFile);
 
 	/**
 	 * <P>
@@ -152,23 +218,37 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	 * subpackage of this package</li>
 	 * </ul>
 	 */
-	private Boolean separateUtilityClasses;
+	private final Property<Boolean> separateUtilityClasses = conventionProperty(Boolean.class,
+			GenerateCodeCommonExtension::isSeparateUtilityClasses);
+
+	/**
+	 * (since 4.0) Used only when <I>copyRuntimeSources</I> is true. If true, the runtime sources are not copied in the
+	 * target source folder of the task, but in its own folder, from which the <I>mergeGraphQLRuntimeSources</I> task
+	 * merges the runtime sources of all the tasks of the project into one source folder. So each runtime class is
+	 * compiled once, whatever the number of generation tasks. The default value is false.
+	 */
+	private final Property<Boolean> shareRuntimeSources = conventionProperty(Boolean.class,
+			GenerateCodeCommonExtension::isShareRuntimeSources);
 
 	/** The encoding for the generated source files */
-	private String sourceEncoding;
+	private final Property<String> sourceEncoding = conventionProperty(String.class,
+			GenerateCodeCommonExtension::getSourceEncoding);
 
 	/**
 	 * Retrieves the suffix that will be applied to the name of the Spring Beans that are generated for this schema.
 	 * It's mandatory if you' using a Spring app and have more than one GraphQL schemas. The default value is an empty
 	 * String.
 	 */
-	private String springBeanSuffix;
+	private final Property<String> springBeanSuffix = conventionProperty(String.class,
+			GenerateCodeCommonExtension::getSpringBeanSuffix);
 
 	/** The folder where the generated resources will be generated */
-	protected File targetResourceFolder;
+	private final DirectoryProperty targetResourceFolder = conventionDirectory(
+			GenerateCodeCommonExtension::getTargetResourceFolder);
 
 	/** The folder where the source code for the generated classes will be generated */
-	protected File targetSourceFolder;
+	private final DirectoryProperty targetSourceFolder = conventionDirectory(
+			GenerateCodeCommonExtension::getTargetSourceFolder);
 
 	/**
 	 * <P>
@@ -179,17 +259,175 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	 * (since 3.0) The parameter is ignored. Its value is always true.
 	 * </P>
 	 */
-	protected Boolean useJakartaEE9;
+	private final Property<Boolean> useJakartaEE9 = conventionProperty(Boolean.class,
+			GenerateCodeCommonExtension::isUseJakartaEE9);
 
 	@Inject
-	public GenerateCodeCommonTask(GenerateCodeCommonExtension extension, ProjectLayout projectLayout) {
-		super(extension, projectLayout);
+	public GenerateCodeCommonTask(GenerateCodeCommonExtension extension, ProjectLayout projectLayout,
+			WorkerExecutor workerExecutor) {
+		super(extension, projectLayout, workerExecutor);
+	}
+
+	/**
+	 * Submits the code generation to a Gradle worker. The fingerprint of the schema definitions is computed here, then
+	 * sent to the worker. Only the schema files whose content changed since the previous generation are parsed again:
+	 * the fingerprint of the other ones is read from the manifest of the previous generation. This allows the worker
+	 * to skip the generation if no definition of the schema has changed, and to write only the changed files (see
+	 * {@link GenerationManifest}). As the files are parsed one by one, a syntax error stops the task before the worker
+	 * is started, with the file and the position of the error.
+	 * 
+	 * @param springConfigurationClass
+	 *            The Spring configuration class, that the worker uses to build its Spring context
+	 */
+	protected void submitGeneration(Class<?> springConfigurationClass) {
+		GenerationManifest previous = GenerationManifest.read(manifestFile());
+		GenerationMetrics metrics = new GenerationMetrics(getPath());
+		List<SchemaEntry> schemaEntries;
+		ForkJoinPool pool = GenerationMetrics.createPool(getGenerationParallelism());
+		try {
+			schemaEntries = metrics.measure("fingerprint", pool,
+					() -> GenerationManifest.fingerprintSchemas(getSchemaFileFolder(), getSchemaFilePattern(),
+							getJsonGraphqlSchemaFilename(), previous, pool));
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+			}
+		}
+		metrics.count("schemaDefinitions", schemaEntries.size());
+
+		submitGeneration(GenerateCodeWorkAction.class, springConfigurationClass, parameters -> {
+			parameters.getTaskName().set(getName());
+			parameters.getSchemaEntries().set(schemaEntries);
+			parameters.getTargets().set(targetSnapshots());
+			parameters.getStagingFolder().set(new File(getTemporaryDir(), "staging"));
+			parameters.getManifestFolder().set(getManifestFolder());
+			if (getRuntimeSourcesFolder() != null) {
+				parameters.getRuntimeSourcesFolder().set(getRuntimeSourcesFolder());
+			}
+			parameters.getGenerationParallelism().set(getGenerationParallelism());
+			parameters.getReproducibleOutput().set(isReproducibleOutput());
+			parameters.getMetrics().set(metrics);
+			setWorkParameters(parameters);
+		});
+	}
+
+	/**
+	 * Generates the code again, when the {@link GraphQLWatchTask} detects a change in the inputs of this task. The
+	 * generation is executed by a Gradle worker, like for the task execution, and this method returns when it is
+	 * finished.
+	 */
+	void regenerate() {
+		submitGeneration(getSpringConfigurationClass());
+		getWorkerExecutor().await();
+	}
+
+	/**
+	 * Sets the worker parameters that are specific to a code generation task. This default implementation does
+	 * nothing.
+	 * 
+	 * @param parameters
+	 */
+	protected void setWorkParameters(GenerationWorkParameters parameters) {
+		// No specific parameter
+	}
+
+	/**
+	 * Returns the Spring configuration class, that the worker uses to build its Spring context. It is overridden by each
+	 * code generation task.
+	 * 
+	 * @return
+	 */
+	@Internal
+	protected Class<?> getSpringConfigurationClass() {
+		throw new RuntimeException(
+				"[Internal error] The " + getName() + " task doesn't define its Spring configuration class");
+	}
+
+	/**
+	 * Returns the targets of the generation, when the task generates several targets (see
+	 * {@link GenerateMultiTargetCodeTask})
+	 * 
+	 * @return The targets, or an empty list if the task's configuration is the only target
+	 */
+	protected List<GenerationTarget.TargetSnapshot> targetSnapshots() {
+		return new ArrayList<>();
+	}
+
+	/**
+	 * Returns the manifest of the last generation, whose schema fingerprint is reused for the unchanged schema files
+	 */
+	protected File manifestFile() {
+		return GenerationManifest.getManifestFile(getManifestFolder(), getName());
+	}
+
+	/**
+	 * The folder where the task stores its {@link GenerationManifest}. It is the local state of the task: Gradle
+	 * doesn't delete it before an execution, like it may do for the outputs, but it deletes it when the outputs are
+	 * restored from the build cache.
+	 * 
+	 * @return
+	 */
+	@LocalState
+	public File getManifestFolder() {
+		return new File(new File(getProjectBuildDir(), MANIFEST_FOLDER), getName());
+	}
+
+	/** Returns the folders where the task generates sources. They are added to the main source set. */
+	@Internal
+	public List<File> getTargetSourceFolders() {
+		return Arrays.asList(getTargetSourceFolder());
+	}
+
+	/** Returns the folders where the task generates resources. They are added to the main source set. */
+	@Internal
+	public List<File> getTargetResourceFolders() {
+		return Arrays.asList(getTargetResourceFolder());
+	}
+
+	/**
+	 * Returns the folders where the task writes the runtime sources, when they are shared. They are merged by the
+	 * <I>mergeGraphQLRuntimeSources</I> task.
+	 * 
+	 * @return The folders, or an empty list if the runtime sources are not shared
+	 */
+	@Internal
+	public List<File> getRuntimeSourcesFolders() {
+		return (getRuntimeSourcesFolder() == null) ? new ArrayList<>() : Arrays.asList(getRuntimeSourcesFolder());
+	}
+
+	/**
+	 * Returns the modes of the generated code. They define the runtime jar that is added as a dependency, when
+	 * <I>addRuntimeDependency</I> is true.
+	 */
+	@Internal
+	public Set<PluginMode> getRuntimeModes() {
+		return Collections.singleton(getMode());
+	}
+
+	DirectoryProperty targetSourceDirectory() {
+		return targetSourceFolder;
+	}
+
+	DirectoryProperty targetResourceDirectory() {
+		return targetResourceFolder;
+	}
+
+	/** The runtime dependency has no impact on the generated code: it is not an input of the task. */
+	@Internal
+	final public boolean isAddRuntimeDependency() {
+		return addRuntimeDependency.get();
+	}
+
+	final public void setAddRuntimeDependency(boolean addRuntimeDependency) {
+		this.addRuntimeDependency.set(addRuntimeDependency);
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
 	}
 
 	@Input
 	@Override
 	final public boolean isCopyRuntimeSources() {
-		return getValue(copyRuntimeSources, getExtension().isCopyRuntimeSources());
+		return copyRuntimeSources.get();
 	}
 
 	@Internal
@@ -199,7 +437,7 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	}
 
 	final public void setCopyRuntimeSources(boolean copyRuntimeSources) {
-		this.copyRuntimeSources = copyRuntimeSources;
+		this.copyRuntimeSources.set(copyRuntimeSources);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -207,11 +445,23 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	@Input
 	@Override
 	final public List<CustomScalarDefinition> getCustomScalars() {
-		return getValue(customScalars, getExtension().getCustomScalars());
+		return customScalars.getOrNull();
 	}
 
 	final public void setCustomScalars(CustomScalarDefinition[] customScalars) {
-		this.customScalars = Arrays.asList(customScalars);
+		this.customScalars.set(Arrays.asList(customScalars));
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+
+	/** The parallelism has no impact on the generated code: it is not an input of the task. */
+	@Internal
+	final public int getGenerationParallelism() {
+		return generationParallelism.get();
+	}
+
+	final public void setGenerationParallelism(int generationParallelism) {
+		this.generationParallelism.set(generationParallelism);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -227,11 +477,11 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	@Input
 	@Override
 	final public String getPackageName() {
-		return getValue(packageName, getExtension().getPackageName());
+		return packageName.getOrNull();
 	}
 
 	final public void setPackageName(String packageName) {
-		this.packageName = packageName;
+		this.packageName.set(packageName);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -239,11 +489,22 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	@Input
 	@Override
 	final public QueryMutationExecutionProtocol getQueryMutationExecutionProtocol() {
-		return getValue(queryMutationExecutionProtocol, getExtension().getQueryMutationExecutionProtocol());
+		return queryMutationExecutionProtocol.getOrNull();
 	}
 
 	final public void setQueryMutationExecutionProtocol(QueryMutationExecutionProtocol queryMutationExecutionProtocol) {
-		this.queryMutationExecutionProtocol = queryMutationExecutionProtocol;
+		this.queryMutationExecutionProtocol.set(queryMutationExecutionProtocol);
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+
+	@Input
+	final public boolean isReproducibleOutput() {
+		return reproducibleOutput.get();
+	}
+
+	final public void setReproducibleOutput(boolean reproducibleOutput) {
+		this.reproducibleOutput.set(reproducibleOutput);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -251,12 +512,13 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	@Override
 	@InputFile
 	@Optional
+	@PathSensitive(PathSensitivity.RELATIVE)
 	final public File getSchemaPersonalizationFile() {
-		return getFileValue(schemaPersonalizationFile, getExtension().getSchemaPersonalizationFile());
+		return schemaPersonalizationFile.getAsFile().getOrNull();
 	}
 
 	public final void setSchemaPersonalizationFile(String schemaPersonalizationFile) {
-		this.schemaPersonalizationFile = schemaPersonalizationFile;
+		this.schemaPersonalizationFile.set(getProjectFile(schemaPersonalizationFile));
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -264,23 +526,47 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	@Input
 	@Override
 	public boolean isSeparateUtilityClasses() {
-		return getValue(separateUtilityClasses, getExtension().isSeparateUtilityClasses());
+		return separateUtilityClasses.get();
 	}
 
 	final public void setSeparateUtilityClasses(boolean separateUtilityClasses) {
-		this.separateUtilityClasses = separateUtilityClasses;
+		this.separateUtilityClasses.set(separateUtilityClasses);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
 
+	@Input
+	final public boolean isShareRuntimeSources() {
+		return shareRuntimeSources.get();
+	}
+
+	final public void setShareRuntimeSources(boolean shareRuntimeSources) {
+		this.shareRuntimeSources.set(shareRuntimeSources);
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+
+	/**
+	 * The folder where the task writes the runtime sources, when they are shared (see <I>shareRuntimeSources</I>)
+	 * 
+	 * @return The folder, or null if the runtime sources are not copied, or copied in the target source folder
+	 */
+	@OutputDirectory
+	@Optional
+	public File getRuntimeSourcesFolder() {
+		return (isCopyRuntimeSources() && isShareRuntimeSources())
+				? new File(new File(getProjectBuildDir(), RUNTIME_SOURCES_FOLDER), getName())
+				: null;
+	}
+
 	@Input
 	@Override
 	final public String getSourceEncoding() {
-		return getValue(sourceEncoding, getExtension().getSourceEncoding());
+		return sourceEncoding.getOrNull();
 	}
 
 	final public void setSourceEncoding(String sourceEncoding) {
-		this.sourceEncoding = sourceEncoding;
+		this.sourceEncoding.set(sourceEncoding);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -295,16 +581,21 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	@Input
 	@Override
 	final public String getSpringBeanSuffix() {
-		return getValue(springBeanSuffix, getExtension().getSpringBeanSuffix());
+		return springBeanSuffix.getOrNull();
 	}
 
 	public final void setSpringBeanSuffix(String springBeanSuffix) {
-		this.springBeanSuffix = springBeanSuffix;
+		this.springBeanSuffix.set(springBeanSuffix);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
 
-	@OutputDirectory
+	/**
+	 * The class folder is the output of the <I>compileJava</I> task. It is not an output of the generation tasks:
+	 * declaring it as an output would make the generation tasks and compileJava share the same output folder, and
+	 * prevent them to be stored in the build cache.
+	 */
+	@Internal
 	@Override
 	final public File getTargetClassFolder() {
 		return new File(getProjectBuildDir(), "classes/java/main");
@@ -313,7 +604,7 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	@OutputDirectory
 	@Override
 	final public File getTargetResourceFolder() {
-		File file = getValue(targetResourceFolder, getExtension().getTargetResourceFolder());
+		File file = targetResourceFolder.get().getAsFile();
 		file.mkdirs();
 		return file;
 	}
@@ -324,7 +615,7 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	 *            A folder, relative to the project dir (not the the build dir)
 	 */
 	final public void setTargetResourceFolder(String targetResourceFolder) {
-		this.targetResourceFolder = new File(getProjectDir(), targetResourceFolder);
+		this.targetResourceFolder.set(getProjectFile(targetResourceFolder));
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -332,7 +623,7 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	@OutputDirectory
 	@Override
 	final public File getTargetSourceFolder() {
-		File file = getValue(targetSourceFolder, getExtension().getTargetSourceFolder());
+		File file = targetSourceFolder.get().getAsFile();
 		file.mkdirs();
 		return file;
 	}
@@ -343,7 +634,7 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	 *            A folder, relative to the project dir (not the the build dir)
 	 */
 	final public void setTargetSourceFolder(String targetSourceFolder) {
-		this.targetSourceFolder = new File(getProjectDir(), targetSourceFolder);
+		this.targetSourceFolder.set(getProjectFile(targetSourceFolder));
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -351,11 +642,11 @@ public class GenerateCodeCommonTask extends CommonTask implements GenerateCodeCo
 	@Input
 	@Override
 	public boolean isUseJakartaEE9() {
-		return getValue(useJakartaEE9, getExtension().isUseJakartaEE9());
+		return useJakartaEE9.get();
 	}
 
 	final public void setUseJakartaEE9(boolean useJakartaEE9) {
-		this.useJakartaEE9 = useJakartaEE9;
+		this.useJakartaEE9.set(useJakartaEE9);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
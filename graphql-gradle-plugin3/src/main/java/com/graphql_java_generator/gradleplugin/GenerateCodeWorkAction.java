@@ -0,0 +1,357 @@
+/**
+ * 
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.gradle.workers.WorkAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.graphql_java_generator.gradleplugin.GenerationManifest.SchemaEntry;
+import com.graphql_java_generator.plugin.conf.CommonConfiguration;
+import com.graphql_java_generator.plugin.conf.GenerateCodeCommonConfiguration;
+import com.graphql_java_generator.plugin.generate_code.GenerateCodeDocumentParser;
+import com.graphql_java_generator.plugin.generate_code.GenerateCodeGenerator;
+
+/**
+ * The Gradle worker action that generates the code, for the {@link GenerateClientCodeTask},
+ * {@link GenerateServerCodeTask}, {@link GeneratePojoTask}, {@link GraphQLGenerateCodeTask} and
+ * {@link GenerateMultiTargetCodeTask} tasks.
+ * 
+ * @author etienne-sf
+ */
+public abstract class GenerateCodeWorkAction implements WorkAction<GenerationWorkParameters> {
+
+	private static final Logger logger = LoggerFactory.getLogger(GenerateCodeWorkAction.class);
+
+	@Override
+	public void execute() {
+		GenerationWorkParameters parameters = getParameters();
+		GenerationMetrics metrics = parameters.getMetrics().get();
+		monitorHeap(parameters, metrics);
+		ForkJoinPool pool = GenerationMetrics.createPool(parameters.getGenerationParallelism().getOrElse(1));
+		try {
+			ConfigurationSnapshot configuration;
+			try {
+				// An introspection result is converted into a schema file, without loading the whole json tree. It is
+				// done once, for all the targets.
+				configuration = IntrospectionSchemaReader.toSchemaFileConfiguration(parameters.getConfiguration().get(),
+						getIntrospectionFolder(parameters), metrics);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e.getMessage(), e);
+			}
+
+			List<GenerationTarget.TargetSnapshot> targets = parameters.getTargets().getOrElse(new ArrayList<>());
+			if (targets.isEmpty()) {
+				File runtimeSourcesFolder = parameters.getRuntimeSourcesFolder().isPresent()
+						? parameters.getRuntimeSourcesFolder().get().getAsFile()
+						: null;
+				generate(parameters, configuration, parameters.getSpringConfigurationClassName().get(),
+						parameters.getTaskName().get(), parameters.getStagingFolder().get().getAsFile(),
+						runtimeSourcesFolder, metrics, pool);
+			} else {
+				generateTargets(parameters, configuration, targets, metrics, pool);
+			}
+			writeMetrics(parameters, metrics);
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Checks the heap after each phase of the generation, when the <I>maxGenerationHeap</I> plugin parameter is set
+	 * (see {@link GenerationHeapMonitor})
+	 * 
+	 * @param parameters
+	 * @param metrics
+	 */
+	static void monitorHeap(GenerationWorkParameters parameters, GenerationMetrics metrics) {
+		if (parameters.getMaxGenerationHeap().isPresent()) {
+			metrics.setHeapMonitor(new GenerationHeapMonitor(parameters.getMaxGenerationHeap().get()));
+		}
+	}
+
+	/**
+	 * Generates the targets of a {@link GenerateMultiTargetCodeTask}. The targets are generated in parallel in the
+	 * given pool, each one with its own Spring context, as the plugin logic's components store the state of the
+	 * generation. The metrics of each target are added to the task's metrics, prefixed by the target name.
+	 * 
+	 * @param parameters
+	 * @param configuration
+	 *            The configuration of the task
+	 * @param targets
+	 * @param metrics
+	 *            The metrics of the task
+	 * @param pool
+	 *            The pool where the targets are generated, or null to generate them one after the other
+	 */
+	private void generateTargets(GenerationWorkParameters parameters, ConfigurationSnapshot configuration,
+			List<GenerationTarget.TargetSnapshot> targets, GenerationMetrics metrics, ForkJoinPool pool) {
+		File stagingFolder = parameters.getStagingFolder().get().getAsFile();
+		File runtimeSourcesFolder = parameters.getRuntimeSourcesFolder().isPresent()
+				? parameters.getRuntimeSourcesFolder().get().getAsFile()
+				: null;
+		Function<GenerationTarget.TargetSnapshot, GenerationMetrics> generateTarget = target -> {
+			GenerationMetrics targetMetrics = new GenerationMetrics(metrics.getTaskPath());
+			targetMetrics.setHeapMonitor(metrics.getHeapMonitor());
+			// Each target has its own runtime sources folder, as a target doesn't know the files of the other ones
+			generate(parameters, target.toConfiguration(configuration), target.springConfigurationClassName,
+					parameters.getTaskName().get() + "-" + target.name, new File(stagingFolder, target.name),
+					(runtimeSourcesFolder == null) ? null : new File(runtimeSourcesFolder, target.name), targetMetrics,
+					pool);
+			return targetMetrics;
+		};
+
+		// The collected list keeps the order of the targets, even when they are generated in parallel
+		List<GenerationMetrics> targetMetrics = (pool == null)
+				? targets.stream().map(generateTarget).collect(Collectors.toList())
+				: pool.submit(() -> targets.parallelStream().map(generateTarget).collect(Collectors.toList())).join();
+		for (int i = 0; i < targets.size(); i += 1) {
+			metrics.add(targets.get(i).name + ".", targetMetrics.get(i));
+		}
+	}
+
+	/**
+	 * Executes the code generation of one target, that is: of the task, or of one target of a
+	 * {@link GenerateMultiTargetCodeTask}
+	 * 
+	 * @param parameters
+	 * @param snapshot
+	 *            The configuration of the target
+	 * @param springConfigurationClassName
+	 *            The Spring configuration class, that is used to build the Spring context of the generation
+	 * @param manifestName
+	 *            The name of the {@link GenerationManifest} of this target
+	 * @param stagingFolder
+	 *            The folder where the code is generated, before the changed files are copied into the target folders
+	 * @param runtimeSourcesFolder
+	 *            The folder where the runtime sources are copied, when they are shared by the tasks of the project.
+	 *            If null, they are copied with the generated code.
+	 * @param metrics
+	 * @param pool
+	 *            The pool used to copy the generated files, or null to do it in the current thread
+	 */
+	private void generate(GenerationWorkParameters parameters, ConfigurationSnapshot snapshot,
+			String springConfigurationClassName, String manifestName, File stagingFolder, File runtimeSourcesFolder,
+			GenerationMetrics metrics, ForkJoinPool pool) {
+		GenerateCodeCommonConfiguration configuration = (GenerateCodeCommonConfiguration) snapshot.toConfiguration();
+		Map<String, File> outputRoots = GenerationManifest.getOutputRoots(configuration);
+		if (runtimeSourcesFolder != null) {
+			outputRoots.put(GenerationManifest.RUNTIME_ROOT, runtimeSourcesFolder);
+		}
+		File classesFolder = parameters.getPrecompiledClassesFolder().isPresent()
+				? parameters.getPrecompiledClassesFolder().get().getAsFile()
+				: null;
+		List<String> options = new ArrayList<>();
+		boolean reproducibleOutput = parameters.getReproducibleOutput().getOrElse(false);
+		options.add("reproducibleOutput=" + reproducibleOutput);
+		if (classesFolder != null) {
+			outputRoots.put(GenerationManifest.CLASSES_ROOT, classesFolder);
+			// The class files depend on the classpath and on the java release
+			options.add("compileClasspath="
+					+ GeneratedCodeCompiler.describeClasspath(parameters.getCompileClasspath().getFiles()));
+			options.add("release=" + parameters.getRelease().getOrNull());
+		}
+		File manifestFile = GenerationManifest.getManifestFile(parameters.getManifestFolder().get().getAsFile(),
+				manifestName);
+
+		// Let's compare the inputs with the ones of the previous generation
+		GenerationManifest previous = GenerationManifest.read(manifestFile);
+		List<SchemaEntry> schemaEntries = parameters.getSchemaEntries().get();
+		String inputsHash = GenerationManifest.hashInputs(snapshot, outputRoots, options.toArray(new String[0]));
+		if (previous != null && previous.isUpToDate(inputsHash, schemaEntries, outputRoots)) {
+			logger.info("The inputs of {} and its generated files are the same as for the previous generation:"
+					+ " the code generation is skipped", manifestName);
+			metrics.count("skipped", 1);
+			return;
+		}
+		if (previous != null && !previous.hasSameSchema(schemaEntries)) {
+			logger.info("The code of {} is generated again, as these GraphQL definitions have changed: {}",
+					manifestName, previous.getChangedDefinitions(schemaEntries));
+		}
+
+		// The code is generated in a staging folder. Only the files whose content changed are then copied into the
+		// target folders.
+		GeneratedFilesSynchronizer.deleteFolder(stagingFolder);
+		Map<String, File> stagingRoots = new LinkedHashMap<>();
+		for (String root : outputRoots.keySet()) {
+			File stagingRoot = new File(stagingFolder, root);
+			stagingRoot.mkdirs();
+			stagingRoots.put(root, stagingRoot);
+		}
+		ConfigurationSnapshot stagingConfiguration = snapshot//
+				.withValue("getTargetSourceFolder", stagingRoots.get(GenerationManifest.SOURCE_ROOT))//
+				.withValue("getTargetResourceFolder", stagingRoots.get(GenerationManifest.RESOURCE_ROOT))//
+				// The skip check is done with the manifest, above
+				.withValue("isSkipGenerationIfSchemaHasNotChanged", false);
+
+		try (AnnotationConfigApplicationContext ctx = metrics.measure("springContext",
+				() -> createSpringContext(springConfigurationClassName, stagingConfiguration))) {
+
+			// Let's log the current configuration (this will do something only when in debug mode)
+			ctx.getBean(GenerationContextFactory.PLUGIN_CONFIGURATION_BEAN_NAME, CommonConfiguration.class)
+					.logConfiguration();
+
+			GenerateCodeDocumentParser documentParser = ctx.getBean(GenerateCodeDocumentParser.class);
+			metrics.count("types", metrics.measure("parse", documentParser::parseGraphQLSchemas));
+
+			GenerateCodeGenerator codeGenerator = ctx.getBean(GenerateCodeGenerator.class);
+			metrics.count("generatedItems", metrics.measure("generate", codeGenerator::generateCode));
+
+			logger.debug("Finished generation of java classes from graphqls files (5)");
+
+			if (runtimeSourcesFolder != null) {
+				metrics.count("runtimeSources",
+						GeneratedFilesSynchronizer.moveRuntimeSources(stagingRoots.get(GenerationManifest.SOURCE_ROOT),
+								stagingRoots.get(GenerationManifest.RUNTIME_ROOT), configuration.getPackageName()));
+			}
+			Charset charset = (configuration.getSourceEncoding() == null) ? StandardCharsets.UTF_8
+					: Charset.forName(configuration.getSourceEncoding());
+			if (reproducibleOutput) {
+				String userHome = System.getProperty("user.home");
+				GeneratedFilesNormalizer normalizer = new GeneratedFilesNormalizer(configuration.getProjectDir(),
+						(userHome == null) ? null : new File(userHome), charset);
+				metrics.count("filesNormalized",
+						metrics.measure("normalize", pool, () -> normalizer.normalize(stagingRoots.values(), pool)));
+			}
+			if (classesFolder != null) {
+				// The generated code is compiled here, so that the compileJava task doesn't compile it again
+				metrics.count("classesCompiled", metrics.measure("compile", pool,
+						() -> compile(parameters, stagingRoots, classesFolder, charset, pool)));
+			}
+
+			GeneratedFilesSynchronizer synchronizer = metrics.measure("synchronize", pool,
+					() -> GeneratedFilesSynchronizer.synchronize(stagingRoots, outputRoots,
+							(previous == null) ? new HashMap<>() : previous.getOutputs(), pool));
+			logger.info("Generated files: {} written, {} unchanged (skipped), {} deleted",
+					synchronizer.getNbWritten(), synchronizer.getNbSkipped(), synchronizer.getNbDeleted());
+			new GenerationManifest(schemaEntries, inputsHash,
+					GenerationManifest.hashFiles(outputRoots, synchronizer.getOutputs(), pool)).write(manifestFile);
+
+			metrics.count("filesWritten", synchronizer.getNbWritten());
+			metrics.count("filesSkipped", synchronizer.getNbSkipped());
+			metrics.count("filesDeleted", synchronizer.getNbDeleted());
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Compiles the generated code, when it is precompiled (see {@link GeneratedCodeCompiler})
+	 * 
+	 * @param parameters
+	 * @param stagingRoots
+	 *            The staging folders, by output root
+	 * @param classesFolder
+	 *            The folder that contains the class files of the previous generation
+	 * @param charset
+	 *            The encoding of the generated sources
+	 * @param pool
+	 *            The pool where the shards are compiled, or null to compile them one after the other
+	 * @return The number of compiled source files
+	 */
+	private int compile(GenerationWorkParameters parameters, Map<String, File> stagingRoots, File classesFolder,
+			Charset charset, ForkJoinPool pool) {
+		File sourceFolder = stagingRoots.get(GenerationManifest.SOURCE_ROOT);
+		File runtimeFolder = stagingRoots.get(GenerationManifest.RUNTIME_ROOT);
+		File stagingClassesFolder = stagingRoots.get(GenerationManifest.CLASSES_ROOT);
+		Set<File> classpath = parameters.getCompileClasspath().getFiles();
+		Integer release = parameters.getRelease().getOrNull();
+		int nbShards = parameters.getPrecompileShards().getOrElse(1);
+		if (nbShards > 1) {
+			File workFolder = new File(parameters.getTemporaryFolder().get().getAsFile(), "precompile");
+			return GeneratedCodeCompiler.compileShards(sourceFolder, runtimeFolder, stagingClassesFolder, classpath,
+					charset, release, nbShards, classesFolder, workFolder, pool);
+		} else {
+			return GeneratedCodeCompiler.compile(sourceFolder, runtimeFolder, stagingClassesFolder, classpath, charset,
+					release);
+		}
+	}
+
+	/**
+	 * Returns the folder where the schema file converted from the introspection result is stored, if the
+	 * <I>jsonGraphqlSchemaFilename</I> plugin parameter is set (see {@link IntrospectionSchemaReader})
+	 * 
+	 * @param parameters
+	 * @return
+	 */
+	static File getIntrospectionFolder(GenerationWorkParameters parameters) {
+		return new File(parameters.getTemporaryFolder().get().getAsFile(), "introspection");
+	}
+
+	/**
+	 * Writes the metrics of the generation in the JSON report, and logs their summary
+	 * 
+	 * @param parameters
+	 * @param metrics
+	 */
+	static void writeMetrics(GenerationWorkParameters parameters, GenerationMetrics metrics) {
+		if (metrics.getHeapMonitor() != null) {
+			metrics.count("peakHeapMB", metrics.getHeapMonitor().getPeakHeapBytes() / (1024 * 1024));
+		}
+		logger.info("Generation metrics: {}", metrics.getSummary());
+		if (parameters.getMetricsReportFile().isPresent()) {
+			metrics.write(parameters.getMetricsReportFile().get().getAsFile());
+		}
+	}
+
+	/**
+	 * Creates the Spring context for the generation, with the task's Spring configuration class
+	 * 
+	 * @param parameters
+	 * @param configuration
+	 *            The task's configuration, possibly modified by the worker (for instance to read the schema file
+	 *            converted from an introspection result)
+	 * @return
+	 */
+	static AnnotationConfigApplicationContext createSpringContext(GenerationWorkParameters parameters,
+			ConfigurationSnapshot configuration) {
+		return createSpringContext(parameters.getSpringConfigurationClassName().get(), configuration);
+	}
+
+	/**
+	 * Creates the Spring context for the generation. The given configuration is registered as a singleton, before the
+	 * context is refreshed, so that it is available to the plugin logic's components. The classpath is not scanned
+	 * for each task (see {@link GenerationContextFactory}).
+	 * 
+	 * @param springConfigurationClassName
+	 *            The full name of the Spring configuration class, for instance
+	 *            {@link GenerateServerCodeSpringConfiguration}
+	 * @param configuration
+	 *            The configuration of the generation, possibly modified by the worker (for instance to generate the
+	 *            code in a staging folder)
+	 * @return
+	 */
+	static AnnotationConfigApplicationContext createSpringContext(String springConfigurationClassName,
+			ConfigurationSnapshot configuration) {
+		Class<?> springConfigurationClass;
+		try {
+			springConfigurationClass = Class.forName(springConfigurationClassName, true,
+					GenerateCodeWorkAction.class.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			throw new RuntimeException("[Internal error] Could not load the Spring configuration class "
+					+ springConfigurationClassName + ": " + e.getMessage(), e);
+		}
+
+		return GenerationContextFactory.createContext(springConfigurationClass, configuration.toConfiguration());
+	}
+}
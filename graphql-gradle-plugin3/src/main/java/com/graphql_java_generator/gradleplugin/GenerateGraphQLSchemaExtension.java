@@ -33,6 +33,19 @@ public class GenerateGraphQLSchemaExtension extends CommonExtension
 	 */
 	private String targetSchemaFileName = GenerateGraphQLSchemaConfiguration.DEFAULT_TARGET_SCHEMA_FILE_NAME;
 
+	/**
+	 * <P>
+	 * (since 4.0) If true, the schema files are merged as a stream: each definition is written into the target file as
+	 * soon as it is read and merged with its extensions, so that the memory needed doesn't depend on the size of the
+	 * schema. The definitions are written in the order of the schema files. This mode can not add the relay connection
+	 * stuff: when <I>addRelayConnections</I> is true, the schema is merged in memory.
+	 * </P>
+	 * <P>
+	 * The default value is false.
+	 * </P>
+	 */
+	private boolean streamingMerge = false;
+
 	public GenerateGraphQLSchemaExtension(ProjectLayout projectLayout) {
 		super(projectLayout);
 	}
@@ -69,6 +82,16 @@ public class GenerateGraphQLSchemaExtension extends CommonExtension
 		setInitialized(true);
 	}
 
+	public boolean isStreamingMerge() {
+		return streamingMerge;
+	}
+
+	public void setStreamingMerge(boolean streamingMerge) {
+		this.streamingMerge = streamingMerge;
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+
 	@Override
 	public String getTargetSchemaFileName() {
 		return targetSchemaFileName;
@@ -4,23 +4,22 @@
 package com.graphql_java_generator.gradleplugin;
 
 import java.io.File;
-import java.io.IOException;
 
 import javax.inject.Inject;
 
+import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
-import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
-import org.springframework.context.support.AbstractApplicationContext;
 
 import com.graphql_java_generator.plugin.conf.GenerateGraphQLSchemaConfiguration;
-import com.graphql_java_generator.plugin.generate_schema.GenerateGraphQLSchema;
-import com.graphql_java_generator.plugin.generate_schema.GenerateGraphQLSchemaDocumentParser;
 
 /**
  * <P>
@@ -47,71 +46,83 @@ import com.graphql_java_generator.plugin.generate_schema.GenerateGraphQLSchemaDo
  * 
  * @author EtienneSF
  */
+@CacheableTask
 public class GenerateGraphQLSchemaTask extends CommonTask implements GenerateGraphQLSchemaConfiguration {
 
 	private static final Logger logger = LoggerFactory.getLogger(GenerateGraphQLSchemaTask.class);
 
 	/** The encoding for the generated resource files */
-	String resourceEncoding;
+	private final Property<String> resourceEncoding = conventionProperty(String.class,
+			GenerateGraphQLSchemaExtension::getResourceEncoding);
 
 	/** The folder where the generated GraphQL schema will be stored */
-	private File targetFolder;
+	private final DirectoryProperty targetFolder = conventionDirectory(GenerateGraphQLSchemaExtension::getTargetFolder);
 
 	/**
 	 * The name of the target filename, in which the schema is generated. This file is stored in the folder, defined in
 	 * the <I>targetFolder</I> plugin parameter.
 	 */
-	private String targetSchemaFileName;
+	private final Property<String> targetSchemaFileName = conventionProperty(String.class,
+			GenerateGraphQLSchemaExtension::getTargetSchemaFileName);
+
+	/**
+	 * <P>
+	 * (since 4.0) If true, the schema files are merged as a stream: each definition is written into the target file as
+	 * soon as it is read and merged with its extensions, so that the memory needed doesn't depend on the size of the
+	 * schema. The definitions are written in the order of the schema files. This mode can not add the relay connection
+	 * stuff: when <I>addRelayConnections</I> is true, the schema is merged in memory.
+	 * </P>
+	 * <P>
+	 * The default value is false.
+	 * </P>
+	 */
+	private final Property<Boolean> streamingMerge = conventionProperty(Boolean.class,
+			GenerateGraphQLSchemaExtension::isStreamingMerge);
 
 	@Inject
-	public GenerateGraphQLSchemaTask(ProjectLayout projectLayout) {
-		super(new GenerateGraphQLSchemaExtension(projectLayout), projectLayout);
+	public GenerateGraphQLSchemaTask(ProjectLayout projectLayout, WorkerExecutor workerExecutor) {
+		super(new GenerateGraphQLSchemaExtension(projectLayout), projectLayout, workerExecutor);
 	}
 
-	public GenerateGraphQLSchemaTask(GenerateGraphQLSchemaExtension extension, ProjectLayout projectLayout) {
-		super(extension, projectLayout);
+	public GenerateGraphQLSchemaTask(GenerateGraphQLSchemaExtension extension, ProjectLayout projectLayout,
+			WorkerExecutor workerExecutor) {
+		super(extension, projectLayout, workerExecutor);
 	}
 
 	@TaskAction
-	public void execute() throws IOException {
-
-		// We'll use Spring IoC
-		GenerateGraphQLSchemaSpringConfiguration.generateGraphQLSchemaConf = this;
-		AbstractApplicationContext ctx = new AnnotationConfigApplicationContext(
-				GenerateGraphQLSchemaSpringConfiguration.class);
+	public void execute() {
 
-		// Let's log the current configuration (this will do something only when in debug mode)
-		GenerateGraphQLSchemaConfiguration pluginConfiguration = ctx.getBean(GenerateGraphQLSchemaConfiguration.class);
-		pluginConfiguration.logConfiguration();
+		logger.debug("Executing " + this.getClass().getName());
 
-		GenerateGraphQLSchemaDocumentParser documentParser = ctx.getBean(GenerateGraphQLSchemaDocumentParser.class);
-		documentParser.parseGraphQLSchemas();
+		if (isStreamingMerge() && isAddRelayConnections()) {
+			logger.warn("The relay connections can't be added by the streaming merge: the schema of the {} task is"
+					+ " merged in memory", getPath());
+		}
 
-		GenerateGraphQLSchema merge = ctx.getBean(GenerateGraphQLSchema.class);
-		merge.generateGraphQLSchema();
-
-		ctx.close();
-
-		logger.debug("Finished generation of the merged schema");
+		// The generation is executed by a Gradle worker. The schema files are parsed there only, by the plugin logic
+		// or by the streaming merge.
+		submitGeneration(GenerateGraphQLSchemaWorkAction.class, GenerateGraphQLSchemaSpringConfiguration.class,
+				parameters -> parameters.getStreamingMerge().set(isStreamingMerge() && !isAddRelayConnections()));
 	}
 
 	@Override
 	@Input
 	public String getResourceEncoding() {
-		return getValue(resourceEncoding, getExtension().getResourceEncoding());
+		return resourceEncoding.getOrNull();
 	}
 
 	public String setResourceEncoding(String resourceEncoding) {
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 
-		return this.resourceEncoding = resourceEncoding;
+		this.resourceEncoding.set(resourceEncoding);
+		return resourceEncoding;
 	}
 
 	@Override
-	@InputDirectory
+	@OutputDirectory
 	public File getTargetFolder() {
-		File file = getValue(targetFolder, getExtension().getTargetFolder());
+		File file = targetFolder.get().getAsFile();
 		file.mkdirs();
 		return file;
 	}
@@ -122,10 +133,11 @@ public class GenerateGraphQLSchemaTask extends CommonTask implements GenerateGra
 	 *            A folder, relative to the project dir (not the the build dir)
 	 */
 	public void setTargetFolder(String targetFolder) {
-		this.targetFolder = new File(getProjectDir(), targetFolder);
+		File folder = new File(getProjectDir(), targetFolder);
+		this.targetFolder.set(folder);
 
 		// Let's create the folder now, so that it exists when if any other task needs it, during configuration time
-		this.targetFolder.mkdirs();
+		folder.mkdirs();
 
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
@@ -134,11 +146,22 @@ public class GenerateGraphQLSchemaTask extends CommonTask implements GenerateGra
 	@Override
 	@Input
 	public String getTargetSchemaFileName() {
-		return getValue(targetSchemaFileName, getExtension().getTargetSchemaFileName());
+		return targetSchemaFileName.getOrNull();
 	}
 
 	public void setTargetSchemaFileName(String targetSchemaFileName) {
-		this.targetSchemaFileName = targetSchemaFileName;
+		this.targetSchemaFileName.set(targetSchemaFileName);
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+
+	@Input
+	public boolean isStreamingMerge() {
+		return streamingMerge.get();
+	}
+
+	public void setStreamingMerge(boolean streamingMerge) {
+		this.streamingMerge.set(streamingMerge);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -0,0 +1,93 @@
+/**
+ * 
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+
+import org.gradle.workers.WorkAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.graphql_java_generator.plugin.conf.CommonConfiguration;
+import com.graphql_java_generator.plugin.conf.GenerateGraphQLSchemaConfiguration;
+import com.graphql_java_generator.plugin.generate_schema.GenerateGraphQLSchema;
+import com.graphql_java_generator.plugin.generate_schema.GenerateGraphQLSchemaDocumentParser;
+
+/**
+ * The Gradle worker action that generates the GraphQL schema, for the {@link GenerateGraphQLSchemaTask} task.
+ * 
+ * @author etienne-sf
+ */
+public abstract class GenerateGraphQLSchemaWorkAction implements WorkAction<GenerationWorkParameters> {
+
+	private static final Logger logger = LoggerFactory.getLogger(GenerateGraphQLSchemaWorkAction.class);
+
+	@Override
+	public void execute() {
+		GenerationMetrics metrics = getParameters().getMetrics().get();
+		GenerateCodeWorkAction.monitorHeap(getParameters(), metrics);
+		if (getParameters().getStreamingMerge().getOrElse(false)) {
+			streamingMerge(metrics);
+			return;
+		}
+
+		ConfigurationSnapshot configuration;
+		try {
+			// An introspection result is converted into a schema file, without loading the whole json tree
+			configuration = IntrospectionSchemaReader.toSchemaFileConfiguration(
+					getParameters().getConfiguration().get(),
+					GenerateCodeWorkAction.getIntrospectionFolder(getParameters()), metrics);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e.getMessage(), e);
+		}
+
+		try (AnnotationConfigApplicationContext ctx = metrics.measure("springContext",
+				() -> GenerateCodeWorkAction.createSpringContext(getParameters(), configuration))) {
+
+			// Let's log the current configuration (this will do something only when in debug mode)
+			ctx.getBean(GenerationContextFactory.PLUGIN_CONFIGURATION_BEAN_NAME, CommonConfiguration.class)
+					.logConfiguration();
+
+			GenerateGraphQLSchemaDocumentParser documentParser = ctx.getBean(GenerateGraphQLSchemaDocumentParser.class);
+			metrics.count("types", metrics.measure("parse", documentParser::parseGraphQLSchemas));
+
+			GenerateGraphQLSchema merge = ctx.getBean(GenerateGraphQLSchema.class);
+			metrics.measure("generate", () -> {
+				merge.generateGraphQLSchema();
+				return null;
+			});
+
+			logger.debug("Finished generation of the merged schema");
+			GenerateCodeWorkAction.writeMetrics(getParameters(), metrics);
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Merges the schema files with the {@link StreamingSchemaMerger}. The plugin logic (and its Spring context) is not
+	 * used in this mode.
+	 */
+	private void streamingMerge(GenerationMetrics metrics) {
+		GenerateGraphQLSchemaConfiguration configuration = (GenerateGraphQLSchemaConfiguration) getParameters()
+				.getConfiguration().get().toConfiguration();
+		File targetFile = new File(configuration.getTargetFolder(), configuration.getTargetSchemaFileName());
+		StreamingSchemaMerger merger = new StreamingSchemaMerger(configuration.getSchemaFileFolder(),
+				configuration.getSchemaFilePattern());
+		try {
+			metrics.count("types", metrics.measure("merge",
+					() -> merger.merge(targetFile, Charset.forName(configuration.getResourceEncoding()))));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e.getMessage(), e);
+		}
+
+		logger.debug("Finished the streaming merge of the schema files");
+		GenerateCodeWorkAction.writeMetrics(getParameters(), metrics);
+	}
+}
@@ -0,0 +1,42 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.Serializable;
+
+import org.gradle.api.Action;
+import org.gradle.api.NamedDomainObjectContainer;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.model.ObjectFactory;
+
+import com.graphql_java_generator.plugin.conf.Packaging;
+
+/**
+ * Parameters for the <I>generateMultiTargetCode</I> task. The parameters inherited from the {@link GraphQLExtension}
+ * are shared by all the targets: they are the default values for the {@link GenerationTarget}s.
+ *
+ * @author etienne-sf
+ */
+public class GenerateMultiTargetCodeExtension extends GraphQLExtension implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The targets of the generation, by name */
+	private final transient NamedDomainObjectContainer<GenerationTarget> targets;
+
+	public GenerateMultiTargetCodeExtension(ProjectLayout projectLayout, Packaging packaging, ObjectFactory objects) {
+		super(projectLayout, packaging);
+		targets = objects.domainObjectContainer(GenerationTarget.class);
+	}
+
+	public NamedDomainObjectContainer<GenerationTarget> getTargets() {
+		return targets;
+	}
+
+	public void targets(Action<? super NamedDomainObjectContainer<GenerationTarget>> action) {
+		action.execute(targets);
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+}
@@ -0,0 +1,166 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.inject.Inject;
+
+import org.gradle.api.Action;
+import org.gradle.api.NamedDomainObjectContainer;
+import org.gradle.api.Project;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Nested;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.graphql_java_generator.plugin.conf.Packaging;
+import com.graphql_java_generator.plugin.conf.PluginMode;
+
+/**
+ * <P>
+ * The <I>generateMultiTargetCode</I> task generates several targets from the same GraphQL schema, for instance a
+ * server, a client for a test harness and some POJOs. Each target is declared by a {@link GenerationTarget}, with its
+ * goal (generateClientCode, generateServerCode or generatePojo), its package, its target folders, and its class name
+ * prefixes and suffixes. The other parameters are common to all the targets.
+ * </P>
+ * <P>
+ * Compared to one task per target, the schema files are read once: their syntax is checked and their fingerprint is
+ * computed once for all the targets, and an introspection result is converted once. All the targets are then generated
+ * by the same Gradle worker, in parallel (see the <I>generationParallelism</I> parameter). Each target has its own
+ * {@link GenerationManifest}: a target whose generated code is up to date is skipped.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+@CacheableTask
+public class GenerateMultiTargetCodeTask extends GraphQLGenerateCodeTask {
+
+	private static final Logger logger = LoggerFactory.getLogger(GenerateMultiTargetCodeTask.class);
+
+	/** The targets of the generation, by name */
+	private final NamedDomainObjectContainer<GenerationTarget> targets = getProject().getObjects()
+			.domainObjectContainer(GenerationTarget.class);
+
+	/**
+	 * @param projectLayout
+	 *            This Gradle service is automatically injected by gradle. It allows to retrieve the project directory,
+	 *            as accessing the Gradle {@link Project} is forbidden from a task.
+	 * @param objects
+	 *            This Gradle service is automatically injected by gradle. It allows to create the targets container.
+	 * @param workerExecutor
+	 *            This Gradle service is automatically injected by gradle. It executes the generation in a Gradle worker.
+	 */
+	@Inject
+	public GenerateMultiTargetCodeTask(ProjectLayout projectLayout, ObjectFactory objects,
+			WorkerExecutor workerExecutor) {
+		this(new GenerateMultiTargetCodeExtension(projectLayout, Packaging.jar, objects), projectLayout,
+				workerExecutor);
+	}
+
+	public GenerateMultiTargetCodeTask(GenerateMultiTargetCodeExtension extension, ProjectLayout projectLayout,
+			WorkerExecutor workerExecutor) {
+		super(extension, projectLayout, workerExecutor);
+		// The targets declared in the extension are added to the ones declared in the task
+		targets.addAllLater(extensionValue(GenerateMultiTargetCodeExtension::getTargets));
+		targets.configureEach(t -> t.setFolderConventions(targetSourceDirectory(), targetResourceDirectory()));
+	}
+
+	@Override
+	@TaskAction
+	public void execute() {
+
+		logger.debug("Executing " + this.getClass().getName());
+		if (getTargets().isEmpty()) {
+			throw new IllegalArgumentException("The " + getName() + " task has no generation target");
+		}
+
+		// The generation of all the targets is executed by one Gradle worker
+		submitGeneration(GraphQLGenerateCodeSpringConfiguration.class);
+	}
+
+	@Nested
+	public List<GenerationTarget> getTargets() {
+		return new ArrayList<>(targets);
+	}
+
+	public void targets(Action<? super NamedDomainObjectContainer<GenerationTarget>> action) {
+		action.execute(targets);
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+
+	@Override
+	protected List<GenerationTarget.TargetSnapshot> targetSnapshots() {
+		List<GenerationTarget.TargetSnapshot> ret = new ArrayList<>();
+		for (GenerationTarget target : targets) {
+			ret.add(target.snapshot());
+		}
+		return ret;
+	}
+
+	/** The manifest of the first target: its schema fingerprint is reused for the unchanged schema files */
+	@Override
+	protected File manifestFile() {
+		GenerationTarget first = targets.iterator().next();
+		return GenerationManifest.getManifestFile(getManifestFolder(), getName() + "-" + first.getName());
+	}
+
+	@Internal
+	@Override
+	public List<File> getTargetSourceFolders() {
+		List<File> ret = new ArrayList<>();
+		for (GenerationTarget target : targets) {
+			ret.add(target.getTargetSourceFolder());
+		}
+		return ret;
+	}
+
+	@Internal
+	@Override
+	public List<File> getTargetResourceFolders() {
+		List<File> ret = new ArrayList<>();
+		for (GenerationTarget target : targets) {
+			ret.add(target.getTargetResourceFolder());
+		}
+		return ret;
+	}
+
+	/** Each target writes its runtime sources in its own sub-folder of the task's folder */
+	@Internal
+	@Override
+	public List<File> getRuntimeSourcesFolders() {
+		List<File> ret = new ArrayList<>();
+		if (getRuntimeSourcesFolder() != null) {
+			for (GenerationTarget target : targets) {
+				ret.add(new File(getRuntimeSourcesFolder(), target.getName()));
+			}
+		}
+		return ret;
+	}
+
+	@Internal
+	@Override
+	public Set<PluginMode> getRuntimeModes() {
+		Set<PluginMode> ret = new TreeSet<>();
+		for (GenerationTarget target : targets) {
+			ret.add(target.codeMode());
+		}
+		return ret;
+	}
+
+	@Override
+	protected GenerateMultiTargetCodeExtension getExtension() {
+		return (GenerateMultiTargetCodeExtension) super.getExtension();
+	}
+}
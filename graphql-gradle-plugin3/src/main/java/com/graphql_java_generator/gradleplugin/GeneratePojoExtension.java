@@ -37,6 +37,28 @@ public class GeneratePojoExtension extends GraphQLExtension implements GenerateP
 	 */
 	Boolean generateJacksonAnnotations = null;
 
+	/**
+	 * <P>
+	 * If true, the generated code is compiled by the <I>generatePojo</I> task, and not by the <I>compileJava</I> task.
+	 * See the <I>precompileGeneratedCode</I> parameter of the {@link GeneratePojoTask} for more information.
+	 * </P>
+	 * <P>
+	 * The default value is false.
+	 * </P>
+	 */
+	private boolean precompileGeneratedCode = false;
+
+	/**
+	 * <P>
+	 * When the generated code is precompiled, the number of shards it is split into. See the <I>precompileShards</I>
+	 * parameter of the {@link GeneratePojoTask} for more information.
+	 * </P>
+	 * <P>
+	 * The default value is 1.
+	 * </P>
+	 */
+	private int precompileShards = 1;
+
 	public GeneratePojoExtension(ProjectLayout projectLayout) {
 		super(projectLayout, null);
 	}
@@ -59,4 +81,24 @@ public class GeneratePojoExtension extends GraphQLExtension implements GenerateP
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
+
+	public boolean isPrecompileGeneratedCode() {
+		return precompileGeneratedCode;
+	}
+
+	public void setPrecompileGeneratedCode(boolean precompileGeneratedCode) {
+		this.precompileGeneratedCode = precompileGeneratedCode;
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
+
+	public int getPrecompileShards() {
+		return precompileShards;
+	}
+
+	public void setPrecompileShards(int precompileShards) {
+		this.precompileShards = precompileShards;
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
 }
\ No newline at end of file
@@ -3,7 +3,6 @@
  */
 package com.graphql_java_generator.gradleplugin;
 
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.ComponentScan.Filter;
 import org.springframework.context.annotation.Configuration;
@@ -22,16 +21,6 @@ import com.graphql_java_generator.util.GraphqlUtils;
 				@Filter(type = FilterType.REGEX, pattern = ".*\\.GenerateGraphQLSchema.*"),
 				@Filter(type = FilterType.REGEX, pattern = ".*\\.GenerateServerCode.*") })
 public class GeneratePojoSpringConfiguration {
-
-	/**
-	 * The current GraphQL extension, that contains the plugin configuration. It is set by the
-	 * {@link GraphQLGenerateCodeTask} task, before it starts the Spring context
-	 */
-	static GeneratePojoTask graphqlPojoConf = null;
-
-	@Bean
-	GeneratePojoTask graphqlPojoConf() {
-		return graphqlPojoConf;
-	}
-
+	// The plugin configuration is registered as a singleton by the Gradle worker, before the Spring context is
+	// refreshed. The components found by the @ComponentScan are cached (see GenerationContextFactory)
 }
@@ -3,25 +3,29 @@
  */
 package com.graphql_java_generator.gradleplugin;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.inject.Inject;
 
 import org.gradle.api.Project;
+import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
-import org.springframework.context.support.AbstractApplicationContext;
 
 import com.graphql_java_generator.plugin.conf.GeneratePojoConfiguration;
-import com.graphql_java_generator.plugin.conf.GraphQLConfiguration;
 import com.graphql_java_generator.plugin.conf.PluginMode;
-import com.graphql_java_generator.plugin.generate_code.GenerateCodeDocumentParser;
-import com.graphql_java_generator.plugin.generate_code.GenerateCodeGenerator;
 
 /**
  * <P>
@@ -101,10 +105,14 @@ import com.graphql_java_generator.plugin.generate_code.GenerateCodeGenerator;
  * 
  * @author EtienneSF
  */
+@CacheableTask
 public class GeneratePojoTask extends GraphQLGenerateCodeTask implements GeneratePojoConfiguration {
 
 	private static final Logger logger = LoggerFactory.getLogger(GeneratePojoTask.class);
 
+	/** The folder where the generated code is compiled, when it is precompiled, relative to the build folder */
+	final static String PRECOMPILED_CLASSES_FOLDER = "graphql-generator/classes";
+
 	/**
 	 * <P>
 	 * The <A HREF="https://github.com/FasterXML/jackson">Jackson</A> annotations are necessary to properly deserialize
@@ -123,51 +131,150 @@ public class GeneratePojoTask extends GraphQLGenerateCodeTask implements Generat
 	 * <LI><I>false</I> when in <I>server</I> mode.</LI>
 	 * </UL>
 	 */
-	Boolean generateJacksonAnnotations = null;
+	private final Property<Boolean> generateJacksonAnnotations = conventionProperty(Boolean.class,
+			GeneratePojoExtension::getGenerateJacksonAnnotations_Raw);
+
+	/**
+	 * <P>
+	 * If true, the generated code is compiled by this task, into the
+	 * <I>build/graphql-generator/classes/&lt;task name&gt;</I> folder. This folder is added to the classpath of the
+	 * <I>compileJava</I> task and to the output of the main source set: the generated POJOs are not compiled by the
+	 * <I>compileJava</I> task. As the generated classes only change when the schema changes, this saves the
+	 * compilation time of large schemas, and the class files are stored in the build cache with the other outputs of
+	 * this task. The generated sources stay in the target source folder, where the IDE can find them.
+	 * </P>
+	 * <P>
+	 * The generated code is compiled with the <I>compileClasspath</I> of the main source set, for the target
+	 * compatibility of the project. So it can't use the classes of the project itself: custom scalars must then be
+	 * implemented in a dependency of the project. Gradle must be executed by a JDK.
+	 * </P>
+	 * <P>
+	 * The default value is false.
+	 * </P>
+	 */
+	private final Property<Boolean> precompileGeneratedCode = conventionProperty(Boolean.class,
+			GeneratePojoExtension::isPrecompileGeneratedCode);
+
+	/**
+	 * <P>
+	 * When the generated code is precompiled (see <I>precompileGeneratedCode</I>), the number of shards it is split
+	 * into. The classes that depend on each other are always in the same shard, and the shards that don't depend on
+	 * each other are compiled in parallel, with <I>generationParallelism</I> threads. When the schema changes, only
+	 * the shards whose sources or dependencies changed are compiled again.
+	 * </P>
+	 * <P>
+	 * The default value is 1: the generated code is compiled at once.
+	 * </P>
+	 */
+	private final Property<Integer> precompileShards = conventionProperty(Integer.class,
+			GeneratePojoExtension::getPrecompileShards);
+
+	/** The classpath used to compile the generated code, when it is precompiled. It is set by the GraphQLPlugin. */
+	private final ConfigurableFileCollection compileClasspath = getProject().getObjects().fileCollection();
+
+	/**
+	 * The java release of the precompiled classes, for instance 17. By default, the target compatibility of the
+	 * project. It is set by the GraphQLPlugin.
+	 */
+	private final Property<Integer> release = getProject().getObjects().property(Integer.class);
 
 	/**
 	 * @param projectLayout
 	 *            This Gradle service is automatically injected by gradle. It allows to retrieve the project directory,
 	 *            as accessing the Gradle {@link Project} is forbidden from a task.
+	 * @param workerExecutor
+	 *            This Gradle service is automatically injected by gradle. It executes the generation in a Gradle worker.
 	 */
 	@Inject
-	public GeneratePojoTask(ProjectLayout projectLayout) {
-		super(new GeneratePojoExtension(projectLayout), projectLayout);
+	public GeneratePojoTask(ProjectLayout projectLayout, WorkerExecutor workerExecutor) {
+		super(new GeneratePojoExtension(projectLayout), projectLayout, workerExecutor);
 	}
 
-	public GeneratePojoTask(GeneratePojoExtension extension, ProjectLayout projectLayout) {
-		super(extension, projectLayout);
+	public GeneratePojoTask(GeneratePojoExtension extension, ProjectLayout projectLayout,
+			WorkerExecutor workerExecutor) {
+		super(extension, projectLayout, workerExecutor);
 	}
 
 	@Override
 	@TaskAction
 	public void execute() {
-		try {
 
-			logger.debug("Executing " + this.getClass().getName());
+		logger.debug("Executing " + this.getClass().getName());
+
+		// The generation is executed by a Gradle worker
+		submitGeneration(getSpringConfigurationClass());
+	}
+
+	@Override
+	@Internal
+	protected Class<?> getSpringConfigurationClass() {
+		return GeneratePojoSpringConfiguration.class;
+	}
+
+	@Override
+	protected void setWorkParameters(GenerationWorkParameters parameters) {
+		if (isPrecompileGeneratedCode()) {
+			parameters.getPrecompiledClassesFolder().set(getPrecompiledClassesFolder());
+			parameters.getCompileClasspath().from(getCompileClasspath());
+			parameters.getRelease().set(getRelease());
+			parameters.getPrecompileShards().set(getPrecompileShards());
+		}
+	}
 
-			// We'll use Spring IoC
-			GeneratePojoSpringConfiguration.graphqlPojoConf = this;
-			AbstractApplicationContext ctx = new AnnotationConfigApplicationContext(
-					GeneratePojoSpringConfiguration.class);
+	/**
+	 * The generated sources are not added to the main source set, when they are compiled by this task (see
+	 * <I>precompileGeneratedCode</I>)
+	 */
+	@Override
+	@Internal
+	public List<File> getTargetSourceFolders() {
+		return isPrecompileGeneratedCode() ? new ArrayList<>() : super.getTargetSourceFolders();
+	}
+
+	@Input
+	public boolean isPrecompileGeneratedCode() {
+		return precompileGeneratedCode.get();
+	}
 
-			// Let's log the current configuration (this will do something only when in debug mode)
-			GraphQLConfiguration pluginConfiguration = ctx.getBean(GraphQLConfiguration.class);
-			pluginConfiguration.logConfiguration();
+	public void setPrecompileGeneratedCode(boolean precompileGeneratedCode) {
+		this.precompileGeneratedCode.set(precompileGeneratedCode);
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
 
-			GenerateCodeDocumentParser documentParser = ctx.getBean(GenerateCodeDocumentParser.class);
-			documentParser.parseGraphQLSchemas();
+	@Input
+	public int getPrecompileShards() {
+		return precompileShards.get();
+	}
 
-			GenerateCodeGenerator codeGenerator = ctx.getBean(GenerateCodeGenerator.class);
-			codeGenerator.generateCode();
+	public void setPrecompileShards(int precompileShards) {
+		this.precompileShards.set(precompileShards);
+		// This task is now configured. So we'll mark compileJava and processResources as depending on it
+		setInitialized(true);
+	}
 
-			ctx.close();
+	/**
+	 * The folder where the generated code is compiled, when it is precompiled (see <I>precompileGeneratedCode</I>)
+	 * 
+	 * @return The folder, or null if the generated code is compiled by the <I>compileJava</I> task
+	 */
+	@OutputDirectory
+	@Optional
+	public File getPrecompiledClassesFolder() {
+		return isPrecompileGeneratedCode()
+				? new File(new File(getProjectBuildDir(), PRECOMPILED_CLASSES_FOLDER), getName())
+				: null;
+	}
 
-			logger.debug("Finished generation of java classes from graphqls files (5)");
+	@Classpath
+	public ConfigurableFileCollection getCompileClasspath() {
+		return compileClasspath;
+	}
 
-		} catch (IOException e) {
-			throw new UncheckedIOException(e.getMessage(), e);
-		}
+	@Input
+	@Optional
+	public Property<Integer> getRelease() {
+		return release;
 	}
 
 	@Override
@@ -178,16 +285,16 @@ public class GeneratePojoTask extends GraphQLGenerateCodeTask implements Generat
 	@Override
 	@Input
 	public boolean isGenerateJacksonAnnotations() {
-		if (generateJacksonAnnotations == null && getExtension().getGenerateJacksonAnnotations_Raw() == null) {
-			// Both stored values are null. We select the default value according to the plugin mode
+		if (!generateJacksonAnnotations.isPresent()) {
+			// Neither the task nor the extension has a value. We select the default value according to the plugin mode
 			return getMode().equals(PluginMode.client);
 		} else {
-			return getValue(generateJacksonAnnotations, getExtension().getGenerateJacksonAnnotations_Raw());
+			return generateJacksonAnnotations.get();
 		}
 	}
 
 	public void setGenerateJacksonAnnotations(boolean generateJacksonAnnotations) {
-		this.generateJacksonAnnotations = generateJacksonAnnotations;
+		this.generateJacksonAnnotations.set(generateJacksonAnnotations);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -3,7 +3,6 @@
  */
 package com.graphql_java_generator.gradleplugin;
 
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.ComponentScan.Filter;
 import org.springframework.context.annotation.Configuration;
@@ -22,16 +21,6 @@ import com.graphql_java_generator.util.GraphqlUtils;
 				@Filter(type = FilterType.REGEX, pattern = ".*\\.GeneratePojo.*"),
 				@Filter(type = FilterType.REGEX, pattern = ".*\\.GraphQL.*") })
 public class GenerateServerCodeSpringConfiguration {
-
-	/**
-	 * The current GraphQL extension, that contains the plugin configuration. It is set by the
-	 * {@link GenerateServerCodeTask} task, before it starts the Spring context
-	 */
-	static GenerateServerCodeTask generateServerCodeConf = null;
-
-	@Bean
-	GenerateServerCodeTask generateServerCodeConf() {
-		return generateServerCodeConf;
-	}
-
+	// The plugin configuration is registered as a singleton by the Gradle worker, before the Spring context is
+	// refreshed. The components found by the @ComponentScan are cached (see GenerationContextFactory)
 }
@@ -1,6 +1,5 @@
 package com.graphql_java_generator.gradleplugin;
 
-import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -9,22 +8,21 @@ import javax.inject.Inject;
 import org.dataloader.BatchLoaderEnvironment;
 import org.gradle.api.Project;
 import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
-import org.springframework.context.support.AbstractApplicationContext;
 import org.springframework.stereotype.Component;
 
 import com.graphql_java_generator.plugin.conf.BatchMappingDataFetcherReturnType;
 import com.graphql_java_generator.plugin.conf.GenerateServerCodeConfiguration;
 import com.graphql_java_generator.plugin.conf.Packaging;
 import com.graphql_java_generator.plugin.conf.PluginMode;
-import com.graphql_java_generator.plugin.generate_code.GenerateCodeDocumentParser;
-import com.graphql_java_generator.plugin.generate_code.GenerateCodeGenerator;
 import com.graphql_java_generator.plugin.language.DataFetchersDelegate;
 import com.graphql_java_generator.util.GraphqlUtils;
 
@@ -74,6 +72,7 @@ import com.graphql_java_generator.util.GraphqlUtils;
  * 
  * @author etienne-sf
  */
+@CacheableTask
 public class GenerateServerCodeTask extends GenerateCodeCommonTask implements GenerateServerCodeConfiguration {
 
 	private static final Logger logger = LoggerFactory.getLogger(GenerateServerCodeTask.class);
@@ -116,7 +115,8 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	 * For an easier use of this parameter, the comment of the generated data fetchers details the exact expected type.
 	 * </P>
 	 */
-	BatchMappingDataFetcherReturnType batchMappingDataFetcherReturnType;
+	private final Property<BatchMappingDataFetcherReturnType> batchMappingDataFetcherReturnType = conventionProperty(
+			BatchMappingDataFetcherReturnType.class, GenerateServerCodeExtension::getBatchMappingDataFetcherReturnType);
 
 	/**
 	 * <P>
@@ -170,7 +170,8 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	 * version</I></B>
 	 * </P>
 	 */
-	private Boolean generateBatchLoaderEnvironment;
+	private final Property<Boolean> generateBatchLoaderEnvironment = conventionProperty(Boolean.class,
+			GenerateServerCodeExtension::isGenerateBatchLoaderEnvironment);
 
 	/**
 	 * <P>
@@ -213,7 +214,8 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	 * case. And in these cases, the plugin will generate a method with the <code>@SchemaMapping</code> annotation
 	 * </P>
 	 */
-	public Boolean generateBatchMappingDataFetchers;
+	private final Property<Boolean> generateBatchMappingDataFetchers = conventionProperty(Boolean.class,
+			GenerateServerCodeExtension::isGenerateBatchMappingDataFetchers);
 	/**
 	 * <P>
 	 * (only for server mode, since 2.5) Defines if a data fetcher is needed for every GraphQL field that has input
@@ -241,7 +243,8 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	 * <LI>From 3.0.1: Default value is true</LI>
 	 * </UL>
 	 */
-	private Boolean generateDataFetcherForEveryFieldsWithArguments;
+	private final Property<Boolean> generateDataFetcherForEveryFieldsWithArguments = conventionProperty(Boolean.class,
+			GenerateServerCodeExtension::isGenerateDataFetcherForEveryFieldsWithArguments);
 
 	/**
 	 * <P>
@@ -276,18 +279,21 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	 * This parameter is available since version 1.18.4
 	 * </P>
 	 */
-	private Boolean generateDataLoaderForLists;
+	private final Property<Boolean> generateDataLoaderForLists = conventionProperty(Boolean.class,
+			GenerateServerCodeExtension::isGenerateDataLoaderForLists);
 
 	/**
 	 * Indicates whether the plugin should generate the JPA annotations, for generated objects, when in server mode.
 	 */
-	private Boolean generateJPAAnnotation;
+	private final Property<Boolean> generateJPAAnnotation = conventionProperty(Boolean.class,
+			GenerateServerCodeExtension::isGenerateJPAAnnotation);
 
 	/**
 	 * The gradle plugin can't easily detect the packaging mode. This parameter allows to choose between jar (the
 	 * default packaging) and war.
 	 */
-	private Packaging packaging;
+	private final Property<Packaging> packaging = conventionProperty(Packaging.class,
+			GenerateServerCodeExtension::getPackaging);
 
 	/**
 	 * <P>
@@ -333,7 +339,8 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	 * documentation](https://docs.spring.io/spring-graphql/reference/controllers.html).
 	 * </P>
 	 */
-	public String ignoredSpringMappings;
+	private final Property<String> ignoredSpringMappings = conventionProperty(String.class,
+			GenerateServerCodeExtension::getIgnoredSpringMappings);
 
 	/**
 	 * <P>
@@ -358,7 +365,8 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	 * </P>
 	 * 
 	 */
-	private String javaTypeForIDType;
+	private final Property<String> javaTypeForIDType = conventionProperty(String.class,
+			GenerateServerCodeExtension::getJavaTypeForIDType);
 
 	/**
 	 * <P>
@@ -375,56 +383,50 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	 * <I>your.app.package.impl, your.app.package.graphql</I>, or just <I>your.app.package</I>
 	 * </P>
 	 */
-	private String scanBasePackages;
+	private final Property<String> scanBasePackages = conventionProperty(String.class,
+			GenerateServerCodeExtension::getScanBasePackages);
 
 	/**
 	 * @param projectLayout
 	 *            This Gradle service is automatically injected by gradle. It allows to retrieve the project directory,
 	 *            as accessing the Gradle {@link Project} is forbidden from a task.
+	 * @param workerExecutor
+	 *            This Gradle service is automatically injected by gradle. It executes the generation in a Gradle worker.
 	 */
 	@Inject
-	public GenerateServerCodeTask(ProjectLayout projectLayout) {
-		super(new GenerateServerCodeExtension(projectLayout, Packaging.jar), projectLayout);
+	public GenerateServerCodeTask(ProjectLayout projectLayout, WorkerExecutor workerExecutor) {
+		super(new GenerateServerCodeExtension(projectLayout, Packaging.jar), projectLayout, workerExecutor);
 	}
 
-	public GenerateServerCodeTask(GenerateServerCodeExtension extension, ProjectLayout projectLayout) {
-		super(extension, projectLayout);
+	public GenerateServerCodeTask(GenerateServerCodeExtension extension, ProjectLayout projectLayout,
+			WorkerExecutor workerExecutor) {
+		super(extension, projectLayout, workerExecutor);
 	}
 
 	@TaskAction
-	public void execute() throws IOException {
+	public void execute() {
 
 		logger.debug("Executing " + this.getClass().getName());
 
-		// We'll use Spring IoC
-		GenerateServerCodeSpringConfiguration.generateServerCodeConf = this;
-		AbstractApplicationContext ctx = new AnnotationConfigApplicationContext(
-				GenerateServerCodeSpringConfiguration.class);
-
-		// Let's log the current configuration (this will do something only when in debug mode)
-		GenerateServerCodeConfiguration pluginConfiguration = ctx.getBean(GenerateServerCodeConfiguration.class);
-		pluginConfiguration.logConfiguration();
-
-		GenerateCodeDocumentParser documentParser = ctx.getBean(GenerateCodeDocumentParser.class);
-		documentParser.parseGraphQLSchemas();
-
-		GenerateCodeGenerator codeGenerator = ctx.getBean(GenerateCodeGenerator.class);
-		codeGenerator.generateCode();
-
-		ctx.close();
+		// The generation is executed by a Gradle worker
+		submitGeneration(getSpringConfigurationClass());
+	}
 
-		logger.debug("Finished generation of java classes from graphqls files (5)");
+	@Override
+	@Internal
+	protected Class<?> getSpringConfigurationClass() {
+		return GenerateServerCodeSpringConfiguration.class;
 	}
 
 	@Override
 	@Input
 	public BatchMappingDataFetcherReturnType getBatchMappingDataFetcherReturnType() {
-		return getValue(batchMappingDataFetcherReturnType, getExtension().getBatchMappingDataFetcherReturnType());
+		return batchMappingDataFetcherReturnType.getOrNull();
 	}
 
 	public void setBatchMappingDataFetcherReturnType(
 			BatchMappingDataFetcherReturnType batchMappingDataFetcherReturnType) {
-		this.batchMappingDataFetcherReturnType = batchMappingDataFetcherReturnType;
+		this.batchMappingDataFetcherReturnType.set(batchMappingDataFetcherReturnType);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -432,11 +434,11 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	@Override
 	@Input
 	public String getIgnoredSpringMappings() {
-		return getValue(ignoredSpringMappings, getExtension().getIgnoredSpringMappings());
+		return ignoredSpringMappings.getOrNull();
 	}
 
 	public final void setIgnoredSpringMappings(String ignoredSpringMappings) {
-		this.ignoredSpringMappings = ignoredSpringMappings;
+		this.ignoredSpringMappings.set(ignoredSpringMappings);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -444,11 +446,11 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	@Override
 	@Input
 	final public String getJavaTypeForIDType() {
-		return getValue(javaTypeForIDType, getExtension().getJavaTypeForIDType());
+		return javaTypeForIDType.getOrNull();
 	}
 
 	public final void setJavaTypeForIDType(String javaTypeForIDType) {
-		this.javaTypeForIDType = javaTypeForIDType;
+		this.javaTypeForIDType.set(javaTypeForIDType);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -463,11 +465,11 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	@Optional
 	@Override
 	public Packaging getPackaging() {
-		return getValue(packaging, ((GenerateServerCodeExtension) extension).getPackaging());
+		return packaging.getOrNull();
 	}
 
 	public void setPackaging(Packaging packaging) {
-		this.packaging = packaging;
+		this.packaging.set(packaging);
 	}
 
 	@Internal
@@ -479,11 +481,11 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	@Input
 	@Override
 	final public String getScanBasePackages() {
-		return getValue(scanBasePackages, getExtension().getScanBasePackages());
+		return scanBasePackages.getOrNull();
 	}
 
 	public final void setScanBasePackages(String scanBasePackages) {
-		this.scanBasePackages = scanBasePackages;
+		this.scanBasePackages.set(scanBasePackages);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -491,11 +493,11 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	@Override
 	@Input
 	final public boolean isGenerateBatchLoaderEnvironment() {
-		return getValue(generateBatchLoaderEnvironment, getExtension().isGenerateBatchLoaderEnvironment());
+		return generateBatchLoaderEnvironment.get();
 	}
 
 	public final void setGenerateBatchLoaderEnvironment(boolean generateBatchLoaderEnvironment) {
-		this.generateBatchLoaderEnvironment = generateBatchLoaderEnvironment;
+		this.generateBatchLoaderEnvironment.set(generateBatchLoaderEnvironment);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -503,11 +505,11 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	@Override
 	@Input
 	public boolean isGenerateBatchMappingDataFetchers() {
-		return getValue(generateBatchMappingDataFetchers, getExtension().isGenerateBatchMappingDataFetchers());
+		return generateBatchMappingDataFetchers.get();
 	}
 
 	public void setGenerateBatchMappingDataFetchers(boolean generateBatchMappingDataFetchers) {
-		this.generateBatchMappingDataFetchers = generateBatchMappingDataFetchers;
+		this.generateBatchMappingDataFetchers.set(generateBatchMappingDataFetchers);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -515,13 +517,12 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	@Override
 	@Input
 	final public boolean isGenerateDataFetcherForEveryFieldsWithArguments() {
-		return getValue(generateDataFetcherForEveryFieldsWithArguments,
-				getExtension().isGenerateDataFetcherForEveryFieldsWithArguments());
+		return generateDataFetcherForEveryFieldsWithArguments.get();
 	}
 
 	public final void setGenerateDataFetcherForEveryFieldsWithArguments(
 			boolean generateDataFetcherForEveryFieldsWithArguments) {
-		this.generateDataFetcherForEveryFieldsWithArguments = generateDataFetcherForEveryFieldsWithArguments;
+		this.generateDataFetcherForEveryFieldsWithArguments.set(generateDataFetcherForEveryFieldsWithArguments);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -535,11 +536,11 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	@Override
 	@Input
 	final public boolean isGenerateJPAAnnotation() {
-		return getValue(generateJPAAnnotation, getExtension().isGenerateJPAAnnotation());
+		return generateJPAAnnotation.get();
 	}
 
 	public final void setGenerateJPAAnnotation(boolean generateJPAAnnotation) {
-		this.generateJPAAnnotation = generateJPAAnnotation;
+		this.generateJPAAnnotation.set(generateJPAAnnotation);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -547,11 +548,11 @@ public class GenerateServerCodeTask extends GenerateCodeCommonTask implements Ge
 	@Override
 	@Input
 	public boolean isGenerateDataLoaderForLists() {
-		return getValue(generateDataLoaderForLists, getExtension().isGenerateDataLoaderForLists());
+		return generateDataLoaderForLists.get();
 	}
 
 	public final void setGenerateDataLoaderForLists(boolean generateDataLoaderForLists) {
-		this.generateDataLoaderForLists = generateDataLoaderForLists;
+		this.generateDataLoaderForLists.set(generateDataLoaderForLists);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -0,0 +1,383 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.graphql_java_generator.gradleplugin.GeneratedSourcesSharder.Shard;
+
+/**
+ * <P>
+ * Compiles the generated code in the Gradle worker, when the <I>precompileGeneratedCode</I> plugin parameter of the
+ * {@link GeneratePojoTask} is true. The generated sources are compiled in the staging folder, with the JDK's compiler,
+ * right after they are generated. The class files are then synchronized like the other generated files (see
+ * {@link GeneratedFilesSynchronizer}), and the <I>compileJava</I> task doesn't compile the generated POJOs again.
+ * </P>
+ * <P>
+ * As the generated code doesn't change when the project's code changes, the class files are stored in the build cache
+ * with the other outputs of the task.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class GeneratedCodeCompiler {
+
+	private static final Logger logger = LoggerFactory.getLogger(GeneratedCodeCompiler.class);
+
+	/** The file where the shards of the last compilation are stored, in the work folder */
+	final static String SHARDS_FILE = "precompiled-shards.txt";
+
+	/** The hash of the jars of the compile classpath, by absolute path, length and last modification time */
+	private static final Map<String, String> jarHashes = new ConcurrentHashMap<>();
+
+	/**
+	 * Compiles all the java files of the given source folder
+	 *
+	 * @param sourceFolder
+	 *            The folder that contains the generated sources to compile
+	 * @param sourcePathFolder
+	 *            A folder that contains other sources, that the generated code may use, but that are not compiled (for
+	 *            instance the shared runtime sources). It may be null.
+	 * @param classesFolder
+	 *            The folder where the class files are written
+	 * @param classpath
+	 *            The classpath of the compilation
+	 * @param charset
+	 *            The encoding of the source files
+	 * @param release
+	 *            The java release of the class files (for instance 17), or null to compile for the current JVM
+	 * @return The number of compiled source files
+	 */
+	public static int compile(File sourceFolder, File sourcePathFolder, File classesFolder, Collection<File> classpath,
+			Charset charset, Integer release) {
+		return compile(listJavaFiles(sourceFolder), sourcePathFolder, classesFolder, classpath, charset, release);
+	}
+
+	private static int compile(List<File> sources, File sourcePathFolder, File classesFolder,
+			Collection<File> classpath, Charset charset, Integer release) {
+		if (sources.isEmpty()) {
+			return 0;
+		}
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			throw new RuntimeException("The generated code can't be compiled, as Gradle is not executed by a JDK."
+					+ " Please execute Gradle with a JDK, or set the precompileGeneratedCode plugin parameter to"
+					+ " false");
+		}
+		classesFolder.mkdirs();
+
+		List<String> options = new ArrayList<>(Arrays.asList("-d", classesFolder.getAbsolutePath(), //
+				"-encoding", charset.name(), //
+				// The classes are compiled with the same debug information as the compileJava task
+				"-g", "-proc:none", "-implicit:none", "-nowarn"));
+		options.add("-classpath");
+		options.add(classpath.stream().map(File::getAbsolutePath).collect(Collectors.joining(File.pathSeparator)));
+		options.add("-sourcepath");
+		options.add((sourcePathFolder == null) ? "" : sourcePathFolder.getAbsolutePath());
+		if (release != null) {
+			options.add("--release");
+			options.add(release.toString());
+		}
+
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, charset)) {
+			boolean success = compiler.getTask(null, fileManager, diagnostics, options, null,
+					fileManager.getJavaFileObjectsFromFiles(sources)).call();
+			if (!success) {
+				StringBuilder errors = new StringBuilder();
+				for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+					if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+						errors.append("\n")
+								.append(diagnostic.getSource() == null ? "" : diagnostic.getSource().getName())
+								.append(":").append(diagnostic.getLineNumber()).append(": ")
+								.append(diagnostic.getMessage(Locale.ROOT));
+					}
+				}
+				throw new RuntimeException("The compilation of the generated code failed. If the generated code uses"
+						+ " classes of the project, like custom scalars, set the precompileGeneratedCode plugin"
+						+ " parameter to false." + errors);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not compile the generated code: " + e.getMessage(), e);
+		}
+		return sources.size();
+	}
+
+	/**
+	 * <P>
+	 * Same as {@link #compile(File, File, File, Collection, Charset, Integer)}, where the sources are split into
+	 * shards (see {@link GeneratedSourcesSharder}). Each shard is compiled in its own folder, in the given pool, as
+	 * soon as the shards it depends on are compiled. A shard whose sources, dependencies, classpath and release are the
+	 * same as in the previous compilation is not compiled again: its class files are copied from the previous classes
+	 * folder.
+	 * </P>
+	 * <P>
+	 * If the compilation of a shard fails, all the sources are compiled at once. So that the errors are reported as
+	 * usual, and a dependency that would not have been found by the {@link GeneratedSourcesSharder} can't make the
+	 * compilation fail.
+	 * </P>
+	 *
+	 * @param sourceFolder
+	 *            The folder that contains the generated sources to compile
+	 * @param sourcePathFolder
+	 *            A folder that contains other sources, that the generated code may use, but that are not compiled. It
+	 *            may be null.
+	 * @param classesFolder
+	 *            The folder where the class files are written
+	 * @param classpath
+	 *            The classpath of the compilation
+	 * @param charset
+	 *            The encoding of the source files
+	 * @param release
+	 *            The java release of the class files (for instance 17), or null to compile for the current JVM
+	 * @param nbShards
+	 *            The expected number of shards
+	 * @param previousClassesFolder
+	 *            The folder that contains the class files of the previous compilation
+	 * @param workFolder
+	 *            The folder where the shards are compiled, and where the description of the shards is stored for the
+	 *            next compilation
+	 * @param pool
+	 *            The pool where the shards are compiled, or null to compile them one after the other
+	 * @return The number of compiled source files. The sources of the shards that are not compiled again are not
+	 *         counted.
+	 */
+	public static int compileShards(File sourceFolder, File sourcePathFolder, File classesFolder,
+			Collection<File> classpath, Charset charset, Integer release, int nbShards, File previousClassesFolder,
+			File workFolder, ForkJoinPool pool) {
+		List<Shard> shards = GeneratedSourcesSharder.computeShards(listJavaFiles(sourceFolder), nbShards, charset);
+		File shardsFile = new File(workFolder, SHARDS_FILE);
+		Map<String, List<String>> previousShards = readShards(shardsFile);
+
+		// The key of a shard changes when its sources or one of its dependencies change
+		String environment = describeClasspath(classpath) + "|release=" + release;
+		List<String> keys = new ArrayList<>();
+		List<Set<Integer>> transitiveDependencies = new ArrayList<>();
+		for (Shard shard : shards) {
+			StringBuilder sb = new StringBuilder(environment);
+			Set<Integer> transitive = new TreeSet<>(shard.getDependencies());
+			for (int dep : shard.getDependencies()) {
+				sb.append("|").append(keys.get(dep));
+				transitive.addAll(transitiveDependencies.get(dep));
+			}
+			for (File source : shard.getSources()) {
+				try {
+					sb.append("|").append(GenerationManifest.toRelativePath(sourceFolder, source.toPath())).append("=")
+							.append(GenerationManifest.hash(Files.readAllBytes(source.toPath())));
+				} catch (IOException e) {
+					throw new UncheckedIOException("Could not read the generated file " + source, e);
+				}
+			}
+			keys.add(GenerationManifest.hash(sb.toString().getBytes(StandardCharsets.UTF_8)));
+			transitiveDependencies.add(transitive);
+		}
+
+		File shardsFolder = new File(workFolder, "shards");
+		GeneratedFilesSynchronizer.deleteFolder(shardsFolder);
+		Map<String, List<String>> classFiles = new ConcurrentHashMap<>();
+		AtomicInteger nbCompiled = new AtomicInteger();
+		Executor executor = (pool == null) ? Runnable::run : pool;
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (Shard shard : shards) {
+			CompletableFuture<?>[] dependencies = shard.getDependencies().stream().map(futures::get)
+					.toArray(CompletableFuture<?>[]::new);
+			futures.add(CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+				int i = shard.getIndex();
+				File shardFolder = new File(shardsFolder, Integer.toString(i));
+				List<String> previous = previousShards.get(keys.get(i));
+				if (previous != null && copyClassFiles(previousClassesFolder, previous, shardFolder)) {
+					logger.debug("{} is unchanged: it is not compiled again", shard);
+				} else {
+					GeneratedFilesSynchronizer.deleteFolder(shardFolder);
+					List<File> shardClasspath = new ArrayList<>(classpath);
+					for (int dep : transitiveDependencies.get(i)) {
+						shardClasspath.add(new File(shardsFolder, Integer.toString(dep)));
+					}
+					compile(shard.getSources(), sourcePathFolder, shardFolder, shardClasspath, charset, release);
+					nbCompiled.addAndGet(shard.getSources().size());
+				}
+				classFiles.put(keys.get(i), listRelativePaths(shardFolder));
+			}, executor));
+		}
+
+		try {
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+		} catch (CompletionException e) {
+			logger.info("The compilation of the generated code by shards failed ({}). All the sources are compiled at"
+					+ " once.", (e.getCause() == null) ? e.getMessage() : e.getCause().getMessage());
+			GeneratedFilesSynchronizer.deleteFolder(shardsFolder);
+			shardsFile.delete();
+			return compile(sourceFolder, sourcePathFolder, classesFolder, classpath, charset, release);
+		}
+
+		// The class files of all the shards are merged into the classes folder
+		for (Shard shard : shards) {
+			File shardFolder = new File(shardsFolder, Integer.toString(shard.getIndex()));
+			if (!copyClassFiles(shardFolder, classFiles.get(keys.get(shard.getIndex())), classesFolder)) {
+				throw new RuntimeException("[Internal error] Could not copy the class files of " + shard);
+			}
+		}
+		writeShards(shardsFile, keys, classFiles);
+		logger.info("The generated code has been compiled in {} shards: {} source files compiled, {} unchanged",
+				shards.size(), nbCompiled.get(), listJavaFiles(sourceFolder).size() - nbCompiled.get());
+		return nbCompiled.get();
+	}
+
+	/**
+	 * Returns a description of the given classpath, that changes when the content of one of its entries changes. It is
+	 * part of the inputs of the generation (see
+	 * {@link GenerationManifest#hashInputs(ConfigurationSnapshot, java.util.Map, String...)}), and of the keys of the
+	 * shards. Each entry is described by its name and the hash of its content, and not by its path or its last
+	 * modification time: the description doesn't change when the project is moved to another folder, or when the same
+	 * jars are downloaded again.
+	 *
+	 * @param classpath
+	 * @return
+	 */
+	static String describeClasspath(Collection<File> classpath) {
+		return classpath.stream().map(GeneratedCodeCompiler::describeClasspathEntry)
+				.collect(Collectors.joining(File.pathSeparator));
+	}
+
+	private static String describeClasspathEntry(File entry) {
+		if (entry.isFile()) {
+			// A jar is hashed once per Gradle daemon, as long as it is not modified
+			return entry.getName() + "=" + jarHashes.computeIfAbsent(
+					entry.getAbsolutePath() + "|" + entry.length() + "|" + entry.lastModified(),
+					k -> GenerationManifest.hash(entry.toPath()));
+		} else if (entry.isDirectory()) {
+			// A folder of class files: its files are hashed, with their path relative to this folder
+			StringBuilder sb = new StringBuilder();
+			try (Stream<Path> stream = Files.walk(entry.toPath())) {
+				for (Path path : stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+					sb.append(GenerationManifest.toRelativePath(entry, path)).append("=")
+							.append(GenerationManifest.hash(path)).append("\n");
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not list the files of " + entry, e);
+			}
+			return entry.getName() + "=" + GenerationManifest.hash(sb.toString().getBytes(StandardCharsets.UTF_8));
+		} else {
+			return entry.getName() + "=<none>";
+		}
+	}
+
+	/**
+	 * Copies the given class files
+	 *
+	 * @return false if one of the class files doesn't exist
+	 */
+	private static boolean copyClassFiles(File sourceFolder, List<String> classFiles, File targetFolder) {
+		try {
+			for (String classFile : classFiles) {
+				Path source = new File(sourceFolder, classFile).toPath();
+				if (!Files.isRegularFile(source)) {
+					return false;
+				}
+				Path target = new File(targetFolder, classFile).toPath();
+				Files.createDirectories(target.getParent());
+				Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return true;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not copy the class files from " + sourceFolder, e);
+		}
+	}
+
+	private static List<String> listRelativePaths(File folder) {
+		if (!folder.isDirectory()) {
+			return new ArrayList<>();
+		}
+		try (Stream<Path> stream = Files.walk(folder.toPath())) {
+			return stream.filter(Files::isRegularFile).map(p -> GenerationManifest.toRelativePath(folder, p)).sorted()
+					.collect(Collectors.toList());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not list the files in " + folder, e);
+		}
+	}
+
+	/**
+	 * Reads the shards of the previous compilation
+	 *
+	 * @return The class files of each shard, by shard key. It is empty if there was no previous compilation by shards.
+	 */
+	private static Map<String, List<String>> readShards(File shardsFile) {
+		Map<String, List<String>> ret = new HashMap<>();
+		if (shardsFile.isFile()) {
+			try {
+				for (String line : Files.readAllLines(shardsFile.toPath(), StandardCharsets.UTF_8)) {
+					List<String> items = new ArrayList<>(Arrays.asList(line.split("\t")));
+					if (!items.get(0).isEmpty()) {
+						ret.put(items.remove(0), items);
+					}
+				}
+			} catch (IOException e) {
+				logger.debug("Could not read the {} file: {}", shardsFile, e.getMessage());
+			}
+		}
+		return ret;
+	}
+
+	private static void writeShards(File shardsFile, List<String> keys, Map<String, List<String>> classFiles) {
+		List<String> lines = new ArrayList<>();
+		for (String key : keys) {
+			List<String> items = new ArrayList<>();
+			items.add(key);
+			items.addAll(classFiles.get(key));
+			lines.add(String.join("\t", items));
+		}
+		try {
+			shardsFile.getParentFile().mkdirs();
+			Files.write(shardsFile.toPath(), lines, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write the " + shardsFile + " file", e);
+		}
+	}
+
+	private static List<File> listJavaFiles(File folder) {
+		if (!folder.isDirectory()) {
+			return new ArrayList<>();
+		}
+		try (Stream<Path> stream = Files.walk(folder.toPath())) {
+			return stream.filter(p -> p.toString().endsWith(".java") && Files.isRegularFile(p)).map(Path::toFile)
+					.sorted().collect(Collectors.toList());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not list the generated sources in " + folder, e);
+		}
+	}
+}
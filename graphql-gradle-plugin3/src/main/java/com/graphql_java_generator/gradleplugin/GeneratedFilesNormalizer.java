@@ -0,0 +1,290 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <P>
+ * Makes the generated files independent of the machine that generated them, when the <I>reproducibleOutput</I>
+ * plugin parameter is true. Two builds of the same inputs, in two different folders or on two different machines, then
+ * produce byte-identical files, so that the tasks that use them (like <I>compileJava</I>) get hits in a shared build
+ * cache.
+ * </P>
+ * <P>
+ * The generated text files are normalized in the staging folder, before they are compared to the existing ones (see
+ * {@link GeneratedFilesSynchronizer}):
+ * </P>
+ * <UL>
+ * <LI>The absolute paths of the project folder are replaced by relative paths, and the ones of the user home folder
+ * by <I>~</I>. For instance the custom template files, that are written in the header of the generated classes.</LI>
+ * <LI>The timestamps are removed: the <I>date</I> attribute of the <I>&#64;Generated</I> annotations, and the date
+ * comment of the properties files.</LI>
+ * <LI>The line separators are <I>\n</I>.</LI>
+ * <LI>In the java files, the imports are sorted and deduplicated, and the consecutive annotations that are each on
+ * their own line are sorted.</LI>
+ * </UL>
+ *
+ * @author etienne-sf
+ */
+public class GeneratedFilesNormalizer {
+
+	/** The extensions of the generated files that are normalized. The other files are left unchanged. */
+	final static Set<String> TEXT_EXTENSIONS = new HashSet<>(Arrays.asList("java", "graphqls", "graphql", "json",
+			"properties", "txt", "imports", "factories", "xml", "yml", "yaml"));
+
+	/** A <I>&#64;Generated</I> annotation, with its attributes in the first group */
+	private static final Pattern GENERATED_ANNOTATION = Pattern
+			.compile("@(?:[\\w.]+\\.)?Generated\\s*\\(([^)]*)\\)");
+
+	/** The <I>date</I> attribute of a <I>&#64;Generated</I> annotation, with its separating comma */
+	private static final Pattern DATE_ATTRIBUTE = Pattern
+			.compile("\\s*,\\s*date\\s*=\\s*\"[^\"]*\"|date\\s*=\\s*\"[^\"]*\"\\s*,?\\s*");
+
+	/** The date comment that {@link java.util.Properties#store(java.io.Writer, String)} writes */
+	private static final Pattern PROPERTIES_DATE = Pattern
+			.compile("(?m)^#\\w{3} \\w{3} [ \\d]\\d \\d{2}:\\d{2}:\\d{2} [\\w+:-]+ \\d{4}\\n");
+
+	/** An annotation that is alone on its line */
+	private static final Pattern ANNOTATION_LINE = Pattern.compile("\\s*@[\\w.]+(\\s*\\(.*\\))?\\s*");
+
+	/** The absolute paths to replace, by their replacement. The longest paths are replaced first. */
+	private final Map<Pattern, String> pathReplacements = new LinkedHashMap<>();
+
+	/** The encoding of the generated files */
+	private final Charset charset;
+
+	/**
+	 * @param projectDir
+	 *            The project folder. Its absolute path is replaced by a relative one.
+	 * @param userHome
+	 *            The user home folder, or null. Its absolute path is replaced by <I>~</I>.
+	 * @param charset
+	 *            The encoding of the generated files
+	 */
+	public GeneratedFilesNormalizer(File projectDir, File userHome, Charset charset) {
+		this.charset = charset;
+		Map<String, String> replacements = new LinkedHashMap<>();
+		addPathReplacements(replacements, projectDir, "");
+		if (userHome != null) {
+			addPathReplacements(replacements, userHome, "~/");
+		}
+		for (String path : replacements.keySet().stream().sorted(Comparator.comparing(String::length).reversed())
+				.collect(Collectors.toList())) {
+			// A path alone must not be the beginning of another folder name
+			String end = (path.endsWith("/") || path.endsWith("\\")) ? "" : "(?![\\w.-])";
+			pathReplacements.put(Pattern.compile(Pattern.quote(path) + end),
+					Matcher.quoteReplacement(replacements.get(path)));
+		}
+	}
+
+	private static void addPathReplacements(Map<String, String> replacements, File folder, String replacement) {
+		Path absolute = folder.getAbsoluteFile().toPath().normalize();
+		String path = absolute.toString();
+		// The URIs are written as file:/folder by java.io.File, and as file:///folder by java.nio.file.Path
+		String uri = absolute.toFile().toURI().toString().replaceAll("/$", "");
+		String nioUri = absolute.toUri().toString().replaceAll("/$", "");
+		for (String p : new TreeSet<>(
+				Arrays.asList(path.replace('\\', '/'), path.replace('/', '\\'), uri, nioUri))) {
+			// The path followed by a separator becomes a relative path. The path alone becomes the current folder.
+			replacements.put(p + "/", replacement);
+			replacements.put(p + "\\", replacement);
+			replacements.put(p, replacement.isEmpty() ? "." : replacement.substring(0, replacement.length() - 1));
+		}
+	}
+
+	/**
+	 * Normalizes all the text files in the given folders
+	 *
+	 * @param folders
+	 *            The staging folders of the generation
+	 * @param pool
+	 *            The pool where the files are normalized, or null to do it in the current thread
+	 * @return The number of files whose content changed
+	 */
+	public int normalize(Collection<File> folders, ForkJoinPool pool) {
+		List<Path> files = new ArrayList<>();
+		for (File folder : folders) {
+			if (folder.isDirectory()) {
+				try (Stream<Path> stream = Files.walk(folder.toPath())) {
+					stream.filter(Files::isRegularFile).filter(GeneratedFilesNormalizer::isTextFile)
+							.forEach(files::add);
+				} catch (IOException e) {
+					throw new UncheckedIOException("Could not list the generated files in " + folder, e);
+				}
+			}
+		}
+		long nbChanged = (pool == null) ? files.stream().filter(this::normalizeFile).count()
+				: pool.submit(() -> files.parallelStream().filter(this::normalizeFile).count()).join();
+		return (int) nbChanged;
+	}
+
+	private static boolean isTextFile(Path path) {
+		String name = path.getFileName().toString();
+		int dot = name.lastIndexOf('.');
+		// The files without extension are typically the META-INF/services files
+		return dot < 0 || TEXT_EXTENSIONS.contains(name.substring(dot + 1));
+	}
+
+	/**
+	 * Normalizes the given file
+	 *
+	 * @return true if the file content changed
+	 */
+	private boolean normalizeFile(Path path) {
+		try {
+			String content = new String(Files.readAllBytes(path), charset);
+			String normalized = normalize(content, path.getFileName().toString().endsWith(".java"));
+			if (normalized.equals(content)) {
+				return false;
+			}
+			Files.write(path, normalized.getBytes(charset));
+			return true;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not normalize the generated file " + path, e);
+		}
+	}
+
+	/**
+	 * Normalizes the content of a generated file
+	 *
+	 * @param content
+	 * @param java
+	 *            true if the content is a java source, whose imports and annotations are sorted
+	 * @return
+	 */
+	String normalize(String content, boolean java) {
+		String ret = content.replace("\r\n", "\n");
+		for (Map.Entry<Pattern, String> replacement : pathReplacements.entrySet()) {
+			ret = replacement.getKey().matcher(ret).replaceAll(replacement.getValue());
+		}
+		ret = removeGeneratedDates(ret);
+		ret = PROPERTIES_DATE.matcher(ret).replaceAll("");
+		if (java) {
+			List<String> lines = new ArrayList<>(Arrays.asList(ret.split("\n", -1)));
+			sortImports(lines);
+			sortAnnotations(lines);
+			ret = String.join("\n", lines);
+		}
+		return ret;
+	}
+
+	private static String removeGeneratedDates(String content) {
+		Matcher matcher = GENERATED_ANNOTATION.matcher(content);
+		StringBuilder sb = new StringBuilder();
+		while (matcher.find()) {
+			String attributes = DATE_ATTRIBUTE.matcher(matcher.group(1)).replaceAll("");
+			String annotation = matcher.group().substring(0, matcher.start(1) - matcher.start()) + attributes + ")";
+			matcher.appendReplacement(sb, Matcher.quoteReplacement(annotation));
+		}
+		matcher.appendTail(sb);
+		return sb.toString();
+	}
+
+	/**
+	 * Sorts and deduplicates the imports of a java source: the static imports first, then the other ones, separated by
+	 * an empty line. Nothing is done if the imports are not only separated by empty lines.
+	 */
+	private static void sortImports(List<String> lines) {
+		int first = -1;
+		int last = -1;
+		for (int i = 0; i < lines.size(); i += 1) {
+			if (lines.get(i).startsWith("import ")) {
+				if (first < 0) {
+					first = i;
+				}
+				last = i;
+			}
+		}
+		if (first < 0) {
+			return;
+		}
+		Set<String> staticImports = new TreeSet<>();
+		Set<String> imports = new TreeSet<>();
+		for (String line : lines.subList(first, last + 1)) {
+			String trimmed = line.trim();
+			if (trimmed.startsWith("import static ")) {
+				staticImports.add(trimmed);
+			} else if (trimmed.startsWith("import ")) {
+				imports.add(trimmed);
+			} else if (!trimmed.isEmpty()) {
+				// A comment, for instance: the imports are left unchanged
+				return;
+			}
+		}
+		List<String> sorted = new ArrayList<>(staticImports);
+		if (!staticImports.isEmpty() && !imports.isEmpty()) {
+			sorted.add("");
+		}
+		sorted.addAll(imports);
+		lines.subList(first, last + 1).clear();
+		lines.addAll(first, sorted);
+	}
+
+	/** Sorts the consecutive lines that each contain one annotation, with its parameters */
+	private static void sortAnnotations(List<String> lines) {
+		int i = 0;
+		while (i < lines.size()) {
+			int end = i;
+			while (end < lines.size() && isAnnotationLine(lines.get(end))) {
+				end += 1;
+			}
+			if (end - i > 1) {
+				List<String> annotations = lines.subList(i, end);
+				List<String> sorted = annotations.stream().sorted(Comparator.comparing(String::trim))
+						.collect(Collectors.toList());
+				for (int j = 0; j < sorted.size(); j += 1) {
+					annotations.set(j, sorted.get(j));
+				}
+			}
+			i = Math.max(end, i + 1);
+		}
+	}
+
+	private static boolean isAnnotationLine(String line) {
+		if (!ANNOTATION_LINE.matcher(line).matches()) {
+			return false;
+		}
+		// The annotation must be complete on this line: its parentheses must be balanced, outside of the strings
+		int depth = 0;
+		boolean inString = false;
+		for (int i = 0; i < line.length(); i += 1) {
+			char c = line.charAt(i);
+			if (inString) {
+				if (c == '\\') {
+					i += 1;
+				} else if (c == '"') {
+					inString = false;
+				}
+			} else if (c == '"') {
+				inString = true;
+			} else if (c == '(') {
+				depth += 1;
+			} else if (c == ')') {
+				depth -= 1;
+			}
+		}
+		return depth == 0 && !inString;
+	}
+}
@@ -0,0 +1,206 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <P>
+ * The last stage of the code generation. The plugin logic generates the files into a staging folder. Then this class
+ * copies them into the target folders, but only the files whose content changed: the files that are identical to the
+ * existing ones are not written again. This keeps their timestamp, so that the java incremental compilation and the
+ * IDE indexing are not triggered for unchanged files.
+ * </P>
+ * <P>
+ * The files of the previous generation that have not been generated again (the orphans) are removed from the target
+ * folders.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class GeneratedFilesSynchronizer {
+
+	/** The folder of the graphql-java-generator runtime packages, in a source folder */
+	final static String RUNTIME_PACKAGE_FOLDER = "com/graphql_java_generator";
+
+	/** The number of files copied into the target folders, as they are new or their content changed */
+	private int nbWritten = 0;
+
+	/** The number of generated files whose content is the same as the existing file's one */
+	private int nbSkipped = 0;
+
+	/** The number of files of the previous generation that have not been generated again */
+	private int nbDeleted = 0;
+
+	/** The generated files, by root name, as listed in the staging folders */
+	private Map<String, Set<String>> outputs;
+
+	/**
+	 * Copies the changed files of the staging folders into the target folders, and removes the orphans.
+	 *
+	 * @param stagingRoots
+	 *            The folders where the files have been generated, by root name
+	 * @param targetRoots
+	 *            The folders where the files must be copied, by root name
+	 * @param previousOutputs
+	 *            The files generated by the previous generation, by root name. The ones that have not been generated
+	 *            again are removed.
+	 * @return
+	 */
+	public static GeneratedFilesSynchronizer synchronize(Map<String, File> stagingRoots, Map<String, File> targetRoots,
+			Map<String, Set<String>> previousOutputs) {
+		return synchronize(stagingRoots, targetRoots, previousOutputs, null);
+	}
+
+	/**
+	 * Same as {@link #synchronize(Map, Map, Map)}, where the files are compared and copied in parallel
+	 *
+	 * @param stagingRoots
+	 * @param targetRoots
+	 * @param previousOutputs
+	 * @param pool
+	 *            The pool where the files are compared and copied, or null to do it in the current thread
+	 * @return
+	 */
+	public static GeneratedFilesSynchronizer synchronize(Map<String, File> stagingRoots, Map<String, File> targetRoots,
+			Map<String, Set<String>> previousOutputs, ForkJoinPool pool) {
+		GeneratedFilesSynchronizer synchronizer = new GeneratedFilesSynchronizer();
+		synchronizer.outputs = GenerationManifest.listFiles(stagingRoots);
+
+		List<Path[]> copies = new ArrayList<>();
+		for (Map.Entry<String, Set<String>> root : synchronizer.outputs.entrySet()) {
+			File stagingRoot = stagingRoots.get(root.getKey());
+			File targetRoot = targetRoots.get(root.getKey());
+			for (String path : root.getValue()) {
+				copies.add(new Path[] { new File(stagingRoot, path).toPath(), new File(targetRoot, path).toPath() });
+			}
+		}
+		long nbWritten = (pool == null) ? copies.stream().filter(c -> copyIfChanged(c[0], c[1])).count()
+				: pool.submit(() -> copies.parallelStream().filter(c -> copyIfChanged(c[0], c[1])).count()).join();
+		synchronizer.nbWritten = (int) nbWritten;
+		synchronizer.nbSkipped = copies.size() - synchronizer.nbWritten;
+
+		for (Map.Entry<String, Set<String>> root : previousOutputs.entrySet()) {
+			File targetRoot = targetRoots.get(root.getKey());
+			Set<String> generated = synchronizer.outputs.get(root.getKey());
+			if (targetRoot != null) {
+				for (String path : root.getValue()) {
+					if ((generated == null || !generated.contains(path)) && new File(targetRoot, path).delete()) {
+						synchronizer.nbDeleted += 1;
+					}
+				}
+			}
+		}
+
+		return synchronizer;
+	}
+
+	/**
+	 * Copies the source file to the target file, if their content is different.
+	 *
+	 * @return true if the file has been copied
+	 */
+	private static boolean copyIfChanged(Path source, Path target) {
+		try {
+			if (Files.isRegularFile(target) && Files.mismatch(source, target) == -1L) {
+				return false;
+			} else {
+				Files.createDirectories(target.getParent());
+				Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+				return true;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not copy the generated file " + source + " to " + target, e);
+		}
+	}
+
+	/**
+	 * Moves the runtime sources, that the plugin logic copied with the generated code, from the staging source folder
+	 * to the staging runtime folder. The runtime sources are the files of the <I>com.graphql_java_generator</I>
+	 * packages, except the ones of the package of the generated code.
+	 *
+	 * @param stagingSourceFolder
+	 *            The folder where the code has been generated
+	 * @param stagingRuntimeFolder
+	 *            The folder where the runtime sources must be moved
+	 * @param packageName
+	 *            The package of the generated code
+	 * @return The number of moved files
+	 */
+	public static int moveRuntimeSources(File stagingSourceFolder, File stagingRuntimeFolder, String packageName) {
+		Path sourceRoot = stagingSourceFolder.toPath();
+		Path runtimeRoot = sourceRoot.resolve(RUNTIME_PACKAGE_FOLDER);
+		if (!Files.isDirectory(runtimeRoot)) {
+			return 0;
+		}
+		String generatedFolder = (packageName == null) ? null : packageName.replace('.', '/') + "/";
+		List<Path> files;
+		try (Stream<Path> stream = Files.walk(runtimeRoot)) {
+			files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not list the runtime sources in " + runtimeRoot, e);
+		}
+
+		int nbMoved = 0;
+		for (Path file : files) {
+			String path = sourceRoot.relativize(file).toString().replace('\\', '/');
+			if (generatedFolder == null || !path.startsWith(generatedFolder)) {
+				Path target = stagingRuntimeFolder.toPath().resolve(path);
+				try {
+					Files.createDirectories(target.getParent());
+					Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+				} catch (IOException e) {
+					throw new UncheckedIOException("Could not move the runtime source " + file + " to " + target, e);
+				}
+				nbMoved += 1;
+			}
+		}
+		return nbMoved;
+	}
+
+	/**
+	 * Removes the given folder, and all its content. Nothing is done if the folder doesn't exist.
+	 *
+	 * @param folder
+	 */
+	public static void deleteFolder(File folder) {
+		if (!folder.exists()) {
+			return;
+		}
+		try (Stream<Path> stream = Files.walk(folder.toPath())) {
+			stream.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not delete the folder " + folder, e);
+		}
+	}
+
+	public int getNbWritten() {
+		return nbWritten;
+	}
+
+	public int getNbSkipped() {
+		return nbSkipped;
+	}
+
+	public int getNbDeleted() {
+		return nbDeleted;
+	}
+
+	public Map<String, Set<String>> getOutputs() {
+		return outputs;
+	}
+}
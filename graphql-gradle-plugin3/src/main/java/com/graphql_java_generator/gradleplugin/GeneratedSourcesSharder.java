@@ -0,0 +1,288 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <P>
+ * Splits the generated sources into shards, that can be compiled separately (see {@link GeneratedCodeCompiler}). The
+ * shards respect the dependencies between the generated classes: the classes that depend on each other (the strongly
+ * connected components of the type graph, for instance two GraphQL types that reference each other) are always in the
+ * same shard, and a shard only depends on shards of a lower level. So all the shards of a level can be compiled in
+ * parallel, once the shards of the previous levels are compiled.
+ * </P>
+ * <P>
+ * The dependencies are found by reading the sources: a class depends on the generated classes whose simple name it
+ * contains, when they are in the same package, or when it contains their full name (in an import, for instance). This
+ * may find dependencies that don't exist (for instance a name in a comment), which makes the shards bigger, but never
+ * misses one.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class GeneratedSourcesSharder {
+
+	/** The java identifiers, that may be a class name */
+	private static final Pattern IDENTIFIER = Pattern.compile("\\b[A-Za-z_$][\\w$]*\\b");
+
+	/** The package declaration of a java source */
+	private static final Pattern PACKAGE = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+
+	/** A shard of the generated sources */
+	public static class Shard {
+		/** The index of the shard, in compilation order: a shard only depends on shards with a lower index */
+		final int index;
+		/** The level of the shard: the shards of the same level don't depend on each other */
+		final int level;
+		/** The source files of the shard */
+		final List<File> sources = new ArrayList<>();
+		/** The indexes of the shards this shard directly depends on */
+		final Set<Integer> dependencies = new TreeSet<>();
+
+		Shard(int index, int level) {
+			this.index = index;
+			this.level = level;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public int getLevel() {
+			return level;
+		}
+
+		public List<File> getSources() {
+			return sources;
+		}
+
+		public Set<Integer> getDependencies() {
+			return dependencies;
+		}
+
+		@Override
+		public String toString() {
+			return "Shard " + index + " (level " + level + ", " + sources.size() + " files, depends on "
+					+ dependencies + ")";
+		}
+	}
+
+	/**
+	 * Splits the given java source files into shards
+	 *
+	 * @param sources
+	 *            The java source files. They are sorted, so that the result is always the same for the same sources.
+	 * @param nbShards
+	 *            The expected number of shards. The actual number may be lower, when the classes depend on each other,
+	 *            or slightly higher, when the dependency levels don't allow shards of the same size.
+	 * @param charset
+	 *            The encoding of the source files
+	 * @return The shards, in compilation order
+	 */
+	public static List<Shard> computeShards(List<File> sources, int nbShards, Charset charset) {
+		List<File> files = new ArrayList<>(sources);
+		Collections.sort(files);
+		List<Set<Integer>> dependencies = readDependencies(files, charset);
+
+		// The classes that depend on each other are grouped into components, in dependency order
+		List<List<Integer>> components = new Tarjan(dependencies).components;
+		int[] componentOf = new int[files.size()];
+		for (int c = 0; c < components.size(); c += 1) {
+			for (int file : components.get(c)) {
+				componentOf[file] = c;
+			}
+		}
+
+		// The level of a component is the length of its longest dependency chain. As Tarjan's algorithm returns the
+		// components in reverse topological order, the dependencies of a component are already computed.
+		int[] levels = new int[components.size()];
+		List<Set<Integer>> componentDependencies = new ArrayList<>();
+		TreeMap<Integer, List<Integer>> componentsByLevel = new TreeMap<>();
+		for (int c = 0; c < components.size(); c += 1) {
+			Set<Integer> deps = new TreeSet<>();
+			for (int file : components.get(c)) {
+				for (int dep : dependencies.get(file)) {
+					if (componentOf[dep] != c) {
+						deps.add(componentOf[dep]);
+					}
+				}
+			}
+			componentDependencies.add(deps);
+			int level = 0;
+			for (int dep : deps) {
+				level = Math.max(level, levels[dep] + 1);
+			}
+			levels[c] = level;
+			componentsByLevel.computeIfAbsent(level, k -> new ArrayList<>()).add(c);
+		}
+
+		// In each level, the components are grouped into shards of the expected size
+		int shardSize = Math.max(1, (files.size() + nbShards - 1) / Math.max(1, nbShards));
+		List<Shard> shards = new ArrayList<>();
+		int[] shardOf = new int[components.size()];
+		for (Map.Entry<Integer, List<Integer>> level : componentsByLevel.entrySet()) {
+			Shard shard = null;
+			for (int c : level.getValue()) {
+				if (shard == null || (!shard.sources.isEmpty()
+						&& shard.sources.size() + components.get(c).size() > shardSize)) {
+					shard = new Shard(shards.size(), level.getKey());
+					shards.add(shard);
+				}
+				for (int file : components.get(c)) {
+					shard.sources.add(files.get(file));
+				}
+				shardOf[c] = shard.index;
+			}
+		}
+		for (int c = 0; c < components.size(); c += 1) {
+			for (int dep : componentDependencies.get(c)) {
+				shards.get(shardOf[c]).dependencies.add(shardOf[dep]);
+			}
+		}
+		for (Shard shard : shards) {
+			Collections.sort(shard.sources);
+		}
+		return shards;
+	}
+
+	/**
+	 * Reads the dependencies between the given source files
+	 *
+	 * @return For each file, the indexes of the files it depends on
+	 */
+	private static List<Set<Integer>> readDependencies(List<File> files, Charset charset) {
+		List<String> contents = new ArrayList<>();
+		List<String> packages = new ArrayList<>();
+		Map<String, List<Integer>> filesBySimpleName = new HashMap<>();
+		for (int i = 0; i < files.size(); i += 1) {
+			String content;
+			try {
+				content = new String(Files.readAllBytes(files.get(i).toPath()), charset);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not read the generated file " + files.get(i), e);
+			}
+			Matcher matcher = PACKAGE.matcher(content);
+			contents.add(content);
+			packages.add(matcher.find() ? matcher.group(1) : "");
+			String simpleName = files.get(i).getName().replaceAll("\\.java$", "");
+			filesBySimpleName.computeIfAbsent(simpleName, k -> new ArrayList<>()).add(i);
+		}
+
+		List<Set<Integer>> dependencies = new ArrayList<>();
+		for (int i = 0; i < files.size(); i += 1) {
+			Set<Integer> deps = new TreeSet<>();
+			Set<String> identifiers = new HashSet<>();
+			Matcher matcher = IDENTIFIER.matcher(contents.get(i));
+			while (matcher.find()) {
+				identifiers.add(matcher.group());
+			}
+			for (String identifier : identifiers) {
+				for (int dep : filesBySimpleName.getOrDefault(identifier, Collections.emptyList())) {
+					if (dep != i && (packages.get(dep).equals(packages.get(i))
+							|| contents.get(i).contains(packages.get(dep) + "." + identifier)
+							|| contents.get(i).contains("import " + packages.get(dep) + ".*"))) {
+						deps.add(dep);
+					}
+				}
+			}
+			dependencies.add(deps);
+		}
+		return dependencies;
+	}
+
+	/**
+	 * Tarjan's algorithm, that finds the strongly connected components of a graph. It is iterative, so that the
+	 * dependency chains of a large schema don't overflow the stack.
+	 */
+	private static class Tarjan {
+		private final List<Set<Integer>> graph;
+		private final int[] index;
+		private final int[] lowLink;
+		private final boolean[] onStack;
+		private final List<Integer> stack = new ArrayList<>();
+		private int nextIndex = 0;
+		/** The components, in reverse topological order: a component comes after the components it depends on */
+		final List<List<Integer>> components = new ArrayList<>();
+
+		Tarjan(List<Set<Integer>> graph) {
+			this.graph = graph;
+			index = new int[graph.size()];
+			lowLink = new int[graph.size()];
+			onStack = new boolean[graph.size()];
+			Arrays.fill(index, -1);
+			for (int v = 0; v < graph.size(); v += 1) {
+				if (index[v] < 0) {
+					visit(v);
+				}
+			}
+		}
+
+		private void visit(int root) {
+			// Each frame is a node, with the iterator on its remaining dependencies
+			List<int[]> frames = new ArrayList<>();
+			Map<Integer, List<Integer>> successors = new LinkedHashMap<>();
+			start(root, frames, successors);
+			while (!frames.isEmpty()) {
+				int[] frame = frames.get(frames.size() - 1);
+				int v = frame[0];
+				List<Integer> next = successors.get(v);
+				if (frame[1] < next.size()) {
+					int w = next.get(frame[1]);
+					frame[1] += 1;
+					if (index[w] < 0) {
+						start(w, frames, successors);
+					} else if (onStack[w]) {
+						lowLink[v] = Math.min(lowLink[v], index[w]);
+					}
+				} else {
+					frames.remove(frames.size() - 1);
+					successors.remove(v);
+					if (!frames.isEmpty()) {
+						int parent = frames.get(frames.size() - 1)[0];
+						lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+					}
+					if (lowLink[v] == index[v]) {
+						List<Integer> component = new ArrayList<>();
+						int w;
+						do {
+							w = stack.remove(stack.size() - 1);
+							onStack[w] = false;
+							component.add(w);
+						} while (w != v);
+						Collections.sort(component);
+						components.add(component);
+					}
+				}
+			}
+		}
+
+		private void start(int v, List<int[]> frames, Map<Integer, List<Integer>> successors) {
+			index[v] = nextIndex;
+			lowLink[v] = nextIndex;
+			nextIndex += 1;
+			stack.add(v);
+			onStack[v] = true;
+			frames.add(new int[] { v, 0 });
+			successors.put(v, new ArrayList<>(graph.get(v)));
+		}
+	}
+}
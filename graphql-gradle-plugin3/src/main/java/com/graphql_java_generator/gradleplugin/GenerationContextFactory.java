@@ -0,0 +1,132 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import com.graphql_java_generator.plugin.conf.CommonConfiguration;
+
+/**
+ * <P>
+ * Creates the Spring context that the Gradle workers use to execute the generation.
+ * </P>
+ * <P>
+ * The <I>*SpringConfiguration</I> classes of this plugin declare the plugin logic's components through a
+ * {@link ComponentScan} annotation. Processing this annotation means reading all the classes of the plugin logic's
+ * packages, for each execution of each task. This factory executes the classpath scanning only once per Spring
+ * configuration class: the found components are stored, then directly registered in the next contexts. As Gradle
+ * caches the isolated classloaders of the workers, this cache is reused by all the generation tasks executed by the
+ * Gradle daemon, for a given version of the plugin.
+ * </P>
+ * <P>
+ * Only the component classes are cached: each task still has its own Spring context, as the plugin logic's components
+ * store the state of the generation.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class GenerationContextFactory {
+
+	private static final Logger logger = LoggerFactory.getLogger(GenerationContextFactory.class);
+
+	/** The name of the Spring bean that contains the plugin configuration, that is: the task's configuration */
+	final static String PLUGIN_CONFIGURATION_BEAN_NAME = "pluginConfiguration";
+
+	/** The component classes found by the classpath scanning, by Spring configuration class name */
+	private static final Map<String, Class<?>[]> componentsByConfiguration = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates the Spring context for the generation, without classpath scanning (except for the first call for this
+	 * Spring configuration class). The given configuration is registered as a singleton, before the context is
+	 * refreshed, so that it is available to the plugin logic's components.
+	 *
+	 * @param springConfigurationClass
+	 *            The Spring configuration class, whose {@link ComponentScan} annotation lists the plugin logic's
+	 *            components
+	 * @param configuration
+	 *            The plugin configuration
+	 * @return
+	 */
+	public static AnnotationConfigApplicationContext createContext(Class<?> springConfigurationClass,
+			CommonConfiguration configuration) {
+		long start = System.nanoTime();
+		Class<?>[] components = componentsByConfiguration.computeIfAbsent(springConfigurationClass.getName(),
+				k -> scanComponents(springConfigurationClass));
+
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.getBeanFactory().registerSingleton(PLUGIN_CONFIGURATION_BEAN_NAME, configuration);
+		ctx.register(components);
+		ctx.refresh();
+
+		logger.debug("Spring context for {} created in {} ms ({} components)", springConfigurationClass.getSimpleName(),
+				(System.nanoTime() - start) / 1000000, components.length);
+		return ctx;
+	}
+
+	/**
+	 * Executes the classpath scanning described by the {@link ComponentScan} annotation of the given class. Only the
+	 * attributes used by this plugin's Spring configuration classes are managed: <I>basePackageClasses</I>, and the
+	 * <I>excludeFilters</I> of type {@link FilterType#REGEX}.
+	 *
+	 * @param springConfigurationClass
+	 * @return The found component classes, sorted by name
+	 */
+	static Class<?>[] scanComponents(Class<?> springConfigurationClass) {
+		ComponentScan componentScan = springConfigurationClass.getAnnotation(ComponentScan.class);
+		if (componentScan == null) {
+			throw new RuntimeException("[Internal error] The " + springConfigurationClass.getName()
+					+ " class should be annotated by @ComponentScan");
+		}
+
+		ClassLoader classLoader = springConfigurationClass.getClassLoader();
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(classLoader));
+		for (Filter filter : componentScan.excludeFilters()) {
+			if (filter.type() != FilterType.REGEX) {
+				throw new RuntimeException("[Internal error] Only REGEX exclude filters are managed, but the "
+						+ springConfigurationClass.getName() + " class contains a " + filter.type() + " one");
+			}
+			for (String pattern : filter.pattern()) {
+				provider.addExcludeFilter(new RegexPatternTypeFilter(Pattern.compile(pattern)));
+			}
+		}
+
+		Set<String> classNames = new TreeSet<>();
+		for (Class<?> basePackageClass : componentScan.basePackageClasses()) {
+			String basePackage = ClassUtils.getPackageName(basePackageClass);
+			for (BeanDefinition candidate : provider.findCandidateComponents(basePackage)) {
+				classNames.add(candidate.getBeanClassName());
+			}
+		}
+
+		Class<?>[] components = new Class<?>[classNames.size()];
+		int i = 0;
+		for (String className : classNames) {
+			try {
+				components[i++] = Class.forName(className, false, classLoader);
+			} catch (ClassNotFoundException e) {
+				throw new RuntimeException("[Internal error] Could not load the component " + className + ": "
+						+ e.getMessage(), e);
+			}
+		}
+		logger.debug("{} components found for {}", components.length, springConfigurationClass.getSimpleName());
+		return components;
+	}
+}
@@ -0,0 +1,151 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <P>
+ * Checks the heap used by the generation, when the <I>maxGenerationHeap</I> plugin parameter is set. In this case, the
+ * generation is executed in its own worker process, whose maximum heap size is <I>maxGenerationHeap</I>. The heap of
+ * this process contains only the generation, so its live heap is the memory that the generation needs.
+ * </P>
+ * <P>
+ * The live heap is the heap used after the last garbage collection. It is checked at the end of each phase of the
+ * generation (see {@link GenerationMetrics#measure(String, GenerationMetrics.PhaseAction)}). When it exceeds
+ * {@link #LIMIT_RATIO} of the budget, the generation fails at once, instead of slowing down in garbage collections
+ * until it runs out of memory. The error message then contains the live heap, the memory allocated by each phase and
+ * the counters of the generation (like the number of types), so that the budget can be adjusted. An
+ * {@link OutOfMemoryError} during a phase is reported in the same way.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class GenerationHeapMonitor {
+
+	/** The part of the budget that the live heap may use. Above it, the JVM spends most of its time in the GC. */
+	final static double LIMIT_RATIO = 0.9;
+
+	/** A heap size, in the format of the <I>-Xmx</I> JVM option, for instance <I>512m</I> or <I>2g</I> */
+	private static final Pattern SIZE_PATTERN = Pattern.compile("(\\d+)([kKmMgG]?)");
+
+	/** The heap budget of the generation, in bytes */
+	private final long maxHeapBytes;
+
+	/** The highest live heap seen by the checks, in bytes */
+	private final AtomicLong peakHeapBytes = new AtomicLong();
+
+	/**
+	 * @param maxGenerationHeap
+	 *            The heap budget of the generation, for instance <I>512m</I>
+	 */
+	public GenerationHeapMonitor(String maxGenerationHeap) {
+		this.maxHeapBytes = parseSize(maxGenerationHeap);
+	}
+
+	/**
+	 * Parses a heap size, in the format of the <I>-Xmx</I> JVM option
+	 *
+	 * @param size
+	 *            The size, for instance <I>512m</I>, <I>2g</I>, or a number of bytes
+	 * @return The size, in bytes
+	 */
+	static long parseSize(String size) {
+		Matcher matcher = SIZE_PATTERN.matcher((size == null) ? "" : size.trim());
+		if (!matcher.matches()) {
+			throw new RuntimeException(
+					"The maxGenerationHeap plugin parameter must be a heap size, like 512m or 2g, but it is '" + size
+							+ "'");
+		}
+		long value = Long.parseLong(matcher.group(1));
+		switch (matcher.group(2).toLowerCase()) {
+		case "k":
+			return value * 1024;
+		case "m":
+			return value * 1024 * 1024;
+		case "g":
+			return value * 1024 * 1024 * 1024;
+		default:
+			return value;
+		}
+	}
+
+	/**
+	 * Checks the live heap, at the end of a phase of the generation
+	 *
+	 * @param phaseName
+	 *            The phase that just ended
+	 * @param metrics
+	 *            The metrics of the generation, that are written in the error message
+	 * @throws RuntimeException
+	 *             If the live heap exceeds {@link #LIMIT_RATIO} of the budget
+	 */
+	public void check(String phaseName, GenerationMetrics metrics) {
+		long liveHeap = getLiveHeapBytes();
+		peakHeapBytes.accumulateAndGet(liveHeap, Math::max);
+		if (liveHeap > maxHeapBytes * LIMIT_RATIO) {
+			throw new RuntimeException(report("After the '" + phaseName + "' phase, the live heap of the generation is "
+					+ toMB(liveHeap) + " MB, that is more than " + (int) (LIMIT_RATIO * 100) + "% of", metrics));
+		}
+	}
+
+	/**
+	 * Creates the exception thrown when the generation ran out of memory
+	 *
+	 * @param phaseName
+	 *            The phase that ran out of memory
+	 * @param metrics
+	 *            The metrics of the generation, that are written in the error message
+	 * @param error
+	 * @return
+	 */
+	public RuntimeException outOfMemory(String phaseName, GenerationMetrics metrics, OutOfMemoryError error) {
+		return new RuntimeException(
+				report("The generation ran out of memory during the '" + phaseName + "' phase, with", metrics), error);
+	}
+
+	/** Returns the highest live heap seen by the checks, in bytes */
+	public long getPeakHeapBytes() {
+		return peakHeapBytes.get();
+	}
+
+	private String report(String cause, GenerationMetrics metrics) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(cause).append(" the maxGenerationHeap budget (").append(toMB(maxHeapBytes)).append(" MB) of ")
+				.append(metrics.getTaskPath()).append(".\nMemory allocated by each phase:");
+		for (Map.Entry<String, Long> phase : metrics.getAllocatedBytesByPhase().entrySet()) {
+			sb.append("\n  ").append(phase.getKey()).append(": ")
+					.append((phase.getValue() < 0) ? "unknown" : toMB(phase.getValue()) + " MB");
+		}
+		sb.append("\nCounters: ").append(metrics.getCounters());
+		sb.append("\nPlease increase the maxGenerationHeap plugin parameter, or split the GraphQL schema between"
+				+ " several generation tasks.");
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the heap used after the last garbage collection, that is: the live objects, without the garbage
+	 */
+	static long getLiveHeapBytes() {
+		long ret = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+				MemoryUsage usage = pool.getCollectionUsage();
+				ret += (usage == null) ? pool.getUsage().getUsed() : usage.getUsed();
+			}
+		}
+		return ret;
+	}
+
+	private static long toMB(long bytes) {
+		return bytes / (1024 * 1024);
+	}
+}
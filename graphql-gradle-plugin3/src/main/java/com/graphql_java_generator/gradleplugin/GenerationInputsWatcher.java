@@ -0,0 +1,170 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <P>
+ * Watches the inputs of the code generation tasks, for the {@link GraphQLWatchTask}: the schema folders, the schema
+ * personalization files and the custom templates. It uses the NIO {@link WatchService}: the folders are watched by the
+ * file system, without listing their files again.
+ * </P>
+ * <P>
+ * The folders are watched with their sub-folders. For the files, their folder is watched, and only the changes of the
+ * watched files are returned.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class GenerationInputsWatcher implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(GenerationInputsWatcher.class);
+
+	private final WatchService watchService;
+
+	/** The watched folders, by their key */
+	private final Map<WatchKey, Path> keys = new HashMap<>();
+
+	/** The watched folders, whose whole content (including the sub-folders) is watched */
+	private final Set<Path> folders = new HashSet<>();
+
+	/** The watched files, that are not in a watched folder */
+	private final Set<Path> files = new HashSet<>();
+
+	/**
+	 * @param inputs
+	 *            The watched files and folders. The files or folders that don't exist yet are watched from their
+	 *            closest existing folder.
+	 * @throws IOException
+	 */
+	public GenerationInputsWatcher(Collection<File> inputs) throws IOException {
+		watchService = FileSystems.getDefault().newWatchService();
+		for (File input : inputs) {
+			Path path = input.getAbsoluteFile().toPath().normalize();
+			if (Files.isDirectory(path)) {
+				folders.add(path);
+				registerTree(path);
+			} else {
+				files.add(path);
+				Path parent = path.getParent();
+				while (parent != null && !Files.isDirectory(parent)) {
+					parent = parent.getParent();
+				}
+				if (parent != null) {
+					register(parent);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits until at least one watched file has changed. Then, waits until no other change occurs during the quiet
+	 * period, so that a file saved in several steps, or several files saved at once, are returned together.
+	 *
+	 * @param quietPeriodMillis
+	 *            The time without change, before the changes are returned
+	 * @return The changed files (created, modified or deleted), as absolute paths
+	 * @throws InterruptedException
+	 *             When the build is cancelled
+	 */
+	public Set<Path> waitForChanges(long quietPeriodMillis) throws InterruptedException {
+		Set<Path> changes = new TreeSet<>();
+		WatchKey key = watchService.take();
+		while (key != null) {
+			readEvents(key, changes);
+			if (changes.isEmpty()) {
+				// These events don't concern the watched files
+				key = watchService.take();
+			} else {
+				key = watchService.poll(quietPeriodMillis, TimeUnit.MILLISECONDS);
+			}
+		}
+		return changes;
+	}
+
+	private void readEvents(WatchKey key, Set<Path> changes) {
+		Path folder = keys.get(key);
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (folder == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				logger.debug("Some file events have been lost in {}", folder);
+				continue;
+			}
+			Path path = folder.resolve((Path) event.context());
+			if (isInWatchedFolder(path)) {
+				if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+					// The new folders are watched too. The files they already contain are changes.
+					registerTree(path);
+					try (Stream<Path> stream = Files.walk(path)) {
+						stream.filter(Files::isRegularFile).forEach(changes::add);
+					} catch (IOException e) {
+						logger.warn("Could not list the files of the new folder {}: {}", path, e.getMessage());
+					}
+				} else if (!Files.isDirectory(path)) {
+					changes.add(path);
+				}
+			} else if (files.contains(path)) {
+				changes.add(path);
+			}
+		}
+		if (!key.reset()) {
+			// The folder has been deleted
+			keys.remove(key);
+		}
+	}
+
+	private boolean isInWatchedFolder(Path path) {
+		for (Path folder : folders) {
+			if (path.startsWith(folder)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void registerTree(Path folder) {
+		try (Stream<Path> stream = Files.walk(folder)) {
+			stream.filter(Files::isDirectory).forEach(this::register);
+		} catch (IOException e) {
+			logger.warn("Could not watch the {} folder: {}", folder, e.getMessage());
+		}
+	}
+
+	private void register(Path folder) {
+		if (keys.containsValue(folder)) {
+			return;
+		}
+		try {
+			keys.put(folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), folder);
+			logger.debug("Watching the {} folder", folder);
+		} catch (IOException e) {
+			logger.warn("Could not watch the {} folder: {}", folder, e.getMessage());
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+	}
+}
@@ -0,0 +1,636 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.graphql_java_generator.plugin.conf.GenerateCodeCommonConfiguration;
+
+import graphql.language.AstPrinter;
+import graphql.language.Comment;
+import graphql.language.Definition;
+import graphql.language.Document;
+import graphql.language.NamedNode;
+import graphql.language.Node;
+import graphql.parser.ParserOptions;
+
+/**
+ * <P>
+ * The manifest of a code generation. It is written by the {@link GenerateCodeWorkAction} in the build folder, and read
+ * again by the next generation of the same task. It contains:
+ * </P>
+ * <UL>
+ * <LI>The fingerprint of each definition (type, schema, directive...) of the GraphQL schema files, in the order of the
+ * files, and of the definitions in each file.</LI>
+ * <LI>The list of the files written by the generation, in the target source and resource folders, with the hash of
+ * their content.</LI>
+ * <LI>The hash of the other inputs of the generation: the resolved configuration of the task, the content of the
+ * custom templates and of the schema personalization file, and the versions of the plugin and of the plugin
+ * logic.</LI>
+ * </UL>
+ * <P>
+ * Before each generation, the manifest allows to skip the generation when all these hashes match, and the generated
+ * files are unchanged (see {@link #isUpToDate(String, List, Map)}). This doesn't depend on Gradle's up-to-date checks:
+ * it also works after a <I>clean</I> of other tasks, or when the generation is triggered by an IDE.
+ * </P>
+ * <P>
+ * The manifest is the local state of the task (see {@link GenerateCodeCommonTask#getManifestFolder()}): it is not in
+ * the output folders, so that Gradle doesn't delete it with the outputs of the task. The paths of the project are
+ * hashed relative to the project folder, so that the manifest is still valid when the project is moved to another
+ * folder.
+ * </P>
+ * <P>
+ * The manifest also contains the hash of the content of each schema file. The changed schema files are found by
+ * comparing these hashes, instead of using Gradle's incremental inputs: Gradle deletes the outputs of an incremental
+ * task before each non-incremental execution, which would defeat the comparison of the generated files with the
+ * existing ones (see {@link GeneratedFilesSynchronizer}). This allows to:
+ * </P>
+ * <UL>
+ * <LI>Parse again only the changed schema files: the fingerprints of the other files are read from the manifest.</LI>
+ * <LI>Skip the generation when no definition has changed, for instance when only the formatting of the schema files
+ * changed.</LI>
+ * <LI>Otherwise, log the changed definitions, and remove the files of the previous generation that are not generated
+ * any more (see {@link GeneratedFilesSynchronizer}).</LI>
+ * </UL>
+ * <P>
+ * The manifest is a text file, with one tab separated entry per line.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class GenerationManifest {
+
+	private static final Logger logger = LoggerFactory.getLogger(GenerationManifest.class);
+
+	/** The name of the output root for the target source folder */
+	final static String SOURCE_ROOT = "source";
+	/** The name of the output root for the target resource folder */
+	final static String RESOURCE_ROOT = "resource";
+	/** The name of the output root for the runtime sources, when they are shared by the tasks of the project */
+	final static String RUNTIME_ROOT = "runtime";
+	/** The name of the output root for the class files, when the generated code is compiled by the generation task */
+	final static String CLASSES_ROOT = "classes";
+
+	/** The key of the fingerprint of a whole schema file: a json introspection file, or a file without definition */
+	final static String FILE_KEY = "<file>";
+
+	/** The options to parse the schema files: there is no limit, as the schema files are trusted */
+	final static ParserOptions PARSER_OPTIONS = ParserOptions.getDefaultSdlParserOptions().transform(
+			b -> b.maxTokens(Integer.MAX_VALUE).maxWhitespaceTokens(Integer.MAX_VALUE).maxCharacters(Integer.MAX_VALUE));
+
+	private final static String SCHEMA = "schema";
+	private final static String OUTPUT = "output";
+	private final static String INPUTS = "inputs";
+
+	/** The fingerprint of the schema files' definitions */
+	private final List<SchemaEntry> schemaEntries;
+
+	/**
+	 * The generated files. The key is the output root name, the value is the hash of each file, by path relative to
+	 * this root. The hash is null if it is unknown.
+	 */
+	private final Map<String, Map<String, String>> outputs;
+
+	/**
+	 * The hash of the other inputs of the generation (see {@link #hashInputs(ConfigurationSnapshot, Map, String...)}),
+	 * or null
+	 */
+	private final String inputsHash;
+
+	/**
+	 * Creates a manifest
+	 *
+	 * @param schemaEntries
+	 * @param inputsHash
+	 *            The hash of the other inputs of the generation (see
+	 *            {@link #hashInputs(ConfigurationSnapshot, Map, String...)})
+	 * @param outputHashes
+	 *            The hash of the generated files, by root name then by path (see {@link #hashFiles(Map, Map,
+	 *            ForkJoinPool)})
+	 */
+	public GenerationManifest(List<SchemaEntry> schemaEntries, String inputsHash,
+			Map<String, Map<String, String>> outputHashes) {
+		this.schemaEntries = schemaEntries;
+		this.outputs = outputHashes;
+		this.inputsHash = inputsHash;
+	}
+
+	/**
+	 * Returns the manifest file of the given generation
+	 *
+	 * @param manifestFolder
+	 *            The folder where the task stores its manifests (see
+	 *            {@link GenerateCodeCommonTask#getManifestFolder()})
+	 * @param manifestName
+	 *            The name of the generation: the task name, or the task and the target names for the targets of a
+	 *            {@link GenerateMultiTargetCodeTask}
+	 * @return
+	 */
+	public static File getManifestFile(File manifestFolder, String manifestName) {
+		return new File(manifestFolder, manifestName + ".manifest");
+	}
+
+	/**
+	 * Returns the folders where the generation writes its files, by root name
+	 *
+	 * @param configuration
+	 * @return
+	 */
+	public static Map<String, File> getOutputRoots(GenerateCodeCommonConfiguration configuration) {
+		Map<String, File> roots = new LinkedHashMap<>();
+		roots.put(SOURCE_ROOT, configuration.getTargetSourceFolder());
+		roots.put(RESOURCE_ROOT, configuration.getTargetResourceFolder());
+		return roots;
+	}
+
+	/**
+	 * Reads the manifest from the given file
+	 *
+	 * @param manifestFile
+	 * @return The manifest, or null if the file doesn't exist or can't be read
+	 */
+	public static GenerationManifest read(File manifestFile) {
+		if (!manifestFile.isFile()) {
+			return null;
+		}
+		try {
+			List<SchemaEntry> schemaEntries = new ArrayList<>();
+			Map<String, Map<String, String>> outputs = new TreeMap<>();
+			String inputsHash = null;
+			for (String line : Files.readAllLines(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+				String[] items = line.split("\t");
+				if ((items.length == 4 || items.length == 5) && items[0].equals(SCHEMA)) {
+					// The hash of the schema file is missing in the manifests written by the previous versions
+					schemaEntries.add(
+							new SchemaEntry(items[1], items[2], items[3], (items.length == 5) ? items[4] : null));
+				} else if ((items.length == 3 || items.length == 4) && items[0].equals(OUTPUT)) {
+					// The hash of the file is missing in the manifests written by the previous versions
+					outputs.computeIfAbsent(items[1], k -> new TreeMap<>()).put(items[2],
+							(items.length == 4) ? items[3] : null);
+				} else if (items.length == 2 && items[0].equals(INPUTS)) {
+					inputsHash = items[1];
+				} else if (!line.isEmpty() && !line.startsWith("#")) {
+					logger.warn("The generation manifest {} is invalid, it is ignored", manifestFile);
+					return null;
+				}
+			}
+			return new GenerationManifest(schemaEntries, inputsHash, outputs);
+		} catch (IOException e) {
+			logger.warn("Could not read the generation manifest {} ({}), it is ignored", manifestFile, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Writes this manifest into the given file
+	 *
+	 * @param manifestFile
+	 */
+	public void write(File manifestFile) {
+		manifestFile.getParentFile().mkdirs();
+		try (BufferedWriter writer = Files.newBufferedWriter(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+			writer.write("# Generated by the graphql-java-generator gradle plugin. Do not edit.\n");
+			if (inputsHash != null) {
+				writer.write(INPUTS + "\t" + inputsHash + "\n");
+			}
+			for (SchemaEntry entry : schemaEntries) {
+				writer.write(SCHEMA + "\t" + entry.file + "\t" + entry.key + "\t" + entry.hash
+						+ ((entry.fileHash == null) ? "" : "\t" + entry.fileHash) + "\n");
+			}
+			for (Map.Entry<String, Map<String, String>> root : outputs.entrySet()) {
+				for (Map.Entry<String, String> file : root.getValue().entrySet()) {
+					writer.write(OUTPUT + "\t" + root.getKey() + "\t" + file.getKey()
+							+ ((file.getValue() == null) ? "" : "\t" + file.getValue()) + "\n");
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write the generation manifest " + manifestFile, e);
+		}
+	}
+
+	public List<SchemaEntry> getSchemaEntries() {
+		return schemaEntries;
+	}
+
+	/**
+	 * Returns the generated files
+	 *
+	 * @return The paths of the generated files, relative to their output root, by root name
+	 */
+	public Map<String, Set<String>> getOutputs() {
+		Map<String, Set<String>> ret = new TreeMap<>();
+		for (Map.Entry<String, Map<String, String>> root : outputs.entrySet()) {
+			ret.put(root.getKey(), new TreeSet<>(root.getValue().keySet()));
+		}
+		return ret;
+	}
+
+	public String getInputsHash() {
+		return inputsHash;
+	}
+
+	/**
+	 * Indicates whether the code generated by the previous generation, described by this manifest, is the one that
+	 * would be generated again. That is: the inputs hash and the schema fingerprint are the same, and the generated
+	 * files are still in the output folders, with the same content.
+	 *
+	 * @param otherInputsHash
+	 *            The hash of the inputs of the new generation (see
+	 *            {@link #hashInputs(ConfigurationSnapshot, Map, String...)})
+	 * @param otherSchemaEntries
+	 *            The fingerprint of the schema files for the new generation
+	 * @param outputRoots
+	 *            The folders where the generation writes its files, by root name
+	 * @return false if one of the hashes is unknown (for instance for a manifest written by a previous version)
+	 */
+	public boolean isUpToDate(String otherInputsHash, List<SchemaEntry> otherSchemaEntries,
+			Map<String, File> outputRoots) {
+		if (inputsHash == null || !inputsHash.equals(otherInputsHash) || !hasSameSchema(otherSchemaEntries)) {
+			return false;
+		}
+		for (Map.Entry<String, Map<String, String>> root : outputs.entrySet()) {
+			File rootFolder = outputRoots.get(root.getKey());
+			if (rootFolder == null) {
+				return false;
+			}
+			for (Map.Entry<String, String> file : root.getValue().entrySet()) {
+				Path path = new File(rootFolder, file.getKey()).toPath();
+				if (file.getValue() == null || !Files.isRegularFile(path) || !file.getValue().equals(hash(path))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the hash of the inputs of a generation, other than the schema files: the resolved configuration, the
+	 * output folders, the content of the custom templates that are files of the project, the content of the schema
+	 * personalization file, and the versions of the plugin and of the plugin logic. The paths are hashed relative to
+	 * the project folder, so that the hash doesn't change when the project is moved to another folder.
+	 *
+	 * @param configuration
+	 *            The configuration of the generation
+	 * @param outputRoots
+	 *            The folders where the generation writes its files, by root name
+	 * @param options
+	 *            The options of the worker that change the generated files, for instance
+	 *            <I>reproducibleOutput=true</I>
+	 * @return
+	 */
+	public static String hashInputs(ConfigurationSnapshot configuration, Map<String, File> outputRoots,
+			String... options) {
+		File projectDir = (File) configuration.getValue("getProjectDir");
+		StringBuilder sb = new StringBuilder();
+		// The deprecated skipGenerationIfSchemaHasNotChanged parameter is ignored: it doesn't change the generated code
+		sb.append(configuration.withValue("isSkipGenerationIfSchemaHasNotChanged", false)
+				.getValuesDescription(projectDir));
+		for (Map.Entry<String, File> root : new TreeMap<>(outputRoots).entrySet()) {
+			sb.append("root\t").append(root.getKey()).append("\t")
+					.append(ConfigurationSnapshot.describe(root.getValue(), projectDir)).append("\n");
+		}
+		for (String option : options) {
+			sb.append("option\t").append(option).append("\n");
+		}
+
+		@SuppressWarnings("unchecked")
+		Map<String, String> templates = (Map<String, String>) configuration.getValue("getTemplates");
+		if (templates != null) {
+			for (String template : new TreeSet<>(templates.values())) {
+				File file = new File(projectDir, template);
+				if (file.isFile()) {
+					sb.append("template\t").append(template).append("\t").append(hash(file.toPath())).append("\n");
+				}
+			}
+		}
+		Object personalization = configuration.getValue("getSchemaPersonalizationFile");
+		if (personalization instanceof File && ((File) personalization).isFile()) {
+			sb.append("personalization\t").append(hash(((File) personalization).toPath())).append("\n");
+		}
+
+		Properties versions = new Properties();
+		try (InputStream is = GenerationManifest.class.getResourceAsStream("/application.properties")) {
+			if (is != null) {
+				versions.load(is);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read the plugin's application.properties", e);
+		}
+		sb.append("plugin.version\t").append(versions.getProperty("plugin.version")).append("\n");
+		sb.append("graphqlMavenPluginLogic.version\t").append(versions.getProperty("graphqlMavenPluginLogic.version"))
+				.append("\n");
+
+		return hash(sb.toString());
+	}
+
+	/**
+	 * Computes the hash of the given files
+	 *
+	 * @param roots
+	 *            The folders that contain the files, by root name
+	 * @param files
+	 *            The files, by root name. Their path is relative to the root folder.
+	 * @param pool
+	 *            The pool where the files are read, or null to read them in the current thread
+	 * @return The hash of each file, by root name then by path
+	 */
+	public static Map<String, Map<String, String>> hashFiles(Map<String, File> roots, Map<String, Set<String>> files,
+			ForkJoinPool pool) {
+		Map<String, Map<String, String>> hashes = new TreeMap<>();
+		for (Map.Entry<String, Set<String>> root : files.entrySet()) {
+			File rootFolder = roots.get(root.getKey());
+			Function<String, String[]> hashFile = path -> new String[] { path,
+					hash(new File(rootFolder, path).toPath()) };
+			List<String[]> rootHashes = (pool == null)
+					? root.getValue().stream().map(hashFile).collect(Collectors.toList())
+					: pool.submit(() -> root.getValue().parallelStream().map(hashFile).collect(Collectors.toList()))
+							.join();
+			Map<String, String> map = new TreeMap<>();
+			rootHashes.forEach(h -> map.put(h[0], h[1]));
+			hashes.put(root.getKey(), map);
+		}
+		return hashes;
+	}
+
+	/**
+	 * Indicates whether the given schema fingerprint is the same as the one of this manifest. The order of the
+	 * definitions is taken into account, as it may change the order of the generated code.
+	 *
+	 * @param otherSchemaEntries
+	 * @return
+	 */
+	public boolean hasSameSchema(List<SchemaEntry> otherSchemaEntries) {
+		return schemaEntries.equals(otherSchemaEntries);
+	}
+
+	/**
+	 * Returns the keys of the definitions that have been added, removed or changed in the given schema fingerprint,
+	 * compared to this manifest's one.
+	 *
+	 * @param otherSchemaEntries
+	 * @return The sorted set of the changed definition keys, for instance <I>ObjectTypeDefinition:Query</I>
+	 */
+	public Set<String> getChangedDefinitions(List<SchemaEntry> otherSchemaEntries) {
+		Map<String, String> before = toDefinitionMap(schemaEntries);
+		Map<String, String> after = toDefinitionMap(otherSchemaEntries);
+		Set<String> changed = new TreeSet<>();
+		for (String key : before.keySet()) {
+			if (!Objects.equals(before.get(key), after.get(key))) {
+				changed.add(key);
+			}
+		}
+		for (String key : after.keySet()) {
+			if (!before.containsKey(key)) {
+				changed.add(key);
+			}
+		}
+		return changed;
+	}
+
+	private static Map<String, String> toDefinitionMap(List<SchemaEntry> entries) {
+		Map<String, String> map = new TreeMap<>();
+		for (SchemaEntry entry : entries) {
+			// A type may be defined in several files, for instance with 'extend type'
+			map.merge(entry.key, entry.hash, (h1, h2) -> h1 + "," + h2);
+		}
+		return map;
+	}
+
+	/**
+	 * Lists the files in the given output folders
+	 *
+	 * @param outputRoots
+	 *            The folders where the generation writes its files, by root name
+	 * @return The files, by root name. Their path is relative to the root folder, with '/' as a separator.
+	 */
+	public static Map<String, Set<String>> listFiles(Map<String, File> outputRoots) {
+		Map<String, Set<String>> files = new TreeMap<>();
+		for (Map.Entry<String, File> root : outputRoots.entrySet()) {
+			Set<String> paths = new TreeSet<>();
+			for (Path path : listRegularFiles(root.getValue())) {
+				paths.add(toRelativePath(root.getValue(), path));
+			}
+			files.put(root.getKey(), paths);
+		}
+		return files;
+	}
+
+	/**
+	 * Computes the fingerprint of the definitions of the schema files that are read by the generation, that is the
+	 * files of the schema folder that match the schema file pattern. Each file is parsed, and each of its definitions
+	 * is fingerprinted separately, including its descriptions and comments. The other files of the schema folder are
+	 * not read: they are no input of the generation.
+	 *
+	 * @param schemaFolder
+	 *            The folder that contains the schema files
+	 * @param schemaFilePattern
+	 *            The pattern of the schema files, as configured in the task
+	 * @param jsonGraphqlSchemaFilename
+	 *            The json file of an introspection result, relative to the schema folder, or null. If set, the
+	 *            generation reads this file instead of the schema files: it is then the only file to fingerprint, as a
+	 *            whole.
+	 * @param previous
+	 *            The manifest of the previous generation, or null. If not null, the fingerprints of the files whose
+	 *            content has not changed since the previous generation are read from this manifest, instead of parsing
+	 *            the files again.
+	 * @param pool
+	 *            The pool where the files are parsed, or null to parse them in the current thread. The result doesn't
+	 *            depend on the parallelism.
+	 * @return The fingerprint of each definition, sorted by file then in the order of the definitions in the file
+	 * @throws SchemaFilesParser.SchemaSyntaxException
+	 *             If a schema file is not a valid GraphQL document
+	 */
+	public static List<SchemaEntry> fingerprintSchemas(File schemaFolder, String schemaFilePattern,
+			String jsonGraphqlSchemaFilename, GenerationManifest previous, ForkJoinPool pool) {
+		boolean introspection = jsonGraphqlSchemaFilename != null && !jsonGraphqlSchemaFilename.isEmpty();
+		List<Path> paths = introspection
+				? Arrays.asList(new File(schemaFolder, jsonGraphqlSchemaFilename).toPath())
+				: SchemaFilesParser.listSchemaFiles(schemaFolder, schemaFilePattern);
+
+		Map<String, List<SchemaEntry>> previousEntries = new LinkedHashMap<>();
+		if (previous != null) {
+			for (SchemaEntry entry : previous.schemaEntries) {
+				previousEntries.computeIfAbsent(entry.file, k -> new ArrayList<>()).add(entry);
+			}
+		}
+
+		Function<Path, List<SchemaEntry>> fingerprint = path -> {
+			String relativePath = toRelativePath(schemaFolder, path);
+			byte[] content;
+			try {
+				content = Files.readAllBytes(path);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not read the schema file " + path, e);
+			}
+			String fileHash = hash(content);
+			List<SchemaEntry> previousFileEntries = previousEntries.get(relativePath);
+			if (previousFileEntries != null && fileHash.equals(previousFileEntries.get(0).fileHash)) {
+				// This file has not changed since the previous generation
+				return previousFileEntries;
+			} else if (introspection) {
+				// The json file is not a GraphQL document
+				return Arrays.asList(new SchemaEntry(relativePath, FILE_KEY, fileHash, fileHash));
+			} else {
+				return fingerprintFile(relativePath, path, content, fileHash);
+			}
+		};
+
+		// The collected list keeps the order of the files, even when they are parsed in parallel
+		List<List<SchemaEntry>> entriesByFile = (pool == null)
+				? paths.stream().map(fingerprint).collect(Collectors.toList())
+				: pool.submit(() -> paths.parallelStream().map(fingerprint).collect(Collectors.toList())).join();
+
+		List<SchemaEntry> entries = new ArrayList<>();
+		entriesByFile.forEach(entries::addAll);
+		return entries;
+	}
+
+	private static List<SchemaEntry> fingerprintFile(String relativePath, Path path, byte[] content, String fileHash) {
+		// The syntax errors are reported now, with the file that contains them
+		Document document = SchemaFilesParser.parseFile(relativePath, path, content);
+
+		List<SchemaEntry> entries = new ArrayList<>();
+		for (Definition<?> definition : document.getDefinitions()) {
+			entries.add(new SchemaEntry(relativePath, getDefinitionKey(definition),
+					hash(AstPrinter.printAst(definition) + getComments(definition)), fileHash));
+		}
+		if (entries.isEmpty()) {
+			// This file contains no definition
+			entries.add(new SchemaEntry(relativePath, FILE_KEY, fileHash, fileHash));
+		}
+		return entries;
+	}
+
+	private static String getDefinitionKey(Definition<?> definition) {
+		String key = definition.getClass().getSimpleName();
+		if (definition instanceof NamedNode) {
+			key += ":" + ((NamedNode<?>) definition).getName();
+		}
+		return key;
+	}
+
+	/**
+	 * Returns the comments of this node and of its children. The comments are not printed by the {@link AstPrinter},
+	 * but they are copied into the generated code.
+	 */
+	private static String getComments(Node<?> node) {
+		StringBuilder sb = new StringBuilder();
+		for (Comment comment : node.getComments()) {
+			sb.append("#").append(comment.getContent()).append("\n");
+		}
+		for (Node<?> child : node.getChildren()) {
+			sb.append(getComments(child));
+		}
+		return sb.toString();
+	}
+
+	private static String hash(String content) {
+		return hash(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	static String hash(Path path) {
+		try {
+			return hash(Files.readAllBytes(path));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read the file " + path, e);
+		}
+	}
+
+	static String hash(byte[] content) {
+		try {
+			StringBuilder sb = new StringBuilder();
+			for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+				sb.append(String.format("%02x", b));
+			}
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("[Internal error] " + e.getMessage(), e);
+		}
+	}
+
+	private static List<Path> listRegularFiles(File folder) {
+		if (folder == null || !folder.isDirectory()) {
+			return new ArrayList<>();
+		}
+		try (Stream<Path> stream = Files.walk(folder.toPath())) {
+			return stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not list the files of " + folder, e);
+		}
+	}
+
+	static String toRelativePath(File root, Path path) {
+		return root.toPath().relativize(path).toString().replace(File.separatorChar, '/');
+	}
+
+	/** The fingerprint of one definition of a schema file */
+	public static class SchemaEntry implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		/** The schema file, relative to the schema folder */
+		final String file;
+		/** The kind and name of the definition, for instance <I>ObjectTypeDefinition:Query</I> */
+		final String key;
+		/** The hash of the definition */
+		final String hash;
+		/**
+		 * The hash of the whole schema file, or null if it is unknown. It is used to find the changed schema files, but
+		 * it is not part of the fingerprint: a change in the formatting of the file doesn't change the definitions.
+		 */
+		final String fileHash;
+
+		public SchemaEntry(String file, String key, String hash, String fileHash) {
+			this.file = file;
+			this.key = key;
+			this.hash = hash;
+			this.fileHash = fileHash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof SchemaEntry)) {
+				return false;
+			}
+			SchemaEntry other = (SchemaEntry) o;
+			return file.equals(other.file) && key.equals(other.key) && hash.equals(other.hash);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(file, key, hash);
+		}
+
+		@Override
+		public String toString() {
+			return file + ":" + key;
+		}
+	}
+}
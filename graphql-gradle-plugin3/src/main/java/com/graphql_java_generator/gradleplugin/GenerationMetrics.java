@@ -0,0 +1,391 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <P>
+ * The metrics of one execution of a generation task: the wall time and the allocated memory of each phase of the
+ * generation (for instance: parsing the schema, generating the code, writing the files), and some counters (for
+ * instance: the number of types, or the number of written files).
+ * </P>
+ * <P>
+ * The metrics are collected by the task, then by the Gradle worker that executes the generation. The worker writes
+ * them as a JSON report in the <I>build/reports/graphql-generator</I> folder, one file per task.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class GenerationMetrics implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The folder where the reports are written, relative to the build folder */
+	final static String REPORT_FOLDER = "reports/graphql-generator";
+
+	/** Extracts the summary from a JSON report */
+	private static final Pattern SUMMARY_PATTERN = Pattern.compile("\"summary\": \"([^\"]*)\"");
+
+	/** Executes the action of a phase */
+	@FunctionalInterface
+	public interface PhaseAction<T, E extends Exception> {
+		T execute() throws E;
+	}
+
+	/** The measures of one phase of the generation */
+	static class Phase implements Serializable {
+		private static final long serialVersionUID = 1L;
+		final String name;
+		final long wallTimeMs;
+		/**
+		 * The bytes allocated by the thread that executed the phase, and by the threads of its pool if any, or -1 if
+		 * the JVM can't measure it
+		 */
+		final long allocatedBytes;
+
+		Phase(String name, long wallTimeMs, long allocatedBytes) {
+			this.name = name;
+			this.wallTimeMs = wallTimeMs;
+			this.allocatedBytes = allocatedBytes;
+		}
+	}
+
+	/** The path of the task, for instance <I>:generateServerCode</I> */
+	private final String taskPath;
+
+	private final List<Phase> phases = new ArrayList<>();
+
+	private final Map<String, Long> counters = new LinkedHashMap<>();
+
+	/**
+	 * Checks the heap after each phase, when the <I>maxGenerationHeap</I> plugin parameter is set. It is only used by
+	 * the worker, so it is not serialized.
+	 */
+	private transient GenerationHeapMonitor heapMonitor;
+
+	public GenerationMetrics(String taskPath) {
+		this.taskPath = taskPath;
+	}
+
+	/**
+	 * Executes the given phase, and stores its wall time and its allocated memory. If a {@link GenerationHeapMonitor}
+	 * is set, the heap is checked at the end of the phase.
+	 *
+	 * @param phaseName
+	 *            The name of the phase, for instance <I>parse</I>
+	 * @param action
+	 *            The phase to execute
+	 * @return The value returned by the action
+	 * @throws E
+	 *             The exception thrown by the action
+	 */
+	public <T, E extends Exception> T measure(String phaseName, PhaseAction<T, E> action) throws E {
+		return measure(phaseName, GenerationMetrics::getAllocatedBytes, action);
+	}
+
+	/**
+	 * Executes the given phase, that may execute its work in the given pool, and stores its wall time and its allocated
+	 * memory. The allocated memory is the one of the current thread, plus the one of the threads of the pool. It is
+	 * -1 if the pool has not been created by {@link #createPool(int)}, as its threads can't be measured, or if the
+	 * current thread is itself a thread of this pool (for instance a target of the
+	 * {@link GenerateMultiTargetCodeTask}), as the pool's threads then also execute the other tasks.
+	 *
+	 * @param phaseName
+	 *            The name of the phase, for instance <I>normalize</I>
+	 * @param pool
+	 *            The pool in which the phase executes its work, or null if it is executed in the current thread
+	 * @param action
+	 *            The phase to execute
+	 * @return The value returned by the action
+	 * @throws E
+	 *             The exception thrown by the action
+	 */
+	public <T, E extends Exception> T measure(String phaseName, ForkJoinPool pool, PhaseAction<T, E> action)
+			throws E {
+		if (pool == null) {
+			return measure(phaseName, action);
+		} else if (pool instanceof MeasuredPool && !(Thread.currentThread() instanceof ForkJoinWorkerThread
+				&& ((ForkJoinWorkerThread) Thread.currentThread()).getPool() == pool)) {
+			return measure(phaseName, () -> {
+				long current = getAllocatedBytes();
+				long poolThreads = ((MeasuredPool) pool).getAllocatedBytes();
+				return (current < 0 || poolThreads < 0) ? -1 : current + poolThreads;
+			}, action);
+		} else {
+			return measure(phaseName, () -> -1, action);
+		}
+	}
+
+	private <T, E extends Exception> T measure(String phaseName, LongSupplier allocatedBytes, PhaseAction<T, E> action)
+			throws E {
+		long allocatedBefore = allocatedBytes.getAsLong();
+		long start = System.nanoTime();
+		T ret;
+		try {
+			ret = action.execute();
+		} catch (OutOfMemoryError e) {
+			if (heapMonitor == null) {
+				throw e;
+			}
+			throw heapMonitor.outOfMemory(phaseName, this, e);
+		} finally {
+			long allocatedAfter = allocatedBytes.getAsLong();
+			phases.add(new Phase(phaseName, (System.nanoTime() - start) / 1000000,
+					(allocatedBefore < 0 || allocatedAfter < 0) ? -1 : allocatedAfter - allocatedBefore));
+		}
+		if (heapMonitor != null) {
+			heapMonitor.check(phaseName, this);
+		}
+		return ret;
+	}
+
+	/**
+	 * Stores a counter, for instance the number of written files
+	 *
+	 * @param name
+	 * @param value
+	 */
+	public void count(String name, long value) {
+		counters.put(name, value);
+	}
+
+	/**
+	 * Adds the phases and the counters of the given metrics to these ones. The given metrics are typically the ones of
+	 * a target of the {@link GenerateMultiTargetCodeTask}, that is executed in its own thread.
+	 *
+	 * @param prefix
+	 *            The prefix of the added phase and counter names, for instance <I>server.</I>
+	 * @param metrics
+	 */
+	public void add(String prefix, GenerationMetrics metrics) {
+		for (Phase phase : metrics.phases) {
+			phases.add(new Phase(prefix + phase.name, phase.wallTimeMs, phase.allocatedBytes));
+		}
+		for (Map.Entry<String, Long> counter : metrics.counters.entrySet()) {
+			counters.put(prefix + counter.getKey(), counter.getValue());
+		}
+	}
+
+	public GenerationHeapMonitor getHeapMonitor() {
+		return heapMonitor;
+	}
+
+	public void setHeapMonitor(GenerationHeapMonitor heapMonitor) {
+		this.heapMonitor = heapMonitor;
+	}
+
+	public String getTaskPath() {
+		return taskPath;
+	}
+
+	public Map<String, Long> getCounters() {
+		return counters;
+	}
+
+	/**
+	 * Returns the memory allocated by each phase
+	 *
+	 * @return The allocated bytes, by phase name, in execution order. The value is -1 if the JVM can't measure it.
+	 */
+	public Map<String, Long> getAllocatedBytesByPhase() {
+		Map<String, Long> ret = new LinkedHashMap<>();
+		for (Phase phase : phases) {
+			ret.put(phase.name, phase.allocatedBytes);
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the wall time of the given phase
+	 *
+	 * @param phaseName
+	 * @return The wall time, in ms, or null if this phase has not been executed
+	 */
+	public Long getWallTimeMs(String phaseName) {
+		for (Phase phase : phases) {
+			if (phase.name.equals(phaseName)) {
+				return phase.wallTimeMs;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns a one line summary of the metrics, for instance:
+	 * <I>parse=120ms, generate=850ms, synchronize=30ms, types=42, filesWritten=3</I>
+	 */
+	public String getSummary() {
+		StringBuilder sb = new StringBuilder();
+		for (Phase phase : phases) {
+			sb.append((sb.length() == 0) ? "" : ", ").append(phase.name).append("=").append(phase.wallTimeMs)
+					.append("ms");
+		}
+		for (Map.Entry<String, Long> counter : counters.entrySet()) {
+			sb.append((sb.length() == 0) ? "" : ", ").append(counter.getKey()).append("=").append(counter.getValue());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns these metrics, in JSON format
+	 */
+	public String toJson() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\n");
+		sb.append("  \"task\": \"").append(escape(taskPath)).append("\",\n");
+		sb.append("  \"summary\": \"").append(escape(getSummary())).append("\",\n");
+		sb.append("  \"phases\": [");
+		for (int i = 0; i < phases.size(); i += 1) {
+			Phase phase = phases.get(i);
+			sb.append((i == 0) ? "\n" : ",\n");
+			sb.append("    { \"name\": \"").append(escape(phase.name)).append("\", \"wallTimeMs\": ")
+					.append(phase.wallTimeMs).append(", \"allocatedBytes\": ").append(phase.allocatedBytes)
+					.append(" }");
+		}
+		sb.append(phases.isEmpty() ? "],\n" : "\n  ],\n");
+		sb.append("  \"counters\": {");
+		int i = 0;
+		for (Map.Entry<String, Long> counter : counters.entrySet()) {
+			sb.append((i++ == 0) ? "\n" : ",\n");
+			sb.append("    \"").append(escape(counter.getKey())).append("\": ").append(counter.getValue());
+		}
+		sb.append(counters.isEmpty() ? "}\n" : "\n  }\n");
+		sb.append("}\n");
+		return sb.toString();
+	}
+
+	/**
+	 * Writes the JSON report into the given file
+	 *
+	 * @param reportFile
+	 */
+	public void write(File reportFile) {
+		reportFile.getParentFile().mkdirs();
+		try {
+			Files.write(reportFile.toPath(), toJson().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write the generation report " + reportFile, e);
+		}
+	}
+
+	/**
+	 * Reads the summary from a JSON report
+	 *
+	 * @param reportFile
+	 * @return The summary, or null if the file could not be read
+	 */
+	public static String readSummary(File reportFile) {
+		try {
+			Matcher matcher = SUMMARY_PATTERN
+					.matcher(new String(Files.readAllBytes(reportFile.toPath()), StandardCharsets.UTF_8));
+			return matcher.find() ? matcher.group(1) : null;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a pool, whose allocated memory can be measured by
+	 * {@link #measure(String, ForkJoinPool, GenerationMetrics.PhaseAction)}
+	 *
+	 * @param parallelism
+	 *            The number of threads
+	 * @return The pool, or null if the parallelism is 1 or less: the work is then done in the current thread
+	 */
+	public static ForkJoinPool createPool(int parallelism) {
+		return (parallelism > 1) ? new MeasuredPool(parallelism) : null;
+	}
+
+	/** A pool that keeps track of its threads, so that the memory they allocate can be measured */
+	static class MeasuredPool extends ForkJoinPool {
+		private final Set<ForkJoinWorkerThread> threads = ConcurrentHashMap.newKeySet();
+		/** The bytes allocated by the threads of this pool that have terminated */
+		private final AtomicLong terminatedThreadsBytes = new AtomicLong();
+
+		MeasuredPool(int parallelism) {
+			super(parallelism, pool -> ((MeasuredPool) pool).newThread(), null, false);
+		}
+
+		private ForkJoinWorkerThread newThread() {
+			ForkJoinWorkerThread thread = new ForkJoinWorkerThread(this) {
+				@Override
+				protected void onTermination(Throwable exception) {
+					long allocated = GenerationMetrics.getAllocatedBytes();
+					if (allocated > 0) {
+						terminatedThreadsBytes.addAndGet(allocated);
+					}
+					threads.remove(this);
+					super.onTermination(exception);
+				}
+			};
+			threads.add(thread);
+			return thread;
+		}
+
+		/**
+		 * Returns the memory allocated by the threads of this pool, since its creation
+		 *
+		 * @return The allocated bytes, or -1 if the JVM can't measure it
+		 */
+		long getAllocatedBytes() {
+			com.sun.management.ThreadMXBean bean = getMeasuringBean();
+			if (bean == null) {
+				return -1;
+			}
+			long ret = terminatedThreadsBytes.get();
+			for (ForkJoinWorkerThread thread : threads) {
+				// -1 if the thread is not started yet, or has just terminated (its memory is then already counted)
+				ret += Math.max(0, bean.getThreadAllocatedBytes(thread.getId()));
+			}
+			return ret;
+		}
+	}
+
+	private static long getAllocatedBytes() {
+		com.sun.management.ThreadMXBean bean = getMeasuringBean();
+		return (bean == null) ? -1 : bean.getCurrentThreadAllocatedBytes();
+	}
+
+	/**
+	 * Returns the bean that measures the memory allocated by the threads
+	 *
+	 * @return The bean, or null if the JVM can't measure the allocated memory
+	 */
+	private static com.sun.management.ThreadMXBean getMeasuringBean() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+			if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+				return sunBean;
+			}
+		}
+		return null;
+	}
+
+	/** Escapes the given value, so that it can be written as a JSON string */
+	static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n").replace("\r", "\\r")
+				.replace("\t", "\\t");
+	}
+}
@@ -0,0 +1,60 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * A build service that lists the generation reports (see {@link GenerationMetrics}) of the tasks executed during the
+ * current build. It allows to publish these reports as build scan custom values, at the end of the build, without
+ * publishing the reports of the tasks that were up to date.
+ *
+ * @author etienne-sf
+ */
+public abstract class GenerationReportService implements BuildService<BuildServiceParameters.None> {
+
+	/** The name of the service, as registered in the build's shared services */
+	final static String SERVICE_NAME = "graphqlGenerationReports";
+
+	/** The report files, by task path */
+	private final Map<String, File> reports = new ConcurrentHashMap<>();
+
+	/**
+	 * Stores the report file of a task that is executed in this build
+	 *
+	 * @param taskPath
+	 * @param reportFile
+	 */
+	public void addReport(String taskPath, File reportFile) {
+		reports.put(taskPath, reportFile);
+	}
+
+	/** Returns the report files of the tasks executed in this build, by task path */
+	public Map<String, File> getReports() {
+		return reports;
+	}
+
+	/**
+	 * Returns the summaries of the reports of the tasks executed in this build
+	 *
+	 * @return The list of the task paths, followed by their summary
+	 */
+	public List<String[]> getSummaries() {
+		List<String[]> summaries = new ArrayList<>();
+		for (Map.Entry<String, File> report : reports.entrySet()) {
+			String summary = GenerationMetrics.readSummary(report.getValue());
+			if (summary != null) {
+				summaries.add(new String[] { report.getKey(), summary });
+			}
+		}
+		return summaries;
+	}
+}
@@ -0,0 +1,324 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.inject.Inject;
+
+import org.gradle.api.Named;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+
+import com.graphql_java_generator.plugin.conf.GenerateClientCodeConfiguration;
+import com.graphql_java_generator.plugin.conf.GeneratePojoConfiguration;
+import com.graphql_java_generator.plugin.conf.GenerateServerCodeConfiguration;
+import com.graphql_java_generator.plugin.conf.PluginMode;
+
+/**
+ * <P>
+ * One named target of the {@link GenerateMultiTargetCodeTask}: the code generated by one of the code generation goals
+ * (client, server or POJO), in its own package and folders. For instance:
+ * </P>
+ *
+ * <PRE>
+ * generateMultiTargetCodeConf {
+ *     schemaFileFolder = 'src/main/graphql'
+ *     targets {
+ *         server {
+ *             goal = 'generateServerCode'
+ *             packageName = 'org.my.server'
+ *         }
+ *         testClient {
+ *             goal = 'generateClientCode'
+ *             packageName = 'org.my.test.client'
+ *             typeSuffix = 'Dto'
+ *         }
+ *     }
+ * }
+ * </PRE>
+ * <P>
+ * The parameters that are not set on the target are read from the task, that is: from its extension. The default
+ * target folders are the <I>&lt;target name&gt;</I> subfolders of the task's target folders.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class GenerationTarget implements Named {
+
+	/** The code generation goal of a target */
+	public enum Goal {
+		/** Generates the same code as the <I>generateClientCode</I> task */
+		generateClientCode(GenerateClientCodeSpringConfiguration.class, GenerateClientCodeConfiguration.class),
+		/** Generates the same code as the <I>generateServerCode</I> task */
+		generateServerCode(GenerateServerCodeSpringConfiguration.class, GenerateServerCodeConfiguration.class),
+		/** Generates the same code as the <I>generatePojo</I> task */
+		generatePojo(GeneratePojoSpringConfiguration.class, GeneratePojoConfiguration.class);
+
+		private final Class<?> springConfigurationClass;
+		private final Class<?> configurationInterface;
+
+		Goal(Class<?> springConfigurationClass, Class<?> configurationInterface) {
+			this.springConfigurationClass = springConfigurationClass;
+			this.configurationInterface = configurationInterface;
+		}
+	}
+
+	/**
+	 * The values of a target, as sent to the Gradle worker: the worker applies them to the task's configuration (see
+	 * {@link ConfigurationSnapshot#withValue(String, Serializable)}).
+	 */
+	public static class TargetSnapshot implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		final String name;
+		final String springConfigurationClassName;
+		final String configurationInterfaceName;
+		/** The values of the target, by getter name of the configuration interfaces */
+		final Map<String, Serializable> values;
+
+		TargetSnapshot(String name, String springConfigurationClassName, String configurationInterfaceName,
+				Map<String, Serializable> values) {
+			this.name = name;
+			this.springConfigurationClassName = springConfigurationClassName;
+			this.configurationInterfaceName = configurationInterfaceName;
+			this.values = values;
+		}
+
+		/**
+		 * Returns the configuration of this target
+		 *
+		 * @param taskConfiguration
+		 *            The configuration of the {@link GenerateMultiTargetCodeTask}
+		 * @return
+		 */
+		ConfigurationSnapshot toConfiguration(ConfigurationSnapshot taskConfiguration) {
+			ConfigurationSnapshot configuration = taskConfiguration.forInterface(configurationInterfaceName);
+			for (Map.Entry<String, Serializable> value : values.entrySet()) {
+				configuration = configuration.withValue(value.getKey(), value.getValue());
+			}
+			return configuration;
+		}
+	}
+
+	private final String name;
+	private final ProjectLayout projectLayout;
+
+	/** The code generation goal: generateClientCode, generateServerCode or generatePojo */
+	private final Property<Goal> goal;
+
+	/** The mode of the <I>generatePojo</I> goal: client (default) or server. It is ignored by the other goals. */
+	private final Property<PluginMode> mode;
+
+	/** The package in which the classes of this target are generated */
+	private final Property<String> packageName;
+
+	/** The suffix of the generated Spring beans. It is needed when several targets are used in the same Spring app. */
+	private final Property<String> springBeanSuffix;
+
+	/** The folder where the sources of this target are generated */
+	private final DirectoryProperty targetSourceFolder;
+
+	/** The folder where the resources of this target are generated */
+	private final DirectoryProperty targetResourceFolder;
+
+	/** The prefixes and suffixes of the generated class names, by getter name (for instance <I>getTypePrefix</I>) */
+	private final Map<String, Property<String>> classNameAffixes = new LinkedHashMap<>();
+
+	@Inject
+	public GenerationTarget(String name, ObjectFactory objects, ProjectLayout projectLayout) {
+		this.name = name;
+		this.projectLayout = projectLayout;
+		goal = objects.property(Goal.class);
+		mode = objects.property(PluginMode.class).convention(PluginMode.client);
+		packageName = objects.property(String.class);
+		springBeanSuffix = objects.property(String.class);
+		targetSourceFolder = objects.directoryProperty();
+		targetResourceFolder = objects.directoryProperty();
+		for (String kind : new String[] { "Type", "Input", "Interface", "Union", "Enum" }) {
+			classNameAffixes.put("get" + kind + "Prefix", objects.property(String.class));
+			classNameAffixes.put("get" + kind + "Suffix", objects.property(String.class));
+		}
+	}
+
+	/**
+	 * Returns the mode of the generated code: it depends on the goal, and on the mode of the target for the
+	 * <I>generatePojo</I> goal
+	 */
+	PluginMode codeMode() {
+		return getGoal() == Goal.generateServerCode ? PluginMode.server
+				: getGoal() == Goal.generateClientCode ? PluginMode.client : getMode();
+	}
+
+	/**
+	 * Returns the values of this target, as sent to the Gradle worker
+	 *
+	 * @return
+	 */
+	TargetSnapshot snapshot() {
+		if (!goal.isPresent()) {
+			throw new IllegalArgumentException("The goal of the '" + name
+					+ "' generation target is mandatory (generateClientCode, generateServerCode or generatePojo)");
+		}
+		Map<String, Serializable> values = new LinkedHashMap<>();
+		values.put("getMode", codeMode());
+		values.put("isGenerateJacksonAnnotations", values.get("getMode") == PluginMode.client);
+		values.put("isGenerateUtilityClasses", getGoal() != Goal.generatePojo);
+		if (getGoal() == Goal.generatePojo) {
+			// There is no utility classes for this goal (see GeneratePojoTask)
+			values.put("isSeparateUtilityClasses", true);
+		}
+		values.put("getTargetSourceFolder", getTargetSourceFolder());
+		values.put("getTargetResourceFolder", getTargetResourceFolder());
+		if (packageName.isPresent()) {
+			values.put("getPackageName", packageName.get());
+		}
+		if (springBeanSuffix.isPresent()) {
+			values.put("getSpringBeanSuffix", springBeanSuffix.get());
+		}
+		for (Map.Entry<String, Property<String>> affix : classNameAffixes.entrySet()) {
+			if (affix.getValue().isPresent()) {
+				values.put(affix.getKey(), affix.getValue().get());
+			}
+		}
+		return new TargetSnapshot(name, getGoal().springConfigurationClass.getName(),
+				getGoal().configurationInterface.getName(), values);
+	}
+
+	@Input
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Input
+	@Optional
+	public Goal getGoal() {
+		return goal.getOrNull();
+	}
+
+	public void setGoal(Goal goal) {
+		this.goal.set(goal);
+	}
+
+	@Input
+	public PluginMode getMode() {
+		return mode.get();
+	}
+
+	public void setMode(PluginMode mode) {
+		this.mode.set(mode);
+	}
+
+	@Input
+	@Optional
+	public String getPackageName() {
+		return packageName.getOrNull();
+	}
+
+	public void setPackageName(String packageName) {
+		this.packageName.set(packageName);
+	}
+
+	@Input
+	@Optional
+	public String getSpringBeanSuffix() {
+		return springBeanSuffix.getOrNull();
+	}
+
+	public void setSpringBeanSuffix(String springBeanSuffix) {
+		this.springBeanSuffix.set(springBeanSuffix);
+	}
+
+	@OutputDirectory
+	public File getTargetSourceFolder() {
+		return targetSourceFolder.get().getAsFile();
+	}
+
+	/**
+	 * @param targetSourceFolder
+	 *            A folder, relative to the project dir (not the the build dir)
+	 */
+	public void setTargetSourceFolder(String targetSourceFolder) {
+		this.targetSourceFolder.set(new File(projectLayout.getProjectDirectory().getAsFile(), targetSourceFolder));
+	}
+
+	@OutputDirectory
+	public File getTargetResourceFolder() {
+		return targetResourceFolder.get().getAsFile();
+	}
+
+	/**
+	 * @param targetResourceFolder
+	 *            A folder, relative to the project dir (not the the build dir)
+	 */
+	public void setTargetResourceFolder(String targetResourceFolder) {
+		this.targetResourceFolder.set(new File(projectLayout.getProjectDirectory().getAsFile(), targetResourceFolder));
+	}
+
+	/** The target folders. Their default value is the given folders' subfolder with the name of this target. */
+	void setFolderConventions(DirectoryProperty taskSourceFolder, DirectoryProperty taskResourceFolder) {
+		targetSourceFolder.convention(taskSourceFolder.dir(name));
+		targetResourceFolder.convention(taskResourceFolder.dir(name));
+	}
+
+	@Input
+	public Map<String, String> getClassNameAffixes() {
+		Map<String, String> ret = new LinkedHashMap<>();
+		for (Map.Entry<String, Property<String>> affix : classNameAffixes.entrySet()) {
+			if (affix.getValue().isPresent()) {
+				ret.put(affix.getKey(), affix.getValue().get());
+			}
+		}
+		return ret;
+	}
+
+	public void setTypePrefix(String typePrefix) {
+		classNameAffixes.get("getTypePrefix").set(typePrefix);
+	}
+
+	public void setTypeSuffix(String typeSuffix) {
+		classNameAffixes.get("getTypeSuffix").set(typeSuffix);
+	}
+
+	public void setInputPrefix(String inputPrefix) {
+		classNameAffixes.get("getInputPrefix").set(inputPrefix);
+	}
+
+	public void setInputSuffix(String inputSuffix) {
+		classNameAffixes.get("getInputSuffix").set(inputSuffix);
+	}
+
+	public void setInterfacePrefix(String interfacePrefix) {
+		classNameAffixes.get("getInterfacePrefix").set(interfacePrefix);
+	}
+
+	public void setInterfaceSuffix(String interfaceSuffix) {
+		classNameAffixes.get("getInterfaceSuffix").set(interfaceSuffix);
+	}
+
+	public void setUnionPrefix(String unionPrefix) {
+		classNameAffixes.get("getUnionPrefix").set(unionPrefix);
+	}
+
+	public void setUnionSuffix(String unionSuffix) {
+		classNameAffixes.get("getUnionSuffix").set(unionSuffix);
+	}
+
+	public void setEnumPrefix(String enumPrefix) {
+		classNameAffixes.get("getEnumPrefix").set(enumPrefix);
+	}
+
+	public void setEnumSuffix(String enumSuffix) {
+		classNameAffixes.get("getEnumSuffix").set(enumSuffix);
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * 
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkParameters;
+
+import com.graphql_java_generator.gradleplugin.GenerationManifest.SchemaEntry;
+
+/**
+ * The parameters sent by the tasks of this plugin to the Gradle worker that executes the generation.
+ * 
+ * @author etienne-sf
+ */
+public interface GenerationWorkParameters extends WorkParameters {
+
+	/**
+	 * The full name of the Spring configuration class that will be used to build the Spring context, for instance
+	 * {@link GenerateServerCodeSpringConfiguration}
+	 */
+	Property<String> getSpringConfigurationClassName();
+
+	/** The configuration of the task, as a serializable object */
+	Property<ConfigurationSnapshot> getConfiguration();
+
+	/** The name of the task. It is used to store the {@link GenerationManifest} of the code generation tasks. */
+	Property<String> getTaskName();
+
+	/**
+	 * The fingerprint of the schema files' definitions. It is computed by the task, so that a syntax error stops the
+	 * task before the worker is started (see {@link GenerationManifest}).
+	 */
+	ListProperty<SchemaEntry> getSchemaEntries();
+
+	/**
+	 * The folder where the code is generated, before the changed files are copied into the target folders (see
+	 * {@link GeneratedFilesSynchronizer})
+	 */
+	DirectoryProperty getStagingFolder();
+
+	/** The folder where the {@link GenerationManifest} of each generated target is stored */
+	DirectoryProperty getManifestFolder();
+
+	/**
+	 * The folder where the runtime sources are copied, when they are shared by the tasks of the project (see
+	 * <I>shareRuntimeSources</I>). It is not set if the runtime sources are copied with the generated code.
+	 */
+	DirectoryProperty getRuntimeSourcesFolder();
+
+	/**
+	 * The folder where the generated code is compiled, when the {@link GeneratePojoTask} precompiles it (see
+	 * <I>precompileGeneratedCode</I>). It is not set if the generated code is compiled by the <I>compileJava</I> task.
+	 */
+	DirectoryProperty getPrecompiledClassesFolder();
+
+	/** The classpath used to compile the generated code, when it is precompiled */
+	ConfigurableFileCollection getCompileClasspath();
+
+	/**
+	 * The number of shards of the precompiled code: when it is more than 1, the generated code is split into shards,
+	 * that are compiled in parallel (see {@link GeneratedCodeCompiler})
+	 */
+	Property<Integer> getPrecompileShards();
+
+	/** The java release of the precompiled classes, for instance 17. If not set, the release of the Gradle JVM. */
+	Property<Integer> getRelease();
+
+	/**
+	 * The temporary folder of the task. The workers store their intermediate files there, for instance the schema file
+	 * converted from the introspection result (see {@link IntrospectionSchemaReader}).
+	 */
+	DirectoryProperty getTemporaryFolder();
+
+	/**
+	 * The targets of the {@link GenerateMultiTargetCodeTask}. It is empty for the other tasks: the task's
+	 * configuration is then the only target.
+	 */
+	ListProperty<GenerationTarget.TargetSnapshot> getTargets();
+
+	/**
+	 * The number of threads used by the plugin's own stages (hash, normalization and copy of the generated files), and
+	 * to generate the targets in parallel. The plugin logic's generation of each target stays sequential.
+	 */
+	Property<Integer> getGenerationParallelism();
+
+	/** True if the generated files are normalized, so that they don't depend on the machine that generated them */
+	Property<Boolean> getReproducibleOutput();
+
+	/**
+	 * True if the {@link GenerateGraphQLSchemaTask} merges the schema files as a stream (see
+	 * {@link StreamingSchemaMerger}), instead of using the plugin logic
+	 */
+	Property<Boolean> getStreamingMerge();
+
+	/**
+	 * The heap budget of the generation, for instance <I>512m</I>. If set, the worker is a process of this heap size,
+	 * and the heap is checked after each phase (see {@link GenerationHeapMonitor}).
+	 */
+	Property<String> getMaxGenerationHeap();
+
+	/** The metrics of the phases that have been executed by the task, before the worker was started */
+	Property<GenerationMetrics> getMetrics();
+
+	/** The file where the worker writes the {@link GenerationMetrics} of the generation, as a JSON report */
+	RegularFileProperty getMetricsReportFile();
+
+	/** The file where the {@link ValidateGraphQLSchemaWorkAction} writes the result of the validation */
+	RegularFileProperty getValidationReportFile();
+
+}
@@ -3,25 +3,22 @@
  */
 package com.graphql_java_generator.gradleplugin;
 
-import java.io.IOException;
-
 import javax.inject.Inject;
 
 import org.gradle.api.Project;
 import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
-import org.springframework.context.support.AbstractApplicationContext;
 
 import com.graphql_java_generator.plugin.conf.GraphQLConfiguration;
 import com.graphql_java_generator.plugin.conf.Packaging;
 import com.graphql_java_generator.plugin.conf.PluginMode;
-import com.graphql_java_generator.plugin.generate_code.GenerateCodeDocumentParser;
-import com.graphql_java_generator.plugin.generate_code.GenerateCodeGenerator;
 
 /**
  * <P>
@@ -54,6 +51,7 @@ import com.graphql_java_generator.plugin.generate_code.GenerateCodeGenerator;
  * 
  * @author EtienneSF
  */
+@CacheableTask
 public class GraphQLGenerateCodeTask extends GenerateServerCodeTask implements GraphQLConfiguration {
 
 	private static final Logger logger = LoggerFactory.getLogger(GraphQLGenerateCodeTask.class);
@@ -75,67 +73,56 @@ public class GraphQLGenerateCodeTask extends GenerateServerCodeTask implements G
 	 * page</a>.
 	 * </P>
 	 */
-	private Boolean generateDeprecatedRequestResponse;
+	private final Property<Boolean> generateDeprecatedRequestResponse = conventionProperty(Boolean.class,
+			GraphQLExtension::isGenerateDeprecatedRequestResponse);
 
 	/**
 	 * The generation mode: either <I>client</I> or <I>server</I>. Choose client to generate the code which can query a
 	 * graphql server or server to generate a code for the server side.
 	 */
-	private PluginMode mode;
+	private final Property<PluginMode> mode = conventionProperty(PluginMode.class, GraphQLExtension::getMode);
 
 	/**
 	 * @param projectLayout
 	 *            This Gradle service is automatically injected by gradle. It allows to retrieve the project directory,
 	 *            as accessing the Gradle {@link Project} is forbidden from a task.
+	 * @param workerExecutor
+	 *            This Gradle service is automatically injected by gradle. It executes the generation in a Gradle worker.
 	 */
 	@Inject
-	public GraphQLGenerateCodeTask(ProjectLayout projectLayout) {
-		super(new GraphQLExtension(projectLayout, Packaging.jar), projectLayout);
+	public GraphQLGenerateCodeTask(ProjectLayout projectLayout, WorkerExecutor workerExecutor) {
+		super(new GraphQLExtension(projectLayout, Packaging.jar), projectLayout, workerExecutor);
 	}
 
-	public GraphQLGenerateCodeTask(GraphQLExtension extension, ProjectLayout projectLayout) {
-		super(extension, projectLayout);
+	public GraphQLGenerateCodeTask(GraphQLExtension extension, ProjectLayout projectLayout,
+			WorkerExecutor workerExecutor) {
+		super(extension, projectLayout, workerExecutor);
 	}
 
 	@Override
 	@TaskAction
 	public void execute() {
-		try {
-
-			logger.debug("Executing " + this.getClass().getName());
-
-			// We'll use Spring IoC
-			GraphQLGenerateCodeSpringConfiguration.graphqlGenerateCodeConf = this;
-			AbstractApplicationContext ctx = new AnnotationConfigApplicationContext(
-					GraphQLGenerateCodeSpringConfiguration.class);
-
-			// Let's log the current configuration (this will do something only when in debug mode)
-			GraphQLConfiguration pluginConfiguration = ctx.getBean(GraphQLConfiguration.class);
-			pluginConfiguration.logConfiguration();
-
-			GenerateCodeDocumentParser documentParser = ctx.getBean(GenerateCodeDocumentParser.class);
-			documentParser.parseGraphQLSchemas();
 
-			GenerateCodeGenerator codeGenerator = ctx.getBean(GenerateCodeGenerator.class);
-			codeGenerator.generateCode();
+		logger.debug("Executing " + this.getClass().getName());
 
-			ctx.close();
-
-			logger.debug("Finished generation of java classes from graphqls files (5)");
+		// The generation is executed by a Gradle worker
+		submitGeneration(getSpringConfigurationClass());
+	}
 
-		} catch (IOException e) {
-			throw new RuntimeException(e.getMessage(), e);
-		}
+	@Override
+	@Internal
+	protected Class<?> getSpringConfigurationClass() {
+		return GraphQLGenerateCodeSpringConfiguration.class;
 	}
 
 	@Input
 	@Override
 	public PluginMode getMode() {
-		return getValue(mode, getExtension().getMode());
+		return mode.getOrNull();
 	}
 
 	public final void setMode(PluginMode mode) {
-		this.mode = mode;
+		this.mode.set(mode);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
@@ -143,11 +130,11 @@ public class GraphQLGenerateCodeTask extends GenerateServerCodeTask implements G
 	@Input
 	@Override
 	final public boolean isGenerateDeprecatedRequestResponse() {
-		return getValue(generateDeprecatedRequestResponse, getExtension().isGenerateDeprecatedRequestResponse());
+		return generateDeprecatedRequestResponse.get();
 	}
 
 	public final void setGenerateDeprecatedRequestResponse(boolean generateDeprecatedRequestResponse) {
-		this.generateDeprecatedRequestResponse = generateDeprecatedRequestResponse;
+		this.generateDeprecatedRequestResponse.set(generateDeprecatedRequestResponse);
 		// This task is now configured. So we'll mark compileJava and processResources as depending on it
 		setInitialized(true);
 	}
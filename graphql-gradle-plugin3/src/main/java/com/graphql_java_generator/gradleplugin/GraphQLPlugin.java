@@ -6,26 +6,40 @@ package com.graphql_java_generator.gradleplugin;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import org.gradle.api.Action;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
-import org.gradle.api.Task;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.dsl.DependencyHandler;
+import org.gradle.api.file.Directory;
 import org.gradle.api.file.DuplicatesStrategy;
+import org.gradle.api.file.FileCollection;
 import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.Sync;
+import org.gradle.api.tasks.TaskCollection;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.api.tasks.compile.JavaCompile;
 import org.gradle.language.jvm.tasks.ProcessResources;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.graphql_java_generator.plugin.conf.Packaging;
+import com.graphql_java_generator.plugin.conf.PluginMode;
 
 /**
  * @author EtienneSF
@@ -55,11 +69,31 @@ public class GraphQLPlugin implements Plugin<Project> {
 	/** The name of the task that generates the code from the given GraphQL schemas */
 	final public static String GRAPHQL_GENERATE_CODE_TASK_NAME = "graphqlGenerateCode";
 
+	/** The extension name to configure the GraphQL plugin, for the multi-target code generation task */
+	final public static String GENERATE_MULTI_TARGET_CODE_EXTENSION = "generateMultiTargetCodeConf";
+	/** The name of the task that generates several targets (client, server, POJO) from the given GraphQL schemas */
+	final public static String GENERATE_MULTI_TARGET_CODE_TASK_NAME = "generateMultiTargetCode";
+
 	/** The extension name to configure the GraphQL merge task */
 	final public static String MERGE_EXTENSION = "generateGraphQLSchemaConf";
 	/** The name of the task that generates a GraphqL that merges several GraphQL schemas */
 	final public static String MERGE_TASK_NAME = "generateGraphQLSchema";
 
+	/** The name of the task that merges the runtime sources shared by the code generation tasks */
+	final public static String MERGE_RUNTIME_SOURCES_TASK_NAME = "mergeGraphQLRuntimeSources";
+
+	/** The name of the task that generates the code again, each time a schema file changes */
+	final public static String WATCH_TASK_NAME = "graphqlWatch";
+
+	/** The name of the task that validates the GraphQL schema of the code generation tasks, without generating code */
+	final public static String VALIDATE_TASK_NAME = "validateGraphQLSchema";
+
+	/** The folder where the shared runtime sources are merged, relative to the build folder */
+	final static String MERGED_RUNTIME_SOURCES_FOLDER = "generated/sources/graphqlGradlePluginRuntime";
+
+	/** The group id of the graphql-java-generator runtime jars */
+	final static String RUNTIME_GROUP_ID = "com.graphql-java-generator";
+
 	/**
 	 * The properties loaded from application.properties
 	 * 
@@ -69,83 +103,238 @@ public class GraphQLPlugin implements Plugin<Project> {
 
 	@Override
 	public void apply(Project project) {
+		// Apply the java plugin, then add the generated source
+		project.getPlugins().apply(JavaPlugin.class);
+
+		// The metrics of the generation tasks executed in this build are published in the build scan, if any
+		Provider<GenerationReportService> generationReports = project.getGradle().getSharedServices()
+				.registerIfAbsent(GenerationReportService.SERVICE_NAME, GenerationReportService.class, spec -> {
+				});
+		project.getTasks().withType(CommonTask.class).configureEach(task -> {
+			task.getGenerationReports().set(generationReports);
+			task.usesService(generationReports);
+		});
+		addBuildScanValues(project, generationReports);
+
 		applyGenerateClientCode(project);
 		applyGeneratePojo(project);
 		applyGenerateServerCode(project);
 		applyGraphQLGenerateCode(project);
+		applyGenerateMultiTargetCode(project);
 		applyGenerateGraphQLSchema(project);
 
-		// The generated resources must be declared:
-		// - Not here as it's too soon: the project has not been evaluated yet
-		// - Not in the Task.execute method, as this method is not executed if the task is up-to-date
-		// So we create a dedicated Action for that. Let's register it, so that it is executed once the project is
-		// evaluated.
-		project.afterEvaluate(new Action<Project>() {
-
-			@Override
-			public void execute(Project p) {
-				Set<Task> compileJavaTasks = project.getTasksByName("compileJava", false);
-				Set<Task> processResourcesTasks = project.getTasksByName("processResources", false);
-				Set<Task> allDependingTasks = new HashSet<>();
-				allDependingTasks.addAll(compileJavaTasks);
-				allDependingTasks.addAll(processResourcesTasks);
-
-				Set<String> list = new TreeSet<>();
-				for (Task t : p.getTasks()) {
-					if (t.hasProperty("initialized")) {
-						list.add(String.format(
-								"[in project.afterEvaluate (getTasks)]   %1s %2s (initialized=[%3s]%4s, enabled=%5s, extensions=%6s)",
-								p.getName(), t.getPath(), t.property("initialized").getClass().getSimpleName(),
-								t.property("initialized"), t.getEnabled(), t.getExtensions()));
-						if ((boolean) t.property("initialized") && t instanceof CommonTask) {
-							configurePluginTasks(p, t, allDependingTasks);
-						} else {
-							logger.debug(
-									"Task {} ignored, as its initialized state is {} and it is an instance of {} (it will not be added as a dependency for the compileJava and processResources tasks)",
-									t.getName(), t.property("initialized"), t.getClass().getName());
-						}
-					}
-				}
-				for (String s : list) {
-					logger.debug(s);
+		// Only the tasks that have been configured in the build script are wired to the java build. This can't be known
+		// now, as the build script has not been evaluated yet. So the dependencies and the generated source folders are
+		// given as providers: they are computed when Gradle needs them, and stored in the configuration cache.
+		Provider<List<CommonTask>> initializedTasks = getInitializedTasks(project, CommonTask.class);
+		project.getTasks().named(JavaPlugin.COMPILE_JAVA_TASK_NAME).configure(t -> t.dependsOn(initializedTasks));
+		project.getTasks().named(JavaPlugin.PROCESS_RESOURCES_TASK_NAME).configure(t -> t.dependsOn(initializedTasks));
+
+		SourceSet main = project.getExtensions().getByType(SourceSetContainer.class)
+				.getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+		Provider<List<GenerateCodeCommonTask>> codeTasks = getInitializedTasks(project, GenerateCodeCommonTask.class);
+		main.getJava().srcDir(codeTasks.map(tasks -> tasks.stream().flatMap(t -> t.getTargetSourceFolders().stream())
+				.collect(Collectors.toList())));
+
+		applyRuntimeSources(project, codeTasks, main);
+		applyPrecompiledCode(project, codeTasks, main);
+
+		// The code is first generated by the code generation tasks. Then, it is generated again at each change.
+		project.getTasks().register(WATCH_TASK_NAME, GraphQLWatchTask.class, task -> {
+			task.getCodeTasks().set(codeTasks);
+			task.dependsOn(codeTasks);
+		});
+
+		// The schemas are validated without generating the code, so this task doesn't depend on the generation tasks
+		project.getTasks().register(VALIDATE_TASK_NAME, ValidateGraphQLSchemaTask.class,
+				task -> task.getSchemas().set(codeTasks.map(tasks -> tasks.stream()
+						.map(ValidateGraphQLSchemaTask.ValidatedSchema::of).collect(Collectors.toList()))));
+
+		main.getResources().srcDir(initializedTasks.map(GraphQLPlugin::getGeneratedResourceFolders));
+
+		// Two tasks may generate the same resource (for instance the same schema file, in two resource folders). The
+		// first one is kept.
+		project.getTasks().named(JavaPlugin.PROCESS_RESOURCES_TASK_NAME, ProcessResources.class)
+				.configure(t -> t.setDuplicatesStrategy(DuplicatesStrategy.EXCLUDE));
+	}
+
+	/**
+	 * Returns the folders where the given tasks generate resources. A folder that is shared by several tasks is
+	 * returned once.
+	 * 
+	 * @param tasks
+	 * @return
+	 */
+	static List<File> getGeneratedResourceFolders(List<CommonTask> tasks) {
+		Set<File> folders = new LinkedHashSet<>();
+		for (CommonTask task : tasks) {
+			if (task instanceof GenerateCodeCommonTask) {
+				for (File folder : ((GenerateCodeCommonTask) task).getTargetResourceFolders()) {
+					folders.add(folder.getAbsoluteFile());
 				}
+			} else if (task instanceof GenerateGraphQLSchemaTask) {
+				folders.add(((GenerateGraphQLSchemaTask) task).getTargetFolder().getAbsoluteFile());
 			}
+		}
+		logger.debug("The generated resource folders are: {}", folders);
+		return new ArrayList<>(folders);
+	}
 
-			/**
-			 * Add a dependency on taskName, like this: <I>taskName.dependsOn(dependsOnTask)</I>.
-			 * 
-			 * @param taskName
-			 * @param dependsOnTask
-			 * @return the set of tasks, that has <I>taskName<I> as a name. This set contains at least one item (and
-			 *         should not contain more than one)
-			 */
-			private void configurePluginTasks(Project p, Task task, Set<Task> dependingTasks) {
-
-				// Step1 : the plugin task is marked as a dependency for standard tasks
-				for (Task dependingTask : dependingTasks) {
-					logger.info("Adding the {} task as a dependency for the {} task", task.getPath(),
-							dependingTask.getPath());
-					dependingTask.dependsOn(task);
-				}
+	/**
+	 * Wires the graphql-java-generator runtime to the java build, for the code generation tasks that:
+	 * <UL>
+	 * <LI>Share the runtime sources (<I>shareRuntimeSources</I>): the runtime sources of these tasks are merged into
+	 * one source folder by the <I>mergeGraphQLRuntimeSources</I> task. So each runtime class is compiled once.</LI>
+	 * <LI>Use the precompiled runtime (<I>addRuntimeDependency</I>): the runtime jar is added to the
+	 * <I>implementation</I> dependencies.</LI>
+	 * </UL>
+	 * 
+	 * @param project
+	 * @param codeTasks
+	 *            The code generation tasks that have been configured in the build script
+	 * @param main
+	 *            The main source set
+	 */
+	private void applyRuntimeSources(Project project, Provider<List<GenerateCodeCommonTask>> codeTasks,
+			SourceSet main) {
+		Provider<List<File>> runtimeFolders = codeTasks.map(tasks -> tasks.stream()
+				.flatMap(t -> t.getRuntimeSourcesFolders().stream()).collect(Collectors.toList()));
+		Provider<Directory> mergedFolder = project.getLayout().getBuildDirectory().dir(MERGED_RUNTIME_SOURCES_FOLDER);
+
+		TaskProvider<Sync> mergeTask = project.getTasks().register(MERGE_RUNTIME_SOURCES_TASK_NAME, Sync.class,
+				task -> {
+					task.setDescription("Merges the runtime sources that are shared by the code generation tasks");
+					task.dependsOn(codeTasks.map(tasks -> tasks.stream()
+							.filter(t -> !t.getRuntimeSourcesFolders().isEmpty()).collect(Collectors.toList())));
+					task.from(runtimeFolders);
+					task.into(mergedFolder);
+					// The runtime sources of all the tasks come from the same runtime: the duplicates are identical
+					task.setDuplicatesStrategy(DuplicatesStrategy.EXCLUDE);
+				});
+		Provider<List<Object>> mergeTaskIfNeeded = runtimeFolders
+				.map(folders -> folders.isEmpty() ? new ArrayList<>() : Arrays.asList(mergeTask));
+		project.getTasks().named(JavaPlugin.COMPILE_JAVA_TASK_NAME).configure(t -> t.dependsOn(mergeTaskIfNeeded));
+		main.getJava().srcDir(runtimeFolders.map(folders -> folders.isEmpty() ? new ArrayList<>()
+				: Arrays.asList(mergedFolder.get().getAsFile())));
+
+		String runtimeVersion = getDependenciesVersion();
+		DependencyHandler dependencies = project.getDependencies();
+		project.getConfigurations().named(JavaPlugin.IMPLEMENTATION_CONFIGURATION_NAME)
+				.configure(conf -> conf.getDependencies().addAllLater(codeTasks.map(tasks -> {
+					Set<PluginMode> modes = new TreeSet<>();
+					for (GenerateCodeCommonTask task : tasks) {
+						if (task.isAddRuntimeDependency() && !task.isCopyRuntimeSources()) {
+							task.getRuntimeModes().stream().filter(m -> m != null).forEach(modes::add);
+						}
+					}
+					List<Dependency> ret = new ArrayList<>();
+					for (PluginMode mode : modes) {
+						logger.debug("Adding the graphql-java-{}-runtime dependency", mode);
+						ret.add(dependencies.create(
+								RUNTIME_GROUP_ID + ":graphql-java-" + mode + "-runtime:" + runtimeVersion));
+					}
+					return ret;
+				})));
+	}
+
+	/**
+	 * Wires the classes compiled by the {@link GeneratePojoTask} tasks whose <I>precompileGeneratedCode</I> parameter is
+	 * true: they are added to the classpath of the <I>compileJava</I> task, and to the output of the main source set,
+	 * so that they are in the runtime classpath and in the jar of the project. These tasks compile the generated code
+	 * with the compile classpath of the main source set, for the target compatibility of the project.
+	 * 
+	 * @param project
+	 * @param codeTasks
+	 *            The code generation tasks that have been configured in the build script
+	 * @param main
+	 *            The main source set
+	 */
+	private void applyPrecompiledCode(Project project, Provider<List<GenerateCodeCommonTask>> codeTasks,
+			SourceSet main) {
+		JavaPluginExtension java = project.getExtensions().getByType(JavaPluginExtension.class);
+		project.getTasks().withType(GeneratePojoTask.class).configureEach(task -> {
+			task.getCompileClasspath().from(project.provider(
+					() -> task.isPrecompileGeneratedCode() ? main.getCompileClasspath() : new ArrayList<>()));
+			task.getRelease().convention(
+					project.provider(() -> Integer.valueOf(java.getTargetCompatibility().getMajorVersion())));
+		});
+
+		Provider<List<GeneratePojoTask>> precompilingTasks = codeTasks.map(tasks -> tasks.stream()
+				.filter(t -> t instanceof GeneratePojoTask && ((GeneratePojoTask) t).isPrecompileGeneratedCode())
+				.map(t -> (GeneratePojoTask) t).collect(Collectors.toList()));
+		Provider<List<File>> classesFolders = precompilingTasks.map(tasks -> tasks.stream()
+				.map(GeneratePojoTask::getPrecompiledClassesFolder).collect(Collectors.toList()));
+		FileCollection precompiledClasses = project.files(classesFolders).builtBy(precompilingTasks);
 
-				// Step 2: Add the generated source and resource folders, if applicable
-				if (task instanceof GenerateCodeCommonTask) {
-					GenerateCodeCommonTask t = (GenerateCodeCommonTask) task;
-					// Let's add the folders where the sources and resources have been generated to the project
-					SourceSet main = ((SourceSetContainer) project.getProperties().get("sourceSets"))
-							.getByName(SourceSet.MAIN_SOURCE_SET_NAME);
-					main.getJava().srcDir(t.getTargetSourceFolder());
+		project.getTasks().named(JavaPlugin.COMPILE_JAVA_TASK_NAME, JavaCompile.class)
+				.configure(t -> t.setClasspath(t.getClasspath().plus(precompiledClasses)));
+		main.getOutput().dir(Collections.singletonMap("builtBy", precompilingTasks), classesFolders);
+	}
 
-					addGeneratedResourceFolder(project, task, t.getTargetResourceFolder());
+	/**
+	 * Publishes the summary of the generation reports as build scan custom values, when a build scan plugin (Develocity
+	 * or the former Gradle Enterprise one) is applied. These plugins are not dependencies of this plugin: their API is
+	 * called through reflection. The values are added at the end of the build, for the tasks that have been executed.
+	 * 
+	 * @param project
+	 * @param generationReports
+	 */
+	private void addBuildScanValues(Project project, Provider<GenerationReportService> generationReports) {
+		if (project != project.getRootProject()) {
+			// The values are added once for the whole build, as the report service is shared by all projects
+			return;
+		}
+		Object buildScan = project.getExtensions().findByName("develocity");
+		try {
+			if (buildScan != null) {
+				buildScan = buildScan.getClass().getMethod("getBuildScan").invoke(buildScan);
+			} else {
+				buildScan = project.getExtensions().findByName("buildScan");
+			}
+			if (buildScan == null) {
+				return;
+			}
+			Object scan = buildScan;
+			Action<Object> addValues = result -> {
+				for (String[] summary : generationReports.get().getSummaries()) {
+					try {
+						Method value = scan.getClass().getMethod("value", String.class, String.class);
+						value.invoke(scan, "graphql-generator " + summary[0], summary[1]);
+					} catch (ReflectiveOperationException e) {
+						logger.debug("Could not add the build scan value for {}: {}", summary[0], e.getMessage());
+					}
 				}
+			};
+			buildScan.getClass().getMethod("buildFinished", Action.class).invoke(buildScan, addValues);
+		} catch (ReflectiveOperationException e) {
+			logger.debug("The generation metrics won't be published in the build scan: {}", e.getMessage());
+		}
+	}
 
-				// Step 3 :
-				if (task instanceof GenerateGraphQLSchemaTask) {
-					addGeneratedResourceFolder(project, task, ((GenerateGraphQLSchemaTask) task).getTargetFolder());
+	/**
+	 * Returns a provider for the tasks of the given type that have been configured in the build script, that is: whose
+	 * <I>initialized</I> property is true. The tasks that are not configured are not added as a dependency for the
+	 * compileJava and processResources tasks.
+	 * 
+	 * @param project
+	 * @param type
+	 *            The type of the tasks to return
+	 * @return
+	 */
+	private <T extends CommonTask> Provider<List<T>> getInitializedTasks(Project project, Class<T> type) {
+		TaskCollection<T> tasks = project.getTasks().withType(type);
+		return project.provider(() -> {
+			List<T> ret = new ArrayList<>();
+			for (T task : tasks) {
+				if (task.isInitialized()) {
+					logger.debug("Adding the {} task as a dependency for the java build", task.getPath());
+					ret.add(task);
+				} else {
+					logger.debug("Task {} ignored, as it is not initialized", task.getPath());
 				}
 			}
+			return ret;
 		});
-
 	}
 
 	/**
@@ -189,12 +378,8 @@ public class GraphQLPlugin implements Plugin<Project> {
 				GenerateClientCodeExtension.class, project.getLayout());
 
 		logger.debug("Applying generateClientCode task");
-		GenerateClientCodeTask task = project.getTasks()
-				.register(GENERATE_CLIENT_CODE_TASK_NAME, GenerateClientCodeTask.class).get();
-		task.setExtension(extension);
-
-		// Apply the java plugin, then add the generated source
-		project.getPlugins().apply(JavaPlugin.class);
+		project.getTasks().register(GENERATE_CLIENT_CODE_TASK_NAME, GenerateClientCodeTask.class,
+				task -> task.setExtension(extension));
 	}
 
 	/**
@@ -206,9 +391,8 @@ public class GraphQLPlugin implements Plugin<Project> {
 		GenerateGraphQLSchemaExtension extension = project.getExtensions().create(MERGE_EXTENSION,
 				GenerateGraphQLSchemaExtension.class, project.getLayout());
 		logger.debug("Applying generateGraphQLSchema task");
-		GenerateGraphQLSchemaTask task = project.getTasks().register(MERGE_TASK_NAME, GenerateGraphQLSchemaTask.class)
-				.get();
-		task.setExtension(extension);
+		project.getTasks().register(MERGE_TASK_NAME, GenerateGraphQLSchemaTask.class,
+				task -> task.setExtension(extension));
 	}
 
 	/**
@@ -220,11 +404,8 @@ public class GraphQLPlugin implements Plugin<Project> {
 		GeneratePojoExtension extension = project.getExtensions().create(GENERATE_POJO_EXTENSION,
 				GeneratePojoExtension.class, project.getLayout());
 		logger.debug("Applying generatePojo task");
-		GeneratePojoTask task = project.getTasks().register(GENERATE_POJO_TASK_NAME, GeneratePojoTask.class).get();
-		task.setExtension(extension);
-
-		// Apply the java plugin, then add the generated source
-		project.getPlugins().apply(JavaPlugin.class);
+		project.getTasks().register(GENERATE_POJO_TASK_NAME, GeneratePojoTask.class,
+				task -> task.setExtension(extension));
 	}
 
 	/**
@@ -239,12 +420,8 @@ public class GraphQLPlugin implements Plugin<Project> {
 		GenerateServerCodeExtension extension = project.getExtensions().create(GENERATE_SERVER_CODE_EXTENSION,
 				GenerateServerCodeExtension.class, project.getLayout(), packaging);
 		logger.info("Applying generateServerCode task");
-		GenerateServerCodeTask task = project.getTasks()
-				.register(GENERATE_SERVER_CODE_TASK_NAME, GenerateServerCodeTask.class).get();
-		task.setExtension(extension);
-
-		// Apply the java plugin, then add the generated source
-		project.getPlugins().apply(JavaPlugin.class);
+		project.getTasks().register(GENERATE_SERVER_CODE_TASK_NAME, GenerateServerCodeTask.class,
+				task -> task.setExtension(extension));
 	}
 
 	/**
@@ -258,45 +435,23 @@ public class GraphQLPlugin implements Plugin<Project> {
 		GraphQLExtension extension = project.getExtensions().create(GRAPHQL_EXTENSION, GraphQLExtension.class,
 				project.getLayout(), packaging);
 		logger.debug("Applying GraphQL task");
-		GraphQLGenerateCodeTask task = project.getTasks()
-				.register(GRAPHQL_GENERATE_CODE_TASK_NAME, GraphQLGenerateCodeTask.class).get();
-		task.setExtension(extension);
-
-		// Apply the java plugin, then add the generated source
-		project.getPlugins().apply(JavaPlugin.class);
-
+		project.getTasks().register(GRAPHQL_GENERATE_CODE_TASK_NAME, GraphQLGenerateCodeTask.class,
+				task -> task.setExtension(extension));
 	}
 
-	/** Add the given resource folder to the resource folders list, if it wasn't already added. */
-	private void addGeneratedResourceFolder(Project project, Task task, File newResourcFolder) {
-		SourceSet main = ((SourceSetContainer) project.getProperties().get("sourceSets"))
-				.getByName(SourceSet.MAIN_SOURCE_SET_NAME);
-		String newResourceFolder = newResourcFolder.getAbsolutePath();
-		java.util.Optional<File> existingResourceFolder = main.getResources().getFiles().stream()
-				.filter(f -> f.getAbsolutePath().equals(newResourceFolder)).findFirst();
-		if (!existingResourceFolder.isPresent()) {
-			logger.info("Adding '" + newResourcFolder + "' folder to the resources folders list for task '"
-					+ task.getName() + "'");
-			main.getResources().srcDir(newResourcFolder);
-		} else {
-			logger.debug("Ignoring '" + newResourcFolder + "' resource folder for task '" + task.getName()
-					+ "', as it is already listed");
-		}
-
-		if (logger.isInfoEnabled()) {
-			List<String> paths = new ArrayList<>();
-			for (File f : main.getResources().getSrcDirs()) {
-				paths.add(f.getAbsolutePath());
-			}
-			logger.info("Resources folders are: [" + String.join(",", paths) + "]");
-		}
+	/**
+	 * Applies the <I>generateMultiTargetCode</I> task
+	 * 
+	 * @param project
+	 */
+	private void applyGenerateMultiTargetCode(Project project) {
+		Packaging packaging = (project.getTasksByName("war", false).size() >= 1) ? Packaging.war : Packaging.jar;
 
-		// Due to a Gradle 7 bug, that is qualified as "Won't be fixed", we need to force a duplicatesStrategy for the
-		// processResources task.
-		// More info here: https://github.com/gradle/gradle/issues/17236
-		//
-		// This is ugly. But the Gradle team doesn't care about this issue... :(
-		project.getTasksByName("processResources", false)
-				.forEach(t -> ((ProcessResources) t).setDuplicatesStrategy(DuplicatesStrategy.EXCLUDE));
+		GenerateMultiTargetCodeExtension extension = project.getExtensions().create(
+				GENERATE_MULTI_TARGET_CODE_EXTENSION, GenerateMultiTargetCodeExtension.class, project.getLayout(),
+				packaging, project.getObjects());
+		logger.debug("Applying generateMultiTargetCode task");
+		project.getTasks().register(GENERATE_MULTI_TARGET_CODE_TASK_NAME, GenerateMultiTargetCodeTask.class,
+				task -> task.setExtension(extension));
 	}
 }
@@ -0,0 +1,200 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+
+/**
+ * <P>
+ * The <I>graphqlWatch</I> task generates the code of the code generation tasks of the project, then watches their
+ * inputs (the schema files, the schema personalization file and the custom templates), and generates their code again
+ * each time one of these inputs changes. It runs until the build is cancelled (Ctrl+C).
+ * </P>
+ * <P>
+ * Unlike Gradle's continuous build (the <I>--continuous</I> command line option), there is no new build for each
+ * change: the project is not configured again, and the Gradle worker and its classloader stay in memory. Only the
+ * changed schema files are parsed again. If no GraphQL
+ * definition has changed (for instance when only a comment is edited), the generation is skipped. Otherwise, only the
+ * generated files whose content changed are written, so that the IDE compiles only these files again.
+ * </P>
+ * <P>
+ * A generation error (for instance a syntax error in the schema being edited) is logged, and the task keeps watching
+ * the inputs.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class GraphQLWatchTask extends DefaultTask {
+
+	/** The default time without file change, before the code is generated again */
+	final static long DEFAULT_QUIET_PERIOD = 100;
+
+	/** The code generation tasks whose inputs are watched. It is set by the {@link GraphQLPlugin}. */
+	private final ListProperty<GenerateCodeCommonTask> codeTasks = getProject().getObjects()
+			.listProperty(GenerateCodeCommonTask.class);
+
+	/**
+	 * The time without file change, in milliseconds, before the code is generated again. It allows to generate the
+	 * code once, when several files are saved at once.
+	 */
+	private final Property<Long> quietPeriod = getProject().getObjects().property(Long.class)
+			.convention(DEFAULT_QUIET_PERIOD);
+
+	public GraphQLWatchTask() {
+		setDescription("Generates the code again each time a schema file, the schema personalization file or a custom"
+				+ " template changes, until the build is cancelled");
+		// The watch never ends, and needs the code generation tasks, not only their configuration
+		notCompatibleWithConfigurationCache("The graphqlWatch task executes the code generation tasks at each change");
+		getOutputs().upToDateWhen(t -> false);
+	}
+
+	@TaskAction
+	public void watch() throws IOException {
+		List<GenerateCodeCommonTask> tasks = getCodeTasks().get();
+		if (tasks.isEmpty()) {
+			getLogger().lifecycle("No code generation task is configured: there is nothing to watch");
+			return;
+		}
+
+		Set<File> inputs = new LinkedHashSet<>();
+		for (GenerateCodeCommonTask task : tasks) {
+			if (task.getSchemaFileFolder() != null) {
+				inputs.add(task.getSchemaFileFolder());
+			}
+			inputs.addAll(getOtherInputs(task));
+		}
+
+		try (GenerationInputsWatcher watcher = new GenerationInputsWatcher(inputs)) {
+			getLogger().lifecycle("Watching the inputs of {}. Press Ctrl+C to stop.",
+					tasks.stream().map(GenerateCodeCommonTask::getPath).collect(Collectors.toList()));
+			while (true) {
+				Set<Path> changes;
+				try {
+					changes = watcher.waitForChanges(getQuietPeriod().get());
+				} catch (InterruptedException e) {
+					// The build has been cancelled
+					Thread.currentThread().interrupt();
+					getLogger().lifecycle("The inputs of the code generation tasks are no more watched");
+					return;
+				}
+				for (GenerateCodeCommonTask task : tasks) {
+					regenerate(task, changes);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Generates the code of the given task again, if some of its inputs are in the given changes
+	 *
+	 * @param task
+	 * @param changes
+	 *            The changed files
+	 */
+	private void regenerate(GenerateCodeCommonTask task, Set<Path> changes) {
+		List<String> changedSchemaFiles = getChangedSchemaFiles(task.getSchemaFileFolder(),
+				task.getSchemaFilePattern(), getOtherInputs(task), changes);
+		if (changedSchemaFiles != null && changedSchemaFiles.isEmpty()) {
+			return;
+		}
+		getLogger().lifecycle("Generating the code of {}, for these changes: {}", task.getPath(),
+				(changedSchemaFiles == null) ? changes : changedSchemaFiles);
+		long start = System.currentTimeMillis();
+		try {
+			task.regenerate();
+			getLogger().lifecycle("The code of {} has been generated in {} ms", task.getPath(),
+					System.currentTimeMillis() - start);
+		} catch (RuntimeException e) {
+			// The error is probably in the file being edited: it will be fixed by one of the next changes
+			getLogger().error("The code generation of {} failed: {}", task.getPath(),
+					(e.getCause() == null) ? e.getMessage() : e.getCause().getMessage());
+			getLogger().debug("The code generation of " + task.getPath() + " failed", e);
+		}
+	}
+
+	/**
+	 * Returns the inputs of the given task that are not in its schema folder: the schema personalization file and the
+	 * custom templates
+	 *
+	 * @param task
+	 * @return
+	 */
+	static List<File> getOtherInputs(GenerateCodeCommonTask task) {
+		List<File> ret = new ArrayList<>();
+		if (task.getSchemaPersonalizationFile() != null) {
+			ret.add(task.getSchemaPersonalizationFile());
+		}
+		ret.addAll(task.getTemplateFiles().getFiles());
+		return ret;
+	}
+
+	/**
+	 * Returns the changes that concern a code generation task
+	 *
+	 * @param schemaFolder
+	 *            The schema folder of the task
+	 * @param schemaFilePattern
+	 *            The pattern of the schema files of the task, in its schema folder
+	 * @param otherInputs
+	 *            The other input files of the task (see {@link #getOtherInputs(GenerateCodeCommonTask)})
+	 * @param changes
+	 *            The changed files
+	 * @return null if one of the other inputs has changed. Otherwise the changed schema files, relative to the schema
+	 *         folder, with '/' as the separator: the existing files that match the schema file pattern (as listed by
+	 *         {@link SchemaFilesParser#listSchemaFiles(File, String)}), and the deleted files of the schema folder, as
+	 *         they may have been schema files. This list is empty if the task is not concerned by the changes.
+	 */
+	static List<String> getChangedSchemaFiles(File schemaFolder, String schemaFilePattern,
+			Collection<File> otherInputs, Set<Path> changes) {
+		for (File input : otherInputs) {
+			if (changes.contains(input.getAbsoluteFile().toPath().normalize())) {
+				return null;
+			}
+		}
+		List<String> ret = new ArrayList<>();
+		if (schemaFolder != null) {
+			Path folder = schemaFolder.getAbsoluteFile().toPath().normalize();
+			Set<Path> schemaFiles = null;
+			for (Path change : changes) {
+				if (!change.startsWith(folder)) {
+					continue;
+				}
+				if (schemaFiles == null) {
+					// The schema files are listed only if some files of the schema folder have changed
+					schemaFiles = SchemaFilesParser.listSchemaFiles(schemaFolder, schemaFilePattern).stream()
+							.map(p -> p.toAbsolutePath().normalize()).collect(Collectors.toSet());
+				}
+				if (schemaFiles.contains(change) || !Files.exists(change)) {
+					ret.add(folder.relativize(change).toString().replace('\\', '/'));
+				}
+			}
+		}
+		return ret;
+	}
+
+	@Internal
+	public ListProperty<GenerateCodeCommonTask> getCodeTasks() {
+		return codeTasks;
+	}
+
+	@Internal
+	public Property<Long> getQuietPeriod() {
+		return quietPeriod;
+	}
+}
@@ -0,0 +1,258 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import graphql.introspection.IntrospectionResultToSchema;
+import graphql.language.AstPrinter;
+import graphql.language.Definition;
+import graphql.language.OperationTypeDefinition;
+import graphql.language.SchemaDefinition;
+import graphql.language.TypeName;
+
+/**
+ * <P>
+ * Converts a GraphQL introspection result (the <I>jsonGraphqlSchemaFilename</I> plugin parameter) into a GraphQL schema
+ * file. The json file is read as a stream, with the Jackson streaming API: each type and each directive of the
+ * introspection result is read, converted by graphql-java's {@link IntrospectionResultToSchema}, written into the
+ * schema file, then released. The memory is bounded by the largest type, whatever the size of the json file.
+ * </P>
+ * <P>
+ * The workers give the converted schema file to the plugin logic, instead of the json file: the json tree of the whole
+ * introspection result is never built.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class IntrospectionSchemaReader {
+
+	private static final Logger logger = LoggerFactory.getLogger(IntrospectionSchemaReader.class);
+
+	/** The name of the schema file, that is generated from the introspection result */
+	final static String SCHEMA_FILE_NAME = "introspection.graphqls";
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private IntrospectionSchemaReader() {
+	}
+
+	/**
+	 * Returns the configuration to use for the generation. If the <I>jsonGraphqlSchemaFilename</I> parameter is set,
+	 * the json file is converted into a schema file, in the given folder, and the returned configuration reads this
+	 * schema file. Otherwise, the given configuration is returned.
+	 *
+	 * @param configuration
+	 *            The configuration of the task
+	 * @param folder
+	 *            The folder where the schema file is written. Its content is deleted.
+	 * @param metrics
+	 *            The metrics of the generation, where the duration of the conversion is stored
+	 * @return
+	 * @throws IOException
+	 */
+	static ConfigurationSnapshot toSchemaFileConfiguration(ConfigurationSnapshot configuration, File folder,
+			GenerationMetrics metrics) throws IOException {
+		String jsonFilename = (String) configuration.getValue("getJsonGraphqlSchemaFilename");
+		if (jsonFilename == null || jsonFilename.isEmpty()) {
+			return configuration;
+		}
+
+		File jsonFile = new File((File) configuration.getValue("getSchemaFileFolder"), jsonFilename);
+		File schemaFile = new File(folder, SCHEMA_FILE_NAME);
+		GeneratedFilesSynchronizer.deleteFolder(folder);
+		folder.mkdirs();
+		metrics.count("introspectionDefinitions",
+				metrics.measure("introspection", () -> convert(jsonFile, schemaFile)));
+
+		return configuration//
+				.withValue("getJsonGraphqlSchemaFilename", "")//
+				.withValue("getSchemaFileFolder", folder)//
+				.withValue("getSchemaFilePattern", SCHEMA_FILE_NAME);
+	}
+
+	/**
+	 * Converts the given introspection result into a GraphQL schema file
+	 *
+	 * @param jsonFile
+	 *            The result of an introspection query. Its root is either the <I>__schema</I> object, or the
+	 *            <I>data</I> object of the GraphQL response.
+	 * @param schemaFile
+	 *            The GraphQL schema file to write
+	 * @return The number of definitions written into the schema file
+	 * @throws IOException
+	 */
+	public static int convert(File jsonFile, File schemaFile) throws IOException {
+		long start = System.nanoTime();
+		int nbDefinitions = 0;
+		Map<String, String> rootTypes = new LinkedHashMap<>();
+
+		try (JsonParser parser = JSON_FACTORY.createParser(jsonFile);
+				Writer writer = Files.newBufferedWriter(schemaFile.toPath(), StandardCharsets.UTF_8)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT || !moveToSchema(parser)) {
+				throw new IOException("The " + jsonFile + " file is not a GraphQL introspection result: the '__schema'"
+						+ " object could not be found");
+			}
+
+			// The fields of the __schema object
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String fieldName = parser.currentName();
+				parser.nextToken();
+				switch (fieldName) {
+				case "queryType":
+				case "mutationType":
+				case "subscriptionType":
+					Object rootType = readValue(parser);
+					if (rootType instanceof Map) {
+						rootTypes.put(fieldName.substring(0, fieldName.length() - "Type".length()),
+								(String) ((Map<?, ?>) rootType).get("name"));
+					}
+					break;
+				case "types":
+				case "directives":
+					if (parser.currentToken() != JsonToken.START_ARRAY) {
+						parser.skipChildren();
+						break;
+					}
+					while (parser.nextToken() == JsonToken.START_OBJECT) {
+						@SuppressWarnings("unchecked")
+						Map<String, Object> item = (Map<String, Object>) readValue(parser);
+						for (Definition<?> definition : toDefinitions(fieldName, item)) {
+							write(writer, definition, nbDefinitions++);
+						}
+					}
+					break;
+				default:
+					parser.skipChildren();
+				}
+			}
+
+			if (!rootTypes.containsKey("query")) {
+				throw new IOException("The " + jsonFile + " file is not a GraphQL introspection result: it contains no"
+						+ " query type");
+			}
+			write(writer, toSchemaDefinition(rootTypes), nbDefinitions++);
+		}
+
+		logger.debug("The introspection result {} has been converted into {} definitions, in {} ms", jsonFile,
+				nbDefinitions, (System.nanoTime() - start) / 1000000);
+		return nbDefinitions;
+	}
+
+	/**
+	 * Moves the parser to the start of the <I>__schema</I> object. The current token is the start of an object, that
+	 * is either the <I>__schema</I> object's parent, or the <I>data</I> object's parent.
+	 *
+	 * @return true if the <I>__schema</I> object has been found
+	 */
+	private static boolean moveToSchema(JsonParser parser) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.currentName();
+			JsonToken token = parser.nextToken();
+			if ("__schema".equals(fieldName) && token == JsonToken.START_OBJECT) {
+				return true;
+			} else if ("data".equals(fieldName) && token == JsonToken.START_OBJECT) {
+				return moveToSchema(parser);
+			}
+			parser.skipChildren();
+		}
+		return false;
+	}
+
+	/** Reads the value whose first token is the current token, as maps, lists and scalar values */
+	private static Object readValue(JsonParser parser) throws IOException {
+		switch (parser.currentToken()) {
+		case START_OBJECT:
+			Map<String, Object> map = new LinkedHashMap<>();
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String fieldName = parser.currentName();
+				parser.nextToken();
+				map.put(fieldName, readValue(parser));
+			}
+			return map;
+		case START_ARRAY:
+			List<Object> list = new ArrayList<>();
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				list.add(readValue(parser));
+			}
+			return list;
+		case VALUE_STRING:
+			return parser.getText();
+		case VALUE_NUMBER_INT:
+		case VALUE_NUMBER_FLOAT:
+			return parser.getNumberValue();
+		case VALUE_TRUE:
+			return Boolean.TRUE;
+		case VALUE_FALSE:
+			return Boolean.FALSE;
+		case VALUE_NULL:
+			return null;
+		default:
+			throw new IOException("Unexpected json token: " + parser.currentToken() + " at "
+					+ parser.currentLocation());
+		}
+	}
+
+	/**
+	 * Converts one type or one directive of the introspection result. The conversion is delegated to graphql-java,
+	 * with an introspection result that contains only this item.
+	 *
+	 * @param fieldName
+	 *            <I>types</I> or <I>directives</I>
+	 * @param item
+	 *            The type or the directive
+	 * @return The definitions. It is empty for the introspection types, the standard scalars and the standard
+	 *         directives.
+	 */
+	private static List<Definition<?>> toDefinitions(String fieldName, Map<String, Object> item) {
+		Map<String, Object> schema = new LinkedHashMap<>();
+		// The query type is mandatory. As it has the default name, no schema definition is added.
+		schema.put("queryType", Collections.singletonMap("name", "Query"));
+		schema.put("types", "types".equals(fieldName) ? Collections.singletonList(item) : Collections.emptyList());
+		schema.put("directives",
+				"directives".equals(fieldName) ? Collections.singletonList(item) : Collections.emptyList());
+
+		List<Definition<?>> definitions = new ArrayList<>();
+		for (Definition<?> definition : new IntrospectionResultToSchema()
+				.createSchemaDefinition(Collections.singletonMap("__schema", schema)).getDefinitions()) {
+			if (!(definition instanceof SchemaDefinition)) {
+				definitions.add(definition);
+			}
+		}
+		return definitions;
+	}
+
+	private static SchemaDefinition toSchemaDefinition(Map<String, String> rootTypes) {
+		SchemaDefinition.Builder builder = SchemaDefinition.newSchemaDefinition();
+		for (Map.Entry<String, String> rootType : rootTypes.entrySet()) {
+			builder.operationTypeDefinition(
+					new OperationTypeDefinition(rootType.getKey(), new TypeName(rootType.getValue())));
+		}
+		return builder.build();
+	}
+
+	private static void write(Writer writer, Definition<?> definition, int index) throws IOException {
+		if (index > 0) {
+			writer.write("\n");
+		}
+		writer.write(AstPrinter.printAst(definition));
+		writer.write("\n");
+	}
+}
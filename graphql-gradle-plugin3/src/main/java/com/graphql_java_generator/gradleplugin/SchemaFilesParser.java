@@ -0,0 +1,156 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import graphql.language.Document;
+import graphql.language.SourceLocation;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.MultiSourceReader;
+import graphql.parser.Parser;
+import graphql.parser.ParserEnvironment;
+
+/**
+ * <P>
+ * Lists and parses the schema files of a task, that is the files that match its <I>schemaFilePattern</I>. The files
+ * are listed as the plugin logic does, so that they are the files that the generation reads. Each file is read with
+ * NIO and parsed into its own document, so that the files can be parsed concurrently, and the syntax errors point to
+ * the right file.
+ * </P>
+ * <P>
+ * The syntax of the schema files is checked this way by the fingerprint of the code generation tasks, before the
+ * generation (see {@link GenerationManifest}).
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class SchemaFilesParser {
+
+	/** The prefix of the schema file patterns that are searched in the classpath */
+	final static String CLASSPATH_PREFIX = "classpath:";
+
+	/**
+	 * Thrown when a schema file is not a valid GraphQL document. The message contains the file, the line and the
+	 * column of the error.
+	 */
+	public static class SchemaSyntaxException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		SchemaSyntaxException(String message, Throwable cause) {
+			super(message, cause);
+		}
+	}
+
+	/**
+	 * Returns the schema files that match the given pattern. The pattern is resolved as the plugin logic does, so that
+	 * these files are the ones that the generation reads: a <I>classpath:</I> pattern is searched in the classpath, and
+	 * the other patterns are relative to the schema folder, even if they start with a '/'.
+	 *
+	 * @param schemaFolder
+	 *            The folder that contains the schema files
+	 * @param schemaFilePattern
+	 *            A Spring resource pattern, for instance <I>*.graphqls</I>, <I>**&#47;*.graphqls</I> or
+	 *            <I>classpath:/graphql/*.graphqls</I>
+	 * @return The matching files, sorted by path. The matching resources that are not files, like the ones of a jar of
+	 *         the classpath, are not returned: they are read by the generation only.
+	 */
+	public static List<Path> listSchemaFiles(File schemaFolder, String schemaFilePattern) {
+		String fullPathPattern;
+		Path canonicalFolder = null;
+		try {
+			if (schemaFilePattern.startsWith(CLASSPATH_PREFIX)) {
+				// The pattern is taken as is
+				fullPathPattern = schemaFilePattern;
+			} else if (schemaFolder == null || !schemaFolder.isDirectory()) {
+				return new ArrayList<>();
+			} else {
+				canonicalFolder = schemaFolder.getCanonicalFile().toPath();
+				fullPathPattern = "file:///" + canonicalFolder
+						+ ((schemaFilePattern.startsWith("/") || schemaFilePattern.startsWith("\\")) ? "" : "/")
+						+ schemaFilePattern;
+			}
+
+			List<Path> paths = new ArrayList<>();
+			for (Resource resource : new PathMatchingResourcePatternResolver(SchemaFilesParser.class.getClassLoader())
+					.getResources(fullPathPattern)) {
+				if (resource.exists() && resource.isFile()) {
+					Path path = resource.getFile().toPath();
+					// The files of the schema folder are returned in this folder, even if its path contains a link
+					paths.add((canonicalFolder != null && path.startsWith(canonicalFolder))
+							? schemaFolder.toPath().resolve(canonicalFolder.relativize(path))
+							: path);
+				}
+			}
+			paths.sort(null);
+			return paths;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not list the schema files that match " + schemaFilePattern
+					+ " (schema folder: " + schemaFolder + ")", e);
+		}
+	}
+
+	/**
+	 * Parses the content of one schema file
+	 *
+	 * @param relativePath
+	 *            The path of the file, relative to the schema folder. It is the source name of the document.
+	 * @param path
+	 *            The file to parse
+	 * @param content
+	 *            The content of this file
+	 * @return The parsed document. It is empty if the file contains only comments.
+	 * @throws SchemaSyntaxException
+	 *             If the file is not a valid GraphQL document
+	 */
+	static Document parseFile(String relativePath, Path path, byte[] content) {
+		if (!hasDefinitions(content)) {
+			return Document.newDocument().build();
+		}
+
+		try {
+			MultiSourceReader reader = MultiSourceReader.newMultiSourceReader()
+					.string(new String(content, StandardCharsets.UTF_8), relativePath).build();
+			return Parser.parse(ParserEnvironment.newParserEnvironment().document(reader)
+					.parserOptions(GenerationManifest.PARSER_OPTIONS).build());
+		} catch (InvalidSyntaxException e) {
+			SourceLocation location = e.getLocation();
+			String position = (location == null) ? ""
+					: " (line " + location.getLine() + ", column " + location.getColumn() + ")";
+			throw new SchemaSyntaxException(
+					"Syntax error in the schema file " + path + position + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Indicates whether the given content contains something else than whitespaces and comments. The GraphQL parser
+	 * refuses the empty documents, whereas an empty schema file is valid in a schema folder.
+	 */
+	private static boolean hasDefinitions(byte[] content) {
+		boolean inComment = false;
+		for (byte b : content) {
+			if (b == '\n' || b == '\r') {
+				inComment = false;
+			} else if (!inComment) {
+				if (b == '#') {
+					inComment = true;
+				} else if (!Character.isWhitespace(b) && b != ',' && b != (byte) 0xEF && b != (byte) 0xBB
+						&& b != (byte) 0xBF) {
+					// The 0xEF 0xBB 0xBF bytes are the UTF-8 byte order mark
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,496 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.graphql_java_generator.gradleplugin.SchemaFilesParser.SchemaSyntaxException;
+
+import graphql.language.AstPrinter;
+import graphql.language.Definition;
+import graphql.language.Document;
+import graphql.language.EnumTypeDefinition;
+import graphql.language.InputObjectTypeDefinition;
+import graphql.language.InterfaceTypeDefinition;
+import graphql.language.ObjectTypeDefinition;
+import graphql.language.ScalarTypeDefinition;
+import graphql.language.SchemaDefinition;
+import graphql.language.SourceLocation;
+import graphql.language.TypeDefinition;
+import graphql.language.UnionTypeDefinition;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.MultiSourceReader;
+import graphql.parser.Parser;
+import graphql.parser.ParserEnvironment;
+
+/**
+ * <P>
+ * Merges the schema files of the {@link GenerateGraphQLSchemaTask} into its target schema file, without loading the
+ * whole schema in memory. Each schema file is read as a stream of top level definitions: each definition is parsed
+ * alone, merged with its extensions, written into the target file, then released. The memory is bounded by the largest
+ * definition, plus the type extensions (<I>extend type</I>, <I>extend schema</I>...), that are read first so that they
+ * can be merged into their type.
+ * </P>
+ * <P>
+ * The definitions are written in the order of the schema files, formatted by the graphql-java {@link AstPrinter}. The
+ * extensions whose type is not defined in the schema files are written at the end of the target file, as is.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+public class StreamingSchemaMerger {
+
+	private static final Logger logger = LoggerFactory.getLogger(StreamingSchemaMerger.class);
+
+	/** The keywords that start a top level definition of a GraphQL schema */
+	final static Set<String> DEFINITION_KEYWORDS = new HashSet<>(Arrays.asList("schema", "scalar", "type",
+			"interface", "union", "enum", "input", "directive", "extend"));
+
+	/** The key of the schema extensions. It can't be a type name, as it contains a space. */
+	private final static String SCHEMA_KEY = "schema definition";
+
+	/** Receives the top level definitions read by the {@link DefinitionReader} */
+	interface DefinitionConsumer {
+		/**
+		 * @param keyword
+		 *            The keyword that starts the definition (for instance <I>type</I> or <I>extend</I>), or null if the
+		 *            text doesn't start with a definition keyword
+		 * @param startLine
+		 *            The line of the schema file where the text starts
+		 * @param text
+		 *            The text of the definition, including its description and the preceding comments
+		 */
+		void accept(String keyword, int startLine, String text) throws IOException;
+	}
+
+	private final File schemaFolder;
+	private final String schemaFilePattern;
+
+	/** The type extensions, read in the first pass, by type name */
+	private final Map<String, List<Definition<?>>> extensions = new LinkedHashMap<>();
+
+	private int nbDefinitions = 0;
+
+	/**
+	 * @param schemaFolder
+	 *            The folder that contains the schema files
+	 * @param schemaFilePattern
+	 *            The pattern of the schema files (see {@link SchemaFilesParser#listSchemaFiles})
+	 */
+	public StreamingSchemaMerger(File schemaFolder, String schemaFilePattern) {
+		this.schemaFolder = schemaFolder;
+		this.schemaFilePattern = schemaFilePattern;
+	}
+
+	/**
+	 * Merges the schema files into the given target file
+	 *
+	 * @param targetFile
+	 * @param charset
+	 *            The encoding of the target file. The schema files are read as UTF-8 files.
+	 * @return The number of definitions written into the target file
+	 * @throws IOException
+	 * @throws SchemaSyntaxException
+	 *             If a schema file is not a valid GraphQL document
+	 */
+	public int merge(File targetFile, Charset charset) throws IOException {
+		List<Path> paths = SchemaFilesParser.listSchemaFiles(schemaFolder, schemaFilePattern);
+
+		// First pass: the extensions must be known before their type is written
+		for (Path path : paths) {
+			String relativePath = GenerationManifest.toRelativePath(schemaFolder, path);
+			readDefinitions(path, (keyword, startLine, text) -> {
+				if ("extend".equals(keyword)) {
+					for (Definition<?> extension : parse(relativePath, path, startLine, text).getDefinitions()) {
+						extensions.computeIfAbsent(getKey(extension), k -> new ArrayList<>()).add(extension);
+					}
+				}
+			});
+		}
+
+		// Second pass: each definition is written as soon as it is parsed
+		targetFile.getParentFile().mkdirs();
+		try (Writer writer = Files.newBufferedWriter(targetFile.toPath(), charset)) {
+			for (Path path : paths) {
+				String relativePath = GenerationManifest.toRelativePath(schemaFolder, path);
+				readDefinitions(path, (keyword, startLine, text) -> {
+					if (!"extend".equals(keyword)) {
+						for (Definition<?> definition : parse(relativePath, path, startLine, text).getDefinitions()) {
+							write(writer, applyExtensions(definition));
+						}
+					}
+				});
+			}
+			for (List<Definition<?>> remaining : extensions.values()) {
+				for (Definition<?> extension : remaining) {
+					logger.warn("The type of the extension '{}' is not defined in the schema files",
+							getKey(extension));
+					write(writer, extension);
+				}
+			}
+		}
+		logger.debug("{} definitions written into {}", nbDefinitions, targetFile);
+		return nbDefinitions;
+	}
+
+	private void write(Writer writer, Definition<?> definition) throws IOException {
+		if (nbDefinitions > 0) {
+			writer.write("\n");
+		}
+		writer.write(AstPrinter.printAst(definition));
+		writer.write("\n");
+		nbDefinitions += 1;
+	}
+
+	/**
+	 * Parses the text of one definition
+	 *
+	 * @param relativePath
+	 *            The path of the schema file, relative to the schema folder
+	 * @param path
+	 *            The schema file
+	 * @param startLine
+	 *            The line of the schema file where the text starts: it is used to give the position of the syntax
+	 *            errors in the schema file
+	 * @param text
+	 * @return
+	 */
+	private static Document parse(String relativePath, Path path, int startLine, String text) {
+		try {
+			MultiSourceReader reader = MultiSourceReader.newMultiSourceReader().string(text, relativePath).build();
+			return Parser.parse(ParserEnvironment.newParserEnvironment().document(reader)
+					.parserOptions(GenerationManifest.PARSER_OPTIONS).build());
+		} catch (InvalidSyntaxException e) {
+			SourceLocation location = e.getLocation();
+			String position = (location == null) ? ""
+					: " (line " + (startLine + location.getLine() - 1) + ", column " + location.getColumn() + ")";
+			throw new SchemaSyntaxException(
+					"Syntax error in the schema file " + path + position + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Returns the given definition, merged with its extensions, if any. The extensions are then removed from the
+	 * extensions map.
+	 */
+	Definition<?> applyExtensions(Definition<?> definition) {
+		List<Definition<?>> definitionExtensions = extensions.get(getKey(definition));
+		if (definitionExtensions == null) {
+			return definition;
+		}
+		Definition<?> merged = definition;
+		List<Definition<?>> notApplied = new ArrayList<>();
+		for (Definition<?> extension : definitionExtensions) {
+			Definition<?> result = merge(merged, extension);
+			if (result == null) {
+				notApplied.add(extension);
+			} else {
+				merged = result;
+			}
+		}
+		if (notApplied.isEmpty()) {
+			extensions.remove(getKey(definition));
+		} else {
+			extensions.put(getKey(definition), notApplied);
+		}
+		return merged;
+	}
+
+	/**
+	 * Merges one extension into a definition
+	 *
+	 * @return The merged definition, or null if the extension doesn't apply to this kind of definition
+	 */
+	private static Definition<?> merge(Definition<?> definition, Definition<?> extension) {
+		if (definition instanceof ObjectTypeDefinition && extension instanceof ObjectTypeDefinition) {
+			ObjectTypeDefinition def = (ObjectTypeDefinition) definition;
+			ObjectTypeDefinition ext = (ObjectTypeDefinition) extension;
+			return def.transform(b -> b.fieldDefinitions(concat(def.getFieldDefinitions(), ext.getFieldDefinitions()))
+					.implementz(concat(def.getImplements(), ext.getImplements()))
+					.directives(concat(def.getDirectives(), ext.getDirectives())));
+		} else if (definition instanceof InterfaceTypeDefinition && extension instanceof InterfaceTypeDefinition) {
+			InterfaceTypeDefinition def = (InterfaceTypeDefinition) definition;
+			InterfaceTypeDefinition ext = (InterfaceTypeDefinition) extension;
+			return def.transform(b -> b.definitions(concat(def.getFieldDefinitions(), ext.getFieldDefinitions()))
+					.implementz(concat(def.getImplements(), ext.getImplements()))
+					.directives(concat(def.getDirectives(), ext.getDirectives())));
+		} else if (definition instanceof UnionTypeDefinition && extension instanceof UnionTypeDefinition) {
+			UnionTypeDefinition def = (UnionTypeDefinition) definition;
+			UnionTypeDefinition ext = (UnionTypeDefinition) extension;
+			return def.transform(b -> b.memberTypes(concat(def.getMemberTypes(), ext.getMemberTypes()))
+					.directives(concat(def.getDirectives(), ext.getDirectives())));
+		} else if (definition instanceof EnumTypeDefinition && extension instanceof EnumTypeDefinition) {
+			EnumTypeDefinition def = (EnumTypeDefinition) definition;
+			EnumTypeDefinition ext = (EnumTypeDefinition) extension;
+			return def.transform(
+					b -> b.enumValueDefinitions(concat(def.getEnumValueDefinitions(), ext.getEnumValueDefinitions()))
+							.directives(concat(def.getDirectives(), ext.getDirectives())));
+		} else if (definition instanceof InputObjectTypeDefinition
+				&& extension instanceof InputObjectTypeDefinition) {
+			InputObjectTypeDefinition def = (InputObjectTypeDefinition) definition;
+			InputObjectTypeDefinition ext = (InputObjectTypeDefinition) extension;
+			return def.transform(
+					b -> b.inputValueDefinitions(concat(def.getInputValueDefinitions(), ext.getInputValueDefinitions()))
+							.directives(concat(def.getDirectives(), ext.getDirectives())));
+		} else if (definition instanceof ScalarTypeDefinition && extension instanceof ScalarTypeDefinition) {
+			ScalarTypeDefinition def = (ScalarTypeDefinition) definition;
+			ScalarTypeDefinition ext = (ScalarTypeDefinition) extension;
+			return def.transform(b -> b.directives(concat(def.getDirectives(), ext.getDirectives())));
+		} else if (definition instanceof SchemaDefinition && extension instanceof SchemaDefinition) {
+			SchemaDefinition def = (SchemaDefinition) definition;
+			SchemaDefinition ext = (SchemaDefinition) extension;
+			return def.transform(b -> b
+					.operationTypeDefinitions(
+							concat(def.getOperationTypeDefinitions(), ext.getOperationTypeDefinitions()))
+					.directives(concat(def.getDirectives(), ext.getDirectives())));
+		}
+		return null;
+	}
+
+	private static <T> List<T> concat(List<T> first, List<T> second) {
+		List<T> ret = new ArrayList<>(first);
+		ret.addAll(second);
+		return ret;
+	}
+
+	/** Returns the key of the given definition or extension, in the extensions map */
+	private static String getKey(Definition<?> definition) {
+		if (definition instanceof SchemaDefinition) {
+			return SCHEMA_KEY;
+		} else if (definition instanceof TypeDefinition) {
+			return ((TypeDefinition<?>) definition).getName();
+		}
+		// The directive definitions have no extension
+		return null;
+	}
+
+	/**
+	 * Reads the given schema file, and sends each of its top level definitions to the consumer. The file is read as a
+	 * stream: only the current definition is kept in memory.
+	 *
+	 * @param path
+	 *            The schema file. It is read as an UTF-8 file.
+	 * @param consumer
+	 * @throws IOException
+	 */
+	static void readDefinitions(Path path, DefinitionConsumer consumer) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			new DefinitionReader(reader, consumer).read();
+		}
+	}
+
+	/**
+	 * Splits a GraphQL schema into its top level definitions. It is a minimal lexer: it tracks the comments, the
+	 * strings, the block strings and the nesting level of the brackets. A definition starts, outside of any bracket,
+	 * with a definition keyword or with its description. A keyword that follows <I>extend</I>, <I>implements</I>, a
+	 * directive's <I>@</I> or a union's <I>=</I> or <I>|</I> is a name within the current definition.
+	 */
+	private static class DefinitionReader {
+
+		private final BufferedReader reader;
+		private final DefinitionConsumer consumer;
+
+		/** The text of the current definition */
+		private StringBuilder text = new StringBuilder();
+		/** The line of the schema file where the current definition starts */
+		private int startLine = 1;
+		/** The keyword that starts the current definition */
+		private String keyword = null;
+		/** The position of the first character of the text, that is not a whitespace or in a comment, or -1 */
+		private int firstSignificant = -1;
+
+		/** The nesting level of the (), [] and {} brackets */
+		private int depth = 0;
+		/** The position, in the text, where the next definition starts (its description), or -1 */
+		private int nextStart = -1;
+		/** The position, in the text, of the name being read at the top level, or -1 */
+		private int nameStart = -1;
+		/** The previous token at the top level: a name or a punctuator */
+		private String previousToken = null;
+
+		DefinitionReader(BufferedReader reader, DefinitionConsumer consumer) {
+			this.reader = reader;
+			this.consumer = consumer;
+		}
+
+		void read() throws IOException {
+			int c;
+			while ((c = reader.read()) != -1) {
+				boolean nameChar = Character.isLetterOrDigit(c) && c < 128 || c == '_';
+				if (nameStart >= 0 && !nameChar) {
+					endOfName();
+				}
+
+				if (c == '#') {
+					// A comment, until the end of the line
+					text.append((char) c);
+					while ((c = reader.read()) != -1) {
+						text.append((char) c);
+						if (c == '\n' || c == '\r') {
+							break;
+						}
+					}
+				} else if (c == '"') {
+					if (depth == 0 && nextStart < 0) {
+						// A description, at the top level: it belongs to the next definition
+						nextStart = text.length();
+					}
+					markSignificant();
+					readString();
+				} else if (nameChar) {
+					if (nameStart < 0 && depth == 0) {
+						nameStart = text.length();
+					}
+					markSignificant();
+					text.append((char) c);
+				} else {
+					if (!Character.isWhitespace(c) && c != ',' && c != '\uFEFF') {
+						markSignificant();
+					}
+					text.append((char) c);
+					if (c == '{' || c == '(' || c == '[') {
+						depth += 1;
+					} else if (c == '}' || c == ')' || c == ']') {
+						depth -= 1;
+					}
+					if (!Character.isWhitespace(c) && c != ',' && c != '\uFEFF'
+							&& (depth == 0 || c == '{' || c == '(' || c == '[')) {
+						previousToken = String.valueOf((char) c);
+					}
+				}
+			}
+			if (nameStart >= 0) {
+				endOfName();
+			}
+			emit(text.length());
+		}
+
+		private void markSignificant() {
+			if (firstSignificant < 0) {
+				firstSignificant = text.length();
+			}
+		}
+
+		/** Reads a string or a block string. The first double quote has been read. */
+		private void readString() throws IOException {
+			text.append('"');
+			reader.mark(2);
+			int c1 = reader.read();
+			int c2 = reader.read();
+			if (c1 == '"' && c2 == '"') {
+				text.append("\"\"");
+				readBlockString();
+				return;
+			}
+			reader.reset();
+			if (c1 == '"') {
+				// An empty string
+				text.append((char) reader.read());
+				return;
+			}
+
+			int c;
+			while ((c = reader.read()) != -1) {
+				text.append((char) c);
+				if (c == '\\') {
+					c = reader.read();
+					if (c != -1) {
+						text.append((char) c);
+					}
+				} else if (c == '"' || c == '\n' || c == '\r') {
+					return;
+				}
+			}
+		}
+
+		/** Reads a block string, until its closing triple quote. The opening triple quote has been read. */
+		private void readBlockString() throws IOException {
+			int nbQuotes = 0;
+			int c;
+			while ((c = reader.read()) != -1) {
+				text.append((char) c);
+				if (c == '"') {
+					nbQuotes += 1;
+					if (nbQuotes == 3) {
+						return;
+					}
+				} else if (c == '\\') {
+					// An escaped triple quote doesn't close the block string
+					reader.mark(3);
+					char[] next = new char[3];
+					int nb = reader.read(next, 0, 3);
+					if (nb == 3 && next[0] == '"' && next[1] == '"' && next[2] == '"') {
+						text.append(next);
+					} else {
+						reader.reset();
+					}
+					nbQuotes = 0;
+				} else {
+					nbQuotes = 0;
+				}
+			}
+		}
+
+		/** Called when the name that started at nameStart is complete */
+		private void endOfName() throws IOException {
+			String name = text.substring(nameStart);
+			int start = (nextStart >= 0) ? nextStart : nameStart;
+			nameStart = -1;
+			nextStart = -1;
+
+			if (DEFINITION_KEYWORDS.contains(name) && !"extend".equals(previousToken)
+					&& !"implements".equals(previousToken) && !"@".equals(previousToken) && !"=".equals(previousToken)
+					&& !"|".equals(previousToken) && !"&".equals(previousToken)) {
+				emit(start);
+				keyword = name;
+			}
+			previousToken = name;
+		}
+
+		/**
+		 * Sends the text before the given position as a definition, and keeps the remaining text as the start of the
+		 * next definition
+		 */
+		private void emit(int end) throws IOException {
+			String definition = text.substring(0, end);
+			String remaining = text.substring(end);
+			if (firstSignificant >= 0 && firstSignificant < end) {
+				consumer.accept(keyword, startLine, definition);
+			}
+			startLine += countLines(definition);
+			text = new StringBuilder(remaining);
+			// The remaining text starts with the description or the keyword of the next definition
+			firstSignificant = remaining.isEmpty() ? -1 : 0;
+			keyword = null;
+		}
+
+		private static int countLines(String text) {
+			int nb = 0;
+			for (int i = 0; i < text.length(); i += 1) {
+				char c = text.charAt(i);
+				if (c == '\n' || (c == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n'))) {
+					nb += 1;
+				}
+			}
+			return nb;
+		}
+	}
+}
@@ -0,0 +1,265 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+
+/**
+ * <P>
+ * The <I>validateGraphQLSchema</I> task checks the GraphQL schema of each code generation task of the project, without
+ * generating any code. It executes only the parse stage of the generation: the schema files are parsed and merged, the
+ * schema personalization file is applied, and the custom scalars are resolved. A CI pipeline can so check that the
+ * schema is valid, and compatible with the schema personalization file and the custom scalars, in a fraction of the
+ * generation time.
+ * </P>
+ * <P>
+ * The schema of each code generation task is checked by its own Gradle worker, so that they are checked in parallel.
+ * The result is written in a JSON report, in the <I>build/reports/graphql-generator/validateGraphQLSchema.json</I>
+ * file: its <I>valid</I> attribute is true if all the schemas are valid, and its <I>tasks</I> attribute contains the
+ * result of each code generation task, with the error message of the invalid ones. The task fails if one of the
+ * schemas is invalid.
+ * </P>
+ * <P>
+ * The report is the only output of this task. Its inputs are the schema files, the schema personalization files and
+ * the configuration of the code generation tasks: the task is up to date, or restored from the build cache, as long as
+ * they don't change.
+ * </P>
+ *
+ * @author etienne-sf
+ */
+@CacheableTask
+public class ValidateGraphQLSchemaTask extends DefaultTask {
+
+	/** The name of the report file, in the {@link GenerationMetrics#REPORT_FOLDER} folder */
+	final static String REPORT_FILE_NAME = "validateGraphQLSchema.json";
+
+	/** Extracts the result from the report of one code generation task */
+	private static final Pattern VALID_PATTERN = Pattern.compile("\"valid\": (true|false)");
+
+	/** The configuration of a code generation task, whose schema must be validated */
+	public static class ValidatedSchema implements Serializable {
+		private static final long serialVersionUID = 1L;
+		/** The path of the code generation task, for instance <I>:generatePojo</I> */
+		final String taskPath;
+		/** The Spring configuration class of the code generation task */
+		final String springConfigurationClassName;
+		final ConfigurationSnapshot configuration;
+
+		public ValidatedSchema(String taskPath, String springConfigurationClassName,
+				ConfigurationSnapshot configuration) {
+			this.taskPath = taskPath;
+			this.springConfigurationClassName = springConfigurationClassName;
+			this.configuration = configuration;
+		}
+
+		/**
+		 * Returns the configuration of the code generation task, for the given task
+		 *
+		 * @param task
+		 * @return
+		 */
+		static ValidatedSchema of(GenerateCodeCommonTask task) {
+			return new ValidatedSchema(task.getPath(), task.getSpringConfigurationClass().getName(),
+					ConfigurationSnapshot.of(task));
+		}
+	}
+
+	/** The code generation tasks whose schema is validated. It is set by the {@link GraphQLPlugin}. */
+	private final ListProperty<ValidatedSchema> schemas = getProject().getObjects().listProperty(ValidatedSchema.class);
+
+	/** The schema files and the schema personalization files of the validated code generation tasks */
+	private final ConfigurableFileCollection schemaFiles = getProject().getObjects().fileCollection()
+			.from(schemas.map(ValidateGraphQLSchemaTask::getSchemaFiles));
+
+	/** The project folder: the files of the configuration input are described relative to this folder */
+	private final File projectDir = getProject().getLayout().getProjectDirectory().getAsFile();
+
+	/** The JSON report */
+	private final RegularFileProperty reportFile = getProject().getObjects().fileProperty().convention(getProject()
+			.getLayout().getBuildDirectory().file(GenerationMetrics.REPORT_FOLDER + "/" + REPORT_FILE_NAME));
+
+	/** The Gradle service that executes the validations */
+	private final WorkerExecutor workerExecutor;
+
+	/**
+	 * @param workerExecutor
+	 *            This Gradle service is automatically injected by gradle. It executes the validations in Gradle
+	 *            workers.
+	 */
+	@Inject
+	public ValidateGraphQLSchemaTask(WorkerExecutor workerExecutor) {
+		this.workerExecutor = workerExecutor;
+		setDescription("Checks the GraphQL schema of the code generation tasks, with their schema personalization file"
+				+ " and custom scalars, without generating any code");
+	}
+
+	/**
+	 * The Gradle service that executes the validations. It is injected by Gradle, in the task's constructor.
+	 *
+	 * @return
+	 */
+	protected WorkerExecutor getWorkerExecutor() {
+		return workerExecutor;
+	}
+
+	@TaskAction
+	public void validate() throws IOException {
+		// Each schema is validated by its own worker. The workers are executed in parallel.
+		WorkQueue workQueue = getWorkerExecutor().classLoaderIsolation();
+		List<File> taskReports = new ArrayList<>();
+		for (ValidatedSchema schema : getSchemas().get()) {
+			String name = schema.taskPath.replaceAll("^:", "").replace(':', '_');
+			File temporaryFolder = new File(getTemporaryDir(), name);
+			File taskReport = new File(getTemporaryDir(), name + ".json");
+			Files.deleteIfExists(taskReport.toPath());
+			taskReports.add(taskReport);
+			workQueue.submit(ValidateGraphQLSchemaWorkAction.class, parameters -> {
+				parameters.getTaskName().set(schema.taskPath);
+				parameters.getSpringConfigurationClassName().set(schema.springConfigurationClassName);
+				parameters.getConfiguration().set(schema.configuration);
+				parameters.getTemporaryFolder().set(temporaryFolder);
+				parameters.getMetrics().set(new GenerationMetrics(schema.taskPath));
+				parameters.getValidationReportFile().set(taskReport);
+			});
+		}
+		workQueue.await();
+
+		List<String> invalidTasks = new ArrayList<>();
+		List<String> results = new ArrayList<>();
+		for (int i = 0; i < taskReports.size(); i += 1) {
+			String result = new String(Files.readAllBytes(taskReports.get(i).toPath()), StandardCharsets.UTF_8);
+			Matcher matcher = VALID_PATTERN.matcher(result);
+			if (!matcher.find() || !Boolean.parseBoolean(matcher.group(1))) {
+				invalidTasks.add(getSchemas().get().get(i).taskPath);
+			}
+			results.add(result);
+		}
+		File report = getReportFile().get().getAsFile();
+		writeReport(report, invalidTasks.isEmpty(), results);
+
+		if (!invalidTasks.isEmpty()) {
+			throw new RuntimeException("The GraphQL schema of these tasks is not valid: " + invalidTasks
+					+ ". Please check the " + report + " report for the details.");
+		}
+		getLogger().info("The GraphQL schema of {} code generation task(s) is valid", results.size());
+	}
+
+	/**
+	 * Writes the JSON report of the validation
+	 *
+	 * @param report
+	 *            The report file
+	 * @param valid
+	 *            true if all the schemas are valid
+	 * @param results
+	 *            The result of each code generation task, as a JSON object (see
+	 *            {@link ValidateGraphQLSchemaWorkAction})
+	 */
+	static void writeReport(File report, boolean valid, List<String> results) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\n");
+		sb.append("  \"valid\": ").append(valid).append(",\n");
+		sb.append("  \"tasks\": [");
+		for (int i = 0; i < results.size(); i += 1) {
+			sb.append((i == 0) ? "\n" : ",\n");
+			// The results are indented, in the tasks array
+			sb.append(results.get(i).trim().replaceAll("(?m)^", "    "));
+		}
+		sb.append(results.isEmpty() ? "]\n" : "\n  ]\n");
+		sb.append("}\n");
+		report.getParentFile().mkdirs();
+		try {
+			Files.write(report.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write the validation report " + report, e);
+		}
+	}
+
+	/**
+	 * Returns the input files of the validation of the given schemas: the schema files (or the json file of an
+	 * introspection result) and the schema personalization files
+	 *
+	 * @param schemas
+	 * @return
+	 */
+	static List<File> getSchemaFiles(List<ValidatedSchema> schemas) {
+		List<File> ret = new ArrayList<>();
+		for (ValidatedSchema schema : schemas) {
+			File schemaFolder = (File) schema.configuration.getValue("getSchemaFileFolder");
+			String jsonFilename = (String) schema.configuration.getValue("getJsonGraphqlSchemaFilename");
+			if (jsonFilename != null && !jsonFilename.isEmpty()) {
+				ret.add(new File(schemaFolder, jsonFilename));
+			} else {
+				String pattern = (String) schema.configuration.getValue("getSchemaFilePattern");
+				ret.addAll(SchemaFilesParser.listSchemaFiles(schemaFolder, pattern).stream().map(Path::toFile)
+						.collect(Collectors.toList()));
+			}
+			Object personalization = schema.configuration.getValue("getSchemaPersonalizationFile");
+			if (personalization instanceof File && ((File) personalization).isFile()) {
+				ret.add((File) personalization);
+			}
+		}
+		return ret;
+	}
+
+	@Internal
+	public ListProperty<ValidatedSchema> getSchemas() {
+		return schemas;
+	}
+
+	/**
+	 * The configuration of the validated code generation tasks, as a task input. The files of the project are
+	 * described by their path relative to the project folder (see
+	 * {@link ConfigurationSnapshot#getValuesDescription(File)}), so that the task can be restored from the build cache
+	 * in another folder.
+	 *
+	 * @return One description per code generation task
+	 */
+	@Input
+	public List<String> getConfigurations() {
+		return getSchemas().get().stream().map(schema -> schema.taskPath + "\n"
+				+ schema.springConfigurationClassName + "\n"
+				+ schema.configuration.getValuesDescription(projectDir)).collect(Collectors.toList());
+	}
+
+	@InputFiles
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public FileCollection getSchemaFiles() {
+		return schemaFiles;
+	}
+
+	@OutputFile
+	public RegularFileProperty getReportFile() {
+		return reportFile;
+	}
+}
@@ -0,0 +1,103 @@
+/**
+ *
+ */
+package com.graphql_java_generator.gradleplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gradle.workers.WorkAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.graphql_java_generator.plugin.generate_code.GenerateCodeDocumentParser;
+
+/**
+ * The Gradle worker action that validates the GraphQL schema of one code generation task, for the
+ * {@link ValidateGraphQLSchemaTask}. Only the parse stage of the generation is executed: the plugin logic parses the
+ * schema files, applies the schema personalization file and resolves the custom scalars. No code is generated.
+ *
+ * @author etienne-sf
+ */
+public abstract class ValidateGraphQLSchemaWorkAction implements WorkAction<GenerationWorkParameters> {
+
+	private static final Logger logger = LoggerFactory.getLogger(ValidateGraphQLSchemaWorkAction.class);
+
+	@Override
+	public void execute() {
+		GenerationWorkParameters parameters = getParameters();
+		GenerationMetrics metrics = parameters.getMetrics().get();
+		String error = null;
+		try {
+			ConfigurationSnapshot configuration = IntrospectionSchemaReader.toSchemaFileConfiguration(
+					parameters.getConfiguration().get(), GenerateCodeWorkAction.getIntrospectionFolder(parameters),
+					metrics);
+			// Nothing should be written by the parse stage. If something is, it must not go into the target folders.
+			File targetFolder = new File(parameters.getTemporaryFolder().get().getAsFile(), "target");
+			ConfigurationSnapshot validationConfiguration = configuration//
+					.withValue("getTargetSourceFolder", new File(targetFolder, GenerationManifest.SOURCE_ROOT))//
+					.withValue("getTargetResourceFolder", new File(targetFolder, GenerationManifest.RESOURCE_ROOT));
+
+			try (AnnotationConfigApplicationContext ctx = metrics.measure("springContext",
+					() -> GenerateCodeWorkAction.createSpringContext(parameters, validationConfiguration))) {
+				GenerateCodeDocumentParser documentParser = ctx.getBean(GenerateCodeDocumentParser.class);
+				metrics.count("types", metrics.measure("parse", documentParser::parseGraphQLSchemas));
+			}
+		} catch (IOException | RuntimeException e) {
+			error = getMessage(e);
+			logger.debug("The GraphQL schema of " + parameters.getTaskName().get() + " is not valid", e);
+		}
+		writeResult(parameters.getValidationReportFile().get().getAsFile(), parameters.getTaskName().get(), error,
+				metrics);
+	}
+
+	/**
+	 * Writes the result of the validation, as a JSON object
+	 *
+	 * @param file
+	 * @param taskPath
+	 *            The path of the validated code generation task
+	 * @param error
+	 *            The error message, or null if the schema is valid
+	 * @param metrics
+	 */
+	static void writeResult(File file, String taskPath, String error, GenerationMetrics metrics) {
+		Long types = metrics.getCounters().get("types");
+		Long parseTimeMs = metrics.getWallTimeMs("parse");
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\n");
+		sb.append("  \"task\": \"").append(GenerationMetrics.escape(taskPath)).append("\",\n");
+		sb.append("  \"valid\": ").append(error == null).append(",\n");
+		sb.append("  \"types\": ").append(types).append(",\n");
+		sb.append("  \"parseTimeMs\": ").append(parseTimeMs).append(",\n");
+		sb.append("  \"error\": ").append((error == null) ? "null" : "\"" + GenerationMetrics.escape(error) + "\"")
+				.append("\n");
+		sb.append("}\n");
+		file.getParentFile().mkdirs();
+		try {
+			Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write the validation result " + file, e);
+		}
+	}
+
+	/**
+	 * Returns the messages of the given exception and of its causes, as the plugin logic often wraps the actual error
+	 */
+	static String getMessage(Throwable e) {
+		List<String> messages = new ArrayList<>();
+		for (Throwable t = e; t != null && t.getCause() != t; t = t.getCause()) {
+			String message = (t.getMessage() == null) ? t.getClass().getName() : t.getMessage();
+			if (!messages.contains(message)) {
+				messages.add(message);
+			}
+		}
+		return String.join(" - caused by: ", messages);
+	}
+}
@@ -8,6 +8,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.gradle.api.Project;
 import org.gradle.testfixtures.ProjectBuilder;
@@ -128,4 +129,23 @@ public class CommonTaskTest {
 		assertEquals(templates, task.getTemplates());
 	}
 
+	@Test
+	void test_getTemplateFiles() throws IOException {
+		// Preparation
+		Map<String, String> templates = new HashMap<>();
+		// A file of the project
+		templates.put("QUERY_MUTATION", "build.gradle");
+		// A template read from the classpath
+		templates.put("SUBSCRIPTION", "templates/client_subscription_type.vm.java");
+		task.setTemplates(templates);
+
+		// Go, go, go
+		Set<File> files = task.getTemplateFiles().getFiles();
+
+		// Verification
+		assertEquals(1, files.size());
+		assertEquals(new File(projectDir, "build.gradle").getCanonicalPath(),
+				files.iterator().next().getCanonicalPath());
+	}
+
 }
@@ -0,0 +1,133 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.graphql_java_generator.plugin.conf.CustomScalarDefinition;
+import com.graphql_java_generator.plugin.conf.GenerateServerCodeConfiguration;
+import com.graphql_java_generator.plugin.conf.Packaging;
+import com.graphql_java_generator.plugin.conf.PluginMode;
+
+public class ConfigurationSnapshotTest {
+
+	static final String PROJECT_NAME = "A Dummy project";
+	File projectDir;
+	Project project;
+	GenerateServerCodeExtension extension;
+	GenerateServerCodeTask task;
+
+	@BeforeEach
+	void setup() {
+		projectDir = new File(".");
+		project = ProjectBuilder.builder().withName(PROJECT_NAME).withProjectDir(projectDir).build();
+		extension = new GenerateServerCodeExtension(project.getLayout(), Packaging.war);
+		task = project.getTasks().register("task", GenerateServerCodeTask.class).get();
+		task.setExtension(extension);
+	}
+
+	/**
+	 * Checks that the configuration read in the worker (after serialization) is the same as the task's configuration
+	 */
+	@Test
+	void test_serializedConfiguration() throws IOException, ClassNotFoundException {
+		// Preparation
+		CustomScalarDefinition date = new CustomScalarDefinition();
+		date.setGraphQLTypeName("Date");
+		date.setJavaType("java.util.Date");
+		date.setGraphQLScalarTypeStaticField("com.graphql_java_generator.customscalars.GraphQLScalarTypeDate.Date");
+		Map<String, String> templates = new HashMap<>();
+		templates.put("QUERY_MUTATION", "CustomTemplates/client_query_mutation_type.vm.java");
+
+		task.setPackageName("my.package");
+		task.setJavaTypeForIDType("java.lang.Long");
+		task.setCustomScalars(new CustomScalarDefinition[] { date });
+		task.setTemplates(templates);
+
+		// Go, go, go
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+			oos.writeObject(ConfigurationSnapshot.of(task));
+		}
+		ConfigurationSnapshot snapshot;
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+			snapshot = (ConfigurationSnapshot) ois.readObject();
+		}
+		GenerateServerCodeConfiguration conf = (GenerateServerCodeConfiguration) snapshot.toConfiguration();
+
+		// Verification
+		assertEquals(PluginMode.server, conf.getMode());
+		assertEquals(Packaging.war, conf.getPackaging());
+		assertEquals("my.package", conf.getPackageName());
+		assertEquals("java.lang.Long", conf.getJavaTypeForIDType());
+		assertEquals(task.isGenerateBatchLoaderEnvironment(), conf.isGenerateBatchLoaderEnvironment());
+		assertEquals(task.getTargetSourceFolder(), conf.getTargetSourceFolder());
+		assertEquals(templates, conf.getTemplates());
+		assertEquals(1, conf.getCustomScalars().size());
+		assertEquals("Date", conf.getCustomScalars().get(0).getGraphQLTypeName());
+		assertEquals("java.util.Date", conf.getCustomScalars().get(0).getJavaType());
+		assertEquals("com.graphql_java_generator.customscalars.GraphQLScalarTypeDate.Date",
+				conf.getCustomScalars().get(0).getGraphQLScalarTypeStaticField());
+		assertTrue(conf.toString().startsWith("ConfigurationSnapshot"));
+	}
+
+
+	@Test
+	void test_getValuesDescription() {
+		// Preparation
+		Map<String, String> templates1 = new LinkedHashMap<>();
+		templates1.put("QUERY_MUTATION", "CustomTemplates/client_query_mutation_type.vm.java");
+		templates1.put("OBJECT", "CustomTemplates/object_type.vm.java");
+		Map<String, String> templates2 = new LinkedHashMap<>();
+		templates2.put("OBJECT", "CustomTemplates/object_type.vm.java");
+		templates2.put("QUERY_MUTATION", "CustomTemplates/client_query_mutation_type.vm.java");
+		task.setPackageName("my.package");
+
+		// Go, go, go
+		task.setTemplates(templates1);
+		String description1 = ConfigurationSnapshot.of(task).getValuesDescription();
+		task.setTemplates(templates2);
+		String description2 = ConfigurationSnapshot.of(task).getValuesDescription();
+		task.setPackageName("my.other.package");
+		String description3 = ConfigurationSnapshot.of(task).getValuesDescription();
+
+		// Verification
+		assertEquals(description1, description2, "The order of the map entries doesn't matter");
+		assertTrue(description1.contains("getPackageName=my.package\n"));
+		assertNotEquals(description1, description3);
+	}
+
+	@Test
+	void test_getValuesDescription_relative() {
+		// Preparation
+		File otherFolder = projectDir.getAbsoluteFile().toPath().normalize().resolveSibling("otherFolder").toFile();
+
+		// Go, go, go
+		String description = ConfigurationSnapshot.of(task).getValuesDescription(projectDir);
+
+		// Verification
+		assertTrue(description.contains("getProjectDir=${baseDir}/\n"), description);
+		assertFalse(description.contains(projectDir.getAbsoluteFile().toPath().normalize().toString() + "/"),
+				description);
+		assertEquals("${baseDir}/src/main/graphql",
+				ConfigurationSnapshot.describe(new File(projectDir, "src/main/graphql"), projectDir));
+		assertEquals(otherFolder.toPath().normalize().toString(),
+				ConfigurationSnapshot.describe(otherFolder, projectDir));
+	}
+}
@@ -1,6 +1,7 @@
 package com.graphql_java_generator.gradleplugin;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
 
@@ -129,4 +130,25 @@ public class GenerateCodeCommonTaskTest {
 				task.getTargetSourceFolder().getCanonicalPath());
 	}
 
+	@Test
+	void test_runtimeSourcesFolders() throws IOException {
+		// Preparation
+		task.setCopyRuntimeSources(false);
+		task.setShareRuntimeSources(true);
+		assertNull(task.getRuntimeSourcesFolder(), "The runtime sources are not copied");
+		assertEquals(0, task.getRuntimeSourcesFolders().size());
+		task.setCopyRuntimeSources(true);
+		task.setShareRuntimeSources(false);
+		assertNull(task.getRuntimeSourcesFolder(), "The runtime sources are copied with the generated code");
+
+		// Go, go, go
+		task.setShareRuntimeSources(true);
+
+		// Verification
+		File expected = new File(project.getLayout().getBuildDirectory().getAsFile().get(),
+				GenerateCodeCommonTask.RUNTIME_SOURCES_FOLDER + "/task");
+		assertEquals(expected.getCanonicalPath(), task.getRuntimeSourcesFolder().getCanonicalPath());
+		assertEquals(1, task.getRuntimeSourcesFolders().size());
+	}
+
 }
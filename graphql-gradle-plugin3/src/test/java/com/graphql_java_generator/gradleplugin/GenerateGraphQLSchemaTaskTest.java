@@ -1,6 +1,8 @@
 package com.graphql_java_generator.gradleplugin;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
 
@@ -50,6 +52,7 @@ public class GenerateGraphQLSchemaTaskTest {
 				task.getTargetFolder().getCanonicalPath());
 		assertEquals(GenerateGraphQLSchemaConfiguration.DEFAULT_TARGET_SCHEMA_FILE_NAME,
 				task.getTargetSchemaFileName());
+		assertFalse(task.isStreamingMerge());
 	}
 
 	/**
@@ -64,6 +67,7 @@ public class GenerateGraphQLSchemaTaskTest {
 		extension.setResourceEncoding("UTF 666");
 		extension.setTargetFolder("anotherFolder");
 		extension.setTargetSchemaFileName("a.file.txt");
+		extension.setStreamingMerge(true);
 
 		// Go, go, go
 
@@ -72,6 +76,7 @@ public class GenerateGraphQLSchemaTaskTest {
 		assertEquals(new File(projectDir, "anotherFolder").getCanonicalPath(),
 				task.getTargetFolder().getCanonicalPath());
 		assertEquals("a.file.txt", task.getTargetSchemaFileName());
+		assertTrue(task.isStreamingMerge());
 	}
 
 	/**
@@ -0,0 +1,137 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.graphql_java_generator.gradleplugin.GenerationTarget.Goal;
+import com.graphql_java_generator.gradleplugin.GenerationTarget.TargetSnapshot;
+import com.graphql_java_generator.plugin.conf.GenerateClientCodeConfiguration;
+import com.graphql_java_generator.plugin.conf.GeneratePojoConfiguration;
+import com.graphql_java_generator.plugin.conf.GenerateServerCodeConfiguration;
+import com.graphql_java_generator.plugin.conf.Packaging;
+import com.graphql_java_generator.plugin.conf.PluginMode;
+
+public class GenerateMultiTargetCodeTaskTest {
+
+	static final String PROJECT_NAME = "A Dummy project";
+	File projectDir;
+	Project project;
+	GenerateMultiTargetCodeExtension extension;
+	GenerateMultiTargetCodeTask task;
+
+	@BeforeEach
+	void setup() {
+		projectDir = new File(".");
+		project = ProjectBuilder.builder().withName(PROJECT_NAME).withProjectDir(projectDir).build();
+		extension = new GenerateMultiTargetCodeExtension(project.getLayout(), Packaging.jar, project.getObjects());
+		task = project.getTasks().register("task", GenerateMultiTargetCodeTask.class).get();
+		task.setExtension(extension);
+	}
+
+	/**
+	 * Tests that the targets declared in the extension and in the task are merged, and that each target's
+	 * configuration is the task's one, with the target's values
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	void test_targets() throws IOException {
+		// Preparation
+		extension.setPackageName("org.my.common");
+		extension.setTypeSuffix("Common");
+		extension.targets(targets -> {
+			targets.create("server", t -> t.setGoal(Goal.generateServerCode));
+			targets.create("client", t -> {
+				t.setGoal(Goal.generateClientCode);
+				t.setPackageName("org.my.client");
+				t.setTypeSuffix("Dto");
+				t.setTargetSourceFolder("build/client-src");
+			});
+		});
+		task.targets(targets -> targets.create("pojo", t -> {
+			t.setGoal(Goal.generatePojo);
+			t.setMode(PluginMode.server);
+		}));
+
+		// Go, go, go
+		List<TargetSnapshot> snapshots = task.targetSnapshots();
+		ConfigurationSnapshot taskConfiguration = ConfigurationSnapshot.of(task);
+
+		// Verification
+		assertEquals(Arrays.asList("client", "pojo", "server"),
+				task.getTargets().stream().map(GenerationTarget::getName).collect(Collectors.toList()));
+		assertTrue(task.isInitialized());
+		assertEquals(Arrays.asList(new File(projectDir, "build/client-src").getCanonicalPath(),
+				new File(task.getTargetSourceFolder(), "pojo").getCanonicalPath(),
+				new File(task.getTargetSourceFolder(), "server").getCanonicalPath()),
+				canonicalPaths(task.getTargetSourceFolders()));
+		assertEquals(new File(task.getTargetResourceFolder(), "server").getCanonicalPath(),
+				task.getTargetResourceFolders().get(2).getCanonicalPath());
+
+		GenerateClientCodeConfiguration client = (GenerateClientCodeConfiguration) snapshots.get(0)
+				.toConfiguration(taskConfiguration).toConfiguration();
+		assertFalse(client instanceof GenerateServerCodeConfiguration);
+		assertEquals(PluginMode.client, client.getMode());
+		assertEquals("org.my.client", client.getPackageName());
+		assertEquals("Dto", client.getTypeSuffix());
+		assertTrue(client.isGenerateJacksonAnnotations());
+		assertTrue(client.isGenerateUtilityClasses());
+		assertEquals(GenerateClientCodeSpringConfiguration.class.getName(),
+				snapshots.get(0).springConfigurationClassName);
+
+		GeneratePojoConfiguration pojo = (GeneratePojoConfiguration) snapshots.get(1)
+				.toConfiguration(taskConfiguration).toConfiguration();
+		assertEquals(PluginMode.server, pojo.getMode());
+		assertEquals("org.my.common", pojo.getPackageName());
+		assertFalse(pojo.isGenerateJacksonAnnotations());
+		assertFalse(pojo.isGenerateUtilityClasses());
+		assertEquals(GeneratePojoSpringConfiguration.class.getName(), snapshots.get(1).springConfigurationClassName);
+
+		GenerateServerCodeConfiguration server = (GenerateServerCodeConfiguration) snapshots.get(2)
+				.toConfiguration(taskConfiguration).toConfiguration();
+		assertFalse(server instanceof GenerateClientCodeConfiguration);
+		assertEquals(PluginMode.server, server.getMode());
+		assertEquals("org.my.common", server.getPackageName());
+		assertEquals("Common", server.getTypeSuffix());
+		assertFalse(server.isGenerateJacksonAnnotations());
+		assertEquals(new File(task.getTargetSourceFolder(), "server").getCanonicalPath(),
+				server.getTargetSourceFolder().getCanonicalPath());
+		assertEquals(GenerateServerCodeSpringConfiguration.class.getName(),
+				snapshots.get(2).springConfigurationClassName);
+	}
+
+	/** Tests that the goal of each target is mandatory */
+	@Test
+	void test_targetWithoutGoal() {
+		// Preparation
+		task.targets(targets -> targets.create("noGoal", t -> t.setPackageName("org.my.package")));
+
+		// Go, go, go
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> task.targetSnapshots());
+
+		// Verification
+		assertTrue(e.getMessage().contains("'noGoal'"), e.getMessage());
+	}
+
+	private List<String> canonicalPaths(List<File> files) throws IOException {
+		List<String> ret = new ArrayList<>();
+		for (File file : files) {
+			ret.add(file.getCanonicalPath());
+		}
+		return ret;
+	}
+}
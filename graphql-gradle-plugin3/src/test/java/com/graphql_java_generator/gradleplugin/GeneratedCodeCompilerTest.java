@@ -0,0 +1,127 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GeneratedCodeCompilerTest {
+
+	@TempDir
+	File tempDir;
+
+	@Test
+	void test_compile() throws IOException {
+		// Preparation
+		File sources = new File(tempDir, "source");
+		File runtime = new File(tempDir, "runtime");
+		File classes = new File(tempDir, "classes");
+		write(new File(sources, "org/my/Human.java"),
+				"package org.my;\n\npublic class Human extends org.runtime.Node {\n	Episode episode;\n}\n");
+		write(new File(sources, "org/my/Episode.java"), "package org.my;\n\npublic enum Episode { NEWHOPE, JEDI }\n");
+		write(new File(runtime, "org/runtime/Node.java"), "package org.runtime;\n\npublic class Node {\n}\n");
+
+		// Go, go, go
+		int nb = GeneratedCodeCompiler.compile(sources, runtime, classes, new ArrayList<>(), StandardCharsets.UTF_8,
+				17);
+
+		// Verification
+		assertEquals(2, nb);
+		assertTrue(new File(classes, "org/my/Human.class").isFile());
+		assertTrue(new File(classes, "org/my/Episode.class").isFile());
+		assertFalse(new File(classes, "org/runtime/Node.class").exists(),
+				"The runtime sources are compiled with the project");
+		byte[] content = Files.readAllBytes(new File(classes, "org/my/Human.class").toPath());
+		assertEquals(61, content[7], "The class file is compiled for java 17");
+	}
+
+	@Test
+	void test_compile_error() throws IOException {
+		// Preparation
+		File sources = new File(tempDir, "source");
+		write(new File(sources, "org/my/Human.java"), "package org.my;\n\npublic class Human extends Unknown {\n}\n");
+
+		// Go, go, go
+		RuntimeException e = assertThrows(RuntimeException.class, () -> GeneratedCodeCompiler.compile(sources, null,
+				new File(tempDir, "classes"), new ArrayList<>(), StandardCharsets.UTF_8, null));
+
+		// Verification
+		assertTrue(e.getMessage().contains("Human.java:3"), e.getMessage());
+	}
+
+	@Test
+	void test_compileShards() throws IOException {
+		// Preparation
+		File sources = new File(tempDir, "source");
+		File work = new File(tempDir, "work");
+		GeneratedSourcesSharderTest.writeSources(sources);
+
+		// Go, go, go
+		int nbFirst = compileShards(sources, "classes1", null, work);
+		int nbUnchanged = compileShards(sources, "classes2", "classes1", work);
+		write(new File(sources, "org/my/E.java"), "package org.my;\n\npublic class E {\n	D d;\n	int i;\n}\n");
+		int nbLeafChanged = compileShards(sources, "classes3", "classes2", work);
+		write(new File(sources, "org/my/A.java"), "package org.my;\n\npublic class A {\n	B b;\n	int i;\n}\n");
+		int nbRootChanged = compileShards(sources, "classes4", "classes3", work);
+
+		// Verification
+		assertEquals(6, nbFirst);
+		assertEquals(0, nbUnchanged, "The class files are copied from the previous compilation");
+		assertEquals(1, nbLeafChanged, "Only E is compiled again");
+		assertEquals(3, nbRootChanged, "A, and the classes that depend on it, are compiled again");
+		for (String classFile : Arrays.asList("org/my/A.class", "org/my/B.class", "org/my/C.class", "org/my/D.class",
+				"org/my/E.class", "org/other/F.class")) {
+			assertTrue(new File(tempDir, "classes4/" + classFile).isFile(), classFile);
+		}
+	}
+
+	@Test
+	void test_describeClasspath() throws IOException {
+		// Preparation
+		File jar1 = new File(tempDir, "checkout1/libs/lib.jar");
+		write(jar1, "jar content");
+		File classes1 = new File(tempDir, "checkout1/classes");
+		write(new File(classes1, "org/my/A.class"), "class content");
+		String description1 = GeneratedCodeCompiler.describeClasspath(Arrays.asList(jar1, classes1));
+
+		// Go, go, go
+		// The same classpath in another folder, with other modification times
+		File jar2 = new File(tempDir, "checkout2/libs/lib.jar");
+		write(jar2, "jar content");
+		jar2.setLastModified(jar1.lastModified() - 10000);
+		File classes2 = new File(tempDir, "checkout2/classes");
+		write(new File(classes2, "org/my/A.class"), "class content");
+		String description2 = GeneratedCodeCompiler.describeClasspath(Arrays.asList(jar2, classes2));
+		write(new File(classes2, "org/my/A.class"), "changed class content");
+		String description3 = GeneratedCodeCompiler.describeClasspath(Arrays.asList(jar2, classes2));
+
+		// Verification
+		assertEquals(description1, description2);
+		assertFalse(description1.contains(tempDir.getAbsolutePath()), description1);
+		assertNotEquals(description2, description3);
+	}
+
+	private int compileShards(File sources, String classes, String previousClasses, File work) {
+		return GeneratedCodeCompiler.compileShards(sources, null, new File(tempDir, classes), new ArrayList<>(),
+				StandardCharsets.UTF_8, null, 6,
+				(previousClasses == null) ? new File(tempDir, "none") : new File(tempDir, previousClasses), work,
+				ForkJoinPool.commonPool());
+	}
+
+	private void write(File file, String content) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
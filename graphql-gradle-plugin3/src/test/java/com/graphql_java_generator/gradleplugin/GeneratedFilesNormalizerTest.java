@@ -0,0 +1,154 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GeneratedFilesNormalizerTest {
+
+	@TempDir
+	File tempDir;
+
+	/**
+	 * Simulates the same generation in two project folders, on two machines: the generated files must be
+	 * byte-identical, once normalized
+	 */
+	@Test
+	void test_normalize_twoFolders() throws IOException {
+		// Preparation
+		File project1 = new File(tempDir, "agent1/work/project");
+		File project2 = new File(tempDir, "agent2/other/folder/project");
+		File home1 = new File(tempDir, "agent1");
+		File home2 = new File(tempDir, "agent2");
+		generate(project1, home1, "Mon Jan 01 10:00:00 CET 2024", "2024-01-01T10:00:00", false);
+		generate(project2, home2, "Tue Feb 02 11:11:11 UTC 2025", "2025-02-02T11:11:11Z", true);
+
+		// Go, go, go
+		int nb1 = new GeneratedFilesNormalizer(project1, home1, StandardCharsets.UTF_8)
+				.normalize(Arrays.asList(new File(project1, "staging")), null);
+		int nb2 = new GeneratedFilesNormalizer(project2, home2, StandardCharsets.UTF_8)
+				.normalize(Arrays.asList(new File(project2, "staging")), ForkJoinPool.commonPool());
+
+		// Verification
+		// The java and the properties files changed. The schema has nothing to normalize, and the image is binary
+		assertEquals(2, nb1);
+		assertEquals(2, nb2);
+		for (String path : Arrays.asList("staging/source/org/my/Query.java", "staging/resource/graphql.properties",
+				"staging/resource/META-INF/schema.graphqls", "staging/resource/image.png")) {
+			assertArrayEquals(Files.readAllBytes(new File(project1, path).toPath()),
+					Files.readAllBytes(new File(project2, path).toPath()), path);
+		}
+		assertEquals("/** Generated by the 'QUERY' template (src/templates/query.vm.java), from ~/.m2/x.jar */\n"//
+				+ "package org.my;\n"//
+				+ "\n"//
+				+ "import static org.my.Util.helper;\n"//
+				+ "\n"//
+				+ "import java.util.List;\n"//
+				+ "import java.util.Map;\n"//
+				+ "\n"//
+				+ "@Generated(value = \"graphql-java-generator\")\n"//
+				+ "@GraphQLQuery(name = \"query\", type = \"(a, b)\")\n"//
+				+ "@JsonInclude(Include.NON_NULL)\n"//
+				+ "public class Query {\n"//
+				+ "	/** Read from the . folder */\n"//
+				+ "	String folder = \"build\";\n"//
+				+ "}\n", read(project1, "staging/source/org/my/Query.java"));
+	}
+
+	@Test
+	void test_normalize_javaOnly() throws IOException {
+		// Preparation
+		GeneratedFilesNormalizer normalizer = new GeneratedFilesNormalizer(tempDir, null, StandardCharsets.UTF_8);
+		String content = "import b.B;\nimport a.A;\n@B\n@A\n";
+
+		// Go, go, go
+		String normalizedJava = normalizer.normalize(content, true);
+		String normalizedText = normalizer.normalize(content, false);
+
+		// Verification
+		assertEquals("import a.A;\nimport b.B;\n@A\n@B\n", normalizedJava);
+		assertEquals(content, normalizedText);
+	}
+
+	@Test
+	void test_normalize_otherFolder() throws IOException {
+		// Preparation
+		File projectDir = new File(tempDir, "project");
+		GeneratedFilesNormalizer normalizer = new GeneratedFilesNormalizer(projectDir, null, StandardCharsets.UTF_8);
+		String content = "String other = \"" + projectDir.getAbsolutePath() + "Other/file\";\n";
+
+		// Go, go, go
+		String normalized = normalizer.normalize(content, true);
+
+		// Verification
+		// The project folder is only the beginning of this other folder's name
+		assertEquals(content, normalized);
+	}
+
+	@Test
+	void test_normalize_multiLineAnnotation() throws IOException {
+		// Preparation
+		GeneratedFilesNormalizer normalizer = new GeneratedFilesNormalizer(tempDir, null, StandardCharsets.UTF_8);
+		String content = "\t@Z\n\t@Y(value = \"a\",\n\t\tother = \"b\")\n\t@X\n\tString field;\n";
+
+		// Go, go, go
+		String normalized = normalizer.normalize(content, true);
+
+		// Verification
+		// The annotation on two lines stays where it is
+		assertEquals(content, normalized);
+	}
+
+	/** Writes the files that the generation would write on a machine */
+	private void generate(File projectDir, File userHome, String propertiesDate, String generatedDate,
+			boolean windowsLineSeparators) throws IOException {
+		String eol = windowsLineSeparators ? "\r\n" : "\n";
+		String template = new File(projectDir, "src/templates/query.vm.java").getAbsolutePath();
+		String jar = new File(userHome, ".m2/x.jar").toURI().toString();
+		// The imports and annotations are in a different order in the second project
+		String imports = windowsLineSeparators
+				? "import java.util.Map;" + eol + "import java.util.List;" + eol + eol + "import static org.my.Util.helper;"
+						+ eol + "import java.util.Map;"
+				: "import static org.my.Util.helper;" + eol + eol + "import java.util.List;" + eol
+						+ "import java.util.Map;";
+		String annotations = windowsLineSeparators
+				? "@JsonInclude(Include.NON_NULL)" + eol + "@GraphQLQuery(name = \"query\", type = \"(a, b)\")" + eol
+						+ "@Generated(value = \"graphql-java-generator\", date = \"" + generatedDate + "\")"
+				: "@Generated(date = \"" + generatedDate + "\", value = \"graphql-java-generator\")" + eol
+						+ "@GraphQLQuery(name = \"query\", type = \"(a, b)\")" + eol + "@JsonInclude(Include.NON_NULL)";
+		write(projectDir, "staging/source/org/my/Query.java",
+				"/** Generated by the 'QUERY' template (" + template + "), from " + jar + " */" + eol//
+						+ "package org.my;" + eol//
+						+ eol//
+						+ imports + eol//
+						+ eol//
+						+ annotations + eol//
+						+ "public class Query {" + eol//
+						+ "	/** Read from the " + projectDir.getAbsolutePath() + " folder */" + eol//
+						+ "	String folder = \"" + new File(projectDir, "build").getAbsolutePath() + "\";" + eol//
+						+ "}" + eol);
+		write(projectDir, "staging/resource/graphql.properties",
+				"#Generated properties" + eol + "#" + propertiesDate + eol + "key=value" + eol);
+		write(projectDir, "staging/resource/META-INF/schema.graphqls", "type Query { name: String }\n");
+		write(projectDir, "staging/resource/image.png", "binary content");
+	}
+
+	private void write(File projectDir, String path, String content) throws IOException {
+		File file = new File(projectDir, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String read(File projectDir, String path) throws IOException {
+		return new String(Files.readAllBytes(new File(projectDir, path).toPath()), StandardCharsets.UTF_8);
+	}
+}
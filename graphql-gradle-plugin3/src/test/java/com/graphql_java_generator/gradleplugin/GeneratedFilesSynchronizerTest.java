@@ -0,0 +1,118 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GeneratedFilesSynchronizerTest {
+
+	@TempDir
+	File tempDir;
+
+	Map<String, File> stagingRoots = new HashMap<>();
+	Map<String, File> targetRoots = new HashMap<>();
+
+	@BeforeEach
+	void setup() {
+		stagingRoots.put(GenerationManifest.SOURCE_ROOT, new File(tempDir, "staging/source"));
+		targetRoots.put(GenerationManifest.SOURCE_ROOT, new File(tempDir, "target/java"));
+	}
+
+	@Test
+	void test_synchronize() throws IOException {
+		// Preparation
+		write("staging/source/org/my/Unchanged.java", "class Unchanged {}");
+		write("staging/source/org/my/Changed.java", "class Changed { int i; }");
+		write("staging/source/org/my/New.java", "class New {}");
+		write("target/java/org/my/Unchanged.java", "class Unchanged {}");
+		write("target/java/org/my/Changed.java", "class Changed {}");
+		write("target/java/org/my/Orphan.java", "class Orphan {}");
+		write("target/java/org/my/NotGenerated.java", "class NotGenerated {}");
+		File unchanged = new File(tempDir, "target/java/org/my/Unchanged.java");
+		unchanged.setLastModified(1000000000000L);
+		Map<String, Set<String>> previousOutputs = new HashMap<>();
+		previousOutputs.put(GenerationManifest.SOURCE_ROOT, new TreeSet<>(
+				Arrays.asList("org/my/Unchanged.java", "org/my/Changed.java", "org/my/Orphan.java")));
+
+		// Go, go, go
+		GeneratedFilesSynchronizer synchronizer = GeneratedFilesSynchronizer.synchronize(stagingRoots, targetRoots,
+				previousOutputs);
+
+		// Verification
+		assertEquals(2, synchronizer.getNbWritten());
+		assertEquals(1, synchronizer.getNbSkipped());
+		assertEquals(1, synchronizer.getNbDeleted());
+		assertEquals(1000000000000L, unchanged.lastModified());
+		assertEquals("class Changed { int i; }", read("target/java/org/my/Changed.java"));
+		assertEquals("class New {}", read("target/java/org/my/New.java"));
+		assertFalse(new File(tempDir, "target/java/org/my/Orphan.java").exists());
+		// Only the files of the previous generation are removed
+		assertTrue(new File(tempDir, "target/java/org/my/NotGenerated.java").exists());
+		assertEquals(new TreeSet<>(Arrays.asList("org/my/Changed.java", "org/my/New.java", "org/my/Unchanged.java")),
+				synchronizer.getOutputs().get(GenerationManifest.SOURCE_ROOT));
+	}
+
+	@Test
+	void test_moveRuntimeSources() throws IOException {
+		// Preparation
+		write("staging/source/org/my/Query.java", "class Query {}");
+		write("staging/source/com/graphql_java_generator/client/RequestExecution.java", "class RequestExecution {}");
+		write("staging/source/com/graphql_java_generator/annotation/GraphQLQuery.java", "@interface GraphQLQuery {}");
+		write("staging/source/com/graphql_java_generator/my/generated/Query.java", "class Query {}");
+
+		// Go, go, go
+		int nbMoved = GeneratedFilesSynchronizer.moveRuntimeSources(new File(tempDir, "staging/source"),
+				new File(tempDir, "staging/runtime"), "com.graphql_java_generator.my.generated");
+
+		// Verification
+		assertEquals(2, nbMoved);
+		assertTrue(new File(tempDir, "staging/runtime/com/graphql_java_generator/client/RequestExecution.java")
+				.isFile());
+		assertTrue(new File(tempDir, "staging/runtime/com/graphql_java_generator/annotation/GraphQLQuery.java")
+				.isFile());
+		assertFalse(new File(tempDir, "staging/source/com/graphql_java_generator/client/RequestExecution.java")
+				.exists());
+		// The generated code stays in the source folder, even if its package is in the runtime one
+		assertTrue(new File(tempDir, "staging/source/com/graphql_java_generator/my/generated/Query.java").isFile());
+		assertTrue(new File(tempDir, "staging/source/org/my/Query.java").isFile());
+		// Nothing to move
+		assertEquals(0, GeneratedFilesSynchronizer.moveRuntimeSources(new File(tempDir, "staging/runtime/org"),
+				new File(tempDir, "other"), "org.my"));
+	}
+
+	@Test
+	void test_deleteFolder() throws IOException {
+		// Preparation
+		write("staging/source/org/my/File.java", "class File {}");
+
+		// Go, go, go
+		GeneratedFilesSynchronizer.deleteFolder(new File(tempDir, "staging"));
+
+		// Verification
+		assertFalse(new File(tempDir, "staging").exists());
+	}
+
+	private void write(String path, String content) throws IOException {
+		File file = new File(tempDir, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String read(String path) throws IOException {
+		return new String(Files.readAllBytes(new File(tempDir, path).toPath()), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,84 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.graphql_java_generator.gradleplugin.GeneratedSourcesSharder.Shard;
+
+public class GeneratedSourcesSharderTest {
+
+	@TempDir
+	File tempDir;
+
+	/**
+	 * Writes these classes: A and B reference each other, C references A, D is alone, E references D, and F (in
+	 * another package) imports D
+	 */
+	static List<File> writeSources(File folder) throws IOException {
+		return Arrays.asList(//
+				write(folder, "org/my/A.java", "package org.my;\n\npublic class A {\n	B b;\n}\n"),
+				write(folder, "org/my/B.java", "package org.my;\n\npublic class B {\n	A a;\n}\n"),
+				write(folder, "org/my/C.java", "package org.my;\n\npublic class C {\n	A a;\n}\n"),
+				write(folder, "org/my/D.java", "package org.my;\n\npublic enum D {\n	ONE, TWO\n}\n"),
+				write(folder, "org/my/E.java", "package org.my;\n\npublic class E {\n	D d;\n}\n"),
+				write(folder, "org/other/F.java",
+						"package org.other;\n\nimport org.my.D;\n\npublic class F {\n	D d;\n	String a;\n}\n"));
+	}
+
+	@Test
+	void test_computeShards() throws IOException {
+		// Preparation
+		List<File> sources = writeSources(tempDir);
+
+		// Go, go, go
+		List<Shard> shards = GeneratedSourcesSharder.computeShards(sources, 6, StandardCharsets.UTF_8);
+
+		// Verification
+		assertEquals(5, shards.size(), "A and B depend on each other: they are in the same shard");
+		assertShard(shards.get(0), 0, Arrays.asList("A", "B"), Collections.emptyList());
+		assertShard(shards.get(1), 0, Arrays.asList("D"), Collections.emptyList());
+		assertShard(shards.get(2), 1, Arrays.asList("C"), Arrays.asList(0));
+		assertShard(shards.get(3), 1, Arrays.asList("E"), Arrays.asList(1));
+		assertShard(shards.get(4), 1, Arrays.asList("F"), Arrays.asList(1));
+	}
+
+	@Test
+	void test_computeShards_oneShard() throws IOException {
+		// Preparation
+		List<File> sources = writeSources(tempDir);
+
+		// Go, go, go
+		List<Shard> shards = GeneratedSourcesSharder.computeShards(sources, 1, StandardCharsets.UTF_8);
+
+		// Verification
+		// There is one shard per level
+		assertEquals(2, shards.size());
+		assertShard(shards.get(0), 0, Arrays.asList("A", "B", "D"), Collections.emptyList());
+		assertShard(shards.get(1), 1, Arrays.asList("C", "E", "F"), Arrays.asList(0));
+	}
+
+	private void assertShard(Shard shard, int level, List<String> classes, List<Integer> dependencies) {
+		assertEquals(level, shard.getLevel(), shard.toString());
+		assertEquals(classes, shard.getSources().stream().map(f -> f.getName().replace(".java", ""))
+				.collect(Collectors.toList()), shard.toString());
+		assertEquals(dependencies, shard.getDependencies().stream().collect(Collectors.toList()), shard.toString());
+	}
+
+	private static File write(File folder, String path, String content) throws IOException {
+		File file = new File(folder, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+}
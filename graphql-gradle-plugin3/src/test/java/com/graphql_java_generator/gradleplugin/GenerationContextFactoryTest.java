@@ -0,0 +1,110 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.stereotype.Component;
+
+import com.graphql_java_generator.plugin.conf.CommonConfiguration;
+
+public class GenerationContextFactoryTest {
+
+	/** Same as the plugin's Spring configuration classes, but the scanned components are the ones of this test */
+	@Configuration
+	@ComponentScan(basePackageClasses = { GenerationContextFactoryTest.class }, //
+			excludeFilters = { @Filter(type = FilterType.REGEX, pattern = ".*SpringConfiguration"),
+					@Filter(type = FilterType.REGEX, pattern = ".*\\$TestConfiguration"),
+					@Filter(type = FilterType.REGEX, pattern = ".*\\$Excluded.*") })
+	static class TestConfiguration {
+	}
+
+	@Component
+	static class ScannedParser {
+		@Autowired
+		CommonConfiguration configuration;
+	}
+
+	@Component
+	static class ScannedGenerator {
+		@Autowired
+		ScannedParser parser;
+	}
+
+	@Component
+	static class ExcludedComponent {
+	}
+
+	CommonConfiguration configuration = mock(CommonConfiguration.class);
+
+	@Test
+	void test_scanComponents() {
+		// Go, go, go
+		Class<?>[] components = GenerationContextFactory.scanComponents(TestConfiguration.class);
+
+		// Verification
+		assertEquals(Arrays.asList(ScannedGenerator.class, ScannedParser.class), Arrays.asList(components));
+	}
+
+	@Test
+	void test_createContext() {
+		// Go, go, go
+		try (AnnotationConfigApplicationContext ctx = GenerationContextFactory.createContext(TestConfiguration.class,
+				configuration)) {
+
+			// Verification
+			ScannedGenerator generator = ctx.getBean(ScannedGenerator.class);
+			assertSame(ctx.getBean(ScannedParser.class), generator.parser);
+			assertSame(configuration, generator.parser.configuration);
+		}
+	}
+
+	/**
+	 * Checks that both ways of creating the context provide the same beans. Their creation time is compared by the
+	 * <I>SpringContextBenchmark</I> of the benchmarks project.
+	 */
+	@Test
+	void test_createContext_sameBeansAsComponentScan() {
+		// Preparation
+		Set<String> expectedBeans;
+		try (AnnotationConfigApplicationContext ctx = createScannedContext(TestConfiguration.class, configuration)) {
+			expectedBeans = new TreeSet<>(Arrays.asList(ctx.getBeanDefinitionNames()));
+			// The configuration class is not registered, when the components are cached
+			expectedBeans.remove("generationContextFactoryTest.TestConfiguration");
+		}
+
+		// Go, go, go
+		Set<String> beans;
+		try (AnnotationConfigApplicationContext ctx = GenerationContextFactory.createContext(TestConfiguration.class,
+				configuration)) {
+			beans = new TreeSet<>(Arrays.asList(ctx.getBeanDefinitionNames()));
+		}
+
+		// Verification
+		assertEquals(expectedBeans, beans);
+	}
+
+	/**
+	 * Creates the Spring context by processing the {@link ComponentScan} annotation of the Spring configuration class,
+	 * that is: the way the context was created before the component classes were cached
+	 */
+	static AnnotationConfigApplicationContext createScannedContext(Class<?> springConfigurationClass,
+			CommonConfiguration configuration) {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.getBeanFactory().registerSingleton(GenerationContextFactory.PLUGIN_CONFIGURATION_BEAN_NAME, configuration);
+		ctx.register(springConfigurationClass);
+		ctx.refresh();
+		return ctx;
+	}
+}
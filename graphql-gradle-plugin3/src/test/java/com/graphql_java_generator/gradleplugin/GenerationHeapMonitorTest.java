@@ -0,0 +1,92 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class GenerationHeapMonitorTest {
+
+	@Test
+	void test_parseSize() {
+		assertEquals(1000L, GenerationHeapMonitor.parseSize("1000"));
+		assertEquals(2048L, GenerationHeapMonitor.parseSize("2k"));
+		assertEquals(512L * 1024 * 1024, GenerationHeapMonitor.parseSize("512m"));
+		assertEquals(512L * 1024 * 1024, GenerationHeapMonitor.parseSize(" 512M "));
+		assertEquals(2L * 1024 * 1024 * 1024, GenerationHeapMonitor.parseSize("2g"));
+
+		RuntimeException e = assertThrows(RuntimeException.class, () -> GenerationHeapMonitor.parseSize("512mb"));
+		assertTrue(e.getMessage().contains("maxGenerationHeap"), e.getMessage());
+		assertThrows(RuntimeException.class, () -> GenerationHeapMonitor.parseSize(null));
+	}
+
+	@Test
+	void test_check_underBudget() {
+		// Preparation
+		GenerationMetrics metrics = new GenerationMetrics(":generatePojo");
+		GenerationHeapMonitor monitor = new GenerationHeapMonitor("1000g");
+		metrics.setHeapMonitor(monitor);
+
+		// Go, go, go
+		Integer nbTypes = metrics.measure("parse", () -> 42);
+
+		// Verification
+		assertEquals(42, nbTypes);
+		assertTrue(monitor.getPeakHeapBytes() > 0);
+	}
+
+	@Test
+	void test_check_overBudget() {
+		// Preparation
+		GenerationMetrics metrics = new GenerationMetrics(":generatePojo");
+		metrics.setHeapMonitor(new GenerationHeapMonitor("1k"));
+		metrics.count("types", 42);
+
+		// Go, go, go
+		RuntimeException e = assertThrows(RuntimeException.class, () -> metrics.measure("parse", () -> 42));
+
+		// Verification
+		assertTrue(e.getMessage().startsWith("After the 'parse' phase, the live heap of the generation is "),
+				e.getMessage());
+		assertTrue(e.getMessage().contains("the maxGenerationHeap budget (0 MB) of :generatePojo"), e.getMessage());
+		assertTrue(e.getMessage().contains("\n  parse: "), e.getMessage());
+		assertTrue(e.getMessage().contains("types=42"), e.getMessage());
+		// The phase is stored in the metrics
+		assertTrue(metrics.getWallTimeMs("parse") != null);
+	}
+
+	@Test
+	void test_outOfMemory() {
+		// Preparation
+		GenerationMetrics metrics = new GenerationMetrics(":generatePojo");
+		metrics.setHeapMonitor(new GenerationHeapMonitor("1000g"));
+		OutOfMemoryError error = new OutOfMemoryError("Java heap space");
+
+		// Go, go, go
+		RuntimeException e = assertThrows(RuntimeException.class, () -> metrics.measure("generate", () -> {
+			throw error;
+		}));
+
+		// Verification
+		assertTrue(e.getMessage().startsWith("The generation ran out of memory during the 'generate' phase"),
+				e.getMessage());
+		assertSame(error, e.getCause());
+	}
+
+	@Test
+	void test_outOfMemory_noMonitor() {
+		// Preparation
+		GenerationMetrics metrics = new GenerationMetrics(":generatePojo");
+		OutOfMemoryError error = new OutOfMemoryError("Java heap space");
+
+		// Go, go, go
+		OutOfMemoryError e = assertThrows(OutOfMemoryError.class, () -> metrics.measure("generate", () -> {
+			throw error;
+		}));
+
+		// Verification
+		assertSame(error, e);
+	}
+}
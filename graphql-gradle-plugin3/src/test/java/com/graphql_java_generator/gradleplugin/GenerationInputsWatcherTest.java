@@ -0,0 +1,62 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GenerationInputsWatcherTest {
+
+	@TempDir
+	File tempDir;
+
+	@Test
+	void test_waitForChanges() throws Exception {
+		// Preparation
+		File schemaFolder = new File(tempDir, "graphql");
+		write(new File(schemaFolder, "schema.graphqls"), "type Query { name: String }");
+		File template = new File(tempDir, "templates/object.vm.java");
+		write(template, "template");
+		write(new File(tempDir, "templates/other.vm.java"), "other template");
+
+		try (GenerationInputsWatcher watcher = new GenerationInputsWatcher(Arrays.asList(schemaFolder, template))) {
+			CompletableFuture<Set<Path>> changes = CompletableFuture.supplyAsync(() -> {
+				try {
+					return watcher.waitForChanges(500);
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			});
+
+			// Go, go, go
+			// The change of a file that is not watched is ignored
+			write(new File(tempDir, "templates/other.vm.java"), "other template, changed");
+			write(new File(schemaFolder, "schema.graphqls"), "type Query { name: String, id: ID }");
+			write(new File(schemaFolder, "sub/added.graphqls"), "type Other { id: ID }");
+			write(template, "template, changed");
+
+			// Verification
+			Set<Path> expected = new TreeSet<>();
+			expected.add(new File(schemaFolder, "schema.graphqls").getAbsoluteFile().toPath());
+			expected.add(new File(schemaFolder, "sub/added.graphqls").getAbsoluteFile().toPath());
+			expected.add(template.getAbsoluteFile().toPath());
+			assertEquals(expected, changes.get(30, TimeUnit.SECONDS));
+		}
+	}
+
+	private void write(File file, String content) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
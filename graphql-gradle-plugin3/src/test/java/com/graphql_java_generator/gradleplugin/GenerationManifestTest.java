@@ -0,0 +1,363 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.graphql_java_generator.gradleplugin.GenerationManifest.SchemaEntry;
+import com.graphql_java_generator.gradleplugin.SchemaFilesParser.SchemaSyntaxException;
+
+public class GenerationManifestTest {
+
+	@TempDir
+	File tempDir;
+
+	/** The pattern of the schema files of the tests */
+	private static final String PATTERN = "**/*.graphqls";
+
+	File schemaFolder;
+
+	@BeforeEach
+	void setup() throws IOException {
+		schemaFolder = new File(tempDir, "schema");
+		write("schema/types.graphqls", "type Query { hero: Character }\n# A comment\ntype Character { name: String }");
+		write("schema/sub/enum.graphqls", "enum Episode { NEWHOPE EMPIRE JEDI }");
+	}
+
+	@Test
+	void test_fingerprintSchemas_formattingOnly() throws IOException {
+		// Preparation
+		List<SchemaEntry> before = GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN, null, null, null);
+		write("schema/types.graphqls",
+				"type Query {\n\thero: Character\n}\n\n# A comment\ntype Character {\n\tname: String\n}\n");
+
+		// Go, go, go
+		List<SchemaEntry> after = GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN, null, null, null);
+
+		// Verification
+		assertEquals(3, before.size());
+		assertEquals(before, after);
+		assertTrue(new GenerationManifest(before, null, new HashMap<>()).hasSameSchema(after));
+	}
+
+	@Test
+	void test_fingerprintSchemas_parallel() throws IOException {
+		// Preparation
+		for (int i = 0; i < 20; i += 1) {
+			write("schema/many/type" + i + ".graphqls", "type T" + i + " { id: ID }\ntype U" + i + " { id: ID }");
+		}
+		List<SchemaEntry> sequential = GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN, null, null, null);
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		// Go, go, go
+		List<SchemaEntry> parallel = GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN, null, null, pool);
+
+		// Verification
+		pool.shutdown();
+		assertEquals(43, parallel.size());
+		assertEquals(sequential, parallel);
+	}
+
+	@Test
+	void test_fingerprintSchemas_changedType() throws IOException {
+		// Preparation
+		GenerationManifest previous = new GenerationManifest(
+				GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN, null, null, null), null, new HashMap<>());
+		write("schema/types.graphqls", "type Query { hero: Character }\n# A comment\ntype Character { name: ID }");
+
+		// Go, go, go
+		List<SchemaEntry> after = GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN, null, previous, null);
+
+		// Verification
+		assertFalse(previous.hasSameSchema(after));
+		assertEquals(new TreeSet<>(Arrays.asList("ObjectTypeDefinition:Character")),
+				previous.getChangedDefinitions(after));
+	}
+
+	@Test
+	void test_fingerprintSchemas_changedComment() throws IOException {
+		// Preparation
+		GenerationManifest previous = new GenerationManifest(
+				GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN, null, null, null), null, new HashMap<>());
+		write("schema/types.graphqls",
+				"type Query { hero: Character }\n# Another comment\ntype Character { name: String }");
+
+		// Go, go, go
+		List<SchemaEntry> after = GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN, null, previous, null);
+
+		// Verification
+		assertEquals(new TreeSet<>(Arrays.asList("ObjectTypeDefinition:Character")),
+				previous.getChangedDefinitions(after));
+	}
+
+	@Test
+	void test_fingerprintSchemas_unchangedFile() throws IOException {
+		// Preparation
+		List<SchemaEntry> before = GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN, null, null, null);
+		// The fingerprint of an unchanged file is read from the previous manifest, instead of parsing the file again
+		SchemaEntry enumEntry = before.get(0);
+		assertEquals("sub/enum.graphqls", enumEntry.file);
+		List<SchemaEntry> previousEntries = new ArrayList<>(before);
+		previousEntries.set(0, new SchemaEntry(enumEntry.file, enumEntry.key, "fromManifest", enumEntry.fileHash));
+		File manifestFile = new File(tempDir, "build/manifest/generateClientCode.manifest");
+		new GenerationManifest(previousEntries, null, new HashMap<>()).write(manifestFile);
+		write("schema/types.graphqls", "type Query { hero: Character }\n# A comment\ntype Character { name: ID }");
+
+		// Go, go, go
+		List<SchemaEntry> after = GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN, null,
+				GenerationManifest.read(manifestFile), null);
+
+		// Verification
+		assertEquals("fromManifest", after.get(0).hash);
+		assertEquals(enumEntry.fileHash, after.get(0).fileHash);
+		// The changed file has been parsed again
+		assertEquals(before.get(1), after.get(1));
+		assertNotEquals(before.get(2), after.get(2));
+	}
+
+	@Test
+	void test_fingerprintSchemas_syntaxError() throws IOException {
+		// Preparation
+		write("schema/sub/wrong.graphqls", "type Wrong {\n  id: ID\n  name: String!!\n}");
+
+		// Go, go, go
+		SchemaSyntaxException e = assertThrows(SchemaSyntaxException.class,
+				() -> GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN, null, null, null));
+
+		// Verification
+		assertTrue(e.getMessage().contains("wrong.graphqls (line 3"), e.getMessage());
+	}
+
+	@Test
+	void test_fingerprintSchemas_otherFiles() throws IOException {
+		// Preparation
+		write("schema/sub/wrong.graphqls", "type Wrong {\n  id: ID\n  name: String!!\n}");
+		write("schema/other.txt", "not a GraphQL file {");
+		write("schema/images/logo.png", "an image");
+
+		// Go, go, go
+		List<SchemaEntry> entries = GenerationManifest.fingerprintSchemas(schemaFolder, "*.graphqls", null, null, null);
+
+		// Verification
+		// Only the files that match the pattern are read: the others are no input of the generation
+		assertEquals(2, entries.size());
+		assertEquals("types.graphqls", entries.get(0).file);
+		assertEquals("types.graphqls", entries.get(1).file);
+	}
+
+	@Test
+	void test_fingerprintSchemas_introspection() throws IOException {
+		// Preparation
+		write("schema/introspection.json", "{\"data\": {}}");
+
+		// Go, go, go
+		List<SchemaEntry> entries = GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN,
+				"introspection.json", null, null);
+
+		// Verification
+		// The generation reads only the json file, that is fingerprinted as a whole
+		assertEquals(1, entries.size());
+		assertEquals("introspection.json", entries.get(0).file);
+		assertEquals(GenerationManifest.FILE_KEY, entries.get(0).key);
+	}
+
+	@Test
+	void test_writeRead() throws IOException {
+		// Preparation
+		write("target/java/org/my/Query.java", "class Query {}");
+		write("target/resources/META-INF/file.txt", "content");
+		Map<String, File> roots = new HashMap<>();
+		roots.put(GenerationManifest.SOURCE_ROOT, new File(tempDir, "target/java"));
+		roots.put(GenerationManifest.RESOURCE_ROOT, new File(tempDir, "target/resources"));
+		GenerationManifest manifest = new GenerationManifest(
+				GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN, null, null, null), null,
+				GenerationManifest.hashFiles(roots, GenerationManifest.listFiles(roots), null));
+		File manifestFile = GenerationManifest.getManifestFile(new File(tempDir, "build/manifest"),
+				"generateClientCode");
+
+		// Go, go, go
+		manifest.write(manifestFile);
+		GenerationManifest read = GenerationManifest.read(manifestFile);
+
+		// Verification
+		assertTrue(read.hasSameSchema(manifest.getSchemaEntries()));
+		assertEquals(manifest.getOutputs(), read.getOutputs());
+		// The manifest is not in the output folders
+		assertEquals(manifest.getOutputs(), GenerationManifest.listFiles(roots));
+		assertNull(GenerationManifest.read(new File(tempDir, "doesNotExist")));
+	}
+
+	@Test
+	void test_isUpToDate() throws IOException {
+		// Preparation
+		write("target/java/org/my/Query.java", "class Query {}");
+		write("target/resources/META-INF/file.txt", "content");
+		Map<String, File> roots = new HashMap<>();
+		roots.put(GenerationManifest.SOURCE_ROOT, new File(tempDir, "target/java"));
+		roots.put(GenerationManifest.RESOURCE_ROOT, new File(tempDir, "target/resources"));
+		List<SchemaEntry> schemaEntries = GenerationManifest.fingerprintSchemas(schemaFolder, PATTERN, null, null,
+				null);
+		File manifestFile = GenerationManifest.getManifestFile(new File(tempDir, "build/manifest"),
+				"generateClientCode");
+		new GenerationManifest(schemaEntries, "inputsHash",
+				GenerationManifest.hashFiles(roots, GenerationManifest.listFiles(roots), ForkJoinPool.commonPool()))
+						.write(manifestFile);
+
+		// Go, go, go
+		GenerationManifest manifest = GenerationManifest.read(manifestFile);
+
+		// Verification
+		assertEquals("inputsHash", manifest.getInputsHash());
+		assertTrue(manifest.isUpToDate("inputsHash", schemaEntries, roots));
+		assertFalse(manifest.isUpToDate("otherHash", schemaEntries, roots));
+		assertFalse(manifest.isUpToDate("inputsHash", new ArrayList<>(), roots));
+		// A generated file has been changed
+		write("target/resources/META-INF/file.txt", "changed content");
+		assertFalse(manifest.isUpToDate("inputsHash", schemaEntries, roots));
+		// A generated file has been removed
+		write("target/resources/META-INF/file.txt", "content");
+		assertTrue(manifest.isUpToDate("inputsHash", schemaEntries, roots));
+		new File(tempDir, "target/java/org/my/Query.java").delete();
+		assertFalse(manifest.isUpToDate("inputsHash", schemaEntries, roots));
+		// A manifest without hash is never up to date
+		assertFalse(new GenerationManifest(schemaEntries, null,
+				GenerationManifest.hashFiles(roots, GenerationManifest.listFiles(roots), null))
+						.isUpToDate(null, schemaEntries, roots));
+	}
+
+	@Test
+	void test_isUpToDate_nonIncremental() throws IOException {
+		// Preparation
+		File projectDir = new File(tempDir, "project");
+		write("project/src/graphql/schema.graphqls", "type Query { hero: String }");
+		write("project/templates/object_type.vm.java", "a template");
+		GenerateClientCodeTask task = createTask(projectDir);
+		Map<String, File> roots = GenerationManifest.getOutputRoots(task);
+		write("project/build/generated/sources/graphqlGradlePlugin/org/my/Query.java", "class Query {}");
+		String inputsHash = GenerationManifest.hashInputs(ConfigurationSnapshot.of(task), roots);
+		new GenerationManifest(
+				GenerationManifest.fingerprintSchemas(task.getSchemaFileFolder(), task.getSchemaFilePattern(), null,
+						null, null),
+				inputsHash,
+				GenerationManifest.hashFiles(roots, GenerationManifest.listFiles(roots), ForkJoinPool.commonPool()))
+						.write(task.manifestFile());
+
+		// Go, go, go
+		// A second, non incremental, execution: the previous manifest is read again from the task's local state
+		GenerationManifest previous = GenerationManifest.read(task.manifestFile());
+		List<SchemaEntry> schemaEntries = GenerationManifest.fingerprintSchemas(task.getSchemaFileFolder(),
+				task.getSchemaFilePattern(), null, previous, null);
+
+		// Verification
+		assertTrue(task.manifestFile().toPath().startsWith(new File(projectDir, "build").toPath()));
+		assertFalse(task.manifestFile().toPath().startsWith(task.getTargetSourceFolder().toPath()),
+				"The manifest must not be in the outputs, that Gradle deletes before a non incremental execution");
+		assertTrue(previous.isUpToDate(GenerationManifest.hashInputs(ConfigurationSnapshot.of(task), roots),
+				schemaEntries, roots), "The generation is skipped");
+	}
+
+	@Test
+	void test_isUpToDate_relocatedProject() throws IOException {
+		// Preparation
+		write("project1/src/graphql/schema.graphqls", "type Query { hero: String }");
+		write("project1/templates/object_type.vm.java", "a template");
+		write("project1/build/generated/sources/graphqlGradlePlugin/org/my/Query.java", "class Query {}");
+		GenerateClientCodeTask task1 = createTask(new File(tempDir, "project1"));
+		Map<String, File> roots1 = GenerationManifest.getOutputRoots(task1);
+		new GenerationManifest(
+				GenerationManifest.fingerprintSchemas(task1.getSchemaFileFolder(), task1.getSchemaFilePattern(), null,
+						null, null),
+				GenerationManifest.hashInputs(ConfigurationSnapshot.of(task1), roots1),
+				GenerationManifest.hashFiles(roots1, GenerationManifest.listFiles(roots1), null))
+						.write(task1.manifestFile());
+
+		// Go, go, go
+		// The project is moved to another folder
+		File projectDir2 = new File(tempDir, "project2");
+		Files.move(new File(tempDir, "project1").toPath(), projectDir2.toPath());
+		GenerateClientCodeTask task2 = createTask(projectDir2);
+		Map<String, File> roots2 = GenerationManifest.getOutputRoots(task2);
+
+		// Verification
+		assertTrue(GenerationManifest.read(task2.manifestFile()).isUpToDate(
+				GenerationManifest.hashInputs(ConfigurationSnapshot.of(task2), roots2),
+				GenerationManifest.fingerprintSchemas(task2.getSchemaFileFolder(), task2.getSchemaFilePattern(), null,
+						null, null),
+				roots2));
+	}
+
+	@SuppressWarnings("deprecation")
+	@Test
+	void test_hashInputs() throws IOException {
+		// Preparation
+		Project project = ProjectBuilder.builder().withProjectDir(tempDir).build();
+		GenerateClientCodeTask task = project.getTasks().register("task", GenerateClientCodeTask.class).get();
+		task.setExtension(new GenerateClientCodeExtension(project.getLayout()));
+		Map<String, String> templates = new HashMap<>();
+		templates.put("OBJECT", "templates/object_type.vm.java");
+		task.setTemplates(templates);
+		write("templates/object_type.vm.java", "a template");
+
+		Map<String, File> roots = new HashMap<>();
+		roots.put(GenerationManifest.SOURCE_ROOT, new File(tempDir, "target/java"));
+
+		// Go, go, go
+		String hash1 = GenerationManifest.hashInputs(ConfigurationSnapshot.of(task), roots);
+		String hash2 = GenerationManifest.hashInputs(ConfigurationSnapshot.of(task), roots);
+		write("templates/object_type.vm.java", "an updated template");
+		String hash3 = GenerationManifest.hashInputs(ConfigurationSnapshot.of(task), roots);
+		task.setPackageName("my.other.package");
+		String hash4 = GenerationManifest.hashInputs(ConfigurationSnapshot.of(task), roots);
+		roots.put(GenerationManifest.RUNTIME_ROOT, new File(tempDir, "runtime"));
+		String hash5 = GenerationManifest.hashInputs(ConfigurationSnapshot.of(task), roots);
+		task.setSkipGenerationIfSchemaHasNotChanged(!task.isSkipGenerationIfSchemaHasNotChanged());
+		String hash6 = GenerationManifest.hashInputs(ConfigurationSnapshot.of(task), roots);
+
+		// Verification
+		assertEquals(hash1, hash2);
+		assertNotEquals(hash1, hash3, "The template's content has changed");
+		assertNotEquals(hash3, hash4, "The configuration has changed");
+		assertNotEquals(hash4, hash5, "The output folders have changed");
+		assertEquals(hash5, hash6, "The deprecated skipGenerationIfSchemaHasNotChanged parameter is ignored");
+	}
+
+	private GenerateClientCodeTask createTask(File projectDir) {
+		Project project = ProjectBuilder.builder().withProjectDir(projectDir).build();
+		GenerateClientCodeTask task = project.getTasks().register("generateClientCode", GenerateClientCodeTask.class)
+				.get();
+		task.setExtension(new GenerateClientCodeExtension(project.getLayout()));
+		task.setSchemaFileFolder("src/graphql");
+		task.setPackageName("org.my");
+		Map<String, String> templates = new HashMap<>();
+		templates.put("OBJECT", "templates/object_type.vm.java");
+		task.setTemplates(templates);
+		return task;
+	}
+
+	private void write(String path, String content) throws IOException {
+		File file = new File(tempDir, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,119 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GenerationMetricsTest {
+
+	@TempDir
+	File tempDir;
+
+	@Test
+	void test_measure() throws IOException {
+		// Preparation
+		GenerationMetrics metrics = new GenerationMetrics(":generateServerCode");
+
+		// Go, go, go
+		Integer nbTypes = metrics.measure("parse", () -> 42);
+		metrics.count("types", nbTypes);
+		assertThrows(IOException.class, () -> metrics.measure("generate", () -> {
+			throw new IOException("Error during the generation");
+		}));
+
+		// Verification
+		assertEquals(42, nbTypes);
+		assertNotNull(metrics.getWallTimeMs("parse"));
+		// The phase is stored, even when it fails
+		assertNotNull(metrics.getWallTimeMs("generate"));
+		assertNull(metrics.getWallTimeMs("synchronize"));
+		assertEquals(42L, metrics.getCounters().get("types"));
+	}
+
+	@Test
+	void test_measure_pool() throws Exception {
+		// Preparation
+		GenerationMetrics metrics = new GenerationMetrics(":generateServerCode");
+		ForkJoinPool pool = GenerationMetrics.createPool(4);
+		ForkJoinPool otherPool = new ForkJoinPool(2);
+
+		try {
+			// Go, go, go
+			// The arrays are allocated by the threads of the pool, not by the current thread
+			metrics.measure("normalize", pool, () -> pool.submit(() -> IntStream.range(0, 64).parallel()
+					.mapToObj(i -> new byte[1000000]).collect(Collectors.toList())).get());
+			metrics.measure("synchronize", otherPool, () -> otherPool.submit(() -> 42).get());
+			// A phase executed by a thread of the pool shares it with the other tasks of the pool
+			pool.submit(() -> metrics.measure("target.normalize", pool, () -> 42)).get();
+			metrics.measure("compile", null, () -> 42);
+		} finally {
+			pool.shutdown();
+			otherPool.shutdown();
+		}
+
+		// Verification
+		Map<String, Long> allocatedBytes = metrics.getAllocatedBytesByPhase();
+		assumeTrue(allocatedBytes.get("compile") >= 0, "The JVM can't measure the allocated memory");
+		assertTrue(allocatedBytes.get("normalize") >= 64000000, "normalize: " + allocatedBytes.get("normalize"));
+		// The threads of a pool that has not been created by the GenerationMetrics can't be measured
+		assertEquals(-1L, allocatedBytes.get("synchronize"));
+		assertEquals(-1L, allocatedBytes.get("target.normalize"));
+	}
+
+	@Test
+	void test_add() {
+		// Preparation
+		GenerationMetrics metrics = new GenerationMetrics(":generateMultiTargetCode");
+		metrics.measure("fingerprint", () -> null);
+		GenerationMetrics targetMetrics = new GenerationMetrics(":generateMultiTargetCode");
+		targetMetrics.measure("parse", () -> null);
+		targetMetrics.count("types", 12);
+
+		// Go, go, go
+		metrics.add("server.", targetMetrics);
+
+		// Verification
+		assertNotNull(metrics.getWallTimeMs("fingerprint"));
+		assertNotNull(metrics.getWallTimeMs("server.parse"));
+		assertNull(metrics.getWallTimeMs("parse"));
+		assertEquals(12L, metrics.getCounters().get("server.types"));
+	}
+
+	@Test
+	void test_writeReadSummary() throws IOException {
+		// Preparation
+		GenerationMetrics metrics = new GenerationMetrics(":generateServerCode");
+		metrics.measure("parse", () -> null);
+		metrics.count("types", 12);
+		metrics.count("filesWritten", 3);
+		File reportFile = new File(tempDir, "reports/graphql-generator/generateServerCode.json");
+
+		// Go, go, go
+		metrics.write(reportFile);
+
+		// Verification
+		String json = new String(Files.readAllBytes(reportFile.toPath()), StandardCharsets.UTF_8);
+		assertTrue(json.contains("\"task\": \":generateServerCode\""), json);
+		assertTrue(json.contains("{ \"name\": \"parse\", \"wallTimeMs\": "), json);
+		assertTrue(json.contains("\"allocatedBytes\": "), json);
+		assertTrue(json.contains("\"types\": 12,\n    \"filesWritten\": 3\n"), json);
+		assertEquals(metrics.getSummary(), GenerationMetrics.readSummary(reportFile));
+		assertTrue(metrics.getSummary().matches("parse=\\d+ms, types=12, filesWritten=3"), metrics.getSummary());
+		assertNull(GenerationMetrics.readSummary(new File(tempDir, "doesNotExist.json")));
+	}
+}
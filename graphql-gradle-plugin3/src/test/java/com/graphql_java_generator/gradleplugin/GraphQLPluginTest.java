@@ -1,8 +1,29 @@
 package com.graphql_java_generator.gradleplugin;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.gradle.api.Project;
+import org.gradle.api.file.DuplicatesStrategy;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.Sync;
+import org.gradle.api.tasks.compile.JavaCompile;
+import org.gradle.language.jvm.tasks.ProcessResources;
+import org.gradle.testfixtures.ProjectBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -29,4 +50,88 @@ public class GraphQLPluginTest {
 		assertNotEquals("${graphqlMavenPluginLogicVersion}", version, "version is: '" + version + "'");
 	}
 
+	@Test
+	void test_generatedFolders() {
+		// Preparation
+		Project project = ProjectBuilder.builder().build();
+		project.getPluginManager().apply(GraphQLPlugin.class);
+		GenerateClientCodeTask clientTask = (GenerateClientCodeTask) project.getTasks()
+				.getByName(GraphQLPlugin.GENERATE_CLIENT_CODE_TASK_NAME);
+		GenerateGraphQLSchemaTask schemaTask = (GenerateGraphQLSchemaTask) project.getTasks()
+				.getByName(GraphQLPlugin.MERGE_TASK_NAME);
+		SourceSet main = project.getExtensions().getByType(SourceSetContainer.class)
+				.getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+		Set<File> resourceFolders = main.getResources().getSrcDirs();
+
+		// Go, go, go
+		clientTask.setTargetSourceFolder("build/clientSources");
+		clientTask.setTargetResourceFolder("build/generatedResources");
+		schemaTask.setTargetFolder("build/generatedResources");
+
+		// Verification
+		assertTrue(main.getJava().getSrcDirs().contains(new File(project.getProjectDir(), "build/clientSources")));
+		Set<File> expected = new LinkedHashSet<>(resourceFolders);
+		expected.add(new File(project.getProjectDir(), "build/generatedResources"));
+		assertEquals(expected, main.getResources().getSrcDirs(), "The folder of both tasks is added once");
+		assertEquals(DuplicatesStrategy.EXCLUDE, ((ProcessResources) project.getTasks()
+				.getByName(JavaPlugin.PROCESS_RESOURCES_TASK_NAME)).getDuplicatesStrategy());
+	}
+
+	@Test
+	void test_runtimeSources() {
+		// Preparation
+		Project project = ProjectBuilder.builder().build();
+		project.getPluginManager().apply(GraphQLPlugin.class);
+		GenerateClientCodeTask clientTask = (GenerateClientCodeTask) project.getTasks()
+				.getByName(GraphQLPlugin.GENERATE_CLIENT_CODE_TASK_NAME);
+		GenerateServerCodeTask serverTask = (GenerateServerCodeTask) project.getTasks()
+				.getByName(GraphQLPlugin.GENERATE_SERVER_CODE_TASK_NAME);
+
+		// Go, go, go
+		clientTask.setCopyRuntimeSources(false);
+		clientTask.setAddRuntimeDependency(true);
+		serverTask.setCopyRuntimeSources(true);
+		serverTask.setShareRuntimeSources(true);
+
+		// Verification
+		List<String> dependencies = project.getConfigurations()
+				.getByName(JavaPlugin.IMPLEMENTATION_CONFIGURATION_NAME).getDependencies().stream()
+				.map(d -> d.getGroup() + ":" + d.getName()).collect(Collectors.toList());
+		assertEquals(Arrays.asList(GraphQLPlugin.RUNTIME_GROUP_ID + ":graphql-java-client-runtime"), dependencies);
+		SourceSet main = project.getExtensions().getByType(SourceSetContainer.class)
+				.getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+		assertTrue(main.getJava().getSrcDirs().contains(new File(
+				project.getLayout().getBuildDirectory().getAsFile().get(), GraphQLPlugin.MERGED_RUNTIME_SOURCES_FOLDER)));
+		Sync mergeTask = (Sync) project.getTasks().getByName(GraphQLPlugin.MERGE_RUNTIME_SOURCES_TASK_NAME);
+		assertEquals(Collections.singleton(serverTask), mergeTask.getTaskDependencies().getDependencies(mergeTask));
+	}
+
+	@Test
+	void test_precompiledCode() {
+		// Preparation
+		Project project = ProjectBuilder.builder().build();
+		project.getPluginManager().apply(GraphQLPlugin.class);
+		GeneratePojoTask pojoTask = (GeneratePojoTask) project.getTasks()
+				.getByName(GraphQLPlugin.GENERATE_POJO_TASK_NAME);
+		SourceSet main = project.getExtensions().getByType(SourceSetContainer.class)
+				.getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+		JavaCompile compileJava = (JavaCompile) project.getTasks().getByName(JavaPlugin.COMPILE_JAVA_TASK_NAME);
+
+		// Go, go, go
+		pojoTask.setTargetSourceFolder("build/pojoSources");
+		pojoTask.setPrecompileGeneratedCode(true);
+
+		// Verification
+		File classesFolder = pojoTask.getPrecompiledClassesFolder();
+		assertEquals(new File(project.getLayout().getBuildDirectory().getAsFile().get(),
+				GeneratePojoTask.PRECOMPILED_CLASSES_FOLDER + "/" + GraphQLPlugin.GENERATE_POJO_TASK_NAME),
+				classesFolder);
+		assertFalse(main.getJava().getSrcDirs().contains(new File(project.getProjectDir(), "build/pojoSources")),
+				"The generated sources are not compiled again");
+		assertTrue(compileJava.getClasspath().getFiles().contains(classesFolder));
+		assertTrue(main.getOutput().getDirs().getFiles().contains(classesFolder));
+		assertEquals(Integer.valueOf(project.getExtensions().getByType(JavaPluginExtension.class)
+				.getTargetCompatibility().getMajorVersion()), pojoTask.getRelease().get());
+	}
+
 }
@@ -0,0 +1,84 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GraphQLWatchTaskTest {
+
+	@TempDir
+	File tempDir;
+
+	@Test
+	void test_getChangedSchemaFiles() throws IOException {
+		// Preparation
+		File schemaFolder = new File(tempDir, "src/main/graphql");
+		File personalization = new File(tempDir, "src/main/personalization.json");
+		File template = new File(tempDir, "src/templates/object.vm.java");
+		Path schema = new File(schemaFolder, "sub/schema.graphqls").toPath();
+		Path notSchema = new File(schemaFolder, "sub/notes.txt").toPath();
+		Path deleted = new File(schemaFolder, "deleted.graphqls").toPath();
+		Path other = new File(tempDir, "src/main/other.graphqls").toPath();
+		for (Path path : Arrays.asList(schema, notSchema, other)) {
+			Files.createDirectories(path.getParent());
+			Files.write(path, "type Query { id: ID }".getBytes(StandardCharsets.UTF_8));
+		}
+		List<File> otherInputs = Arrays.asList(personalization, template);
+
+		// Go, go, go
+		List<String> schemaChanges = GraphQLWatchTask.getChangedSchemaFiles(schemaFolder, "**/*.graphqls",
+				otherInputs, set(schema, notSchema, deleted, other));
+		List<String> templateChanges = GraphQLWatchTask.getChangedSchemaFiles(schemaFolder, "**/*.graphqls",
+				otherInputs, set(schema, template.toPath()));
+		List<String> otherChanges = GraphQLWatchTask.getChangedSchemaFiles(schemaFolder, "**/*.graphqls",
+				otherInputs, set(other, notSchema));
+
+		// Verification
+		// A deleted file may have been a schema file
+		assertEquals(new TreeSet<>(Arrays.asList("sub/schema.graphqls", "deleted.graphqls")),
+				new TreeSet<>(schemaChanges));
+		assertNull(templateChanges, "A template change needs a full generation");
+		assertEquals(Collections.emptyList(), otherChanges, "The task is not concerned by these changes");
+	}
+
+	@Test
+	void test_codeTasks() {
+		// Preparation
+		Project project = ProjectBuilder.builder().build();
+		project.getPluginManager().apply(GraphQLPlugin.class);
+		GenerateClientCodeTask clientTask = (GenerateClientCodeTask) project.getTasks()
+				.getByName(GraphQLPlugin.GENERATE_CLIENT_CODE_TASK_NAME);
+		GraphQLWatchTask watchTask = (GraphQLWatchTask) project.getTasks().getByName(GraphQLPlugin.WATCH_TASK_NAME);
+
+		// Go, go, go
+		clientTask.setPackageName("my.package");
+
+		// Verification
+		// Only the tasks configured in the build script are watched
+		assertEquals(Arrays.asList(clientTask), watchTask.getCodeTasks().get());
+		assertEquals(GraphQLWatchTask.DEFAULT_QUIET_PERIOD, watchTask.getQuietPeriod().get());
+	}
+
+	private Set<Path> set(Path... paths) {
+		Set<Path> ret = new TreeSet<>();
+		for (Path path : paths) {
+			ret.add(path.toAbsolutePath().normalize());
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,177 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import graphql.GraphQL;
+import graphql.introspection.IntrospectionQuery;
+import graphql.introspection.IntrospectionResultToSchema;
+import graphql.language.AstPrinter;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.SchemaPrinter;
+import graphql.schema.idl.UnExecutableSchemaGenerator;
+
+public class IntrospectionSchemaReaderTest {
+
+	static final String SCHEMA = "" //
+			+ "schema { query: MyQuery mutation: MyMutation }\n" //
+			+ "\"The query\"\n" //
+			+ "type MyQuery {\n" //
+			+ "  \"A field\"\n" //
+			+ "  hero(episode: Episode = JEDI, name: String = \"Luke\", limit: Float = 1.5): [Character!]\n" //
+			+ "  old: String @deprecated(reason: \"Not used\")\n" //
+			+ "}\n" //
+			+ "type MyMutation { createHuman(input: HumanInput!): Human }\n" //
+			+ "interface Character { name: String }\n" //
+			+ "type Human implements Character { name: String birthDate: Date }\n" //
+			+ "input HumanInput { name: String = \"Anonymous\" }\n" //
+			+ "enum Episode { NEWHOPE EMPIRE JEDI }\n" //
+			+ "union SearchResult = Human\n" //
+			+ "scalar Date\n" //
+			+ "directive @cached(ttl: Int = 60) on FIELD_DEFINITION\n";
+
+	@TempDir
+	File tempDir;
+
+	Map<String, Object> introspectionResult;
+
+	@BeforeEach
+	void setup() {
+		GraphQLSchema schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(new SchemaParser().parse(SCHEMA));
+		introspectionResult = GraphQL.newGraphQL(schema).build().execute(IntrospectionQuery.INTROSPECTION_QUERY)
+				.getData();
+	}
+
+	@Test
+	void test_convert() throws IOException {
+		// Preparation
+		File jsonFile = writeJson("schema.json", introspectionResult);
+		File schemaFile = new File(tempDir, "schema.graphqls");
+
+		// Go, go, go
+		int nbDefinitions = IntrospectionSchemaReader.convert(jsonFile, schemaFile);
+
+		// Verification
+		// 8 types, 1 directive and the schema definition
+		assertEquals(10, nbDefinitions);
+		// The schema is the same as the one converted from the whole json tree
+		String expected = AstPrinter
+				.printAst(new IntrospectionResultToSchema().createSchemaDefinition(introspectionResult));
+		assertEquals(print(expected), print(new String(Files.readAllBytes(schemaFile.toPath()),
+				StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	void test_convert_graphqlResponse() throws IOException {
+		// Preparation
+		File jsonFile = writeJson("response.json", Collections.singletonMap("data", introspectionResult));
+		File schemaFile = new File(tempDir, "schema.graphqls");
+
+		// Go, go, go
+		IntrospectionSchemaReader.convert(jsonFile, schemaFile);
+
+		// Verification
+		String sdl = new String(Files.readAllBytes(schemaFile.toPath()), StandardCharsets.UTF_8);
+		assertTrue(sdl.contains("query: MyQuery"), sdl);
+		assertTrue(sdl.contains("mutation: MyMutation"), sdl);
+	}
+
+	@Test
+	void test_convert_notAnIntrospectionResult() throws IOException {
+		// Preparation
+		File jsonFile = writeJson("other.json", Collections.singletonMap("data", Collections.emptyMap()));
+
+		// Go, go, go
+		IOException e = assertThrows(IOException.class,
+				() -> IntrospectionSchemaReader.convert(jsonFile, new File(tempDir, "schema.graphqls")));
+
+		// Verification
+		assertTrue(e.getMessage().contains("'__schema'"), e.getMessage());
+	}
+
+	@Test
+	void test_toSchemaFileConfiguration() throws IOException {
+		// Preparation
+		writeJson("schema/schema.json", introspectionResult);
+		Project project = ProjectBuilder.builder().withName("A Dummy project").withProjectDir(tempDir).build();
+		GenerateClientCodeTask task = project.getTasks().register("task", GenerateClientCodeTask.class).get();
+		task.setExtension(new GenerateClientCodeExtension(project.getLayout()));
+		task.setSchemaFileFolder("schema");
+		task.setJsonGraphqlSchemaFilename("schema.json");
+		ConfigurationSnapshot configuration = ConfigurationSnapshot.of(task);
+		File folder = new File(tempDir, "introspection");
+		GenerationMetrics metrics = new GenerationMetrics(":test");
+
+		// Go, go, go
+		ConfigurationSnapshot converted = IntrospectionSchemaReader.toSchemaFileConfiguration(configuration, folder,
+				metrics);
+
+		// Verification
+		assertEquals("", converted.getValue("getJsonGraphqlSchemaFilename"));
+		assertEquals(folder, converted.getValue("getSchemaFileFolder"));
+		assertEquals(IntrospectionSchemaReader.SCHEMA_FILE_NAME, converted.getValue("getSchemaFilePattern"));
+		assertTrue(new File(folder, IntrospectionSchemaReader.SCHEMA_FILE_NAME).isFile());
+		assertEquals(10L, metrics.getCounters().get("introspectionDefinitions"));
+		// Without json file, the configuration is not changed
+		ConfigurationSnapshot noJson = configuration.withValue("getJsonGraphqlSchemaFilename", "");
+		assertSame(noJson, IntrospectionSchemaReader.toSchemaFileConfiguration(noJson, folder, metrics));
+	}
+
+	private String print(String sdl) {
+		return new SchemaPrinter()
+				.print(UnExecutableSchemaGenerator.makeUnExecutableSchema(new SchemaParser().parse(sdl)));
+	}
+
+	private File writeJson(String path, Object value) throws IOException {
+		File file = new File(tempDir, path);
+		file.getParentFile().mkdirs();
+		try (JsonGenerator generator = new JsonFactory().createGenerator(file, JsonEncoding.UTF8)) {
+			writeValue(generator, value);
+		}
+		return file;
+	}
+
+	private void writeValue(JsonGenerator generator, Object value) throws IOException {
+		if (value instanceof Map) {
+			generator.writeStartObject();
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				generator.writeFieldName((String) entry.getKey());
+				writeValue(generator, entry.getValue());
+			}
+			generator.writeEndObject();
+		} else if (value instanceof List) {
+			generator.writeStartArray();
+			for (Object item : (List<?>) value) {
+				writeValue(generator, item);
+			}
+			generator.writeEndArray();
+		} else if (value instanceof Boolean) {
+			generator.writeBoolean((Boolean) value);
+		} else if (value == null) {
+			generator.writeNull();
+		} else {
+			generator.writeString(value.toString());
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.graphql_java_generator.gradleplugin.SchemaFilesParser.SchemaSyntaxException;
+
+import graphql.language.Document;
+import graphql.language.ObjectTypeExtensionDefinition;
+
+public class SchemaFilesParserTest {
+
+	@TempDir
+	File tempDir;
+
+	File schemaFolder;
+
+	@BeforeEach
+	void setup() throws IOException {
+		schemaFolder = new File(tempDir, "schema");
+		write("schema/query.graphqls", "type Query { hero: Character }");
+		write("schema/character.graphqls", "type Character { name: String }");
+		write("schema/sub/extension.graphqls", "extend type Character { age: Int }");
+		write("schema/empty.graphqls", "# Only a comment\n\n");
+		write("schema/readme.txt", "Not a schema file");
+	}
+
+	@Test
+	void test_listSchemaFiles() {
+		// Go, go, go
+		List<String> rootFiles = listSchemaFiles("*.graphqls");
+		List<String> allFiles = listSchemaFiles("**/*.graphqls");
+
+		// Verification
+		assertEquals("[character.graphqls, empty.graphqls, query.graphqls]", rootFiles.toString());
+		assertEquals("[character.graphqls, empty.graphqls, query.graphqls, sub/extension.graphqls]",
+				allFiles.toString());
+		// As in the plugin logic, a leading '/' is relative to the schema folder
+		assertEquals(rootFiles, listSchemaFiles("/*.graphqls"));
+		assertEquals("[sub/extension.graphqls]", listSchemaFiles("/sub/extension.graphqls").toString());
+		assertEquals(0, listSchemaFiles("doesNotExist.graphqls").size());
+		assertEquals(0, SchemaFilesParser.listSchemaFiles(new File(tempDir, "doesNotExist"), "*.graphqls").size());
+	}
+
+	@Test
+	void test_listSchemaFiles_classpath() {
+		// Go, go, go
+		List<Path> files = SchemaFilesParser.listSchemaFiles(schemaFolder, "classpath:functionalTest/*.graphqls");
+
+		// Verification
+		// The schema folder is not used for a classpath pattern
+		assertEquals(1, files.size());
+		assertEquals("basic.graphqls", files.get(0).getFileName().toString());
+	}
+
+	@Test
+	void test_parseFile() throws IOException {
+		// Preparation
+		Path path = new File(schemaFolder, "sub/extension.graphqls").toPath();
+
+		// Go, go, go
+		Document document = SchemaFilesParser.parseFile("sub/extension.graphqls", path, Files.readAllBytes(path));
+
+		// Verification
+		// The type extension is kept as is
+		assertEquals(1, document.getDefinitions().size());
+		assertTrue(document.getDefinitions().get(0) instanceof ObjectTypeExtensionDefinition);
+		assertEquals("sub/extension.graphqls",
+				document.getDefinitions().get(0).getSourceLocation().getSourceName());
+		// The empty file contains no definition
+		Path empty = new File(schemaFolder, "empty.graphqls").toPath();
+		assertEquals(0, SchemaFilesParser.parseFile("empty.graphqls", empty, Files.readAllBytes(empty))
+				.getDefinitions().size());
+	}
+
+	@Test
+	void test_parseFile_syntaxError() throws IOException {
+		// Preparation
+		write("schema/sub/wrong.graphqls", "type Wrong {\n  id: ID\n  name: String!!\n}");
+		Path path = new File(schemaFolder, "sub/wrong.graphqls").toPath();
+
+		// Go, go, go
+		SchemaSyntaxException e = assertThrows(SchemaSyntaxException.class,
+				() -> SchemaFilesParser.parseFile("sub/wrong.graphqls", path, Files.readAllBytes(path)));
+
+		// Verification
+		assertTrue(e.getMessage().contains("wrong.graphqls (line 3, column"), e.getMessage());
+	}
+
+	private List<String> listSchemaFiles(String schemaFilePattern) {
+		return SchemaFilesParser.listSchemaFiles(schemaFolder, schemaFilePattern).stream()
+				.map(p -> GenerationManifest.toRelativePath(schemaFolder, p)).collect(Collectors.toList());
+	}
+
+	private void write(String path, String content) throws IOException {
+		File file = new File(tempDir, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
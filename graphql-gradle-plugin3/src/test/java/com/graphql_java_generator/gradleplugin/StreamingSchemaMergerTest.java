@@ -0,0 +1,158 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.graphql_java_generator.gradleplugin.SchemaFilesParser.SchemaSyntaxException;
+
+import graphql.language.Document;
+import graphql.language.ObjectTypeExtensionDefinition;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.SchemaPrinter;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import graphql.schema.idl.UnExecutableSchemaGenerator;
+
+public class StreamingSchemaMergerTest {
+
+	@TempDir
+	File tempDir;
+
+	File schemaFolder;
+	File targetFile;
+
+	@BeforeEach
+	void setup() throws IOException {
+		schemaFolder = new File(tempDir, "schema");
+		targetFile = new File(tempDir, "target/merged.graphqls");
+		write("schema/a_query.graphqls", "" //
+				+ "# A comment, with a brace: {\n" //
+				+ "schema { query: Query }\n" //
+				+ "\"The query, with a keyword in its description: type\"\n" //
+				+ "type Query {\n" //
+				+ "  \"\"\"A block string, with \" and { type interface \"\"\"\n" //
+				+ "  hero(episode: Episode = JEDI, name: String = \"}\"): Character\n" //
+				+ "  search: SearchResult @deprecated(reason: \"type union\")\n" //
+				+ "}\n" //
+				+ "union SearchResult = Human | Droid\n" //
+				+ "enum Episode { NEWHOPE EMPIRE JEDI }");
+		write("schema/b_types.graphqls", "" //
+				+ "interface Character { name: String }\n" //
+				+ "type Human implements Character { name: String }\n" //
+				+ "type Droid implements Character @key(fields: \"name\") { name: String }\n" //
+				+ "directive @key(fields: String) repeatable on OBJECT\n" //
+				+ "scalar Date");
+		write("schema/c_extensions.graphqls", "" //
+				+ "extend type Human { birthDate: Date }\n" //
+				+ "extend union SearchResult = Starship\n" //
+				+ "type Starship { name: String }\n" //
+				+ "extend enum Episode { FORCE_AWAKENS }\n" //
+				+ "extend type Query { starships: [Starship] }");
+	}
+
+	@Test
+	void test_merge() throws IOException {
+		// Go, go, go
+		int nbDefinitions = new StreamingSchemaMerger(schemaFolder, "*.graphqls").merge(targetFile,
+				StandardCharsets.UTF_8);
+
+		// Verification
+		String merged = new String(Files.readAllBytes(targetFile.toPath()), StandardCharsets.UTF_8);
+		Document document = new Parser().parseDocument(merged);
+		assertEquals(10, nbDefinitions);
+		assertEquals(10, document.getDefinitions().size());
+		assertTrue(document.getDefinitions().stream().noneMatch(d -> d instanceof ObjectTypeExtensionDefinition));
+		// The merged schema is the same as the one built from the source files
+		assertEquals(print(sourceRegistry()), print(new SchemaParser().parse(merged)));
+	}
+
+	@Test
+	void test_merge_undefinedType() throws IOException {
+		// Preparation
+		write("schema/d_other.graphqls", "extend type Undefined { id: ID }");
+
+		// Go, go, go
+		int nbDefinitions = new StreamingSchemaMerger(schemaFolder, "*.graphqls").merge(targetFile,
+				StandardCharsets.UTF_8);
+
+		// Verification
+		String merged = new String(Files.readAllBytes(targetFile.toPath()), StandardCharsets.UTF_8);
+		assertEquals(11, nbDefinitions);
+		assertTrue(merged.trim().endsWith("extend type Undefined {\n  id: ID\n}"), merged);
+	}
+
+	@Test
+	void test_merge_syntaxError() throws IOException {
+		// Preparation
+		write("schema/d_wrong.graphqls", "type A { id: ID }\n\n# A comment\ntype B {\n  id: ID\n  name: String!!\n}");
+
+		// Go, go, go
+		SchemaSyntaxException e = assertThrows(SchemaSyntaxException.class,
+				() -> new StreamingSchemaMerger(schemaFolder, "*.graphqls").merge(targetFile,
+						StandardCharsets.UTF_8));
+
+		// Verification
+		assertTrue(e.getMessage().contains("d_wrong.graphqls (line 6, column"), e.getMessage());
+	}
+
+	@Test
+	void test_readDefinitions() throws IOException {
+		// Preparation
+		List<String> definitions = new ArrayList<>();
+
+		// Go, go, go
+		StreamingSchemaMerger.readDefinitions(new File(schemaFolder, "a_query.graphqls").toPath(),
+				(keyword, startLine, text) -> definitions.add(keyword + "@" + startLine));
+
+		// Verification
+		assertEquals("[schema@2, type@3, union@9, enum@10]", definitions.toString());
+	}
+
+	@Test
+	void test_readDefinitions_escapedBlockString() throws IOException {
+		// Preparation
+		write("other/escaped.graphqls",
+				"\"\"\"An escaped \\\"\"\" and a brace: {\"\"\"\ntype A { id: ID }\ntype B { id: ID }");
+		List<String> definitions = new ArrayList<>();
+
+		// Go, go, go
+		StreamingSchemaMerger.readDefinitions(new File(tempDir, "other/escaped.graphqls").toPath(),
+				(keyword, startLine, text) -> definitions.add(keyword + "@" + startLine));
+
+		// Verification
+		assertEquals("[type@1, type@3]", definitions.toString());
+	}
+
+	private TypeDefinitionRegistry sourceRegistry() throws IOException {
+		TypeDefinitionRegistry registry = new TypeDefinitionRegistry();
+		for (File file : new File[] { new File(schemaFolder, "a_query.graphqls"),
+				new File(schemaFolder, "b_types.graphqls"), new File(schemaFolder, "c_extensions.graphqls") }) {
+			registry.merge(new SchemaParser().parse(file));
+		}
+		return registry;
+	}
+
+	private String print(TypeDefinitionRegistry registry) {
+		GraphQLSchema schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registry);
+		return new SchemaPrinter().print(schema);
+	}
+
+	private void write(String path, String content) throws IOException {
+		File file = new File(tempDir, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
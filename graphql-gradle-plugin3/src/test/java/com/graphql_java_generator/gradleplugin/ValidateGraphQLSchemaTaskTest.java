@@ -0,0 +1,125 @@
+package com.graphql_java_generator.gradleplugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ValidateGraphQLSchemaTaskTest {
+
+	@TempDir
+	File tempDir;
+
+	@Test
+	void test_schemas() throws IOException {
+		// Preparation
+		File projectDir = new File(tempDir, "project");
+		File schemaFolder = new File(projectDir, "src/graphql");
+		schemaFolder.mkdirs();
+		File schema1 = write(new File(schemaFolder, "schema1.graphqls"), "type Query { a: Int }");
+		File schema2 = write(new File(schemaFolder, "schema2.graphqls"), "type Other { b: Int }");
+		write(new File(schemaFolder, "readme.txt"), "Not a schema");
+		File personalization = write(new File(projectDir, "personalization.json"), "{}");
+		Project project = ProjectBuilder.builder().withProjectDir(projectDir).build();
+		project.getPluginManager().apply(GraphQLPlugin.class);
+		GeneratePojoTask pojoTask = (GeneratePojoTask) project.getTasks()
+				.getByName(GraphQLPlugin.GENERATE_POJO_TASK_NAME);
+		ValidateGraphQLSchemaTask validateTask = (ValidateGraphQLSchemaTask) project.getTasks()
+				.getByName(GraphQLPlugin.VALIDATE_TASK_NAME);
+
+		// Go, go, go
+		pojoTask.setSchemaFileFolder("src/graphql");
+		pojoTask.setSchemaPersonalizationFile("personalization.json");
+
+		// Verification
+		// Only the tasks configured in the build script are validated
+		assertEquals(1, validateTask.getSchemas().get().size());
+		assertEquals(":generatePojo", validateTask.getSchemas().get().get(0).taskPath);
+		assertEquals(GeneratePojoSpringConfiguration.class.getName(),
+				validateTask.getSchemas().get().get(0).springConfigurationClassName);
+		assertEquals(new HashSet<>(Arrays.asList(schema1, schema2, personalization)),
+				validateTask.getSchemaFiles().getFiles());
+		// The project folder is not in the configuration, so that the task can be restored from the build cache in
+		// another folder
+		List<String> configurations = validateTask.getConfigurations();
+		assertEquals(1, configurations.size());
+		assertFalse(configurations.get(0).contains(projectDir.getAbsolutePath()), configurations.get(0));
+		assertTrue(configurations.get(0).contains("getSchemaFileFolder=${baseDir}/src/graphql\n"), configurations.get(0));
+		assertTrue(configurations.get(0).startsWith(":generatePojo\n"), configurations.get(0));
+		// The validation doesn't generate the code
+		assertFalse(validateTask.getTaskDependencies().getDependencies(validateTask).contains(pojoTask));
+	}
+
+	@Test
+	void test_writeReport() throws IOException {
+		// Preparation
+		GenerationMetrics validMetrics = new GenerationMetrics(":generatePojo");
+		validMetrics.count("types", 42);
+		File validResult = new File(tempDir, "valid.json");
+		ValidateGraphQLSchemaWorkAction.writeResult(validResult, ":generatePojo", null, validMetrics);
+		File invalidResult = new File(tempDir, "invalid.json");
+		ValidateGraphQLSchemaWorkAction.writeResult(invalidResult, ":generateServerCode",
+				ValidateGraphQLSchemaWorkAction.getMessage(new RuntimeException("Could not parse the schema",
+						new RuntimeException("Unknown type \"Foo\"\nin schema.graphqls"))),
+				new GenerationMetrics(":generateServerCode"));
+		File report = new File(tempDir, "reports/validateGraphQLSchema.json");
+
+		// Go, go, go
+		ValidateGraphQLSchemaTask.writeReport(report, false, Arrays.asList(read(validResult), read(invalidResult)));
+
+		// Verification
+		assertEquals("{\n"//
+				+ "  \"valid\": false,\n"//
+				+ "  \"tasks\": [\n"//
+				+ "    {\n"//
+				+ "      \"task\": \":generatePojo\",\n"//
+				+ "      \"valid\": true,\n"//
+				+ "      \"types\": 42,\n"//
+				+ "      \"parseTimeMs\": null,\n"//
+				+ "      \"error\": null\n"//
+				+ "    },\n"//
+				+ "    {\n"//
+				+ "      \"task\": \":generateServerCode\",\n"//
+				+ "      \"valid\": false,\n"//
+				+ "      \"types\": null,\n"//
+				+ "      \"parseTimeMs\": null,\n"//
+				+ "      \"error\": \"Could not parse the schema - caused by: "//
+				+ "Unknown type \\\"Foo\\\"\\nin schema.graphqls\"\n"//
+				+ "    }\n"//
+				+ "  ]\n"//
+				+ "}\n", read(report));
+	}
+
+	@Test
+	void test_writeReport_noTask() throws IOException {
+		// Preparation
+		File report = new File(tempDir, "validateGraphQLSchema.json");
+
+		// Go, go, go
+		ValidateGraphQLSchemaTask.writeReport(report, true, Arrays.asList());
+
+		// Verification
+		assertEquals("{\n  \"valid\": true,\n  \"tasks\": []\n}\n", read(report));
+	}
+
+	private File write(File file, String content) throws IOException {
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private String read(File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+}